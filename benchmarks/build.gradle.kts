@@ -0,0 +1,39 @@
+plugins {
+    id("java")
+    id("me.champeau.jmh") version "0.7.2"
+}
+
+group = "org.intellij.sdk"
+version = "0.1.0"
+
+repositories {
+    mavenCentral()
+}
+
+java {
+    sourceCompatibility = JavaVersion.VERSION_17
+}
+
+dependencies {
+    jmhImplementation(project(":core"))
+}
+
+// ./gradlew :benchmarks:jmh -Pjmh.includes=ParseLog -Pjmh.logSizeMB=1,64
+jmh {
+    jmhVersion = "1.37"
+    benchmarkMode = listOf("thrpt")
+    timeUnit = "s"
+    fork = 1
+    warmupIterations = 3
+    iterations = 5
+    profilers = listOf("gc")
+    resultFormat = "JSON"
+
+    findProperty("jmh.includes")?.let {
+        includes = it.toString().split(",")
+    }
+
+    findProperty("jmh.logSizeMB")?.let {
+        benchmarkParameters.put("logSizeMB", objects.listProperty<String>().value(it.toString().split(",")))
+    }
+}
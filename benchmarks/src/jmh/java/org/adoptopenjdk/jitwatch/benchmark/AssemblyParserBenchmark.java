@@ -0,0 +1,65 @@
+package org.adoptopenjdk.jitwatch.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.adoptopenjdk.jitwatch.model.assembly.Architecture;
+import org.adoptopenjdk.jitwatch.model.assembly.AssemblyLabels;
+import org.adoptopenjdk.jitwatch.model.assembly.x86.AssemblyParserX86;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+@State(Scope.Benchmark)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class AssemblyParserBenchmark
+{
+	private static final String[] ATT_LINES = new String[] {
+			"  0x00007f2d1d1a5a60: mov    %eax,-0x14000(%rsp)",
+			"  0x00007f2d1d1a5a67: push   %rbp",
+			"  0x00007f2d1d1a5a68: sub    $0x30,%rsp         ;*aload_0 {reexecute=0 rethrow=0 return_oop=0}",
+			"  0x00007f2d1d1a5a6c: movabs $0x7f2d3c4d5e6f,%rsi  ;   {metadata(method data for {method} {0x00007f2d3c4d5e6f} &apos;bar&apos; &apos;()V&apos; in &apos;Foo&apos;)}",
+			"  0x00007f2d1d1a5a76: lock cmpxchg %rsi,(%rdx)",
+			"  0x00007f2d1d1a5a7b: data16 nopw 0x0(%rax,%rax,1)",
+			"  0x00007f2d1d1a5a8c: callq  0x00007f2d1d0c4f20  ; ImmutableOopMap{rbp=Oop }",
+			"  0x00007f2d1d1a5a91: jmpq   *%r10",
+			"  0x00007f2d1d1a5a94: vmovdqu 0x10(%rsi,%rcx,2),%ymm0",
+			"  0x00007f2d1d1a5a9a: hlt    " };
+
+	private static final String[] INTEL_LINES = new String[] {
+			"  0x00007f2d1d1a5a9b: mov    DWORD PTR [rsp-0x14000],eax",
+			"  0x00007f2d1d1a5aa2: mov    rax,QWORD PTR [rsi+0x10]",
+			"  0x00007f2d1d1a5aa6: nop" };
+
+	private AssemblyParserX86 parser;
+
+	@Setup
+	public void setup()
+	{
+		parser = new AssemblyParserX86(Architecture.X86_64);
+	}
+
+	@Benchmark
+	public void attSyntax(Blackhole blackhole)
+	{
+		parseLines(ATT_LINES, blackhole);
+	}
+
+	@Benchmark
+	public void intelSyntax(Blackhole blackhole)
+	{
+		parseLines(INTEL_LINES, blackhole);
+	}
+
+	private void parseLines(String[] lines, Blackhole blackhole)
+	{
+		AssemblyLabels labels = new AssemblyLabels();
+
+		for (String line : lines)
+		{
+			blackhole.consume(parser.createInstruction(labels, line));
+		}
+	}
+}
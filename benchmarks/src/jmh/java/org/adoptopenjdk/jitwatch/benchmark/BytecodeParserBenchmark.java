@@ -0,0 +1,59 @@
+package org.adoptopenjdk.jitwatch.benchmark;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.adoptopenjdk.jitwatch.loader.BytecodeLoader;
+import org.adoptopenjdk.jitwatch.model.bytecode.BytecodeInstruction;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Parses javap -c method bodies from src/jmh/resources/bytecode.
+ */
+@State(Scope.Benchmark)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class BytecodeParserBenchmark
+{
+	private String putValBytecode;
+
+	private String switchBytecode;
+
+	@Setup
+	public void setup() throws IOException
+	{
+		putValBytecode = readResource("bytecode/HashMap.putVal.txt");
+		switchBytecode = readResource("bytecode/FormatSpecifier.print.txt");
+	}
+
+	@Benchmark
+	public List<BytecodeInstruction> longMethod()
+	{
+		return BytecodeLoader.parseInstructions(putValBytecode);
+	}
+
+	@Benchmark
+	public List<BytecodeInstruction> lookupSwitch()
+	{
+		return BytecodeLoader.parseInstructions(switchBytecode);
+	}
+
+	private static String readResource(String name) throws IOException
+	{
+		try (InputStream in = BytecodeParserBenchmark.class.getClassLoader().getResourceAsStream(name))
+		{
+			if (in == null)
+			{
+				throw new IOException("Missing resource " + name);
+			}
+
+			return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+		}
+	}
+}
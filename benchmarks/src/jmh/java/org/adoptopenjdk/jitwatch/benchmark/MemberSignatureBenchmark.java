@@ -0,0 +1,96 @@
+package org.adoptopenjdk.jitwatch.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.adoptopenjdk.jitwatch.model.IMetaMember;
+import org.adoptopenjdk.jitwatch.model.JITDataModel;
+import org.adoptopenjdk.jitwatch.model.LogParseException;
+import org.adoptopenjdk.jitwatch.model.MemberSignatureParts;
+import org.adoptopenjdk.jitwatch.model.MetaClass;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Parsing the method attribute of a log tag and finding the member it
+ * names, the two steps behind every compilation the parser attributes.
+ */
+@State(Scope.Benchmark)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class MemberSignatureBenchmark
+{
+	private static final String SIGNATURE_SIMPLE = "java.lang.String hashCode ()I";
+
+	private static final String SIGNATURE_OBJECTS = "java.util.HashMap putVal (ILjava/lang/Object;Ljava/lang/Object;ZZ)Ljava/lang/Object;";
+
+	private static final String SIGNATURE_CONSTRUCTOR = "java.util.HashMap$Node &lt;init&gt; (ILjava/lang/Object;Ljava/lang/Object;Ljava/util/HashMap$Node;)V";
+
+	// members are created from the log signatures that name them
+	private static final String[] HASHMAP_SIGNATURES = new String[] {
+			"java.util.HashMap &lt;init&gt; ()V",
+			"java.util.HashMap &lt;init&gt; (I)V",
+			"java.util.HashMap &lt;init&gt; (IF)V",
+			"java.util.HashMap hash (Ljava/lang/Object;)I",
+			"java.util.HashMap get (Ljava/lang/Object;)Ljava/lang/Object;",
+			"java.util.HashMap getNode (Ljava/lang/Object;)Ljava/util/HashMap$Node;",
+			"java.util.HashMap put (Ljava/lang/Object;Ljava/lang/Object;)Ljava/lang/Object;",
+			"java.util.HashMap putVal (ILjava/lang/Object;Ljava/lang/Object;ZZ)Ljava/lang/Object;",
+			"java.util.HashMap resize ()[Ljava/util/HashMap$Node;",
+			"java.util.HashMap remove (Ljava/lang/Object;)Ljava/lang/Object;",
+			"java.util.HashMap remove (Ljava/lang/Object;Ljava/lang/Object;)Z",
+			"java.util.HashMap containsKey (Ljava/lang/Object;)Z",
+			"java.util.HashMap size ()I" };
+
+	private List<IMetaMember> hashMapMembers;
+
+	private MemberSignatureParts putValParts;
+
+	@Setup
+	public void setup() throws LogParseException
+	{
+		JITDataModel model = new JITDataModel();
+
+		MetaClass metaClass = model.buildAndGetMetaClass("java.util.HashMap");
+
+		for (String signature : HASHMAP_SIGNATURES)
+		{
+			model.findMetaMember(MemberSignatureParts.fromLogCompilationSignature(signature));
+		}
+
+		hashMapMembers = metaClass.getMetaMembers();
+
+		putValParts = MemberSignatureParts.fromLogCompilationSignature(SIGNATURE_OBJECTS);
+	}
+
+	@Benchmark
+	public MemberSignatureParts parseSimple() throws LogParseException
+	{
+		return MemberSignatureParts.fromLogCompilationSignature(SIGNATURE_SIMPLE);
+	}
+
+	@Benchmark
+	public MemberSignatureParts parseObjectParams() throws LogParseException
+	{
+		return MemberSignatureParts.fromLogCompilationSignature(SIGNATURE_OBJECTS);
+	}
+
+	@Benchmark
+	public MemberSignatureParts parseConstructor() throws LogParseException
+	{
+		return MemberSignatureParts.fromLogCompilationSignature(SIGNATURE_CONSTRUCTOR);
+	}
+
+	// one lookup against every member of the class
+	@Benchmark
+	public void matchAllMembers(Blackhole blackhole)
+	{
+		for (IMetaMember member : hashMapMembers)
+		{
+			blackhole.consume(member.matchesSignature(putValParts, true));
+		}
+	}
+}
@@ -0,0 +1,136 @@
+package org.adoptopenjdk.jitwatch.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.adoptopenjdk.jitwatch.core.IJITListener;
+import org.adoptopenjdk.jitwatch.core.JITWatchConfig;
+import org.adoptopenjdk.jitwatch.demo.SyntheticLogGenerator;
+import org.adoptopenjdk.jitwatch.demo.SyntheticLogOptions;
+import org.adoptopenjdk.jitwatch.model.JITDataModel;
+import org.adoptopenjdk.jitwatch.model.JITEvent;
+import org.adoptopenjdk.jitwatch.parser.ILogParseErrorListener;
+import org.adoptopenjdk.jitwatch.parser.hotspot.HotSpotLogParser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Parses a whole log with HotSpotLogParser. The log is generated by
+ * SyntheticLogGenerator at logSizeMB unless logFile names an existing log to
+ * use instead.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class ParseLogBenchmark implements IJITListener, ILogParseErrorListener
+{
+	@Param({ "1", "16" })
+	public int logSizeMB;
+
+	@Param({ "" })
+	public String logFile;
+
+	@Param({ "false" })
+	public boolean printAssembly;
+
+	@Param({ "false" })
+	public boolean streamingParse;
+
+	@Param({ "false" })
+	public boolean parallelParse;
+
+	private File log;
+
+	private boolean generated;
+
+	private JITWatchConfig config;
+
+	@Setup
+	public void setup() throws IOException
+	{
+		if (logFile.isEmpty())
+		{
+			SyntheticLogOptions options = new SyntheticLogOptions();
+
+			options.setTargetBytes(logSizeMB * 1024L * 1024);
+			options.setPrintAssembly(printAssembly);
+
+			log = File.createTempFile("jitwatch-bench-", ".log");
+
+			new SyntheticLogGenerator(options).generate(log);
+
+			generated = true;
+		}
+		else
+		{
+			log = new File(logFile);
+		}
+
+		config = new JITWatchConfig();
+
+		config.setStreamingParse(streamingParse);
+		config.setParallelParse(parallelParse);
+
+		// every iteration must parse rather than load the saved model
+		config.setModelSnapshot(false);
+	}
+
+	@TearDown
+	public void tearDown()
+	{
+		if (generated)
+		{
+			log.delete();
+		}
+	}
+
+	@Benchmark
+	public JITDataModel processLogFile() throws IOException
+	{
+		HotSpotLogParser parser = new HotSpotLogParser(this);
+
+		parser.setConfig(config);
+
+		parser.processLogFile(log, this);
+
+		return parser.getModel();
+	}
+
+	@Override
+	public void handleLogEntry(String entry)
+	{
+	}
+
+	@Override
+	public void handleErrorEntry(String entry)
+	{
+	}
+
+	@Override
+	public void handleJITEvent(JITEvent event)
+	{
+	}
+
+	@Override
+	public void handleReadStart()
+	{
+	}
+
+	@Override
+	public void handleReadComplete()
+	{
+	}
+
+	@Override
+	public void handleError(String title, String body)
+	{
+	}
+}
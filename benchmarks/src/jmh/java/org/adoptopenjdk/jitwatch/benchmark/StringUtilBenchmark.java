@@ -0,0 +1,39 @@
+package org.adoptopenjdk.jitwatch.benchmark;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.adoptopenjdk.jitwatch.util.StringUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+@State(Scope.Benchmark)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class StringUtilBenchmark
+{
+	private static final String TASK_ATTRIBUTES = "compile_id='6' method='java.util.ImmutableCollections$SetN probe (Ljava/lang/Object;)I' bytes='56' count='921' backedge_count='389' iicount='921' level='3' stamp='0.043'";
+
+	private static final String NMETHOD_ATTRIBUTES = "compile_id='3' compiler='c1' level='3' entry='0x00007f29154001c0' size='1056' address='0x00007f2915400010' relocation_offset='352' insts_offset='432' stub_offset='816' scopes_data_offset='872' scopes_pcs_offset='936' dependencies_offset='1032' nul_chk_table_offset='1040' metadata_offset='864' method='java.lang.StringLatin1 hashCode ([B)I' bytes='42' count='717' backedge_count='17535' iicount='717' stamp='0.042'";
+
+	private static final String SHORT_ATTRIBUTES = "method='1257' instr='invokestatic'";
+
+	@Benchmark
+	public Map<String, String> taskAttributes()
+	{
+		return StringUtil.attributeStringToMap(TASK_ATTRIBUTES);
+	}
+
+	@Benchmark
+	public Map<String, String> nmethodAttributes()
+	{
+		return StringUtil.attributeStringToMap(NMETHOD_ATTRIBUTES);
+	}
+
+	@Benchmark
+	public Map<String, String> shortAttributes()
+	{
+		return StringUtil.attributeStringToMap(SHORT_ATTRIBUTES);
+	}
+}
@@ -0,0 +1,81 @@
+package org.adoptopenjdk.jitwatch.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.adoptopenjdk.jitwatch.core.TagProcessor;
+import org.adoptopenjdk.jitwatch.model.Tag;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Builds the tag tree of one compilation task line by line, as the parser
+ * does for every task in the compilation_log sections.
+ */
+@State(Scope.Benchmark)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class TagProcessorBenchmark
+{
+	private static final String[] TASK_LINES = new String[] {
+			"<task compile_id='6' method='java.util.ImmutableCollections$SetN probe (Ljava/lang/Object;)I' bytes='56' count='921' backedge_count='389' iicount='921' level='3' stamp='0.043'>",
+			"<phase name='setup' stamp='0.043'>",
+			"<phase_done stamp='0.043'/>",
+			"</phase>",
+			"<phase name='buildIR' stamp='0.043'>",
+			"<type id='1112' name='int'/>",
+			"<klass id='1119' name='java.lang.Object' flags='1'/>",
+			"<klass id='1249' name='java.util.ImmutableCollections$SetN' flags='24'/>",
+			"<method id='1250' holder='1249' name='probe' return='1112' arguments='1119' flags='2' bytes='56' iicount='921'/>",
+			"<parse method='1250'  stamp='0.043'>",
+			"<phase name='parse_hir' stamp='0.043'>",
+			"<bc code='182' bci='1'/>",
+			"<method id='1254' holder='1119' name='hashCode' return='1112' flags='257' bytes='0' iicount='26'/>",
+			"<call method='1254' instr='invokevirtual'/>",
+			"<inline_fail reason='no static binding'/>",
+			"<bc code='184' bci='9'/>",
+			"<klass id='1256' name='java.lang.Math' flags='17'/>",
+			"<method id='1257' holder='1256' name='floorMod' return='1112' arguments='1112 1112' flags='9' bytes='20' iicount='931'/>",
+			"<call method='1257' instr='invokestatic'/>",
+			"<inline_success reason='inline'/>",
+			"<parse method='1257'>",
+			"<parse_done stamp='0.043'/>",
+			"</parse>",
+			"<bc code='182' bci='31'/>",
+			"<type id='1106' name='boolean'/>",
+			"<method id='1259' holder='1119' name='equals' return='1106' arguments='1119' flags='1' bytes='11' iicount='3'/>",
+			"<call method='1259' instr='invokevirtual'/>",
+			"<inline_fail reason='no static binding'/>",
+			"<phase_done stamp='0.043'/>",
+			"</phase>",
+			"<parse_done stamp='0.043'/>",
+			"</parse>",
+			"<phase_done stamp='0.043'/>",
+			"</phase>",
+			"<code_cache total_blobs='268' nmethods='4' adapters='181' free_code_cache='250610432'/>",
+			"<task_done success='1' nmsize='1072' count='921' backedge_count='389' stamp='0.043'/>",
+			"</task>" };
+
+	private static final String SINGLE_LINE = "<nmethod compile_id='3' compiler='c1' level='3' entry='0x00007f29154001c0' size='1056' address='0x00007f2915400010' relocation_offset='352' insts_offset='432' stub_offset='816' scopes_data_offset='872' scopes_pcs_offset='936' dependencies_offset='1032' nul_chk_table_offset='1040' metadata_offset='864' method='java.lang.StringLatin1 hashCode ([B)I' bytes='42' count='717' backedge_count='17535' iicount='717' stamp='0.042'/>";
+
+	@Benchmark
+	public Tag taskTree()
+	{
+		TagProcessor tagProcessor = new TagProcessor();
+
+		Tag result = null;
+
+		for (String line : TASK_LINES)
+		{
+			result = tagProcessor.processLine(line);
+		}
+
+		return result;
+	}
+
+	@Benchmark
+	public Tag selfClosingTag()
+	{
+		return new TagProcessor().processLine(SINGLE_LINE);
+	}
+}
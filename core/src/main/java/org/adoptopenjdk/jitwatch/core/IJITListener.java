@@ -7,10 +7,36 @@ package org.adoptopenjdk.jitwatch.core;
 
 import org.adoptopenjdk.jitwatch.logger.ILogListener;
 import org.adoptopenjdk.jitwatch.model.JITEvent;
+import org.adoptopenjdk.jitwatch.parser.ParseStats;
 
 public interface IJITListener extends ILogListener
 {
 	void handleJITEvent(JITEvent event);
 	void handleReadStart();
 	void handleReadComplete();
+
+	/**
+	 * Called while a live log is followed, at most once per refresh interval,
+	 * after newly written lines have been added to the model
+	 */
+	default void handleReadUpdate()
+	{
+	}
+
+	/**
+	 * Called before handleReadComplete with the phase timings and counts of
+	 * the parse
+	 */
+	default void handleParseStats(ParseStats parseStats)
+	{
+	}
+
+	/**
+	 * Called from the parsing thread each time the completed fraction of a
+	 * phase moves on by a percent. No progress is reported while splitting a
+	 * log that is not read from a file or is still being written.
+	 */
+	default void handleReadProgress(ParseStats.Phase phase, double fraction)
+	{
+	}
 }
\ No newline at end of file
@@ -26,6 +26,8 @@ import java.util.Properties;
 import java.util.Set;
 
 import org.adoptopenjdk.jitwatch.model.ParsedClasspath;
+import org.adoptopenjdk.jitwatch.parser.PackageFilter;
+import org.adoptopenjdk.jitwatch.parser.StampWindow;
 import org.adoptopenjdk.jitwatch.util.StringUtil;
 import org.adoptopenjdk.jitwatch.logger.Logger;
 import org.adoptopenjdk.jitwatch.logger.LoggerFactory;
@@ -71,6 +73,18 @@ public class JITWatchConfig
 	private static final String KEY_TRIVIEW_TRILINK_MOUSE_FOLLOW = "triview.mouse_follow";
 	private static final String KEY_TRIVIEW_LOCAL_ASM_LABELS = "triview.local_asm_labels";
 
+	private static final String PARSER_PREFIX = "parser";
+	private static final String KEY_PARSER_STREAMING = PARSER_PREFIX + ".streaming";
+	private static final String KEY_PARSER_PARALLEL = PARSER_PREFIX + ".parallel";
+	private static final String KEY_PARSER_THREADS = PARSER_PREFIX + ".threads";
+	private static final String KEY_PARSER_SNAPSHOT = PARSER_PREFIX + ".snapshot";
+	private static final String KEY_PARSER_LOG_INDEX = PARSER_PREFIX + ".log_index";
+	private static final String KEY_PARSER_KEEP_PARTIAL = PARSER_PREFIX + ".keep_partial";
+	private static final String KEY_PARSER_INCLUDE_PACKAGES = PARSER_PREFIX + ".include_packages";
+	private static final String KEY_PARSER_EXCLUDE_PACKAGES = PARSER_PREFIX + ".exclude_packages";
+	private static final String KEY_PARSER_STAMP_WINDOW = PARSER_PREFIX + ".stamp_window";
+	private static final String KEY_PARSER_ASSEMBLY_THREADS = PARSER_PREFIX + ".assembly.threads";
+
 	private static final String SANDBOX_PREFIX = "sandbox";
 	private static final String KEY_SANDBOX_INTEL_MODE = SANDBOX_PREFIX + ".intel.mode";
 	private static final String KEY_SANDBOX_TIERED_MODE = SANDBOX_PREFIX + ".tiered.mode";
@@ -104,6 +118,17 @@ public class JITWatchConfig
 	private boolean mouseFollow = false;
 	private boolean localAsmLabels = false;
 
+	private boolean streamingParse = false;
+	private boolean parallelParse = false;
+	private int parserThreads = 0;
+	private boolean modelSnapshot = false;
+	private boolean logIndex = false;
+	private boolean keepPartialModel = false;
+	private List<String> includePackages = new ArrayList<>();
+	private List<String> excludePackages = new ArrayList<>();
+	private StampWindow stampWindow = StampWindow.ALL;
+	private int assemblyThreads = 1;
+
 	private TieredCompilation tieredCompilationMode;
 	private CompressedOops compressedOopsMode;
 	private BackgroundCompilation backgroundCompilationMode;
@@ -342,6 +367,17 @@ public class JITWatchConfig
 		mouseFollow = loadBooleanFromProperty(loadedProps, KEY_TRIVIEW_TRILINK_MOUSE_FOLLOW, false);
 		localAsmLabels = loadBooleanFromProperty(loadedProps, KEY_TRIVIEW_LOCAL_ASM_LABELS, true);
 
+		streamingParse = loadBooleanFromProperty(loadedProps, KEY_PARSER_STREAMING, false);
+		parallelParse = loadBooleanFromProperty(loadedProps, KEY_PARSER_PARALLEL, false);
+		parserThreads = loadIntFromProperty(loadedProps, KEY_PARSER_THREADS, 0);
+		modelSnapshot = loadBooleanFromProperty(loadedProps, KEY_PARSER_SNAPSHOT, false);
+		logIndex = loadBooleanFromProperty(loadedProps, KEY_PARSER_LOG_INDEX, false);
+		keepPartialModel = loadBooleanFromProperty(loadedProps, KEY_PARSER_KEEP_PARTIAL, false);
+		includePackages = loadCommaSeparatedListFromProperty(loadedProps, KEY_PARSER_INCLUDE_PACKAGES);
+		excludePackages = loadCommaSeparatedListFromProperty(loadedProps, KEY_PARSER_EXCLUDE_PACKAGES);
+		loadStampWindow(loadedProps);
+		assemblyThreads = loadIntFromProperty(loadedProps, KEY_PARSER_ASSEMBLY_THREADS, 1);
+
 		loadTieredMode();
 
 		loadCompressedOopsMode();
@@ -532,6 +568,20 @@ public class JITWatchConfig
 		return result;
 	}
 
+	private void loadStampWindow(Properties props)
+	{
+		try
+		{
+			stampWindow = StampWindow.parse(getProperty(props, KEY_PARSER_STAMP_WINDOW));
+		}
+		catch (IllegalArgumentException iae)
+		{
+			logger.warn("Ignoring stamp window {}", getProperty(props, KEY_PARSER_STAMP_WINDOW), iae);
+
+			stampWindow = StampWindow.ALL;
+		}
+	}
+
 	private String getProperty(Properties props, String propertyName)
 	{
 		return getProperty(props, propertyName, S_EMPTY);
@@ -602,6 +652,16 @@ public class JITWatchConfig
 		putProperty(loadedProps, KEY_SANDBOX_INTEL_MODE, Boolean.toString(intelMode));
 		putProperty(loadedProps, KEY_TRIVIEW_TRILINK_MOUSE_FOLLOW, Boolean.toString(mouseFollow));
 		putProperty(loadedProps, KEY_TRIVIEW_LOCAL_ASM_LABELS, Boolean.toString(localAsmLabels));
+		putProperty(loadedProps, KEY_PARSER_STREAMING, Boolean.toString(streamingParse));
+		putProperty(loadedProps, KEY_PARSER_PARALLEL, Boolean.toString(parallelParse));
+		putProperty(loadedProps, KEY_PARSER_THREADS, Integer.toString(parserThreads));
+		putProperty(loadedProps, KEY_PARSER_SNAPSHOT, Boolean.toString(modelSnapshot));
+		putProperty(loadedProps, KEY_PARSER_LOG_INDEX, Boolean.toString(logIndex));
+		putProperty(loadedProps, KEY_PARSER_KEEP_PARTIAL, Boolean.toString(keepPartialModel));
+		putProperty(loadedProps, KEY_PARSER_INCLUDE_PACKAGES, StringUtil.listToText(includePackages, S_COMMA));
+		putProperty(loadedProps, KEY_PARSER_EXCLUDE_PACKAGES, StringUtil.listToText(excludePackages, S_COMMA));
+		putProperty(loadedProps, KEY_PARSER_STAMP_WINDOW, stampWindow.toText());
+		putProperty(loadedProps, KEY_PARSER_ASSEMBLY_THREADS, Integer.toString(assemblyThreads));
 
 		saveTieredCompilationMode();
 
@@ -959,6 +1019,152 @@ public class JITWatchConfig
 		this.localAsmLabels = localAsmLabels;
 	}
 
+	public boolean isStreamingParse()
+	{
+		return streamingParse;
+	}
+
+	public void setStreamingParse(boolean streamingParse)
+	{
+		this.streamingParse = streamingParse;
+	}
+
+	public boolean isParallelParse()
+	{
+		return parallelParse;
+	}
+
+	public void setParallelParse(boolean parallelParse)
+	{
+		this.parallelParse = parallelParse;
+	}
+
+	/**
+	 * @return the number of parser worker threads, 0 means one per available processor
+	 */
+	public int getParserThreads()
+	{
+		return parserThreads;
+	}
+
+	public void setParserThreads(int parserThreads)
+	{
+		this.parserThreads = parserThreads;
+	}
+
+	public int getEffectiveParserThreads()
+	{
+		return parserThreads > 0 ? parserThreads : Runtime.getRuntime().availableProcessors();
+	}
+
+	/**
+	 * @return the number of threads that parse assembly, 1 parses on the
+	 *         reading thread and 0 means one per available processor
+	 */
+	public int getAssemblyThreads()
+	{
+		return assemblyThreads;
+	}
+
+	public void setAssemblyThreads(int assemblyThreads)
+	{
+		this.assemblyThreads = assemblyThreads;
+	}
+
+	public int getEffectiveAssemblyThreads()
+	{
+		return assemblyThreads > 0 ? assemblyThreads : Runtime.getRuntime().availableProcessors();
+	}
+
+	/**
+	 * @return true if the parsed model is saved next to the log and reused
+	 *         while the log is unchanged
+	 */
+	public boolean isModelSnapshot()
+	{
+		return modelSnapshot;
+	}
+
+	public void setModelSnapshot(boolean modelSnapshot)
+	{
+		this.modelSnapshot = modelSnapshot;
+	}
+
+	/**
+	 * @return true if a parse limited to a stamp window uses the index next to
+	 *         the log, building it first when the log has none
+	 */
+	public boolean isLogIndex()
+	{
+		return logIndex;
+	}
+
+	public void setLogIndex(boolean logIndex)
+	{
+		this.logIndex = logIndex;
+	}
+
+	/**
+	 * @return true if the model built before a load was stopped is kept to
+	 *         be explored instead of being discarded
+	 */
+	public boolean isKeepPartialModel()
+	{
+		return keepPartialModel;
+	}
+
+	public void setKeepPartialModel(boolean keepPartialModel)
+	{
+		this.keepPartialModel = keepPartialModel;
+	}
+
+	/**
+	 * @return packages whose compilations are kept by the parser, all of them
+	 *         when empty
+	 */
+	public List<String> getIncludePackages()
+	{
+		return Collections.unmodifiableList(includePackages);
+	}
+
+	public void setIncludePackages(List<String> includePackages)
+	{
+		this.includePackages = includePackages;
+	}
+
+	/**
+	 * @return packages whose compilations are dropped by the parser, they
+	 *         still count towards the JIT statistics and code cache events
+	 */
+	public List<String> getExcludePackages()
+	{
+		return Collections.unmodifiableList(excludePackages);
+	}
+
+	public void setExcludePackages(List<String> excludePackages)
+	{
+		this.excludePackages = excludePackages;
+	}
+
+	public PackageFilter getPackageFilter()
+	{
+		return new PackageFilter(includePackages, excludePackages);
+	}
+
+	/**
+	 * @return the stamps of the compilations and code cache events the parser
+	 *         keeps, header and class loading lines are always read
+	 */
+	public StampWindow getStampWindow()
+	{
+		return stampWindow;
+	}
+
+	public void setStampWindow(StampWindow stampWindow)
+	{
+		this.stampWindow = stampWindow;
+	}
+
 	public boolean isNoPromptHsdis()
 	{
 		return noPromptHsdis;
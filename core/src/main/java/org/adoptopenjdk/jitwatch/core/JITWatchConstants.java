@@ -111,6 +111,7 @@ public final class JITWatchConstants
 
 	public static final String TAG_CAST_UP = "cast_up";
 	public static final String TAG_INLINE_LEVEL_DISCOUNT = "inline_level_discount";
+	public static final String TAG_INLINE_ID = "inline_id";
 	public static final String TAG_COMMENT= "comment";
 	public static final String TAG_PREDICTED_CALL = "predicted_call";
 	public static final String TAG_DIRECT_CALL = "direct_call";
@@ -5,6 +5,8 @@
  */
 package org.adoptopenjdk.jitwatch.core;
 
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.ATTR_METHOD;
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.ATTR_STAMP;
 import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.C_CLOSE_ANGLE;
 import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.C_OPEN_ANGLE;
 import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.C_SLASH;
@@ -12,15 +14,18 @@ import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.C_SPACE;
 import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.DEBUG_LOGGING;
 import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.DEBUG_LOGGING_TAGPROCESSOR;
 import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.S_FRAGMENT;
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.TAG_CODE_CACHE;
 import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.TAG_OPEN_FRAGMENT;
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.TAG_TASK_DONE;
 
-import java.util.Map;
 import java.util.Stack;
 
 import org.adoptopenjdk.jitwatch.model.Tag;
+import org.adoptopenjdk.jitwatch.model.TagAttributes;
 import org.adoptopenjdk.jitwatch.model.Task;
 import org.adoptopenjdk.jitwatch.model.bytecode.Opcode;
-import org.adoptopenjdk.jitwatch.util.StringUtil;
+import org.adoptopenjdk.jitwatch.parser.PackageFilter;
+import org.adoptopenjdk.jitwatch.parser.StampWindow;
 import org.adoptopenjdk.jitwatch.logger.Logger;
 import org.adoptopenjdk.jitwatch.logger.LoggerFactory;
 
@@ -34,6 +39,18 @@ public class TagProcessor
 	private Tag topTag = null;
 	private boolean fragmentSeen;
 
+	private long tagsCreated;
+
+	private PackageFilter packageFilter = PackageFilter.NONE;
+
+	private StampWindow stampWindow = StampWindow.ALL;
+
+	// set while the children of a task for a filtered out method or of a tag
+	// stamped outside the window are dropped
+	private boolean skippingChildren = false;
+	private boolean keepTaskDone;
+	private int skipDepth;
+
 	public String getTopTagName()
 	{
 		String result = null;
@@ -46,11 +63,33 @@ public class TagProcessor
 		return result;
 	}
 
+	/**
+	 * Tasks for methods the filter rejects keep only their task_done and
+	 * code_cache children, no other child tags are created
+	 */
+	public void setPackageFilter(PackageFilter packageFilter)
+	{
+		this.packageFilter = packageFilter;
+	}
+
+	/**
+	 * Top level tags stamped outside the window are returned without any
+	 * child tags
+	 */
+	public void setStampWindow(StampWindow stampWindow)
+	{
+		this.stampWindow = stampWindow;
+	}
+
 	public Tag processLine(String line)
 	{
 		Tag result = null;
 
-		if (line != null)
+		if (skippingChildren)
+		{
+			result = handleSkippedLine(line);
+		}
+		else if (line != null)
 		{
 			if (line.length() > 3 && line.charAt(0) == C_OPEN_ANGLE)
 			{
@@ -98,10 +137,71 @@ public class TagProcessor
 		return fragmentSeen;
 	}
 
+	public long getTagsCreated()
+	{
+		return tagsCreated;
+	}
+
 	private void resetState()
 	{
 		currentTag = null;
 		topTag = null;
+		skippingChildren = false;
+	}
+
+	private void skipChildren(boolean keepTaskDone)
+	{
+		this.keepTaskDone = keepTaskDone;
+
+		skippingChildren = true;
+		skipDepth = 0;
+	}
+
+	private Tag handleSkippedLine(String line)
+	{
+		Tag result = null;
+
+		if (line != null && line.length() > 3 && line.charAt(0) == C_OPEN_ANGLE)
+		{
+			if (line.charAt(1) == C_SLASH)
+			{
+				String closeName = line.substring(2, line.length() - 1);
+
+				if (skipDepth == 0 && closeName.equals(topTag.getName()))
+				{
+					result = topTag;
+				}
+				else if (S_FRAGMENT.equals(closeName))
+				{
+					topTag.setLast(true);
+					result = topTag;
+				}
+				else
+				{
+					skipDepth--;
+				}
+			}
+			else if (line.charAt(line.length() - 2) != C_SLASH)
+			{
+				skipDepth++;
+			}
+			else if (skipDepth == 0 && keepTaskDone)
+			{
+				int indexEndName = line.indexOf(C_SPACE);
+
+				if (indexEndName != -1)
+				{
+					String name = line.substring(1, indexEndName);
+
+					if (TAG_TASK_DONE.equals(name) || TAG_CODE_CACHE.equals(name))
+					{
+						processValidLine(line, indexEndName, true);
+					}
+				}
+			}
+		}
+
+		return result;
 	}
 
 	private Tag handleTag(String line)
@@ -187,19 +287,21 @@ public class TagProcessor
 
 		String attributeString = line.substring(indexEndName);
 
-		Map<String, String> attrs = StringUtil.attributeStringToMap(attributeString);
+		TagAttributes attrs = TagAttributes.parse(attributeString);
 
 		Tag nextTag;
 
 		if (JITWatchConstants.TAG_TASK.equals(name))
 		{
-			nextTag = new Task(attributeString, selfClosing);
+			nextTag = new Task(attrs, selfClosing);
 		}
 		else
 		{
-			nextTag = new Tag(name, attributeString, selfClosing);
+			nextTag = new Tag(name, attrs, selfClosing);
 		}
 
+		tagsCreated++;
+
 		if (DEBUG_LOGGING_TAGPROCESSOR)
 		{
 			logger.debug("top: {}", topTag);
@@ -230,6 +332,22 @@ public class TagProcessor
 				// new tag at top level
 				currentTag = nextTag;
 				topTag = nextTag;
+
+				if (!selfClosing)
+				{
+					if (!stampWindow.containsStamp(attrs.get(ATTR_STAMP)))
+					{
+						skipChildren(false);
+
+						return null;
+					}
+					else if (nextTag instanceof Task && !packageFilter.acceptsMethod(attrs.get(ATTR_METHOD)))
+					{
+						skipChildren(true);
+
+						return null;
+					}
+				}
 			}
 		}
 		else
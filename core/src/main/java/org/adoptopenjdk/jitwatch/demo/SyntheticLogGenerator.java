@@ -0,0 +1,976 @@
+package org.adoptopenjdk.jitwatch.demo;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.adoptopenjdk.jitwatch.logger.Logger;
+import org.adoptopenjdk.jitwatch.logger.LoggerFactory;
+
+/**
+ * Writes a LogCompilation log of a target size for load testing, optionally
+ * with PrintAssembly output. The compiled members belong to made up classes
+ * so the parser never needs them on the classpath.
+ *
+ * The tty section is written straight to the output. Like HotSpot, each
+ * compiler thread writes its task trees to a file of its own and these are
+ * appended as compilation_log sections at the end, so memory use does not
+ * grow with the size of the log.
+ */
+public class SyntheticLogGenerator
+{
+	private static final Logger logger = LoggerFactory.getLogger(SyntheticLogGenerator.class);
+
+	private static final String PACKAGE_PREFIX = "com.example.synthetic.p";
+
+	private static final String APP_THREAD_ID = "1001";
+
+	private static final int FIRST_COMPILER_THREAD_ID = 2001;
+
+	private static final String PROCESS_ID = "1000";
+
+	private static final long BASE_ADDRESS = 0x00007f2915400000L;
+
+	private static final long BASE_METADATA_ADDRESS = 0x00007f28c8000000L;
+
+	private static final int INSTS_OFFSET = 432;
+
+	private static final String[] LIBRARY_TYPES = new String[] { "int", "long", "boolean", "double", "java.lang.String", "java.lang.Object",
+			"[I", "[Ljava.lang.String;" };
+
+	private static final String[] INLINE_FAIL_REASONS = new String[] { "too big", "hot method too big", "already compiled into a big method",
+			"no static binding", "callee is too large" };
+
+	private static final String[] DEOPT_REASONS = new String[] { "unstable_if", "class_check", "null_check", "range_check", "bimorphic" };
+
+	// instruction length and AT&T text
+	private static final Object[][] INSTRUCTIONS = new Object[][] {
+			{ 3, "mov    %rsi,%rbx" },
+			{ 4, "mov    0xc(%rsi),%ebp" },
+			{ 3, "test   %ebp,%ebp" },
+			{ 4, "add    $0x10,%rsp" },
+			{ 3, "lea    (%r8,%rbp,1),%r10" },
+			{ 5, "cmp    $0x7f,%r11d" },
+			{ 4, "movzbl 0x10(%rbx,%rax,1),%r8d" },
+			{ 3, "imul   %r10d,%eax" },
+			{ 1, "push   %rbp" },
+			{ 3, "xor    %eax,%eax" },
+			{ 5, "vmovdqu 0x10(%rsi,%rcx,2),%ymm0" } };
+
+	private final SyntheticLogOptions options;
+
+	private final Random random;
+
+	private final int[] levels;
+
+	private Member[] members;
+
+	private CompilerThreadLog[] c1Threads;
+
+	private CompilerThreadLog[] c2Threads;
+
+	private Writer tty;
+
+	private String currentWriter;
+
+	private long written;
+
+	private int nextCompileId = 1;
+
+	private int nextTaskId;
+
+	private long stampMillis = 20;
+
+	private long nextAddress = BASE_ADDRESS;
+
+	private int liveNMethods;
+
+	private boolean architecturePrinted;
+
+	private final Deque<PendingCompilation> pending = new ArrayDeque<>();
+
+	private final StringBuilder builder = new StringBuilder(16 * 1024);
+
+	private final Map<String, Integer> taskIds = new HashMap<>();
+
+	public SyntheticLogGenerator(SyntheticLogOptions options)
+	{
+		this.options = options;
+		this.random = new Random(options.getSeed());
+
+		int tiers = options.getTiers();
+
+		levels = new int[tiers];
+
+		for (int i = 0; i < tiers; i++)
+		{
+			levels[i] = 5 - tiers + i;
+		}
+	}
+
+	public static void main(String[] args) throws IOException
+	{
+		if (args.length < 1)
+		{
+			System.err.println("Usage: SyntheticLogGenerator <options> <output file>");
+			System.err.println("options:");
+			System.err.println("-size <n[K|M|G]>\tTarget log size, 1M to 50G (16M)");
+			System.err.println("-seed <n>\tRandom seed (42)");
+			System.err.println("-classes <n>\tNumber of classes (200)");
+			System.err.println("-package <n>\tClasses per package (25)");
+			System.err.println("-methods <n>\tMethod names per class (10)");
+			System.err.println("-overloads <n>\tOverloads of each method name (2)");
+			System.err.println("-tiers <1-4>\tCompilation tiers used, 1 for C2 only (4)");
+			System.err.println("-inline <n>\tMaximum inlining depth (3)");
+			System.err.println("-deopt <0-1>\tChance of a deoptimisation after a compilation (0.02)");
+			System.err.println("-sweeper <n>\tCompilations between sweeper events, 0 for none (500)");
+			System.err.println("-full <n>\tCompilations between code cache full events, 0 for none (0)");
+			System.err.println("-threads <n>\tCompiler threads (3)");
+			System.err.println("-asm\t\tInterleave PrintAssembly output (takes no value)");
+
+			System.exit(-1);
+		}
+
+		SyntheticLogOptions options = parseOptions(args);
+
+		File output = new File(args[args.length - 1]);
+
+		long start = System.currentTimeMillis();
+
+		new SyntheticLogGenerator(options).generate(output);
+
+		System.out.println("Wrote " + output.length() + " bytes to " + output + " in " + (System.currentTimeMillis() - start) + "ms");
+	}
+
+	private static SyntheticLogOptions parseOptions(String[] args)
+	{
+		SyntheticLogOptions options = new SyntheticLogOptions();
+
+		for (int i = 0; i < args.length - 1; i++)
+		{
+			String arg = args[i];
+
+			if ("-asm".equals(arg))
+			{
+				options.setPrintAssembly(true);
+				continue;
+			}
+
+			if (i + 1 >= args.length - 1)
+			{
+				throw new IllegalArgumentException("Missing value for " + arg);
+			}
+
+			String value = args[++i];
+
+			switch (arg)
+			{
+			case "-size":
+				options.setTargetBytes(SyntheticLogOptions.parseSize(value));
+				break;
+			case "-seed":
+				options.setSeed(Long.parseLong(value));
+				break;
+			case "-classes":
+				options.setClasses(Integer.parseInt(value));
+				break;
+			case "-package":
+				options.setClassesPerPackage(Integer.parseInt(value));
+				break;
+			case "-methods":
+				options.setMethodsPerClass(Integer.parseInt(value));
+				break;
+			case "-overloads":
+				options.setOverloads(Integer.parseInt(value));
+				break;
+			case "-tiers":
+				options.setTiers(Integer.parseInt(value));
+				break;
+			case "-inline":
+				options.setInliningDepth(Integer.parseInt(value));
+				break;
+			case "-deopt":
+				options.setDeoptRate(Double.parseDouble(value));
+				break;
+			case "-sweeper":
+				options.setSweeperInterval(Integer.parseInt(value));
+				break;
+			case "-full":
+				options.setCodeCacheFullInterval(Integer.parseInt(value));
+				break;
+			case "-threads":
+				options.setCompilerThreads(Integer.parseInt(value));
+				break;
+			default:
+				throw new IllegalArgumentException("Unknown option " + arg);
+			}
+		}
+
+		return options;
+	}
+
+	public void generate(File output) throws IOException
+	{
+		File directory = output.getAbsoluteFile().getParentFile();
+
+		buildMembers();
+
+		try (OutputStream out = new FileOutputStream(output))
+		{
+			tty = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.US_ASCII), 64 * 1024);
+
+			createCompilerThreads(directory);
+
+			writeHeader();
+
+			while (written < options.getTargetBytes())
+			{
+				queueCompilation();
+			}
+
+			while (!pending.isEmpty())
+			{
+				completeCompilation(pending.poll());
+			}
+
+			write(tty, "</tty>\n");
+
+			appendCompilerThreadLogs(out);
+
+			write(tty, "<hotspot_log_done stamp='" + stamp(stampMillis) + "'/>\n");
+			write(tty, "</hotspot_log>\n");
+
+			tty.flush();
+		}
+		finally
+		{
+			deleteCompilerThreadLogs();
+		}
+
+		logger.info("Generated {} compilations in {} bytes", nextCompileId - 1, written);
+	}
+
+	private void buildMembers()
+	{
+		int classes = options.getClasses();
+		int methodsPerClass = options.getMethodsPerClass();
+		int overloads = options.getOverloads();
+
+		String[] classNames = new String[classes];
+
+		for (int c = 0; c < classes; c++)
+		{
+			classNames[c] = PACKAGE_PREFIX + (c / options.getClassesPerPackage()) + ".Class" + c;
+		}
+
+		members = new Member[classes * methodsPerClass * overloads];
+
+		int index = 0;
+
+		for (int c = 0; c < classes; c++)
+		{
+			for (int m = 0; m < methodsPerClass; m++)
+			{
+				String returnType = (m % 3 == 0) ? "void" : randomType(classNames);
+
+				for (int o = 0; o < overloads; o++)
+				{
+					// a different parameter count for each overload keeps the
+					// signatures unique
+					String[] params = new String[o + (m % 2)];
+
+					for (int p = 0; p < params.length; p++)
+					{
+						params[p] = randomType(classNames);
+					}
+
+					members[index] = new Member(index, classNames[c], "method" + m, params, returnType, 8 + random.nextInt(300));
+
+					index++;
+				}
+			}
+		}
+	}
+
+	private String randomType(String[] classNames)
+	{
+		int pick = random.nextInt(LIBRARY_TYPES.length + 2);
+
+		return (pick < LIBRARY_TYPES.length) ? LIBRARY_TYPES[pick] : classNames[random.nextInt(classNames.length)];
+	}
+
+	// a few members are compiled much more often than the rest
+	private Member randomMember()
+	{
+		double r = random.nextDouble();
+
+		return members[(int) (members.length * r * r)];
+	}
+
+	private void createCompilerThreads(File directory) throws IOException
+	{
+		int threads = options.getCompilerThreads();
+
+		int c1Count = (threads == 1 || levels[0] == 4) ? 0 : Math.max(1, threads / 3);
+
+		c1Threads = new CompilerThreadLog[c1Count];
+		c2Threads = new CompilerThreadLog[threads - c1Count];
+
+		for (int i = 0; i < threads; i++)
+		{
+			boolean c1 = i < c1Count;
+
+			String name = c1 ? "C1 CompilerThread" + i : "C2 CompilerThread" + (i - c1Count);
+
+			CompilerThreadLog threadLog = new CompilerThreadLog(Integer.toString(FIRST_COMPILER_THREAD_ID + i), name,
+					File.createTempFile("hs_c" + (FIRST_COMPILER_THREAD_ID + i) + "_", ".log", directory));
+
+			write(threadLog.writer, "<start_compile_thread name='" + name + "' thread='" + threadLog.id + "' process='" + PROCESS_ID + "' stamp='"
+					+ stamp(stampMillis) + "'/>\n");
+
+			if (c1)
+			{
+				c1Threads[i] = threadLog;
+			}
+			else
+			{
+				c2Threads[i - c1Count] = threadLog;
+			}
+		}
+	}
+
+	private void appendCompilerThreadLogs(OutputStream out) throws IOException
+	{
+		for (CompilerThreadLog threadLog : allThreads())
+		{
+			threadLog.writer.close();
+
+			write(tty, "<compilation_log thread='" + threadLog.id + "'>\n");
+
+			tty.flush();
+
+			Files.copy(threadLog.file.toPath(), out);
+
+			write(tty, "</compilation_log>\n");
+		}
+	}
+
+	private void deleteCompilerThreadLogs() throws IOException
+	{
+		if (c1Threads != null)
+		{
+			for (CompilerThreadLog threadLog : allThreads())
+			{
+				if (threadLog != null)
+				{
+					threadLog.writer.close();
+					Files.deleteIfExists(threadLog.file.toPath());
+				}
+			}
+		}
+	}
+
+	private CompilerThreadLog[] allThreads()
+	{
+		CompilerThreadLog[] result = new CompilerThreadLog[c1Threads.length + c2Threads.length];
+
+		System.arraycopy(c1Threads, 0, result, 0, c1Threads.length);
+		System.arraycopy(c2Threads, 0, result, c1Threads.length, c2Threads.length);
+
+		return result;
+	}
+
+	private void writeHeader() throws IOException
+	{
+		builder.setLength(0);
+
+		builder.append("<?xml version='1.0' encoding='UTF-8'?>\n");
+		builder.append("<hotspot_log version='160 1' process='").append(PROCESS_ID).append("' time_ms='1700000000000'>\n");
+		builder.append("<vm_version>\n<name>\nOpenJDK 64-Bit Server VM\n</name>\n<release>\n17.0.9+9\n</release>\n");
+		builder.append("<info>\nOpenJDK 64-Bit Server VM (17.0.9+9) for linux-amd64 JRE (17.0.9+9), built by &quot;synthetic&quot;\n</info>\n");
+		builder.append("</vm_version>\n");
+		builder.append("<vm_arguments>\n<args>\n-XX:+UnlockDiagnosticVMOptions -XX:+LogCompilation ");
+
+		if (options.isPrintAssembly())
+		{
+			builder.append("-XX:+PrintAssembly ");
+		}
+
+		builder.append("-XX:CICompilerCount=").append(options.getCompilerThreads()).append(" </args>\n");
+		builder.append("<command>\nSyntheticLogGenerator seed=").append(options.getSeed()).append("\n</command>\n");
+		builder.append("<launcher>\nSUN_STANDARD\n</launcher>\n");
+		builder.append("<properties>\njava.vm.version=17.0.9+9\njava.class.path=.\n</properties>\n");
+		builder.append("</vm_arguments>\n");
+		builder.append("<tty>\n");
+
+		write(tty, builder);
+	}
+
+	private void queueCompilation() throws IOException
+	{
+		Member member = randomMember();
+
+		int level = nextLevel(member);
+
+		member.compilations++;
+
+		int compileId = nextCompileId++;
+
+		stampMillis += 1 + random.nextInt(3);
+
+		builder.setLength(0);
+
+		builder.append("<task_queued compile_id='").append(compileId).append("' method='").append(member.logSignature);
+		builder.append("' bytes='").append(member.bytes).append("' count='").append(member.count()).append("' iicount='")
+				.append(member.count());
+		builder.append("' level='").append(level).append("' stamp='").append(stamp(stampMillis));
+		builder.append("' comment='tiered' hot_count='").append(member.count()).append("'/>\n");
+
+		writeTty(APP_THREAD_ID, builder);
+
+		pending.add(new PendingCompilation(compileId, member, level, stampMillis));
+
+		while (pending.size() > options.getCompilerThreads())
+		{
+			completeCompilation(pending.poll());
+		}
+
+		if (options.getSweeperInterval() > 0 && compileId % options.getSweeperInterval() == 0)
+		{
+			writeCodeCacheEvent("sweeper", "state='finished' traversals='" + (compileId / options.getSweeperInterval()) + "' ");
+		}
+
+		if (options.getCodeCacheFullInterval() > 0 && compileId % options.getCodeCacheFullInterval() == 0)
+		{
+			writeCodeCacheEvent("code_cache_full", "");
+		}
+	}
+
+	// profiled tier first, then C2, with trivial methods staying at tier 1
+	private int nextLevel(Member member)
+	{
+		int top = levels[levels.length - 1];
+
+		if (levels.length == 1 || member.compilations > 0)
+		{
+			return top;
+		}
+
+		if (levels[0] == 1 && member.bytes <= 16)
+		{
+			return 1;
+		}
+
+		if (levels[0] <= 2 && random.nextInt(10) == 0)
+		{
+			return 2;
+		}
+
+		return levels[levels.length - 2];
+	}
+
+	private void writeCodeCacheEvent(String tagName, String attributes) throws IOException
+	{
+		writeTty(APP_THREAD_ID, "<" + tagName + " " + attributes + "total_blobs='" + (liveNMethods + 300) + "' nmethods='" + liveNMethods
+				+ "' adapters='181' free_code_cache='" + freeCodeCache() + "' stamp='" + stamp(stampMillis) + "'/>\n");
+	}
+
+	private long freeCodeCache()
+	{
+		return Math.max(0, 250_000_000L - liveNMethods * 1024L);
+	}
+
+	private void completeCompilation(PendingCompilation compilation) throws IOException
+	{
+		boolean c1 = compilation.level < 4 && c1Threads.length > 0;
+
+		CompilerThreadLog[] threads = c1 ? c1Threads : c2Threads;
+
+		CompilerThreadLog threadLog = threads[compilation.compileId % threads.length];
+
+		String compiler = (compilation.level < 4) ? "c1" : "c2";
+
+		Member member = compilation.member;
+
+		long taskStamp = compilation.queuedStamp + random.nextInt(2);
+
+		long doneStamp = Math.max(stampMillis, taskStamp + 1);
+
+		int size = 512 + 16 * random.nextInt(200);
+
+		long address = nextAddress;
+
+		nextAddress += size;
+
+		long entry = address + INSTS_OFFSET;
+
+		liveNMethods++;
+
+		builder.setLength(0);
+
+		builder.append("<nmethod compile_id='").append(compilation.compileId).append("' compiler='").append(compiler).append("' level='")
+				.append(compilation.level);
+		builder.append("' entry='").append(hex(entry)).append("' size='").append(size).append("' address='").append(hex(address));
+		builder.append("' relocation_offset='352' insts_offset='").append(INSTS_OFFSET).append("' stub_offset='").append(size - 128);
+		builder.append("' method='").append(member.logSignature).append("' bytes='").append(member.bytes).append("' count='")
+				.append(member.count());
+		builder.append("' iicount='").append(member.count()).append("' stamp='").append(stamp(doneStamp)).append("'/>\n");
+
+		writeTty(threadLog.id, builder);
+
+		if (options.isPrintAssembly())
+		{
+			writeAssembly(threadLog.id, compilation, compiler, address, entry, size, doneStamp);
+		}
+
+		writeTask(threadLog, compilation, taskStamp, doneStamp, size);
+
+		member.lastCompileId = compilation.compileId;
+		member.lastLevel = compilation.level;
+
+		if (random.nextDouble() < options.getDeoptRate())
+		{
+			writeDeopt(member);
+		}
+	}
+
+	private void writeTask(CompilerThreadLog threadLog, PendingCompilation compilation, long taskStamp, long doneStamp, int size)
+			throws IOException
+	{
+		Member member = compilation.member;
+
+		String taskStampString = stamp(taskStamp);
+
+		taskIds.clear();
+
+		nextTaskId = 1000;
+
+		builder.setLength(0);
+
+		builder.append("<task compile_id='").append(compilation.compileId).append("' method='").append(member.logSignature);
+		builder.append("' bytes='").append(member.bytes).append("' count='").append(member.count()).append("' iicount='")
+				.append(member.count());
+		builder.append("' level='").append(compilation.level).append("' stamp='").append(taskStampString).append("'>\n");
+
+		String phase = (compilation.level < 4) ? "buildIR" : "parse";
+
+		builder.append("<phase name='").append(phase).append("' stamp='").append(taskStampString).append("'>\n");
+
+		int methodId = appendMethod(member);
+
+		int inlinedBytes = appendParse(member, methodId, options.getInliningDepth(), taskStampString);
+
+		builder.append("<phase_done name='").append(phase).append("' stamp='").append(taskStampString).append("'/>\n");
+		builder.append("</phase>\n");
+		builder.append("<code_cache total_blobs='").append(liveNMethods + 300).append("' nmethods='").append(liveNMethods);
+		builder.append("' adapters='181' free_code_cache='").append(freeCodeCache()).append("'/>\n");
+		builder.append("<task_done success='1' nmsize='").append(size - INSTS_OFFSET).append("' count='").append(member.count());
+		builder.append("' inlined_bytes='").append(inlinedBytes).append("' stamp='").append(stamp(doneStamp)).append("'/>\n");
+		builder.append("</task>\n");
+
+		write(threadLog.writer, builder);
+	}
+
+	// returns the bytes inlined into this parse
+	private int appendParse(Member member, int methodId, int depth, String stamp)
+	{
+		int inlinedBytes = 0;
+
+		builder.append("<parse method='").append(methodId).append("' uses='").append(member.count()).append("' stamp='").append(stamp)
+				.append("'>\n");
+
+		if (depth > 0)
+		{
+			int calls = 1 + random.nextInt(2);
+
+			for (int i = 0; i < calls; i++)
+			{
+				Member callee = randomMember();
+
+				builder.append("<bc code='182' bci='").append(random.nextInt(member.bytes)).append("'/>\n");
+
+				int calleeId = appendMethod(callee);
+
+				builder.append("<call method='").append(calleeId).append("' count='").append(callee.count());
+				builder.append("' prof_factor='1.000000' inline='1'/>\n");
+
+				if (random.nextInt(10) < 7)
+				{
+					builder.append("<inline_success reason='inline (hot)'/>\n");
+
+					inlinedBytes += callee.bytes + appendParse(callee, calleeId, depth - 1, stamp);
+				}
+				else
+				{
+					builder.append("<inline_fail reason='").append(INLINE_FAIL_REASONS[random.nextInt(INLINE_FAIL_REASONS.length)])
+							.append("'/>\n");
+				}
+			}
+		}
+
+		if (random.nextDouble() < options.getDeoptRate() * 5)
+		{
+			builder.append("<uncommon_trap bci='").append(random.nextInt(member.bytes)).append("' reason='")
+					.append(DEOPT_REASONS[random.nextInt(DEOPT_REASONS.length)]);
+			builder.append("' action='reinterpret' debug_id='0' comment='taken never'/>\n");
+		}
+
+		builder.append("<parse_done nodes='").append(50 + member.bytes).append("' live='").append(40 + member.bytes);
+		builder.append("' memory='").append(8192 + member.bytes * 64).append("' stamp='").append(stamp).append("'/>\n");
+		builder.append("</parse>\n");
+
+		return inlinedBytes;
+	}
+
+	// writes the type, klass and method tags the first time a task uses them
+	private int appendMethod(Member member)
+	{
+		String key = member.logSignature;
+
+		Integer existing = taskIds.get(key);
+
+		if (existing != null)
+		{
+			return existing;
+		}
+
+		int returnId = appendType(member.returnType);
+
+		StringBuilder arguments = new StringBuilder();
+
+		for (String param : member.params)
+		{
+			if (arguments.length() > 0)
+			{
+				arguments.append(' ');
+			}
+
+			arguments.append(appendType(param));
+		}
+
+		int holderId = appendType(member.holder);
+
+		int methodId = nextTaskId++;
+
+		taskIds.put(key, methodId);
+
+		builder.append("<method id='").append(methodId).append("' holder='").append(holderId).append("' name='").append(member.name);
+		builder.append("' return='").append(returnId);
+
+		if (arguments.length() > 0)
+		{
+			builder.append("' arguments='").append(arguments);
+		}
+
+		builder.append("' flags='1' bytes='").append(member.bytes).append("' iicount='").append(member.count()).append("'/>\n");
+
+		return methodId;
+	}
+
+	private int appendType(String typeName)
+	{
+		Integer existing = taskIds.get(typeName);
+
+		if (existing != null)
+		{
+			return existing;
+		}
+
+		int id = nextTaskId++;
+
+		taskIds.put(typeName, id);
+
+		if (isPrimitive(typeName))
+		{
+			builder.append("<type id='").append(id).append("' name='").append(typeName).append("'/>\n");
+		}
+		else
+		{
+			builder.append("<klass id='").append(id).append("' name='").append(typeName).append("' flags='1'/>\n");
+		}
+
+		return id;
+	}
+
+	private void writeDeopt(Member member) throws IOException
+	{
+		stampMillis++;
+
+		String compiler = (member.lastLevel < 4) ? "c1" : "c2";
+
+		builder.setLength(0);
+
+		builder.append("<uncommon_trap thread='").append(APP_THREAD_ID).append("' reason='")
+				.append(DEOPT_REASONS[random.nextInt(DEOPT_REASONS.length)]);
+		builder.append("' action='reinterpret' debug_id='0' compile_id='").append(member.lastCompileId).append("' compiler='")
+				.append(compiler);
+		builder.append("' level='").append(member.lastLevel).append("' stamp='").append(stamp(stampMillis)).append("'>\n");
+		builder.append("<jvms bci='").append(random.nextInt(member.bytes)).append("' method='").append(member.logSignature);
+		builder.append("' bytes='").append(member.bytes).append("' count='").append(member.count()).append("' iicount='")
+				.append(member.count()).append("'/>\n");
+		builder.append("</uncommon_trap>\n");
+		builder.append("<make_not_entrant thread='").append(APP_THREAD_ID).append("' compile_id='").append(member.lastCompileId);
+		builder.append("' compiler='").append(compiler).append("' level='").append(member.lastLevel).append("' stamp='")
+				.append(stamp(stampMillis)).append("'/>\n");
+
+		writeTty(APP_THREAD_ID, builder);
+
+		// back to the interpreter, climbing the tiers again
+		member.compilations = 0;
+
+		liveNMethods = Math.max(0, liveNMethods - 1);
+	}
+
+	private void writeAssembly(String threadId, PendingCompilation compilation, String compiler, long address, long entry, int size,
+			long stamp) throws IOException
+	{
+		Member member = compilation.member;
+
+		long stubStart = address + size - 128;
+
+		builder.setLength(0);
+
+		builder.append("<print_nmethod compile_id='").append(compilation.compileId).append("' compiler='").append(compiler)
+				.append("' level='").append(compilation.level).append("' stamp='").append(stamp(stamp)).append("'>\n");
+
+		if (!architecturePrinted)
+		{
+			builder.append("[Disassembling for mach='i386:x86-64']\n");
+			architecturePrinted = true;
+		}
+
+		builder.append("\n============================= ").append(compiler.toUpperCase())
+				.append("-compiled nmethod ==============================\n");
+		builder.append("----------------------------------- Assembly -----------------------------------\n\n");
+		builder.append("Compiled method (").append(compiler).append(")    ").append(stamp).append(' ').append(compilation.compileId)
+				.append("       ").append(compilation.level).append("       ");
+		builder.append(member.holder).append("::").append(member.name).append(" (").append(member.bytes).append(" bytes)\n");
+		builder.append(" total in heap  [").append(hex(address)).append(',').append(hex(address + size)).append("] = ").append(size)
+				.append('\n');
+		builder.append(" relocation     [").append(hex(address + 352)).append(',').append(hex(entry)).append("] = ").append(INSTS_OFFSET - 352)
+				.append('\n');
+		builder.append(" main code      [").append(hex(entry)).append(',').append(hex(stubStart)).append("] = ").append(stubStart - entry)
+				.append('\n');
+		builder.append(" stub code      [").append(hex(stubStart)).append(',').append(hex(address + size)).append("] = 128\n\n");
+		builder.append("[Disassembly]\n");
+		builder.append("--------------------------------------------------------------------------------\n");
+		builder.append("[Constant Pool (empty)]\n\n");
+		builder.append("--------------------------------------------------------------------------------\n\n");
+		builder.append("[Verified Entry Point]\n");
+		builder.append("  # {method} {").append(hex(BASE_METADATA_ADDRESS + member.index * 64L)).append("} &apos;").append(member.name);
+		builder.append("&apos; &apos;").append(member.descriptor).append("&apos; in &apos;").append(member.holder.replace('.', '/'))
+				.append("&apos;\n");
+
+		for (int p = 0; p < member.params.length; p++)
+		{
+			builder.append("  # parm").append(p).append(":    rsi       = &apos;").append(member.params[p]).append("&apos;\n");
+		}
+
+		builder.append("  #           [sp+0x30]  (sp of caller)\n");
+
+		long instructionAddress = entry;
+
+		int instructions = 8 + random.nextInt(32);
+
+		for (int i = 0; i < instructions && instructionAddress < stubStart - 16; i++)
+		{
+			Object[] instruction = INSTRUCTIONS[random.nextInt(INSTRUCTIONS.length)];
+
+			builder.append("  ").append(hex(instructionAddress)).append(": ").append(instruction[1]);
+
+			if (i % 5 == 4)
+			{
+				builder.append("  ;*invokevirtual ").append(member.name).append(" {reexecute=0 rethrow=0 return_oop=0}\n");
+				builder.append("                                                            ; - ").append(member.holder).append("::")
+						.append(member.name).append('@').append(random.nextInt(member.bytes)).append(" (line ")
+						.append(10 + random.nextInt(200)).append(')');
+			}
+
+			builder.append('\n');
+
+			instructionAddress += (Integer) instruction[0];
+		}
+
+		builder.append("  ").append(hex(instructionAddress)).append(": jmpq   ").append(hex(entry)).append('\n');
+		builder.append("  ").append(hex(instructionAddress + 5)).append(": retq   \n");
+		builder.append("[Exception Handler]\n");
+		builder.append("  ").append(hex(stubStart)).append(": jmpq   ").append(hex(BASE_ADDRESS - 0x1000)).append("  ;   {no_reloc}\n");
+		builder.append("[Deopt Handler Code]\n");
+		builder.append("  ").append(hex(stubStart + 5)).append(": callq  ").append(hex(stubStart + 10)).append('\n');
+		builder.append("--------------------------------------------------------------------------------\n");
+		builder.append("[/Disassembly]\n");
+		builder.append("</print_nmethod>\n");
+
+		writeTty(threadId, builder);
+	}
+
+	private void writeTty(String threadId, CharSequence text) throws IOException
+	{
+		if (!threadId.equals(currentWriter))
+		{
+			write(tty, "<writer thread='" + threadId + "'/>\n");
+
+			currentWriter = threadId;
+		}
+
+		write(tty, text);
+	}
+
+	private void write(Writer writer, CharSequence text) throws IOException
+	{
+		writer.append(text);
+
+		// the log is ASCII so a char is a byte
+		written += text.length();
+	}
+
+	private static String stamp(long millis)
+	{
+		long fraction = millis % 1000;
+
+		return (millis / 1000) + (fraction < 10 ? ".00" : fraction < 100 ? ".0" : ".") + fraction;
+	}
+
+	private static String hex(long value)
+	{
+		String digits = Long.toHexString(value);
+
+		return "0x0000000000000000".substring(0, 18 - digits.length()) + digits;
+	}
+
+	private static boolean isPrimitive(String typeName)
+	{
+		return typeName.indexOf('.') == -1 && typeName.charAt(0) != '[';
+	}
+
+	private static String toDescriptor(String typeName)
+	{
+		switch (typeName)
+		{
+		case "void":
+			return "V";
+		case "int":
+			return "I";
+		case "long":
+			return "J";
+		case "boolean":
+			return "Z";
+		case "double":
+			return "D";
+		default:
+			break;
+		}
+
+		String slashed = typeName.replace('.', '/');
+
+		return (typeName.charAt(0) == '[') ? slashed : "L" + slashed + ";";
+	}
+
+	private static class Member
+	{
+		private final int index;
+
+		private final String holder;
+
+		private final String name;
+
+		private final String[] params;
+
+		private final String returnType;
+
+		private final String descriptor;
+
+		private final String logSignature;
+
+		private final int bytes;
+
+		private int compilations;
+
+		private int lastCompileId;
+
+		private int lastLevel;
+
+		Member(int index, String holder, String name, String[] params, String returnType, int bytes)
+		{
+			this.index = index;
+			this.holder = holder;
+			this.name = name;
+			this.params = params;
+			this.returnType = returnType;
+			this.bytes = bytes;
+
+			StringBuilder builder = new StringBuilder("(");
+
+			for (String param : params)
+			{
+				builder.append(toDescriptor(param));
+			}
+
+			builder.append(')').append(toDescriptor(returnType));
+
+			descriptor = builder.toString();
+
+			logSignature = holder + " " + name + " " + descriptor;
+		}
+
+		int count()
+		{
+			return 1000 + 500 * compilations;
+		}
+	}
+
+	private static class PendingCompilation
+	{
+		private final int compileId;
+
+		private final Member member;
+
+		private final int level;
+
+		private final long queuedStamp;
+
+		PendingCompilation(int compileId, Member member, int level, long queuedStamp)
+		{
+			this.compileId = compileId;
+			this.member = member;
+			this.level = level;
+			this.queuedStamp = queuedStamp;
+		}
+	}
+
+	private static class CompilerThreadLog
+	{
+		private final String id;
+
+		private final String name;
+
+		private final File file;
+
+		private final Writer writer;
+
+		CompilerThreadLog(String id, String name, File file) throws IOException
+		{
+			this.id = id;
+			this.name = name;
+			this.file = file;
+			this.writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.US_ASCII), 64 * 1024);
+		}
+
+		@Override
+		public String toString()
+		{
+			return name + " " + id;
+		}
+	}
+}
@@ -0,0 +1,240 @@
+package org.adoptopenjdk.jitwatch.demo;
+
+/**
+ * Shape of the log written by SyntheticLogGenerator. The same options and
+ * seed always produce the same log.
+ */
+public class SyntheticLogOptions
+{
+	public static final long MIN_TARGET_BYTES = 1024L * 1024;
+
+	public static final long MAX_TARGET_BYTES = 50L * 1024 * 1024 * 1024;
+
+	private long targetBytes = 16L * 1024 * 1024;
+
+	private long seed = 42;
+
+	private int classes = 200;
+
+	private int classesPerPackage = 25;
+
+	private int methodsPerClass = 10;
+
+	private int overloads = 2;
+
+	private int tiers = 4;
+
+	private int inliningDepth = 3;
+
+	// chance that a compilation is followed by a deoptimisation
+	private double deoptRate = 0.02;
+
+	// compilations between sweeper events, 0 for none
+	private int sweeperInterval = 500;
+
+	// compilations between code cache full events, 0 for none
+	private int codeCacheFullInterval = 0;
+
+	private int compilerThreads = 3;
+
+	private boolean printAssembly = false;
+
+	public long getTargetBytes()
+	{
+		return targetBytes;
+	}
+
+	public void setTargetBytes(long targetBytes)
+	{
+		if (targetBytes < MIN_TARGET_BYTES || targetBytes > MAX_TARGET_BYTES)
+		{
+			throw new IllegalArgumentException("Target size must be between 1MB and 50GB: " + targetBytes);
+		}
+
+		this.targetBytes = targetBytes;
+	}
+
+	public long getSeed()
+	{
+		return seed;
+	}
+
+	public void setSeed(long seed)
+	{
+		this.seed = seed;
+	}
+
+	public int getClasses()
+	{
+		return classes;
+	}
+
+	public void setClasses(int classes)
+	{
+		this.classes = atLeast(1, classes, "classes");
+	}
+
+	public int getClassesPerPackage()
+	{
+		return classesPerPackage;
+	}
+
+	public void setClassesPerPackage(int classesPerPackage)
+	{
+		this.classesPerPackage = atLeast(1, classesPerPackage, "classes per package");
+	}
+
+	public int getMethodsPerClass()
+	{
+		return methodsPerClass;
+	}
+
+	public void setMethodsPerClass(int methodsPerClass)
+	{
+		this.methodsPerClass = atLeast(1, methodsPerClass, "methods per class");
+	}
+
+	public int getOverloads()
+	{
+		return overloads;
+	}
+
+	public void setOverloads(int overloads)
+	{
+		this.overloads = atLeast(1, overloads, "overloads");
+	}
+
+	public int getTiers()
+	{
+		return tiers;
+	}
+
+	/**
+	 * @param tiers
+	 *            1 for C2 only (level 4), up to 4 for levels 1 to 4
+	 */
+	public void setTiers(int tiers)
+	{
+		if (tiers < 1 || tiers > 4)
+		{
+			throw new IllegalArgumentException("Tiers must be between 1 and 4: " + tiers);
+		}
+
+		this.tiers = tiers;
+	}
+
+	public int getInliningDepth()
+	{
+		return inliningDepth;
+	}
+
+	public void setInliningDepth(int inliningDepth)
+	{
+		this.inliningDepth = atLeast(0, inliningDepth, "inlining depth");
+	}
+
+	public double getDeoptRate()
+	{
+		return deoptRate;
+	}
+
+	public void setDeoptRate(double deoptRate)
+	{
+		if (deoptRate < 0 || deoptRate > 1)
+		{
+			throw new IllegalArgumentException("Deopt rate must be between 0 and 1: " + deoptRate);
+		}
+
+		this.deoptRate = deoptRate;
+	}
+
+	public int getSweeperInterval()
+	{
+		return sweeperInterval;
+	}
+
+	public void setSweeperInterval(int sweeperInterval)
+	{
+		this.sweeperInterval = atLeast(0, sweeperInterval, "sweeper interval");
+	}
+
+	public int getCodeCacheFullInterval()
+	{
+		return codeCacheFullInterval;
+	}
+
+	public void setCodeCacheFullInterval(int codeCacheFullInterval)
+	{
+		this.codeCacheFullInterval = atLeast(0, codeCacheFullInterval, "code cache full interval");
+	}
+
+	public int getCompilerThreads()
+	{
+		return compilerThreads;
+	}
+
+	/**
+	 * @param compilerThreads
+	 *            a third of the threads (at least one) compile C1 tiers when
+	 *            there are two or more
+	 */
+	public void setCompilerThreads(int compilerThreads)
+	{
+		this.compilerThreads = atLeast(1, compilerThreads, "compiler threads");
+	}
+
+	public boolean isPrintAssembly()
+	{
+		return printAssembly;
+	}
+
+	public void setPrintAssembly(boolean printAssembly)
+	{
+		this.printAssembly = printAssembly;
+	}
+
+	private static int atLeast(int min, int value, String name)
+	{
+		if (value < min)
+		{
+			throw new IllegalArgumentException("Number of " + name + " must be at least " + min + ": " + value);
+		}
+
+		return value;
+	}
+
+	/**
+	 * @param size
+	 *            a byte count with an optional K, M or G suffix
+	 */
+	public static long parseSize(String size)
+	{
+		String trimmed = size.trim().toUpperCase();
+
+		long multiplier = 1;
+
+		char last = trimmed.charAt(trimmed.length() - 1);
+
+		switch (last)
+		{
+		case 'K':
+			multiplier = 1024L;
+			break;
+		case 'M':
+			multiplier = 1024L * 1024;
+			break;
+		case 'G':
+			multiplier = 1024L * 1024 * 1024;
+			break;
+		default:
+			break;
+		}
+
+		if (multiplier != 1)
+		{
+			trimmed = trimmed.substring(0, trimmed.length() - 1);
+		}
+
+		return Long.parseLong(trimmed) * multiplier;
+	}
+}
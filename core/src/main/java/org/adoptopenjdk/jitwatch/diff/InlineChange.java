@@ -0,0 +1,53 @@
+package org.adoptopenjdk.jitwatch.diff;
+
+/**
+ * A callee that was mostly inlined in one run and mostly not in the other
+ */
+public class InlineChange
+{
+	private final String callee;
+	private final InlineOutcome before;
+	private final InlineOutcome after;
+
+	public InlineChange(String callee, InlineOutcome before, InlineOutcome after)
+	{
+		this.callee = callee;
+		this.before = before;
+		this.after = after;
+	}
+
+	public String getCallee()
+	{
+		return callee;
+	}
+
+	public InlineOutcome getBefore()
+	{
+		return before;
+	}
+
+	public InlineOutcome getAfter()
+	{
+		return after;
+	}
+
+	public boolean isRegression()
+	{
+		return before.isMostlyInlined() && !after.isMostlyInlined();
+	}
+
+	/**
+	 * @return the failure reasons of the run in which the callee was not
+	 *         inlined
+	 */
+	public String getReasons()
+	{
+		return String.join(", ", isRegression() ? after.getFailureReasons() : before.getFailureReasons());
+	}
+
+	@Override
+	public String toString()
+	{
+		return callee + " (" + before + " -> " + after + ")";
+	}
+}
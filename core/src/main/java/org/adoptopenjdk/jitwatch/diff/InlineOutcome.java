@@ -0,0 +1,65 @@
+package org.adoptopenjdk.jitwatch.diff;
+
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * How often one callee was inlined into a member across all of the member's
+ * compilations, and why it was not
+ */
+public class InlineOutcome
+{
+	private int successes;
+	private int failures;
+	private final Set<String> failureReasons = new TreeSet<>();
+
+	public void addSuccess()
+	{
+		successes++;
+	}
+
+	public void addFailure(String reason)
+	{
+		failures++;
+
+		if (reason != null)
+		{
+			failureReasons.add(reason);
+		}
+	}
+
+	public void add(InlineOutcome other)
+	{
+		successes += other.successes;
+		failures += other.failures;
+		failureReasons.addAll(other.failureReasons);
+	}
+
+	public int getSuccesses()
+	{
+		return successes;
+	}
+
+	public int getFailures()
+	{
+		return failures;
+	}
+
+	public Set<String> getFailureReasons()
+	{
+		return failureReasons;
+	}
+
+	// tiered logs hold C1 and C2 decisions for the same call so a callee is
+	// taken as inlined when it succeeded at least as often as it failed
+	public boolean isMostlyInlined()
+	{
+		return successes > 0 && successes >= failures;
+	}
+
+	@Override
+	public String toString()
+	{
+		return successes + " inlined, " + failures + " failed" + (failureReasons.isEmpty() ? "" : " " + failureReasons);
+	}
+}
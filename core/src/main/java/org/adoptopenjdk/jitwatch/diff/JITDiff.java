@@ -0,0 +1,109 @@
+package org.adoptopenjdk.jitwatch.diff;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+import org.adoptopenjdk.jitwatch.core.JITWatchConfig;
+import org.adoptopenjdk.jitwatch.logger.ILogListener;
+import org.adoptopenjdk.jitwatch.parser.ParserType;
+
+/**
+ * Compares the compilations of two runs of the same code. Each log is
+ * profiled on its own thread by a LogProfiler, so only the profiles are kept
+ * once both parses are done. Members are joined on their normalised
+ * signature.
+ */
+public class JITDiff
+{
+	private final LogProfiler profiler;
+
+	/**
+	 * @param logListener
+	 *            receives the log and error lines of both parsers, may be null
+	 */
+	public JITDiff(ParserType parserType, JITWatchConfig config, ILogListener logListener)
+	{
+		profiler = new LogProfiler(parserType, config, logListener);
+	}
+
+	public JITDiffResult diff(final File baselineLog, final File candidateLog) throws IOException
+	{
+		ForkJoinPool pool = new ForkJoinPool(2);
+
+		try
+		{
+			ForkJoinTask<RunProfile> baselineTask = pool.submit(() -> profiler.profile(baselineLog));
+			ForkJoinTask<RunProfile> candidateTask = pool.submit(() -> profiler.profile(candidateLog));
+
+			return compare(baselineTask.get(), candidateTask.get());
+		}
+		catch (InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+
+			throw new IOException("Interrupted while parsing the logs", e);
+		}
+		catch (ExecutionException e)
+		{
+			if (e.getCause() instanceof IOException)
+			{
+				throw (IOException) e.getCause();
+			}
+
+			throw new IOException("Could not parse the logs", e.getCause());
+		}
+		finally
+		{
+			pool.shutdownNow();
+		}
+	}
+
+	public static JITDiffResult compare(RunProfile baseline, RunProfile candidate)
+	{
+		Set<String> signatures = new HashSet<>();
+
+		for (MemberProfile member : baseline.getMembers())
+		{
+			signatures.add(member.getSignature());
+		}
+
+		for (MemberProfile member : candidate.getMembers())
+		{
+			signatures.add(member.getSignature());
+		}
+
+		List<MemberDelta> deltas = new ArrayList<>();
+
+		for (String signature : signatures)
+		{
+			MemberDelta delta = new MemberDelta(signature, baseline.getMember(signature), candidate.getMember(signature));
+
+			if (delta.hasChanges())
+			{
+				deltas.add(delta);
+			}
+		}
+
+		Collections.sort(deltas, new Comparator<MemberDelta>()
+		{
+			@Override
+			public int compare(MemberDelta d1, MemberDelta d2)
+			{
+				int result = Long.compare(d2.getScore(), d1.getScore());
+
+				return (result != 0) ? result : d1.getSignature().compareTo(d2.getSignature());
+			}
+		});
+
+		return new JITDiffResult(baseline, candidate, deltas);
+	}
+}
@@ -0,0 +1,62 @@
+package org.adoptopenjdk.jitwatch.diff;
+
+import java.util.List;
+
+/**
+ * The ranked member deltas of two runs and the profiles they came from
+ */
+public class JITDiffResult
+{
+	private final RunProfile baseline;
+	private final RunProfile candidate;
+	private final List<MemberDelta> deltas;
+
+	public JITDiffResult(RunProfile baseline, RunProfile candidate, List<MemberDelta> deltas)
+	{
+		this.baseline = baseline;
+		this.candidate = candidate;
+		this.deltas = deltas;
+	}
+
+	public RunProfile getBaseline()
+	{
+		return baseline;
+	}
+
+	public RunProfile getCandidate()
+	{
+		return candidate;
+	}
+
+	/**
+	 * @return the members that changed, highest score first
+	 */
+	public List<MemberDelta> getDeltas()
+	{
+		return deltas;
+	}
+
+	public int getInlineRegressionCount()
+	{
+		int result = 0;
+
+		for (MemberDelta delta : deltas)
+		{
+			result += delta.getInlineRegressions().size();
+		}
+
+		return result;
+	}
+
+	public int getLostEliminationCount()
+	{
+		int result = 0;
+
+		for (MemberDelta delta : deltas)
+		{
+			result += delta.getLostEliminations().size();
+		}
+
+		return result;
+	}
+}
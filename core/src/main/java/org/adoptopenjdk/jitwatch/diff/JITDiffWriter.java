@@ -0,0 +1,247 @@
+package org.adoptopenjdk.jitwatch.diff;
+
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.HEADLESS_SEPARATOR;
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.S_NEWLINE;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.adoptopenjdk.jitwatch.util.StringUtil;
+
+/**
+ * Writes a diff as the headless separated values or as JSON
+ */
+public final class JITDiffWriter
+{
+	private static final String[] RUN_COLUMNS = new String[] { "Run", "Log", "Members", "Compilations", "Native bytes",
+			"Code cache full", "Sweeps", "Min free code cache", "Parse errors" };
+
+	private static final String[] MEMBER_COLUMNS = new String[] { "Score", "Status", "Member", "Compilations before",
+			"Compilations after", "Levels before", "Levels after", "Compile ms before", "Compile ms after", "Native bytes before",
+			"Native bytes after", "Inline regressions", "Inline improvements", "Lost eliminations", "New eliminations" };
+
+	private JITDiffWriter()
+	{
+	}
+
+	/**
+	 * @param limit
+	 *            the most members to write, 0 for all
+	 */
+	public static String toCSV(JITDiffResult result, int limit)
+	{
+		StringBuilder builder = new StringBuilder();
+
+		builder.append("sep=").append(HEADLESS_SEPARATOR).append(S_NEWLINE);
+
+		appendRow(builder, (Object[]) RUN_COLUMNS);
+		appendRunRow(builder, "baseline", result.getBaseline());
+		appendRunRow(builder, "candidate", result.getCandidate());
+
+		builder.append(S_NEWLINE);
+
+		appendRow(builder, (Object[]) MEMBER_COLUMNS);
+
+		for (MemberDelta delta : limit(result.getDeltas(), limit))
+		{
+			MemberProfile before = delta.getBaseline();
+			MemberProfile after = delta.getCandidate();
+
+			appendRow(builder, delta.getScore(), delta.getStatus(), delta.getSignature(), compilations(before), compilations(after),
+					levels(before), levels(after), compileTime(before), compileTime(after), nativeSize(before), nativeSize(after),
+					inlineChanges(delta.getInlineRegressions()), inlineChanges(delta.getInlineImprovements()),
+					String.join(", ", delta.getLostEliminations()), String.join(", ", delta.getNewEliminations()));
+		}
+
+		return builder.toString();
+	}
+
+	private static void appendRunRow(StringBuilder builder, String run, RunProfile profile)
+	{
+		appendRow(builder, run, profile.getName(), profile.getMemberCount(), profile.getCompilationCount(), profile.getNativeBytes(),
+				profile.getCodeCacheFullCount(), profile.getSweeperCount(), profile.getMinFreeCodeCache(), profile.getParseErrorCount());
+	}
+
+	private static void appendRow(StringBuilder builder, Object... values)
+	{
+		for (int i = 0; i < values.length; i++)
+		{
+			if (i > 0)
+			{
+				builder.append(HEADLESS_SEPARATOR);
+			}
+
+			builder.append(values[i]);
+		}
+
+		builder.append(S_NEWLINE);
+	}
+
+	/**
+	 * @param limit
+	 *            the most members to write, 0 for all
+	 */
+	public static String toJSON(JITDiffResult result, int limit)
+	{
+		StringBuilder builder = new StringBuilder();
+
+		builder.append("{").append(S_NEWLINE);
+
+		builder.append("  \"baseline\": ");
+		appendRunJSON(builder, result.getBaseline());
+		builder.append(",").append(S_NEWLINE);
+
+		builder.append("  \"candidate\": ");
+		appendRunJSON(builder, result.getCandidate());
+		builder.append(",").append(S_NEWLINE);
+
+		builder.append("  \"members\": [");
+
+		List<MemberDelta> deltas = limit(result.getDeltas(), limit);
+
+		for (int i = 0; i < deltas.size(); i++)
+		{
+			builder.append((i == 0) ? S_NEWLINE : "," + S_NEWLINE);
+			appendDeltaJSON(builder, deltas.get(i));
+		}
+
+		builder.append(S_NEWLINE).append("  ]").append(S_NEWLINE);
+		builder.append("}").append(S_NEWLINE);
+
+		return builder.toString();
+	}
+
+	private static void appendRunJSON(StringBuilder builder, RunProfile profile)
+	{
+		builder.append("{ \"log\": ").append(StringUtil.quoteJSON(profile.getName()));
+		builder.append(", \"members\": ").append(profile.getMemberCount());
+		builder.append(", \"compilations\": ").append(profile.getCompilationCount());
+		builder.append(", \"nativeBytes\": ").append(profile.getNativeBytes());
+		builder.append(", \"codeCacheFull\": ").append(profile.getCodeCacheFullCount());
+		builder.append(", \"sweeps\": ").append(profile.getSweeperCount());
+		builder.append(", \"minFreeCodeCache\": ").append(profile.getMinFreeCodeCache());
+		builder.append(", \"parseErrors\": ").append(profile.getParseErrorCount());
+		builder.append(" }");
+	}
+
+	private static void appendDeltaJSON(StringBuilder builder, MemberDelta delta)
+	{
+		builder.append("    { \"member\": ").append(StringUtil.quoteJSON(delta.getSignature()));
+		builder.append(", \"status\": ").append(StringUtil.quoteJSON(delta.getStatus()));
+		builder.append(", \"score\": ").append(delta.getScore());
+		builder.append(", \"before\": ");
+		appendMemberJSON(builder, delta.getBaseline());
+		builder.append(", \"after\": ");
+		appendMemberJSON(builder, delta.getCandidate());
+		builder.append(", \"inlineRegressions\": ");
+		appendInlineChangesJSON(builder, delta.getInlineRegressions());
+		builder.append(", \"inlineImprovements\": ");
+		appendInlineChangesJSON(builder, delta.getInlineImprovements());
+		builder.append(", \"lostEliminations\": ");
+		appendStringsJSON(builder, delta.getLostEliminations());
+		builder.append(", \"newEliminations\": ");
+		appendStringsJSON(builder, delta.getNewEliminations());
+		builder.append(" }");
+	}
+
+	private static void appendMemberJSON(StringBuilder builder, MemberProfile profile)
+	{
+		if (profile == null)
+		{
+			builder.append("null");
+		}
+		else
+		{
+			builder.append("{ \"compilations\": ").append(profile.getCompilations());
+			builder.append(", \"levels\": [").append(profile.getLevelsText()).append("]");
+			builder.append(", \"compileMillis\": ").append(profile.getCompileTime());
+			builder.append(", \"nativeBytes\": ").append(profile.getNativeSize());
+			builder.append(" }");
+		}
+	}
+
+	private static void appendInlineChangesJSON(StringBuilder builder, List<InlineChange> changes)
+	{
+		builder.append("[");
+
+		for (int i = 0; i < changes.size(); i++)
+		{
+			InlineChange change = changes.get(i);
+
+			builder.append((i == 0) ? " " : ", ");
+			builder.append("{ \"callee\": ").append(StringUtil.quoteJSON(change.getCallee()));
+			builder.append(", \"reasons\": ").append(StringUtil.quoteJSON(change.getReasons()));
+			builder.append(" }");
+		}
+
+		builder.append(changes.isEmpty() ? "]" : " ]");
+	}
+
+	private static void appendStringsJSON(StringBuilder builder, Collection<String> values)
+	{
+		builder.append("[");
+
+		boolean first = true;
+
+		for (String value : values)
+		{
+			builder.append(first ? " " : ", ").append(StringUtil.quoteJSON(value));
+			first = false;
+		}
+
+		builder.append(values.isEmpty() ? "]" : " ]");
+	}
+
+	/**
+	 * @return the callees with the reasons they were not inlined, separated
+	 *         by semicolons
+	 */
+	public static String inlineChanges(List<InlineChange> changes)
+	{
+		StringBuilder builder = new StringBuilder();
+
+		for (InlineChange change : changes)
+		{
+			if (builder.length() > 0)
+			{
+				builder.append("; ");
+			}
+
+			builder.append(change.getCallee());
+
+			String reasons = change.getReasons();
+
+			if (!reasons.isEmpty())
+			{
+				builder.append(" (").append(reasons).append(")");
+			}
+		}
+
+		return builder.toString();
+	}
+
+	private static List<MemberDelta> limit(List<MemberDelta> deltas, int limit)
+	{
+		return (limit > 0 && limit < deltas.size()) ? deltas.subList(0, limit) : deltas;
+	}
+
+	private static String compilations(MemberProfile profile)
+	{
+		return (profile == null) ? "" : Integer.toString(profile.getCompilations());
+	}
+
+	private static String levels(MemberProfile profile)
+	{
+		return (profile == null) ? "" : profile.getLevelsText();
+	}
+
+	private static String compileTime(MemberProfile profile)
+	{
+		return (profile == null) ? "" : Long.toString(profile.getCompileTime());
+	}
+
+	private static String nativeSize(MemberProfile profile)
+	{
+		return (profile == null) ? "" : Integer.toString(profile.getNativeSize());
+	}
+}
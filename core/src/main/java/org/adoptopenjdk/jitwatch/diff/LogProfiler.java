@@ -0,0 +1,135 @@
+package org.adoptopenjdk.jitwatch.diff;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.adoptopenjdk.jitwatch.core.IJITListener;
+import org.adoptopenjdk.jitwatch.core.JITWatchConfig;
+import org.adoptopenjdk.jitwatch.logger.ILogListener;
+import org.adoptopenjdk.jitwatch.model.JITEvent;
+import org.adoptopenjdk.jitwatch.parser.ILogParseErrorListener;
+import org.adoptopenjdk.jitwatch.parser.ILogParser;
+import org.adoptopenjdk.jitwatch.parser.ParserFactory;
+import org.adoptopenjdk.jitwatch.parser.ParserType;
+
+/**
+ * Parses a log with a parser of its own and keeps only its RunProfile, so
+ * several logs can be profiled on different threads at once
+ */
+public class LogProfiler
+{
+	private final ParserType parserType;
+	private final JITWatchConfig config;
+	private final ILogListener logListener;
+
+	/**
+	 * @param logListener
+	 *            receives the log and error lines of the parsers prefixed
+	 *            with the log name, may be null
+	 */
+	public LogProfiler(ParserType parserType, JITWatchConfig config, ILogListener logListener)
+	{
+		this.parserType = parserType;
+		this.config = config;
+		this.logListener = logListener;
+	}
+
+	/**
+	 * @throws IOException
+	 *             if the log could not be read, is not a HotSpot log or holds
+	 *             no compilations. Lines the parser could not handle are only
+	 *             counted in the profile.
+	 */
+	public RunProfile profile(File logFile) throws IOException
+	{
+		RunListener listener = new RunListener(logFile.getName());
+
+		ILogParser parser = ParserFactory.getParser(parserType, listener);
+
+		parser.setConfig(config);
+
+		try
+		{
+			parser.processLogFile(logFile, listener);
+
+			// a HotSpot log always opens with a hotspot_log tag giving its start time
+			if (parserType == ParserType.HOTSPOT && parser.getModel().getBaseTimestamp() == 0)
+			{
+				throw new IOException("Not a HotSpot log, no hotspot_log tag found");
+			}
+
+			RunProfile result = new RunProfileBuilder(parser.getModel()).buildProfile(logFile.getName());
+
+			if (result.getMemberCount() == 0)
+			{
+				throw new IOException("No compilations found");
+			}
+
+			result.setParseErrorCount(listener.getErrorCount());
+
+			return result;
+		}
+		finally
+		{
+			parser.reset();
+		}
+	}
+
+	private class RunListener implements IJITListener, ILogParseErrorListener
+	{
+		private final String prefix;
+
+		private int errorCount = 0;
+
+		RunListener(String logName)
+		{
+			prefix = logName + ": ";
+		}
+
+		int getErrorCount()
+		{
+			return errorCount;
+		}
+
+		@Override
+		public void handleLogEntry(String entry)
+		{
+			if (logListener != null)
+			{
+				logListener.handleLogEntry(prefix + entry);
+			}
+		}
+
+		@Override
+		public void handleErrorEntry(String entry)
+		{
+			errorCount++;
+
+			if (logListener != null)
+			{
+				logListener.handleErrorEntry(prefix + entry);
+			}
+		}
+
+		@Override
+		public void handleError(String title, String body)
+		{
+			handleErrorEntry(title + " " + body);
+		}
+
+		@Override
+		public void handleJITEvent(JITEvent event)
+		{
+		}
+
+		@Override
+		public void handleReadStart()
+		{
+		}
+
+		@Override
+		public void handleReadComplete()
+		{
+		}
+	}
+}
@@ -0,0 +1,231 @@
+package org.adoptopenjdk.jitwatch.diff;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * The differences between the profiles of one member in a baseline and a
+ * candidate run. Either profile is null when the member was only compiled in
+ * the other run.
+ */
+public class MemberDelta
+{
+	// score weights, an inlining or allocation change usually costs more at
+	// runtime than a few extra compilations
+	private static final int SCORE_APPEARED_OR_GONE = 20;
+	private static final int SCORE_PER_COMPILATION = 1;
+	private static final int SCORE_PER_LEVEL = 10;
+	private static final int SCORE_PER_INLINE_CHANGE = 25;
+	private static final int SCORE_PER_ALLOCATION_CHANGE = 15;
+	private static final int NATIVE_BYTES_PER_POINT = 256;
+	private static final int COMPILE_MILLIS_PER_POINT = 10;
+
+	private final String signature;
+	private final MemberProfile baseline;
+	private final MemberProfile candidate;
+
+	private final List<InlineChange> inlineRegressions = new ArrayList<>();
+	private final List<InlineChange> inlineImprovements = new ArrayList<>();
+	private final Set<String> lostEliminations = new TreeSet<>();
+	private final Set<String> newEliminations = new TreeSet<>();
+
+	private final long score;
+
+	public MemberDelta(String signature, MemberProfile baseline, MemberProfile candidate)
+	{
+		this.signature = signature;
+		this.baseline = baseline;
+		this.candidate = candidate;
+
+		if (baseline != null && candidate != null)
+		{
+			compareInlining();
+			compareEliminations();
+		}
+
+		score = calculateScore();
+	}
+
+	private void compareInlining()
+	{
+		Map<String, InlineOutcome> after = candidate.getInlining();
+
+		for (Map.Entry<String, InlineOutcome> entry : baseline.getInlining().entrySet())
+		{
+			InlineOutcome afterOutcome = after.get(entry.getKey());
+
+			// a callee that is no longer called is not an inlining change
+			if (afterOutcome != null && entry.getValue().isMostlyInlined() != afterOutcome.isMostlyInlined())
+			{
+				InlineChange change = new InlineChange(entry.getKey(), entry.getValue(), afterOutcome);
+
+				if (change.isRegression())
+				{
+					inlineRegressions.add(change);
+				}
+				else
+				{
+					inlineImprovements.add(change);
+				}
+			}
+		}
+	}
+
+	private void compareEliminations()
+	{
+		Set<String> before = baseline.getEliminatedAllocations().keySet();
+		Set<String> after = candidate.getEliminatedAllocations().keySet();
+
+		for (String type : before)
+		{
+			if (!after.contains(type))
+			{
+				lostEliminations.add(type);
+			}
+		}
+
+		for (String type : after)
+		{
+			if (!before.contains(type))
+			{
+				newEliminations.add(type);
+			}
+		}
+	}
+
+	private long calculateScore()
+	{
+		long result;
+
+		if (baseline == null || candidate == null)
+		{
+			MemberProfile only = (baseline == null) ? candidate : baseline;
+
+			result = SCORE_APPEARED_OR_GONE + only.getNativeSize() / NATIVE_BYTES_PER_POINT;
+		}
+		else
+		{
+			result = Math.abs(getCompilationsDelta()) * SCORE_PER_COMPILATION;
+			result += Math.abs(getHighestLevelDelta()) * SCORE_PER_LEVEL;
+			result += (inlineRegressions.size() + inlineImprovements.size()) * SCORE_PER_INLINE_CHANGE;
+			result += (lostEliminations.size() + newEliminations.size()) * SCORE_PER_ALLOCATION_CHANGE;
+			result += Math.abs(getNativeSizeDelta()) / NATIVE_BYTES_PER_POINT;
+			result += Math.abs(getCompileTimeDelta()) / COMPILE_MILLIS_PER_POINT;
+		}
+
+		return result;
+	}
+
+	public String getSignature()
+	{
+		return signature;
+	}
+
+	public MemberProfile getBaseline()
+	{
+		return baseline;
+	}
+
+	public MemberProfile getCandidate()
+	{
+		return candidate;
+	}
+
+	public String getStatus()
+	{
+		String result = "changed";
+
+		if (baseline == null)
+		{
+			result = "new";
+		}
+		else if (candidate == null)
+		{
+			result = "gone";
+		}
+
+		return result;
+	}
+
+	public boolean hasChanges()
+	{
+		return score > 0;
+	}
+
+	/**
+	 * @return how much the member moved between the runs, higher first in
+	 *         the report
+	 */
+	public long getScore()
+	{
+		return score;
+	}
+
+	public int getCompilationsDelta()
+	{
+		return getCompilations(candidate) - getCompilations(baseline);
+	}
+
+	public int getHighestLevelDelta()
+	{
+		return (baseline == null || candidate == null) ? 0 : candidate.getHighestLevel() - baseline.getHighestLevel();
+	}
+
+	public long getCompileTimeDelta()
+	{
+		return getCompileTime(candidate) - getCompileTime(baseline);
+	}
+
+	public long getNativeSizeDelta()
+	{
+		return getNativeSize(candidate) - getNativeSize(baseline);
+	}
+
+	public List<InlineChange> getInlineRegressions()
+	{
+		return inlineRegressions;
+	}
+
+	public List<InlineChange> getInlineImprovements()
+	{
+		return inlineImprovements;
+	}
+
+	/**
+	 * @return the types whose allocations were eliminated in the baseline but
+	 *         not in the candidate
+	 */
+	public Set<String> getLostEliminations()
+	{
+		return lostEliminations;
+	}
+
+	public Set<String> getNewEliminations()
+	{
+		return newEliminations;
+	}
+
+	private static int getCompilations(MemberProfile profile)
+	{
+		return (profile == null) ? 0 : profile.getCompilations();
+	}
+
+	private static long getCompileTime(MemberProfile profile)
+	{
+		return (profile == null) ? 0 : profile.getCompileTime();
+	}
+
+	private static long getNativeSize(MemberProfile profile)
+	{
+		return (profile == null) ? 0 : profile.getNativeSize();
+	}
+
+	@Override
+	public String toString()
+	{
+		return signature + " " + getStatus() + " score=" + score;
+	}
+}
@@ -0,0 +1,212 @@
+package org.adoptopenjdk.jitwatch.diff;
+
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.C_COMMA;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * The compilation facts of one member in one log, small enough to keep for
+ * every compiled member after the model it was taken from has been dropped.
+ * Members are identified by their normalised signature so the profiles of
+ * different runs of the same code can be joined.
+ */
+public class MemberProfile
+{
+	// tiers 0 (interpreter) to 4 (C2)
+	public static final int MAX_LEVEL = 4;
+
+	private final String signature;
+
+	private int compilations;
+	private final int[] levelCompilations = new int[MAX_LEVEL + 1];
+	private long compileTime;
+	private int nativeSize;
+	private long totalNativeSize;
+
+	private final Map<String, InlineOutcome> inlining = new TreeMap<>();
+	private final Map<String, Integer> eliminatedAllocations = new TreeMap<>();
+
+	public MemberProfile(String signature)
+	{
+		this.signature = signature;
+	}
+
+	public String getSignature()
+	{
+		return signature;
+	}
+
+	public void addCompilation(int level, long duration, int compilationNativeSize)
+	{
+		compilations++;
+
+		if (level >= 0 && level <= MAX_LEVEL)
+		{
+			levelCompilations[level]++;
+		}
+
+		compileTime += duration;
+
+		if (compilationNativeSize > 0)
+		{
+			nativeSize = compilationNativeSize;
+			totalNativeSize += compilationNativeSize;
+		}
+	}
+
+	public void addInlineSuccess(String callee)
+	{
+		getInlineOutcome(callee).addSuccess();
+	}
+
+	public void addInlineFailure(String callee, String reason)
+	{
+		getInlineOutcome(callee).addFailure(reason);
+	}
+
+	private InlineOutcome getInlineOutcome(String callee)
+	{
+		InlineOutcome outcome = inlining.get(callee);
+
+		if (outcome == null)
+		{
+			outcome = new InlineOutcome();
+			inlining.put(callee, outcome);
+		}
+
+		return outcome;
+	}
+
+	public void addEliminatedAllocation(String type)
+	{
+		Integer count = eliminatedAllocations.get(type);
+
+		eliminatedAllocations.put(type, (count == null) ? 1 : count + 1);
+	}
+
+	/**
+	 * Adds the facts of a member that normalised to the same signature, such
+	 * as the same lambda in a differently numbered hidden class
+	 */
+	public void add(MemberProfile other)
+	{
+		compilations += other.compilations;
+
+		for (int level = 0; level <= MAX_LEVEL; level++)
+		{
+			levelCompilations[level] += other.levelCompilations[level];
+		}
+
+		compileTime += other.compileTime;
+		nativeSize = Math.max(nativeSize, other.nativeSize);
+		totalNativeSize += other.totalNativeSize;
+
+		for (Map.Entry<String, InlineOutcome> entry : other.inlining.entrySet())
+		{
+			getInlineOutcome(entry.getKey()).add(entry.getValue());
+		}
+
+		for (Map.Entry<String, Integer> entry : other.eliminatedAllocations.entrySet())
+		{
+			Integer count = eliminatedAllocations.get(entry.getKey());
+
+			eliminatedAllocations.put(entry.getKey(), (count == null) ? entry.getValue() : count + entry.getValue());
+		}
+	}
+
+	public int getCompilations()
+	{
+		return compilations;
+	}
+
+	/**
+	 * @return the number of compilations at the tier
+	 */
+	public int getLevelCompilations(int level)
+	{
+		return (level >= 0 && level <= MAX_LEVEL) ? levelCompilations[level] : 0;
+	}
+
+	public int getHighestLevel()
+	{
+		int result = -1;
+
+		for (int level = 0; level <= MAX_LEVEL; level++)
+		{
+			if (levelCompilations[level] > 0)
+			{
+				result = level;
+			}
+		}
+
+		return result;
+	}
+
+	/**
+	 * @return the tiers reached separated by commas, for example 3,4
+	 */
+	public String getLevelsText()
+	{
+		StringBuilder builder = new StringBuilder();
+
+		for (int level = 0; level <= MAX_LEVEL; level++)
+		{
+			if (levelCompilations[level] > 0)
+			{
+				if (builder.length() > 0)
+				{
+					builder.append(C_COMMA);
+				}
+
+				builder.append(level);
+			}
+		}
+
+		return builder.toString();
+	}
+
+	/**
+	 * @return the summed compilation durations in milliseconds
+	 */
+	public long getCompileTime()
+	{
+		return compileTime;
+	}
+
+	/**
+	 * @return the native size of the last compilation that emitted code
+	 */
+	public int getNativeSize()
+	{
+		return nativeSize;
+	}
+
+	public long getTotalNativeSize()
+	{
+		return totalNativeSize;
+	}
+
+	/**
+	 * @return the inlining outcomes by callee signature
+	 */
+	public Map<String, InlineOutcome> getInlining()
+	{
+		return inlining;
+	}
+
+	/**
+	 * @return the number of eliminated allocations by type
+	 */
+	public Map<String, Integer> getEliminatedAllocations()
+	{
+		return eliminatedAllocations;
+	}
+
+	@Override
+	public String toString()
+	{
+		return signature + " compilations=" + compilations + " levels=" + getLevelsText() + " compileTime=" + compileTime
+				+ "ms nativeSize=" + nativeSize;
+	}
+}
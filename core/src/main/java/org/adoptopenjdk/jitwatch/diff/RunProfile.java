@@ -0,0 +1,135 @@
+package org.adoptopenjdk.jitwatch.diff;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The member profiles and code cache figures of one log
+ */
+public class RunProfile
+{
+	private final String name;
+
+	private final Map<String, MemberProfile> members = new HashMap<>();
+
+	private long nativeBytes;
+	private int codeCacheFullCount;
+	private int sweeperCount;
+	private long minFreeCodeCache = -1;
+	private int parseErrorCount;
+
+	public RunProfile(String name)
+	{
+		this.name = name;
+	}
+
+	/**
+	 * @return the name of the log the profile was taken from
+	 */
+	public String getName()
+	{
+		return name;
+	}
+
+	public void addMember(MemberProfile profile)
+	{
+		MemberProfile existing = members.get(profile.getSignature());
+
+		if (existing == null)
+		{
+			members.put(profile.getSignature(), profile);
+		}
+		else
+		{
+			existing.add(profile);
+		}
+	}
+
+	public MemberProfile getMember(String signature)
+	{
+		return members.get(signature);
+	}
+
+	public Collection<MemberProfile> getMembers()
+	{
+		return members.values();
+	}
+
+	public int getMemberCount()
+	{
+		return members.size();
+	}
+
+	public int getCompilationCount()
+	{
+		int result = 0;
+
+		for (MemberProfile member : members.values())
+		{
+			result += member.getCompilations();
+		}
+
+		return result;
+	}
+
+	public void addNativeBytes(long bytes)
+	{
+		nativeBytes += bytes;
+	}
+
+	public long getNativeBytes()
+	{
+		return nativeBytes;
+	}
+
+	public void incCodeCacheFullCount()
+	{
+		codeCacheFullCount++;
+	}
+
+	public int getCodeCacheFullCount()
+	{
+		return codeCacheFullCount;
+	}
+
+	public void incSweeperCount()
+	{
+		sweeperCount++;
+	}
+
+	public int getSweeperCount()
+	{
+		return sweeperCount;
+	}
+
+	public void recordFreeCodeCache(long freeCodeCache)
+	{
+		if (freeCodeCache > 0 && (minFreeCodeCache == -1 || freeCodeCache < minFreeCodeCache))
+		{
+			minFreeCodeCache = freeCodeCache;
+		}
+	}
+
+	/**
+	 * @return the lowest free code cache reported in the log in bytes or -1
+	 */
+	public long getMinFreeCodeCache()
+	{
+		return minFreeCodeCache;
+	}
+
+	public void setParseErrorCount(int parseErrorCount)
+	{
+		this.parseErrorCount = parseErrorCount;
+	}
+
+	/**
+	 * @return the lines the parser could not handle, the rest of the log is
+	 *         still profiled
+	 */
+	public int getParseErrorCount()
+	{
+		return parseErrorCount;
+	}
+}
@@ -0,0 +1,316 @@
+package org.adoptopenjdk.jitwatch.diff;
+
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.ATTR_ARGUMENTS;
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.ATTR_ID;
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.ATTR_METHOD;
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.ATTR_NAME;
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.ATTR_REASON;
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.ATTR_TYPE;
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.C_CLOSE_PARENTHESES;
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.C_COMMA;
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.C_DOT;
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.C_OPEN_PARENTHESES;
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.S_PARSE_HIR;
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.TAG_ASSERT_NULL;
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.TAG_BC;
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.TAG_BRANCH;
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.TAG_CALL;
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.TAG_CAST_UP;
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.TAG_DEPENDENCY;
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.TAG_DIRECT_CALL;
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.TAG_INLINE_FAIL;
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.TAG_INLINE_ID;
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.TAG_INLINE_LEVEL_DISCOUNT;
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.TAG_INLINE_SUCCESS;
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.TAG_INTRINSIC;
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.TAG_KLASS;
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.TAG_METHOD;
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.TAG_OBSERVE;
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.TAG_PARSE;
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.TAG_PARSE_DONE;
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.TAG_PHASE;
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.TAG_PHASE_DONE;
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.TAG_PREDICTED_CALL;
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.TAG_TYPE;
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.TAG_UNCOMMON_TRAP;
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.TAG_VIRTUAL_CALL;
+
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+import org.adoptopenjdk.jitwatch.compilation.AbstractCompilationVisitable;
+import org.adoptopenjdk.jitwatch.compilation.CompilationUtil;
+import org.adoptopenjdk.jitwatch.logger.Logger;
+import org.adoptopenjdk.jitwatch.logger.LoggerFactory;
+import org.adoptopenjdk.jitwatch.model.CodeCacheEvent;
+import org.adoptopenjdk.jitwatch.model.Compilation;
+import org.adoptopenjdk.jitwatch.model.IMetaMember;
+import org.adoptopenjdk.jitwatch.model.IParseDictionary;
+import org.adoptopenjdk.jitwatch.model.IReadOnlyJITDataModel;
+import org.adoptopenjdk.jitwatch.model.LogParseException;
+import org.adoptopenjdk.jitwatch.model.Tag;
+import org.adoptopenjdk.jitwatch.treevisitor.ITreeVisitable;
+import org.adoptopenjdk.jitwatch.treevisitor.TreeVisitor;
+import org.adoptopenjdk.jitwatch.util.ParseUtil;
+import org.adoptopenjdk.jitwatch.util.StringUtil;
+
+/**
+ * Walks a parsed model once and keeps what a run-to-run comparison needs
+ */
+public class RunProfileBuilder implements ITreeVisitable
+{
+	private static final Logger logger = LoggerFactory.getLogger(RunProfileBuilder.class);
+
+	// hidden classes get a new number and address in each run
+	private static final Pattern PATTERN_LAMBDA_NUMBER = Pattern.compile("\\$\\$Lambda\\$\\d+");
+	private static final Pattern PATTERN_HIDDEN_CLASS_ADDRESS = Pattern.compile("/0x[0-9a-fA-F]+");
+
+	private final IReadOnlyJITDataModel model;
+
+	private RunProfile profile;
+
+	public RunProfileBuilder(IReadOnlyJITDataModel model)
+	{
+		this.model = model;
+	}
+
+	public RunProfile buildProfile(String name)
+	{
+		profile = new RunProfile(name);
+
+		TreeVisitor.walkTree(model, this);
+
+		profile.addNativeBytes(model.getJITStats().getNativeBytes());
+
+		for (CodeCacheEvent event : model.getCodeCacheEvents())
+		{
+			switch (event.getEventType())
+			{
+			case CACHE_FULL:
+				profile.incCodeCacheFullCount();
+				break;
+			case SWEEPER:
+				profile.incSweeperCount();
+				break;
+			default:
+				profile.recordFreeCodeCache(event.getFreeCodeCache());
+				break;
+			}
+		}
+
+		return profile;
+	}
+
+	@Override
+	public void visit(IMetaMember metaMember)
+	{
+		if (metaMember != null && metaMember.isCompiled())
+		{
+			MemberProfile memberProfile = new MemberProfile(getSignature(metaMember));
+
+			CompilationProfileVisitor visitor = new CompilationProfileVisitor(memberProfile);
+
+			for (Compilation compilation : metaMember.getCompilations())
+			{
+				memberProfile.addCompilation(compilation.getLevel(), compilation.getCompilationDuration(), compilation.getNativeSize());
+
+				// native wrappers and compilations cut off by the end of the
+				// log have no task to visit
+				if (compilation.getTagTask() == null)
+				{
+					continue;
+				}
+
+				try
+				{
+					CompilationUtil.visitParseTagsOfCompilation(compilation, visitor);
+
+					visitor.setVisitingEliminations(true);
+
+					CompilationUtil.visitEliminationTagsOfCompilation(compilation, visitor);
+
+					visitor.setVisitingEliminations(false);
+				}
+				catch (LogParseException e)
+				{
+					logger.error("Could not profile compilation {} of {}", compilation.getCompileID(), memberProfile.getSignature(), e);
+				}
+			}
+
+			profile.addMember(memberProfile);
+		}
+	}
+
+	@Override
+	public void reset()
+	{
+	}
+
+	/**
+	 * @return the class and method with parameter types of the member with
+	 *         hidden class numbers removed
+	 */
+	public static String getSignature(IMetaMember member)
+	{
+		return normaliseName(member.getMetaClass().getFullyQualifiedName() + C_DOT + member.toStringUnqualifiedMethodName(false, true));
+	}
+
+	public static String normaliseName(String name)
+	{
+		String result = PATTERN_LAMBDA_NUMBER.matcher(name).replaceAll("\\$\\$Lambda");
+
+		return PATTERN_HIDDEN_CLASS_ADDRESS.matcher(result).replaceAll("");
+	}
+
+	private static String getCalleeSignature(String methodID, IParseDictionary parseDictionary)
+	{
+		String result = null;
+
+		Tag methodTag = parseDictionary.getMethod(methodID);
+
+		if (methodTag != null)
+		{
+			StringBuilder builder = new StringBuilder();
+
+			builder.append(ParseUtil.lookupMetaClassName(methodID, parseDictionary)).append(C_DOT);
+			builder.append(ParseUtil.lookupMethodName(methodID, parseDictionary)).append(C_OPEN_PARENTHESES);
+
+			if (methodTag.getAttributes().get(ATTR_ARGUMENTS) != null)
+			{
+				List<String> arguments = ParseUtil.getMethodTagArguments(methodTag, parseDictionary);
+
+				for (int i = 0; i < arguments.size(); i++)
+				{
+					if (i > 0)
+					{
+						builder.append(C_COMMA);
+					}
+
+					builder.append(arguments.get(i));
+				}
+			}
+
+			builder.append(C_CLOSE_PARENTHESES);
+
+			result = normaliseName(builder.toString());
+		}
+
+		return result;
+	}
+
+	private static class CompilationProfileVisitor extends AbstractCompilationVisitable
+	{
+		private final MemberProfile memberProfile;
+
+		private boolean visitingEliminations = false;
+
+		public CompilationProfileVisitor(MemberProfile memberProfile)
+		{
+			this.memberProfile = memberProfile;
+
+			ignoreTags.add(TAG_BC);
+			ignoreTags.add(TAG_KLASS);
+			ignoreTags.add(TAG_TYPE);
+			ignoreTags.add(TAG_INTRINSIC);
+			ignoreTags.add(TAG_UNCOMMON_TRAP);
+			ignoreTags.add(TAG_PARSE_DONE);
+			ignoreTags.add(TAG_PHASE_DONE);
+			ignoreTags.add(TAG_BRANCH);
+			ignoreTags.add(TAG_CAST_UP);
+			ignoreTags.add(TAG_DIRECT_CALL);
+			ignoreTags.add(TAG_PREDICTED_CALL);
+			ignoreTags.add(TAG_DEPENDENCY);
+			ignoreTags.add(TAG_VIRTUAL_CALL);
+			ignoreTags.add(TAG_OBSERVE);
+			ignoreTags.add(TAG_ASSERT_NULL);
+			ignoreTags.add(TAG_INLINE_LEVEL_DISCOUNT);
+			ignoreTags.add(TAG_INLINE_ID);
+		}
+
+		public void setVisitingEliminations(boolean visitingEliminations)
+		{
+			this.visitingEliminations = visitingEliminations;
+		}
+
+		@Override
+		public void visitTag(Tag tag, IParseDictionary parseDictionary) throws LogParseException
+		{
+			if (visitingEliminations)
+			{
+				String type = ParseUtil.lookupType(tag.getAttributes().get(ATTR_TYPE), parseDictionary);
+
+				if (type != null)
+				{
+					memberProfile.addEliminatedAllocation(normaliseName(type));
+				}
+			}
+			else
+			{
+				processParseTag(tag, parseDictionary);
+			}
+		}
+
+		private void processParseTag(Tag parseTag, IParseDictionary parseDictionary)
+		{
+			String methodID = null;
+
+			for (Tag child : parseTag.getChildren())
+			{
+				Map<String, String> attrs = child.getAttributes();
+
+				switch (child.getName())
+				{
+				case TAG_METHOD:
+					methodID = attrs.get(ATTR_ID);
+					break;
+
+				case TAG_CALL:
+					methodID = attrs.get(ATTR_METHOD);
+					break;
+
+				case TAG_INLINE_FAIL:
+				{
+					String callee = getCalleeSignature(methodID, parseDictionary);
+
+					if (callee != null)
+					{
+						memberProfile.addInlineFailure(callee, StringUtil.replaceXMLEntities(attrs.get(ATTR_REASON)));
+					}
+
+					methodID = null;
+					break;
+				}
+
+				case TAG_INLINE_SUCCESS:
+				{
+					String callee = getCalleeSignature(methodID, parseDictionary);
+
+					if (callee != null)
+					{
+						memberProfile.addInlineSuccess(callee);
+					}
+
+					methodID = null;
+					break;
+				}
+
+				case TAG_PARSE:
+					processParseTag(child, parseDictionary);
+					break;
+
+				case TAG_PHASE:
+					if (S_PARSE_HIR.equals(attrs.get(ATTR_NAME)))
+					{
+						processParseTag(child, parseDictionary);
+					}
+					break;
+
+				default:
+					handleOther(child);
+					break;
+				}
+			}
+		}
+	}
+}
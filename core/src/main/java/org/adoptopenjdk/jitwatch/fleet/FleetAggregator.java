@@ -0,0 +1,168 @@
+package org.adoptopenjdk.jitwatch.fleet;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+import org.adoptopenjdk.jitwatch.core.JITWatchConfig;
+import org.adoptopenjdk.jitwatch.diff.LogProfiler;
+import org.adoptopenjdk.jitwatch.diff.RunProfile;
+import org.adoptopenjdk.jitwatch.logger.ILogListener;
+import org.adoptopenjdk.jitwatch.parser.ParserType;
+
+/**
+ * Profiles many logs at once, each with a parser of its own on a pool
+ * thread, and merges the profiles into a FleetModel. At most one model per
+ * thread is alive at a time.
+ */
+public class FleetAggregator
+{
+	private static final String DEFAULT_GLOB = "*.log";
+
+	private final LogProfiler profiler;
+	private final ILogListener logListener;
+	private final int threads;
+
+	/**
+	 * @param threads
+	 *            the most logs parsed at once, 0 for one per processor
+	 */
+	public FleetAggregator(ParserType parserType, JITWatchConfig config, ILogListener logListener, int threads)
+	{
+		this.profiler = new LogProfiler(parserType, config, logListener);
+		this.logListener = logListener;
+		this.threads = (threads > 0) ? threads : Runtime.getRuntime().availableProcessors();
+	}
+
+	/**
+	 * @param location
+	 *            a directory, whose .log files are taken, or a glob in the
+	 *            file name part such as logs/hotspot_pid*.log
+	 * @return the matching files sorted by name
+	 */
+	public static List<File> findLogs(String location) throws IOException
+	{
+		Path path = Paths.get(location);
+
+		Path directory;
+		String glob;
+
+		if (Files.isDirectory(path))
+		{
+			directory = path;
+			glob = DEFAULT_GLOB;
+		}
+		else
+		{
+			directory = (path.getParent() == null) ? Paths.get(".") : path.getParent();
+			glob = path.getFileName().toString();
+		}
+
+		List<File> result = new ArrayList<>();
+
+		try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, glob))
+		{
+			for (Path entry : stream)
+			{
+				if (Files.isRegularFile(entry))
+				{
+					result.add(entry.toFile());
+				}
+			}
+		}
+
+		Collections.sort(result);
+
+		return result;
+	}
+
+	public FleetModel aggregate(List<File> logFiles) throws IOException
+	{
+		FleetModel result = new FleetModel();
+
+		ForkJoinPool pool = new ForkJoinPool(Math.max(1, Math.min(threads, logFiles.size())));
+
+		try
+		{
+			List<ForkJoinTask<RunProfile>> tasks = new ArrayList<>();
+
+			for (final File logFile : logFiles)
+			{
+				tasks.add(pool.submit(() -> profiler.profile(logFile)));
+			}
+
+			// merged in file order so the model does not depend on which
+			// parse finished first
+			for (int i = 0; i < tasks.size(); i++)
+			{
+				String name = logFiles.get(i).getName();
+
+				try
+				{
+					RunProfile run = tasks.get(i).get();
+
+					result.addRun(run);
+
+					String entry = "Profiled " + name + " (" + (i + 1) + "/" + logFiles.size() + ")";
+
+					// a few bad lines do not make the rest of the log unusable
+					if (run.getParseErrorCount() > 0)
+					{
+						entry += " with " + run.getParseErrorCount() + " parse errors";
+					}
+
+					log(entry);
+				}
+				catch (ExecutionException e)
+				{
+					Throwable cause = e.getCause();
+
+					// the pool wraps checked exceptions thrown by its tasks
+					while (cause instanceof RuntimeException && cause.getCause() != null)
+					{
+						cause = cause.getCause();
+					}
+
+					// a log that parsed but is not usable is reported by its message alone
+					String reason = (cause instanceof IOException) ? cause.getMessage() : cause.toString();
+
+					result.addFailedLog(name, reason);
+
+					if (logListener != null)
+					{
+						logListener.handleErrorEntry("Could not profile " + name + ": " + reason);
+					}
+				}
+			}
+		}
+		catch (InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+
+			throw new IOException("Interrupted while parsing the logs", e);
+		}
+		finally
+		{
+			pool.shutdownNow();
+		}
+
+		return result;
+	}
+
+	private void log(String entry)
+	{
+		if (logListener != null)
+		{
+			logListener.handleLogEntry(entry);
+		}
+	}
+}
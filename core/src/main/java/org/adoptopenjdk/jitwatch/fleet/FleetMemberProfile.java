@@ -0,0 +1,213 @@
+package org.adoptopenjdk.jitwatch.fleet;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.adoptopenjdk.jitwatch.diff.InlineOutcome;
+import org.adoptopenjdk.jitwatch.diff.MemberProfile;
+
+/**
+ * One member across all the JVMs of a fleet. Counts are summed over the
+ * JVMs that compiled the member, sizes and times are kept per JVM so they
+ * can be summed or taken as percentiles.
+ */
+public class FleetMemberProfile
+{
+	private final String signature;
+
+	private int compilations;
+	private final int[] levelCompilations = new int[MemberProfile.MAX_LEVEL + 1];
+
+	private final List<Integer> nativeSizes = new ArrayList<>();
+	private final List<Long> compileTimes = new ArrayList<>();
+
+	private final Map<String, InlineOutcome> inlining = new TreeMap<>();
+	private final Map<String, Integer> jvmsNotInlined = new TreeMap<>();
+
+	public FleetMemberProfile(String signature)
+	{
+		this.signature = signature;
+	}
+
+	public void addRun(MemberProfile profile)
+	{
+		compilations += profile.getCompilations();
+
+		for (int level = 0; level <= MemberProfile.MAX_LEVEL; level++)
+		{
+			levelCompilations[level] += profile.getLevelCompilations(level);
+		}
+
+		nativeSizes.add(profile.getNativeSize());
+		compileTimes.add(profile.getCompileTime());
+
+		for (Map.Entry<String, InlineOutcome> entry : profile.getInlining().entrySet())
+		{
+			String callee = entry.getKey();
+
+			InlineOutcome outcome = inlining.get(callee);
+
+			if (outcome == null)
+			{
+				outcome = new InlineOutcome();
+				inlining.put(callee, outcome);
+			}
+
+			outcome.add(entry.getValue());
+
+			if (!entry.getValue().isMostlyInlined())
+			{
+				Integer count = jvmsNotInlined.get(callee);
+
+				jvmsNotInlined.put(callee, (count == null) ? 1 : count + 1);
+			}
+		}
+	}
+
+	public String getSignature()
+	{
+		return signature;
+	}
+
+	/**
+	 * @return the number of JVMs that compiled the member
+	 */
+	public int getJVMCount()
+	{
+		return nativeSizes.size();
+	}
+
+	public int getCompilations()
+	{
+		return compilations;
+	}
+
+	public int getLevelCompilations(int level)
+	{
+		return (level >= 0 && level <= MemberProfile.MAX_LEVEL) ? levelCompilations[level] : 0;
+	}
+
+	public long getTotalNativeSize()
+	{
+		long result = 0;
+
+		for (int size : nativeSizes)
+		{
+			result += size;
+		}
+
+		return result;
+	}
+
+	/**
+	 * @param percentile
+	 *            0 to 100, nearest rank over the JVMs
+	 */
+	public int getNativeSizePercentile(double percentile)
+	{
+		return percentile(nativeSizes, percentile);
+	}
+
+	public long getTotalCompileTime()
+	{
+		long result = 0;
+
+		for (long time : compileTimes)
+		{
+			result += time;
+		}
+
+		return result;
+	}
+
+	public long getCompileTimePercentile(double percentile)
+	{
+		return percentile(compileTimes, percentile);
+	}
+
+	public int getInlineFailures()
+	{
+		int result = 0;
+
+		for (InlineOutcome outcome : inlining.values())
+		{
+			result += outcome.getFailures();
+		}
+
+		return result;
+	}
+
+	/**
+	 * @return failed inlining attempts as a fraction of all attempts, 0 when
+	 *         nothing was tried
+	 */
+	public double getInlineFailureRate()
+	{
+		int attempts = 0;
+
+		for (InlineOutcome outcome : inlining.values())
+		{
+			attempts += outcome.getSuccesses() + outcome.getFailures();
+		}
+
+		return (attempts == 0) ? 0 : (double) getInlineFailures() / attempts;
+	}
+
+	/**
+	 * @return the inlining outcomes by callee summed over the JVMs
+	 */
+	public Map<String, InlineOutcome> getInlining()
+	{
+		return inlining;
+	}
+
+	/**
+	 * @return the number of JVMs in which the callee was mostly not inlined
+	 */
+	public int getJVMsNotInlined(String callee)
+	{
+		Integer count = jvmsNotInlined.get(callee);
+
+		return (count == null) ? 0 : count;
+	}
+
+	/**
+	 * @return the callee that failed to inline most often or null
+	 */
+	public String getMostFailedCallee()
+	{
+		String result = null;
+		int mostFailures = 0;
+
+		for (Map.Entry<String, InlineOutcome> entry : inlining.entrySet())
+		{
+			if (entry.getValue().getFailures() > mostFailures)
+			{
+				mostFailures = entry.getValue().getFailures();
+				result = entry.getKey();
+			}
+		}
+
+		return result;
+	}
+
+	private static <T extends Comparable<T>> T percentile(List<T> values, double percentile)
+	{
+		List<T> sorted = new ArrayList<>(values);
+
+		Collections.sort(sorted);
+
+		int rank = (int) Math.ceil(percentile / 100 * sorted.size());
+
+		return sorted.get(Math.min(Math.max(rank - 1, 0), sorted.size() - 1));
+	}
+
+	@Override
+	public String toString()
+	{
+		return signature + " jvms=" + getJVMCount() + " compilations=" + compilations;
+	}
+}
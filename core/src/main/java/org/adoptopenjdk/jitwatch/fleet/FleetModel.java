@@ -0,0 +1,151 @@
+package org.adoptopenjdk.jitwatch.fleet;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.adoptopenjdk.jitwatch.diff.MemberProfile;
+import org.adoptopenjdk.jitwatch.diff.RunProfile;
+
+/**
+ * The merged compilations of many logs of the same build. Only the compact
+ * RunProfile of each JVM is kept, never its JITDataModel, and those profiles
+ * remain available for drilling down from a fleet member to each JVM.
+ */
+public class FleetModel
+{
+	private final List<RunProfile> runs = new ArrayList<>();
+
+	private final Map<String, FleetMemberProfile> members = new HashMap<>();
+
+	private final Map<String, String> failedLogs = new TreeMap<>();
+
+	public void addRun(RunProfile run)
+	{
+		runs.add(run);
+
+		for (MemberProfile profile : run.getMembers())
+		{
+			FleetMemberProfile member = members.get(profile.getSignature());
+
+			if (member == null)
+			{
+				member = new FleetMemberProfile(profile.getSignature());
+				members.put(profile.getSignature(), member);
+			}
+
+			member.addRun(profile);
+		}
+	}
+
+	public void addFailedLog(String name, String reason)
+	{
+		failedLogs.put(name, reason);
+	}
+
+	public List<RunProfile> getRuns()
+	{
+		return runs;
+	}
+
+	/**
+	 * @return the logs that could not be parsed and why
+	 */
+	public Map<String, String> getFailedLogs()
+	{
+		return failedLogs;
+	}
+
+	public FleetMemberProfile getMember(String signature)
+	{
+		return members.get(signature);
+	}
+
+	/**
+	 * @return the fleet members, most compiled first
+	 */
+	public List<FleetMemberProfile> getMembers()
+	{
+		List<FleetMemberProfile> result = new ArrayList<>(members.values());
+
+		Collections.sort(result, new Comparator<FleetMemberProfile>()
+		{
+			@Override
+			public int compare(FleetMemberProfile m1, FleetMemberProfile m2)
+			{
+				int order = Integer.compare(m2.getCompilations(), m1.getCompilations());
+
+				return (order != 0) ? order : m1.getSignature().compareTo(m2.getSignature());
+			}
+		});
+
+		return result;
+	}
+
+	public int getMemberCount()
+	{
+		return members.size();
+	}
+
+	/**
+	 * @return the profile of the member in each JVM that compiled it, by log
+	 *         name
+	 */
+	public Map<String, MemberProfile> getRunMembers(String signature)
+	{
+		Map<String, MemberProfile> result = new LinkedHashMap<>();
+
+		for (RunProfile run : runs)
+		{
+			MemberProfile profile = run.getMember(signature);
+
+			if (profile != null)
+			{
+				result.put(run.getName(), profile);
+			}
+		}
+
+		return result;
+	}
+
+	public long getNativeBytes()
+	{
+		long result = 0;
+
+		for (RunProfile run : runs)
+		{
+			result += run.getNativeBytes();
+		}
+
+		return result;
+	}
+
+	public int getCodeCacheFullCount()
+	{
+		int result = 0;
+
+		for (RunProfile run : runs)
+		{
+			result += run.getCodeCacheFullCount();
+		}
+
+		return result;
+	}
+
+	public int getParseErrorCount()
+	{
+		int result = 0;
+
+		for (RunProfile run : runs)
+		{
+			result += run.getParseErrorCount();
+		}
+
+		return result;
+	}
+}
@@ -0,0 +1,258 @@
+package org.adoptopenjdk.jitwatch.fleet;
+
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.HEADLESS_SEPARATOR;
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.S_NEWLINE;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import org.adoptopenjdk.jitwatch.diff.InlineOutcome;
+import org.adoptopenjdk.jitwatch.diff.MemberProfile;
+import org.adoptopenjdk.jitwatch.diff.RunProfile;
+import org.adoptopenjdk.jitwatch.util.StringUtil;
+
+/**
+ * Writes a fleet as the headless separated values or as JSON
+ */
+public final class FleetWriter
+{
+	private static final String[] RUN_COLUMNS = new String[] { "Log", "Members", "Compilations", "Native bytes", "Code cache full",
+			"Sweeps", "Min free code cache", "Parse errors" };
+
+	private static final String[] MEMBER_COLUMNS = new String[] { "Member", "JVMs", "Compilations", "Level 0", "Level 1",
+			"Level 2", "Level 3", "Level 4", "Native bytes total", "Native bytes p50", "Native bytes p90", "Native bytes max",
+			"Compile ms total", "Compile ms p50", "Compile ms p90", "Inline failures", "Inline failure rate", "Most failed callee",
+			"JVMs not inlining it" };
+
+	private static final String[] DRILL_DOWN_COLUMNS = new String[] { "Log", "Compilations", "Levels", "Compile ms",
+			"Native bytes", "Inline failures" };
+
+	private FleetWriter()
+	{
+	}
+
+	/**
+	 * @param limit
+	 *            the most members to write, 0 for all
+	 */
+	public static String toCSV(FleetModel model, int limit)
+	{
+		StringBuilder builder = new StringBuilder();
+
+		builder.append("sep=").append(HEADLESS_SEPARATOR).append(S_NEWLINE);
+
+		appendRow(builder, (Object[]) RUN_COLUMNS);
+
+		for (RunProfile run : model.getRuns())
+		{
+			appendRow(builder, run.getName(), run.getMemberCount(), run.getCompilationCount(), run.getNativeBytes(),
+					run.getCodeCacheFullCount(), run.getSweeperCount(), run.getMinFreeCodeCache(), run.getParseErrorCount());
+		}
+
+		for (Map.Entry<String, String> entry : model.getFailedLogs().entrySet())
+		{
+			appendRow(builder, entry.getKey(), "failed: " + entry.getValue());
+		}
+
+		builder.append(S_NEWLINE);
+
+		appendRow(builder, (Object[]) MEMBER_COLUMNS);
+
+		for (FleetMemberProfile member : limit(model.getMembers(), limit))
+		{
+			String callee = member.getMostFailedCallee();
+
+			appendRow(builder, member.getSignature(), member.getJVMCount(), member.getCompilations(), member.getLevelCompilations(0),
+					member.getLevelCompilations(1), member.getLevelCompilations(2), member.getLevelCompilations(3),
+					member.getLevelCompilations(4), member.getTotalNativeSize(), member.getNativeSizePercentile(50),
+					member.getNativeSizePercentile(90), member.getNativeSizePercentile(100), member.getTotalCompileTime(),
+					member.getCompileTimePercentile(50), member.getCompileTimePercentile(90), member.getInlineFailures(),
+					String.format(Locale.ROOT, "%.3f", member.getInlineFailureRate()), (callee == null) ? "" : callee,
+					(callee == null) ? "" : member.getJVMsNotInlined(callee));
+		}
+
+		return builder.toString();
+	}
+
+	/**
+	 * @return the member in each JVM that compiled it
+	 */
+	public static String toDrillDownCSV(FleetModel model, String signature)
+	{
+		StringBuilder builder = new StringBuilder();
+
+		builder.append("sep=").append(HEADLESS_SEPARATOR).append(S_NEWLINE);
+
+		appendRow(builder, (Object[]) DRILL_DOWN_COLUMNS);
+
+		for (Map.Entry<String, MemberProfile> entry : model.getRunMembers(signature).entrySet())
+		{
+			MemberProfile profile = entry.getValue();
+
+			appendRow(builder, entry.getKey(), profile.getCompilations(), profile.getLevelsText(), profile.getCompileTime(),
+					profile.getNativeSize(), getInlineFailures(profile));
+		}
+
+		return builder.toString();
+	}
+
+	/**
+	 * @param limit
+	 *            the most members to write, 0 for all
+	 */
+	public static String toJSON(FleetModel model, int limit)
+	{
+		StringBuilder builder = new StringBuilder();
+
+		builder.append("{").append(S_NEWLINE);
+		builder.append("  \"runs\": [");
+
+		List<RunProfile> runs = model.getRuns();
+
+		for (int i = 0; i < runs.size(); i++)
+		{
+			RunProfile run = runs.get(i);
+
+			builder.append((i == 0) ? S_NEWLINE : "," + S_NEWLINE);
+			builder.append("    { \"log\": ").append(StringUtil.quoteJSON(run.getName()));
+			builder.append(", \"members\": ").append(run.getMemberCount());
+			builder.append(", \"compilations\": ").append(run.getCompilationCount());
+			builder.append(", \"nativeBytes\": ").append(run.getNativeBytes());
+			builder.append(", \"codeCacheFull\": ").append(run.getCodeCacheFullCount());
+			builder.append(", \"sweeps\": ").append(run.getSweeperCount());
+			builder.append(", \"minFreeCodeCache\": ").append(run.getMinFreeCodeCache());
+			builder.append(", \"parseErrors\": ").append(run.getParseErrorCount());
+			builder.append(" }");
+		}
+
+		builder.append(S_NEWLINE).append("  ],").append(S_NEWLINE);
+
+		builder.append("  \"failedLogs\": {");
+
+		boolean first = true;
+
+		for (Map.Entry<String, String> entry : model.getFailedLogs().entrySet())
+		{
+			builder.append(first ? " " : ", ");
+			builder.append(StringUtil.quoteJSON(entry.getKey())).append(": ").append(StringUtil.quoteJSON(entry.getValue()));
+			first = false;
+		}
+
+		builder.append(model.getFailedLogs().isEmpty() ? "}," : " },").append(S_NEWLINE);
+
+		builder.append("  \"members\": [");
+
+		List<FleetMemberProfile> members = limit(model.getMembers(), limit);
+
+		for (int i = 0; i < members.size(); i++)
+		{
+			builder.append((i == 0) ? S_NEWLINE : "," + S_NEWLINE);
+			appendMemberJSON(builder, model, members.get(i));
+		}
+
+		builder.append(S_NEWLINE).append("  ]").append(S_NEWLINE);
+		builder.append("}").append(S_NEWLINE);
+
+		return builder.toString();
+	}
+
+	private static void appendMemberJSON(StringBuilder builder, FleetModel model, FleetMemberProfile member)
+	{
+		builder.append("    { \"member\": ").append(StringUtil.quoteJSON(member.getSignature()));
+		builder.append(", \"jvms\": ").append(member.getJVMCount());
+		builder.append(", \"compilations\": ").append(member.getCompilations());
+
+		builder.append(", \"levelCompilations\": [");
+
+		for (int level = 0; level <= MemberProfile.MAX_LEVEL; level++)
+		{
+			builder.append((level == 0) ? "" : ", ").append(member.getLevelCompilations(level));
+		}
+
+		builder.append("]");
+		builder.append(", \"nativeBytes\": { \"total\": ").append(member.getTotalNativeSize());
+		builder.append(", \"p50\": ").append(member.getNativeSizePercentile(50));
+		builder.append(", \"p90\": ").append(member.getNativeSizePercentile(90));
+		builder.append(", \"max\": ").append(member.getNativeSizePercentile(100)).append(" }");
+		builder.append(", \"compileMillis\": { \"total\": ").append(member.getTotalCompileTime());
+		builder.append(", \"p50\": ").append(member.getCompileTimePercentile(50));
+		builder.append(", \"p90\": ").append(member.getCompileTimePercentile(90)).append(" }");
+
+		builder.append(", \"inlineFailures\": [");
+
+		boolean first = true;
+
+		for (Map.Entry<String, InlineOutcome> entry : member.getInlining().entrySet())
+		{
+			InlineOutcome outcome = entry.getValue();
+
+			if (outcome.getFailures() > 0)
+			{
+				builder.append(first ? " " : ", ");
+				builder.append("{ \"callee\": ").append(StringUtil.quoteJSON(entry.getKey()));
+				builder.append(", \"failures\": ").append(outcome.getFailures());
+				builder.append(", \"successes\": ").append(outcome.getSuccesses());
+				builder.append(", \"jvmsNotInlined\": ").append(member.getJVMsNotInlined(entry.getKey()));
+				builder.append(", \"reasons\": ").append(StringUtil.quoteJSON(String.join(", ", outcome.getFailureReasons())));
+				builder.append(" }");
+				first = false;
+			}
+		}
+
+		builder.append(first ? "]" : " ]");
+
+		builder.append(", \"jvmDetail\": [");
+
+		first = true;
+
+		for (Map.Entry<String, MemberProfile> entry : model.getRunMembers(member.getSignature()).entrySet())
+		{
+			MemberProfile profile = entry.getValue();
+
+			builder.append(first ? " " : ", ");
+			builder.append("{ \"log\": ").append(StringUtil.quoteJSON(entry.getKey()));
+			builder.append(", \"compilations\": ").append(profile.getCompilations());
+			builder.append(", \"levels\": [").append(profile.getLevelsText()).append("]");
+			builder.append(", \"compileMillis\": ").append(profile.getCompileTime());
+			builder.append(", \"nativeBytes\": ").append(profile.getNativeSize());
+			builder.append(" }");
+			first = false;
+		}
+
+		builder.append(first ? "]" : " ]");
+		builder.append(" }");
+	}
+
+	private static int getInlineFailures(MemberProfile profile)
+	{
+		int result = 0;
+
+		for (InlineOutcome outcome : profile.getInlining().values())
+		{
+			result += outcome.getFailures();
+		}
+
+		return result;
+	}
+
+	private static void appendRow(StringBuilder builder, Object... values)
+	{
+		for (int i = 0; i < values.length; i++)
+		{
+			if (i > 0)
+			{
+				builder.append(HEADLESS_SEPARATOR);
+			}
+
+			builder.append(values[i]);
+		}
+
+		builder.append(S_NEWLINE);
+	}
+
+	private static List<FleetMemberProfile> limit(List<FleetMemberProfile> members, int limit)
+	{
+		return (limit > 0 && limit < members.size()) ? members.subList(0, limit) : members;
+	}
+}
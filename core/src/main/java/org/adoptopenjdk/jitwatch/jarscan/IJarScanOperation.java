@@ -12,4 +12,16 @@ public interface IJarScanOperation
 	void processInstructions(String className, MemberBytecode memberBytecode);
 		
 	String getReport();
+
+	/**
+	 * @return an empty operation with the same settings to collect the results
+	 *         of one batch of classes on a worker thread
+	 */
+	IJarScanOperation createPartial();
+
+	/**
+	 * Adds the results collected by a partial from createPartial. Partials are
+	 * combined one at a time in class order.
+	 */
+	void combine(IJarScanOperation partial);
 }
\ No newline at end of file
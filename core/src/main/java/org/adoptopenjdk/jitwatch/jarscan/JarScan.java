@@ -15,11 +15,20 @@ import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.S_SLASH;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.PrintWriter;
 import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Enumeration;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipFile;
 
@@ -32,21 +41,58 @@ import org.adoptopenjdk.jitwatch.jarscan.methodsizehisto.MethodSizeHistoOperatio
 import org.adoptopenjdk.jitwatch.jarscan.nextinstruction.NextInstructionOperation;
 import org.adoptopenjdk.jitwatch.jarscan.sequencecount.SequenceCountOperation;
 import org.adoptopenjdk.jitwatch.jarscan.sequencesearch.SequenceSearchOperation;
-import org.adoptopenjdk.jitwatch.loader.BytecodeLoader;
+import org.adoptopenjdk.jitwatch.loader.ClassFileReader;
 import org.adoptopenjdk.jitwatch.model.bytecode.ClassBC;
 import org.adoptopenjdk.jitwatch.model.bytecode.MemberBytecode;
 
 public class JarScan
 {
+	// classes handed to each partial operation when scanning in parallel
+	private static final int BATCH_CLASSES = 32;
+
 	private long processableClassCount = 0;
-	private long processingClass = 0;
+	private AtomicLong processingClass = new AtomicLong();
 
 	private boolean counting = false;
 
 	private boolean verbose = false;
-	private IJarScanOperation operation;
+	private List<IJarScanOperation> operations;
 	private List<String> allowedPackagePrefixes = new ArrayList<>();
 
+	private int threads = Runtime.getRuntime().availableProcessors();
+	private ForkJoinPool pool;
+
+	private static class ClassSource
+	{
+		private final String fqClassName;
+		private final ZipFile zip;
+		private final ZipEntry entry;
+		private final File file;
+
+		ClassSource(String fqClassName, ZipFile zip, ZipEntry entry, File file)
+		{
+			this.fqClassName = fqClassName;
+			this.zip = zip;
+			this.entry = entry;
+			this.file = file;
+		}
+
+		byte[] readBytes() throws IOException
+		{
+			if (zip != null)
+			{
+				try (InputStream inputStream = zip.getInputStream(entry))
+				{
+					return inputStream.readAllBytes();
+				}
+			}
+			else
+			{
+				return Files.readAllBytes(file.toPath());
+			}
+		}
+	}
+
 	public JarScan(IJarScanOperation operation)
 	{
 		this(operation, false);
@@ -54,20 +100,41 @@ public class JarScan
 
 	public JarScan(IJarScanOperation operation, boolean isVerbose)
 	{
-		this.operation = operation;
+		this(Collections.singletonList(operation), isVerbose);
+	}
+
+	/**
+	 * @param operations every member is passed to each operation in turn so
+	 *                   all of them are filled by a single pass over the
+	 *                   classes
+	 */
+	public JarScan(List<IJarScanOperation> operations, boolean isVerbose)
+	{
+		this.operations = new ArrayList<>(operations);
 
 		this.verbose = isVerbose;
 	}
 
+	/**
+	 * @param threads the number of classes scanned at once, 1 scans on the
+	 *                calling thread
+	 */
+	public void setThreads(int threads)
+	{
+		this.threads = Math.max(1, threads);
+	}
+
 	public void writeReport()
 	{
 		Writer writer = new PrintWriter(System.out);
 
-		String report = operation.getReport();
-
 		try
 		{
-			writer.write(report);
+			for (IJarScanOperation operation : operations)
+			{
+				writer.write(operation.getReport());
+			}
+
 			writer.flush();
 			writer.close();
 		}
@@ -77,14 +144,38 @@ public class JarScan
 		}
 	}
 
-	public void iterateJar(File jarFile) throws IOException
+	/**
+	 * Writes the report of each operation to its own file in outputDir.
+	 *
+	 * @param fileNames one name per operation, in the order the operations
+	 *                  were given
+	 */
+	public void writeReports(File outputDir, List<String> fileNames) throws IOException
 	{
-		List<String> classLocations = new ArrayList<>();
+		if (!outputDir.isDirectory())
+		{
+			Files.createDirectories(outputDir.toPath());
+		}
+
+		for (int i = 0; i < operations.size(); i++)
+		{
+			File reportFile = new File(outputDir, fileNames.get(i));
 
-		classLocations.add(jarFile.getPath());
+			Files.write(reportFile.toPath(), operations.get(i).getReport().getBytes(StandardCharsets.UTF_8));
 
+			if (verbose)
+			{
+				System.err.println("Wrote " + reportFile);
+			}
+		}
+	}
+
+	public void iterateJar(File jarFile) throws IOException
+	{
 		try (ZipFile zip = new ZipFile(jarFile))
 		{
+			List<ClassSource> sources = new ArrayList<>();
+
 			@SuppressWarnings("unchecked")
 			Enumeration<ZipEntry> list = (Enumeration<ZipEntry>) zip.entries();
 
@@ -98,20 +189,28 @@ public class JarScan
 				{
 					String fqName = name.replace(S_SLASH, S_DOT).substring(0, name.length() - S_DOT_CLASS.length());
 
-					process(classLocations, fqName);
+					if (isAllowedPackage(fqName))
+					{
+						sources.add(new ClassSource(fqName, zip, entry, null));
+					}
 				}
 			}
+
+			process(sources);
 		}
 	}
 
 	public void iterateFolder(File root, File folder) throws IOException
 	{
-		int rootLength = root.getAbsolutePath().length() + 1;
+		List<ClassSource> sources = new ArrayList<>();
 
-		List<String> classLocations = new ArrayList<>();
+		collectFolder(root.getAbsolutePath().length() + 1, folder, sources);
 
-		classLocations.add(root.getPath());
+		process(sources);
+	}
 
+	private void collectFolder(int rootLength, File folder, List<ClassSource> sources)
+	{
 		File[] children = folder.listFiles();
 
 		for (File child : children)
@@ -124,11 +223,14 @@ public class JarScan
 			{
 				String fqName = fileName.replace(S_SLASH, S_DOT).substring(0, fileName.length() - S_DOT_CLASS.length());
 
-				process(classLocations, fqName);
+				if (isAllowedPackage(fqName))
+				{
+					sources.add(new ClassSource(fqName, null, null, child));
+				}
 			}
 			else if (child.isDirectory())
 			{
-				iterateFolder(root, child);
+				collectFolder(rootLength, child, sources);
 			}
 		}
 	}
@@ -161,32 +263,84 @@ public class JarScan
 		return allowed;
 	}
 
-	private void process(List<String> classLocations, String fqClassName)
+	private void process(List<ClassSource> sources)
 	{
-		if (!isAllowedPackage(fqClassName))
+		if (counting)
+		{
+			processableClassCount += sources.size();
+			return;
+		}
+
+		if (threads == 1 || sources.size() <= BATCH_CLASSES)
 		{
+			scanBatch(sources, operations);
 			return;
 		}
 
-		if (verbose)
+		if (pool == null)
+		{
+			pool = new ForkJoinPool(threads);
+		}
+
+		// each batch fills its own partial of every operation, the partials
+		// are combined in class order as they complete
+		int window = pool.getParallelism() * 4;
+
+		for (int windowStart = 0; windowStart < sources.size(); windowStart += window * BATCH_CLASSES)
 		{
-			if (counting)
+			int windowEnd = Math.min(sources.size(), windowStart + window * BATCH_CLASSES);
+
+			List<ForkJoinTask<List<IJarScanOperation>>> tasks = new ArrayList<>();
+
+			for (int batchStart = windowStart; batchStart < windowEnd; batchStart += BATCH_CLASSES)
 			{
-				processableClassCount++;
-				return;
+				final List<ClassSource> batch = sources.subList(batchStart, Math.min(windowEnd, batchStart + BATCH_CLASSES));
+
+				final List<IJarScanOperation> partials = new ArrayList<>(operations.size());
+
+				for (IJarScanOperation operation : operations)
+				{
+					partials.add(operation.createPartial());
+				}
+
+				tasks.add(pool.submit(() -> scanBatch(batch, partials)));
 			}
-			else
+
+			for (ForkJoinTask<List<IJarScanOperation>> task : tasks)
 			{
-				System.err.println("Parsing class " + (1 + processingClass++ + "/" + processableClassCount) + " " + fqClassName);
+				List<IJarScanOperation> partials = task.join();
+
+				for (int i = 0; i < operations.size(); i++)
+				{
+					operations.get(i).combine(partials.get(i));
+				}
 			}
 		}
+	}
 
-		boolean cacheBytecode = false;
+	private List<IJarScanOperation> scanBatch(List<ClassSource> batch, List<IJarScanOperation> targets)
+	{
+		for (ClassSource source : batch)
+		{
+			String fqClassName = source.fqClassName;
 
-		ClassBC classBytecode = BytecodeLoader.fetchBytecodeForClass(classLocations, fqClassName, cacheBytecode);
+			if (verbose)
+			{
+				System.err.println("Parsing class " + processingClass.incrementAndGet() + "/" + processableClassCount + " " + fqClassName);
+			}
+
+			ClassBC classBytecode;
+
+			try
+			{
+				classBytecode = ClassFileReader.readClass(null, source.readBytes(), false);
+			}
+			catch (IOException e)
+			{
+				System.err.println("An error occurred while parsing " + fqClassName + " : " + e.getMessage());
+				continue;
+			}
 
-		if (classBytecode != null)
-		{
 			for (MemberBytecode memberBytecode : classBytecode.getMemberBytecodeList())
 			{
 				try
@@ -197,7 +351,10 @@ public class JarScan
 								.println("    Processing member: " + memberBytecode.getMemberSignatureParts().toStringSingleLine());
 					}
 
-					operation.processInstructions(fqClassName, memberBytecode);
+					for (IJarScanOperation target : targets)
+					{
+						target.processInstructions(fqClassName, memberBytecode);
+					}
 				}
 				catch (Exception e)
 				{
@@ -209,10 +366,8 @@ public class JarScan
 				}
 			}
 		}
-		else
-		{
-			System.err.println("An error occurred while parsing " + fqClassName);
-		}
+
+		return targets;
 	}
 
 	private static void showUsage()
@@ -221,7 +376,7 @@ public class JarScan
 
 		String SEPARATOR = "---------------------------------------------------------------------------------------------------";
 
-		builder.append("JarScan [flags] --mode=<mode> [options] [params] <jars and class folders>").append(S_NEWLINE);
+		builder.append("JarScan [flags] --mode=<mode>[,<mode>...] [options] [params] <jars and class folders>").append(S_NEWLINE);
 		builder.append(SEPARATOR).append(S_NEWLINE);
 		builder.append("Flags:").append(S_NEWLINE);
 		builder.append("     --verbose            Log progress information to stderr").append(S_NEWLINE);
@@ -230,6 +385,13 @@ public class JarScan
 		builder.append("Options:").append(S_NEWLINE);
 		builder.append("     --packages=a,b,c     Only include methods from named packages. E.g. --packages=java.util.*")
 				.append(S_NEWLINE);
+		builder.append("     --threads=n          Scan classes on n threads. Defaults to the number of cores.").append(S_NEWLINE);
+		builder.append("     --output=dir         Write each report to <mode>.csv in dir. Used with several modes,")
+				.append(S_NEWLINE);
+		builder.append("                          which default to the current directory.").append(S_NEWLINE);
+		builder.append(SEPARATOR).append(S_NEWLINE);
+		builder.append("Several modes can be run in one pass with --mode=a,b,c. They share the params below.")
+				.append(S_NEWLINE);
 		builder.append(SEPARATOR).append(S_NEWLINE);
 		builder.append("Modes:").append(S_NEWLINE);
 		builder.append(SEPARATOR).append(S_NEWLINE);
@@ -270,6 +432,9 @@ public class JarScan
 	private static final String ARG_LENGTH = "--length=";
 	private static final String ARG_SEQUENCE = "--sequence=";
 	private static final String ARG_VERBOSE = "--verbose";
+	private static final String ARG_THREADS = "--threads=";
+	private static final String ARG_OUTPUT = "--output=";
+	private static final String REPORT_EXTENSION = ".csv";
 
 	private static int getParam(String[] args, String paramName, boolean mandatory)
 	{
@@ -322,103 +487,131 @@ public class JarScan
 		return result;
 	}
 
-	private static IJarScanOperation getJarScanOperation(String[] args)
+	/**
+	 * @return the operations keyed by lower case mode name in the order they
+	 *         were given, or null if no mode was given or any mode is invalid
+	 */
+	private static Map<String, IJarScanOperation> getJarScanOperations(String[] args)
 	{
-		IJarScanOperation operation = null;
+		String modes = getParamString(args, ARG_MODE);
+
+		if (modes == null)
+		{
+			return null;
+		}
 
-		String mode = getParamString(args, ARG_MODE);
+		Map<String, IJarScanOperation> operations = new LinkedHashMap<>();
 
-		if (mode != null)
+		for (String mode : modes.split(S_COMMA))
 		{
-			String modeParam = mode.toLowerCase();
+			String modeParam = mode.trim().toLowerCase();
 
-			switch (modeParam)
+			if (!operations.containsKey(modeParam))
 			{
-			case "maxmethodsize":
-			{
-				int paramValue = getParam(args, ARG_LIMIT, true);
+				IJarScanOperation operation = getJarScanOperation(modeParam, args);
 
-				if (paramValue > 0)
+				if (operation == null)
 				{
-					operation = new FreqInlineSizeOperation(paramValue);
+					return null;
 				}
-				break;
-			}
-			case "sequencecount":
-			{
-				int paramValue = getParam(args, ARG_LENGTH, true);
 
-				if (paramValue > 0)
-				{
-					operation = new SequenceCountOperation(paramValue);
-				}
-				break;
+				operations.put(modeParam, operation);
 			}
-			case "invokecount":
-			{
-				int paramValue = getParam(args, ARG_LIMIT, false);
+		}
 
-				if (paramValue >= 0)
-				{
-					operation = new InvokeCountOperation(paramValue);
-				}
-				break;
-			}
-			case "nextinstructionfreq":
-			{
-				int paramValue = getParam(args, ARG_LIMIT, false);
+		return operations;
+	}
 
-				if (paramValue >= 0)
-				{
-					operation = new NextInstructionOperation(paramValue);
-				}
-			}
-				break;
-			case "allocationcount":
+	private static IJarScanOperation getJarScanOperation(String modeParam, String[] args)
+	{
+		IJarScanOperation operation = null;
+
+		switch (modeParam)
+		{
+		case "maxmethodsize":
+		{
+			int paramValue = getParam(args, ARG_LIMIT, true);
+
+			if (paramValue > 0)
 			{
-				int paramValue = getParam(args, ARG_LIMIT, false);
-				if (paramValue >= 0)
-				{
-					operation = new AllocationCountOperation(paramValue);
-				}
-				break;
+				operation = new FreqInlineSizeOperation(paramValue);
 			}
-			case "instructioncount":
-			{
-				int paramValue = getParam(args, ARG_LIMIT, false);
+			break;
+		}
+		case "sequencecount":
+		{
+			int paramValue = getParam(args, ARG_LENGTH, true);
 
-				if (paramValue >= 0)
-				{
-					operation = new InstructionCountOperation(paramValue);
-				}
-				break;
+			if (paramValue > 0)
+			{
+				operation = new SequenceCountOperation(paramValue);
 			}
-			case "sequencesearch":
+			break;
+		}
+		case "invokecount":
+		{
+			int paramValue = getParam(args, ARG_LIMIT, false);
+
+			if (paramValue >= 0)
 			{
-				String sequence = getParamString(args, ARG_SEQUENCE);
+				operation = new InvokeCountOperation(paramValue);
+			}
+			break;
+		}
+		case "nextinstructionfreq":
+		{
+			int paramValue = getParam(args, ARG_LIMIT, false);
 
-				if (sequence != null)
-				{
-					operation = new SequenceSearchOperation(sequence);
-				}
-				break;
+			if (paramValue >= 0)
+			{
+				operation = new NextInstructionOperation(paramValue);
 			}
-			case "methodsizehisto":
+		}
+			break;
+		case "allocationcount":
+		{
+			int paramValue = getParam(args, ARG_LIMIT, false);
+			if (paramValue >= 0)
 			{
-				operation = new MethodSizeHistoOperation();
-				break;
+				operation = new AllocationCountOperation(paramValue);
 			}
-			case "methodlength":
+			break;
+		}
+		case "instructioncount":
+		{
+			int paramValue = getParam(args, ARG_LIMIT, false);
+
+			if (paramValue >= 0)
 			{
-				int paramValue = getParam(args, ARG_LENGTH, true);
+				operation = new InstructionCountOperation(paramValue);
+			}
+			break;
+		}
+		case "sequencesearch":
+		{
+			String sequence = getParamString(args, ARG_SEQUENCE);
 
-				if (paramValue > 0)
-				{
-					operation = new MethodLengthOperation(paramValue);
-				}
-				break;
+			if (sequence != null)
+			{
+				operation = new SequenceSearchOperation(sequence);
 			}
+			break;
+		}
+		case "methodsizehisto":
+		{
+			operation = new MethodSizeHistoOperation();
+			break;
+		}
+		case "methodlength":
+		{
+			int paramValue = getParam(args, ARG_LENGTH, true);
+
+			if (paramValue > 0)
+			{
+				operation = new MethodLengthOperation(paramValue);
 			}
+			break;
+		}
 		}
 
 		return operation;
@@ -427,39 +620,50 @@ public class JarScan
 	public void processJarsAndFolders(String[] args, boolean counting) throws IOException
 	{
 		this.counting = counting;
-		
-		for (String arg : args)
+
+		try
 		{
-			if (arg.startsWith("--"))
+			for (String arg : args)
 			{
-				continue;
-			}
+				if (arg.startsWith("--"))
+				{
+					continue;
+				}
 
-			File fileArg = new File(arg);
+				File fileArg = new File(arg);
 
-			if (fileArg.exists())
-			{
-				if (fileArg.isFile())
+				if (fileArg.exists())
 				{
-					iterateJar(fileArg);
+					if (fileArg.isFile())
+					{
+						iterateJar(fileArg);
+					}
+					else if (fileArg.isDirectory())
+					{
+						iterateFolder(fileArg, fileArg);
+					}
 				}
-				else if (fileArg.isDirectory())
+				else
 				{
-					iterateFolder(fileArg, fileArg);
+					System.err.println("Could not scan " + fileArg.toString());
 				}
 			}
-			else
+		}
+		finally
+		{
+			if (pool != null)
 			{
-				System.err.println("Could not scan " + fileArg.toString());
+				pool.shutdown();
+				pool = null;
 			}
 		}
 	}
 
 	public static void main(String[] args) throws IOException
 	{
-		IJarScanOperation operation = getJarScanOperation(args);
+		Map<String, IJarScanOperation> operations = getJarScanOperations(args);
 
-		if (operation == null)
+		if (operations == null)
 		{
 			showUsage();
 			System.exit(-1);
@@ -467,7 +671,14 @@ public class JarScan
 
 		boolean isVerbose = getParamString(args, ARG_VERBOSE) != null;
 
-		JarScan scanner = new JarScan(operation, isVerbose);
+		JarScan scanner = new JarScan(new ArrayList<>(operations.values()), isVerbose);
+
+		int threads = getParam(args, ARG_THREADS, false);
+
+		if (threads > 0)
+		{
+			scanner.setThreads(threads);
+		}
 
 		String packages = getParamString(args, ARG_PACKAGES);
 
@@ -489,6 +700,22 @@ public class JarScan
 
 		scanner.processJarsAndFolders(args, false);
 
-		scanner.writeReport();
+		String output = getParamString(args, ARG_OUTPUT);
+
+		if (output == null && operations.size() == 1)
+		{
+			scanner.writeReport();
+		}
+		else
+		{
+			List<String> fileNames = new ArrayList<>();
+
+			for (String mode : operations.keySet())
+			{
+				fileNames.add(mode + REPORT_EXTENSION);
+			}
+
+			scanner.writeReports(new File(output != null ? output : S_DOT), fileNames);
+		}
 	}
 }
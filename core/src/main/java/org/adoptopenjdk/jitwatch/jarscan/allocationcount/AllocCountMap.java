@@ -38,6 +38,25 @@ public class AllocCountMap
 		typeCountMap.put(type, count);
 	}
 	
+	public void addAll(AllocCountMap other)
+	{
+		for (Map.Entry<String, Integer> entry : other.typeCountMap.entrySet())
+		{
+			Integer count = typeCountMap.get(entry.getKey());
+
+			if (count == null)
+			{
+				count = entry.getValue();
+			}
+			else
+			{
+				count += entry.getValue();
+			}
+
+			typeCountMap.put(entry.getKey(), count);
+		}
+	}
+	
 	public String toString(Opcode prefix, int limitPerInvoke)
 	{
 		StringBuilder builder = new StringBuilder();
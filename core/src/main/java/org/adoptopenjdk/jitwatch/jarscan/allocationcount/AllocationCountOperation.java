@@ -36,6 +36,18 @@ public class AllocationCountOperation implements IJarScanOperation
 		return opcodeAllocCountMap.toString(limitPerAllocOpcode);
 	}
 
+	@Override
+	public IJarScanOperation createPartial()
+	{
+		return new AllocationCountOperation(limitPerAllocOpcode);
+	}
+
+	@Override
+	public void combine(IJarScanOperation partial)
+	{
+		opcodeAllocCountMap.addAll(((AllocationCountOperation) partial).opcodeAllocCountMap);
+	}
+
 	private void count(Opcode opcode, String type)
 	{
 		opcodeAllocCountMap.count(opcode, type);
@@ -27,6 +27,22 @@ public class InstructionAllocCountMap
 		typeCountMap.countAllocationOfType(allocatedType);
 	}
 
+	public void addAll(InstructionAllocCountMap other)
+	{
+		for (Map.Entry<Opcode, AllocCountMap> entry : other.opcodeMap.entrySet())
+		{
+			AllocCountMap typeCountMap = opcodeMap.get(entry.getKey());
+
+			if (typeCountMap == null)
+			{
+				typeCountMap = new AllocCountMap();
+				opcodeMap.put(entry.getKey(), typeCountMap);
+			}
+
+			typeCountMap.addAll(entry.getValue());
+		}
+	}
+
 	public String toString(int limitPerInvoke)
 	{
 		StringBuilder builder = new StringBuilder();
@@ -93,6 +93,18 @@ public class FreqInlineSizeOperation implements IJarScanOperation
 		return builder.toString();
 	}
 
+	@Override
+	public IJarScanOperation createPartial()
+	{
+		return new FreqInlineSizeOperation(freqInlineSize);
+	}
+
+	@Override
+	public void combine(IJarScanOperation partial)
+	{
+		countMap.putAll(((FreqInlineSizeOperation) partial).countMap);
+	}
+
 	@Override
 	public void processInstructions(String className, MemberBytecode memberBytecode)
 	{
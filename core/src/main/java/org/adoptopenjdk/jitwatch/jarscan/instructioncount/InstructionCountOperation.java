@@ -68,6 +68,32 @@ public class InstructionCountOperation implements IJarScanOperation
 		return builder.toString();
 	}
 
+	@Override
+	public IJarScanOperation createPartial()
+	{
+		return new InstructionCountOperation(limit);
+	}
+
+	@Override
+	public void combine(IJarScanOperation partial)
+	{
+		for (Map.Entry<Opcode, Integer> entry : ((InstructionCountOperation) partial).opcodeCountMap.entrySet())
+		{
+			Integer count = opcodeCountMap.get(entry.getKey());
+
+			if (count == null)
+			{
+				count = entry.getValue();
+			}
+			else
+			{
+				count += entry.getValue();
+			}
+
+			opcodeCountMap.put(entry.getKey(), count);
+		}
+	}
+
 	private void count(Opcode opcode)
 	{
 		Integer count = opcodeCountMap.get(opcode);
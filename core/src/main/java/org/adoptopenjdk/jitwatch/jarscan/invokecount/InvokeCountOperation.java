@@ -31,6 +31,18 @@ public class InvokeCountOperation implements IJarScanOperation
 		return opcodeInvokeCountMap.toString(limitPerInvoke);
 	}
 	
+	@Override
+	public IJarScanOperation createPartial()
+	{
+		return new InvokeCountOperation(limitPerInvoke);
+	}
+
+	@Override
+	public void combine(IJarScanOperation partial)
+	{
+		opcodeInvokeCountMap.addAll(((InvokeCountOperation) partial).opcodeInvokeCountMap);
+	}
+
 	private void count(String className, BytecodeInstruction instruction)
 	{			
 		String comment = instruction.getCommentWithMemberPrefixStripped();
@@ -27,6 +27,22 @@ public class InvokeMethodCountMap
 		invokeCountMap.count(method);
 	}
 
+	public void addAll(InvokeMethodCountMap other)
+	{
+		for (Map.Entry<Opcode, MethodCountMap> entry : other.opcodeMap.entrySet())
+		{
+			MethodCountMap invokeCountMap = opcodeMap.get(entry.getKey());
+
+			if (invokeCountMap == null)
+			{
+				invokeCountMap = new MethodCountMap();
+				opcodeMap.put(entry.getKey(), invokeCountMap);
+			}
+
+			invokeCountMap.addAll(entry.getValue());
+		}
+	}
+
 	public String toString(int limitPerInvoke)
 	{
 		StringBuilder builder = new StringBuilder();
@@ -38,6 +38,25 @@ public class MethodCountMap
 		methodCountMap.put(method, count);
 	}
 	
+	public void addAll(MethodCountMap other)
+	{
+		for (Map.Entry<String, Integer> entry : other.methodCountMap.entrySet())
+		{
+			Integer count = methodCountMap.get(entry.getKey());
+
+			if (count == null)
+			{
+				count = entry.getValue();
+			}
+			else
+			{
+				count += entry.getValue();
+			}
+
+			methodCountMap.put(entry.getKey(), count);
+		}
+	}
+	
 	public String toString(Opcode prefix, int limitPerInvoke)
 	{
 		StringBuilder builder = new StringBuilder();
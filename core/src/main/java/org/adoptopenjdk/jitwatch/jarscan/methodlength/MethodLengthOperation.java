@@ -93,6 +93,18 @@ public class MethodLengthOperation implements IJarScanOperation
 		return builder.toString();
 	}
 
+	@Override
+	public IJarScanOperation createPartial()
+	{
+		return new MethodLengthOperation(findSize);
+	}
+
+	@Override
+	public void combine(IJarScanOperation partial)
+	{
+		methodMap.putAll(((MethodLengthOperation) partial).methodMap);
+	}
+
 	@Override
 	public void processInstructions(String className, MemberBytecode memberBytecode)
 	{
@@ -59,6 +59,30 @@ public class MethodSizeHistoOperation implements IJarScanOperation
 		return builder.toString();
 	}
 
+	@Override
+	public IJarScanOperation createPartial()
+	{
+		return new MethodSizeHistoOperation();
+	}
+
+	@Override
+	public void combine(IJarScanOperation partial)
+	{
+		for (Map.Entry<Integer, Integer> entry : ((MethodSizeHistoOperation) partial).methodSizeMap.entrySet())
+		{
+			Integer existingCount = methodSizeMap.get(entry.getKey());
+
+			if (existingCount == null)
+			{
+				methodSizeMap.put(entry.getKey(), entry.getValue());
+			}
+			else
+			{
+				methodSizeMap.put(entry.getKey(), existingCount + entry.getValue());
+			}
+		}
+	}
+
 	@Override
 	public void processInstructions(String className, MemberBytecode memberBytecode)
 	{
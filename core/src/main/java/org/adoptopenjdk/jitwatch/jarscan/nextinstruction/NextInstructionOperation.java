@@ -15,6 +15,7 @@ import java.util.EnumMap;
 import java.util.List;
 import java.util.Map;
 
+import org.adoptopenjdk.jitwatch.jarscan.IJarScanOperation;
 import org.adoptopenjdk.jitwatch.jarscan.sequencecount.InstructionSequence;
 import org.adoptopenjdk.jitwatch.jarscan.sequencecount.SequenceCountOperation;
 import org.adoptopenjdk.jitwatch.model.bytecode.Opcode;
@@ -58,6 +59,20 @@ public class NextInstructionOperation extends SequenceCountOperation
 		}
 	}
 
+	@Override
+	public IJarScanOperation createPartial()
+	{
+		return new NextInstructionOperation(maxChildren);
+	}
+
+	@Override
+	public void combine(IJarScanOperation partial)
+	{
+		super.combine(partial);
+
+		nextBytecodeMap = null;
+	}
+
 	public Map<Opcode, NextInstructionCountList> getNextBytecodeMap()
 	{
 		if (nextBytecodeMap == null)
@@ -74,6 +74,30 @@ public class SequenceCountOperation implements IJarScanOperation
 		return result;
 	}
 
+	@Override
+	public IJarScanOperation createPartial()
+	{
+		return new SequenceCountOperation(maxLength);
+	}
+
+	@Override
+	public void combine(IJarScanOperation partial)
+	{
+		for (Map.Entry<InstructionSequence, Integer> entry : ((SequenceCountOperation) partial).chainCountMap.entrySet())
+		{
+			Integer count = chainCountMap.get(entry.getKey());
+
+			if (count == null)
+			{
+				chainCountMap.put(entry.getKey(), entry.getValue());
+			}
+			else
+			{
+				chainCountMap.put(entry.getKey(), count + entry.getValue());
+			}
+		}
+	}
+
 	public void reset()
 	{
 		chain.clear();
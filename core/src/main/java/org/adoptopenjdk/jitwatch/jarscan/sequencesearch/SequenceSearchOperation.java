@@ -30,8 +30,12 @@ public class SequenceSearchOperation implements IJarScanOperation
 	private List<Opcode> chain = new LinkedList<>();
 	private List<Opcode> wantedChain = new LinkedList<>();
 
+	private String sequence;
+
 	public SequenceSearchOperation(String sequence)
 	{
+		this.sequence = sequence;
+
 		String[] searchSequence = sequence.toLowerCase().split(S_COMMA);
 
 		for (String mnemonic : searchSequence)
@@ -64,6 +68,18 @@ public class SequenceSearchOperation implements IJarScanOperation
 		return match;
 	}
 
+	@Override
+	public IJarScanOperation createPartial()
+	{
+		return new SequenceSearchOperation(sequence);
+	}
+
+	@Override
+	public void combine(IJarScanOperation partial)
+	{
+		matchingMethods.addAll(((SequenceSearchOperation) partial).matchingMethods);
+	}
+
 	public void reset()
 	{
 		chain.clear();
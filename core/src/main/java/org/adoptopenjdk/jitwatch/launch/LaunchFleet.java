@@ -0,0 +1,144 @@
+package org.adoptopenjdk.jitwatch.launch;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.List;
+
+import org.adoptopenjdk.jitwatch.core.JITWatchConfig;
+import org.adoptopenjdk.jitwatch.fleet.FleetAggregator;
+import org.adoptopenjdk.jitwatch.fleet.FleetModel;
+import org.adoptopenjdk.jitwatch.fleet.FleetWriter;
+import org.adoptopenjdk.jitwatch.logger.ILogListener;
+import org.adoptopenjdk.jitwatch.logger.LoggerFactory;
+import org.adoptopenjdk.jitwatch.parser.ParserType;
+
+/**
+ * Merges the logs of many JVMs running the same build and prints the
+ * members compiled most across the fleet first
+ */
+public class LaunchFleet
+{
+	public static void main(String[] args) throws IOException
+	{
+		if (args.length < 1)
+		{
+			System.err.println("Usage: LaunchFleet <options> <log directory or glob>");
+			System.err.println("options:");
+			System.err.println("-j\t\tWrite JSON instead of separated values (takes no value)");
+			System.err.println("-e\t\tShow parse errors (takes no value)");
+			System.err.println("-t <threads>\tLogs parsed at once (one per processor)");
+			System.err.println("-n <count>\tOnly write the most compiled members");
+			System.err.println("-m <member>\tShow one member in each JVM, as written in the output");
+			System.err.println("-o <file>\tWrite to a file instead of the console");
+			System.err.println("A glob is only allowed in the file name, quote it, for example \"logs/hotspot_pid*.log\"");
+
+			System.exit(-1);
+		}
+
+		boolean json = false;
+		boolean showErrors = false;
+		int threads = 0;
+		int limit = 0;
+		String member = null;
+		String outputFile = null;
+
+		for (int i = 0; i < args.length - 1; i++)
+		{
+			String arg = args[i];
+
+			switch (arg)
+			{
+			case "-j":
+				json = true;
+				break;
+			case "-e":
+				showErrors = true;
+				break;
+			case "-t":
+				threads = Integer.parseInt(args[++i]);
+				break;
+			case "-n":
+				limit = Integer.parseInt(args[++i]);
+				break;
+			case "-m":
+				member = args[++i];
+				break;
+			case "-o":
+				outputFile = args[++i];
+				break;
+			default:
+				throw new IllegalArgumentException("Unknown option " + arg);
+			}
+		}
+
+		LoggerFactory.setLogFile(Paths.get("jitwatch.out"));
+
+		List<File> logFiles = FleetAggregator.findLogs(args[args.length - 1]);
+
+		if (logFiles.isEmpty())
+		{
+			System.err.println("No logs found at " + args[args.length - 1]);
+			System.exit(-1);
+		}
+
+		final boolean printErrors = showErrors;
+
+		ILogListener logListener = new ILogListener()
+		{
+			@Override
+			public void handleLogEntry(String entry)
+			{
+				if (entry.startsWith("Profiled "))
+				{
+					System.err.println(entry);
+				}
+			}
+
+			@Override
+			public void handleErrorEntry(String entry)
+			{
+				if (printErrors || entry.startsWith("Could not profile "))
+				{
+					System.err.println(entry);
+				}
+			}
+		};
+
+		String parserProperty = System.getProperty("jitwatch.parser", ParserType.HOTSPOT.toString());
+
+		FleetAggregator aggregator = new FleetAggregator(ParserType.fromString(parserProperty), new JITWatchConfig(), logListener,
+				threads);
+
+		long start = System.currentTimeMillis();
+
+		FleetModel model = aggregator.aggregate(logFiles);
+
+		System.err.println("Merged " + model.getRuns().size() + " of " + logFiles.size() + " logs with " + model.getMemberCount()
+				+ " compiled members in " + (System.currentTimeMillis() - start) + "ms");
+
+		String output;
+
+		if (member != null)
+		{
+			output = FleetWriter.toDrillDownCSV(model, member);
+		}
+		else
+		{
+			output = json ? FleetWriter.toJSON(model, limit) : FleetWriter.toCSV(model, limit);
+		}
+
+		if (outputFile != null)
+		{
+			Files.write(Paths.get(outputFile), output.getBytes(StandardCharsets.UTF_8));
+
+			System.err.println("Wrote to " + outputFile);
+		}
+		else
+		{
+			System.out.print(output);
+		}
+	}
+}
@@ -24,8 +24,11 @@ import org.adoptopenjdk.jitwatch.model.IReadOnlyJITDataModel;
 import org.adoptopenjdk.jitwatch.model.JITEvent;
 import org.adoptopenjdk.jitwatch.parser.ILogParseErrorListener;
 import org.adoptopenjdk.jitwatch.parser.ILogParser;
+import org.adoptopenjdk.jitwatch.parser.ParseStats;
+import org.adoptopenjdk.jitwatch.parser.ParseStats.Phase;
 import org.adoptopenjdk.jitwatch.parser.ParserFactory;
 import org.adoptopenjdk.jitwatch.parser.ParserType;
+import org.adoptopenjdk.jitwatch.parser.StampWindow;
 import org.adoptopenjdk.jitwatch.report.Report;
 import org.adoptopenjdk.jitwatch.report.comparator.ScoreComparator;
 import org.adoptopenjdk.jitwatch.report.suggestion.SuggestionWalker;
@@ -42,6 +45,12 @@ public class LaunchHeadless implements IJITListener, ILogParseErrorListener
 	private boolean showSuggestions;
 	private boolean outputFile;
 	private boolean showInlineFailedCalls;
+	private boolean streamingParse;
+	private boolean parallelParse;
+	private boolean modelSnapshot;
+	private boolean showParseStats;
+	private boolean logIndex;
+	private StampWindow stampWindow = StampWindow.ALL;
 
 	private ILogParser parser;
 	private JITWatchConfig config;
@@ -64,6 +73,12 @@ public class LaunchHeadless implements IJITListener, ILogParseErrorListener
 
 		config = new JITWatchConfig();
 
+		config.setStreamingParse(streamingParse);
+		config.setParallelParse(parallelParse);
+		config.setModelSnapshot(modelSnapshot);
+		config.setStampWindow(stampWindow);
+		config.setLogIndex(logIndex);
+
 		String parserProperty = System.getProperty("jitwatch.parser", ParserType.HOTSPOT.toString());
 
 		ParserType parserType = ParserType.fromString(parserProperty);
@@ -123,6 +138,12 @@ public class LaunchHeadless implements IJITListener, ILogParseErrorListener
 			System.err.println("-t\tShow compilation timeline");
 			System.err.println("-f\tWrite output to headless.csv");
 			System.err.println("-i\tShow inline failed calls");
+			System.err.println("-l\tStreaming parse (low memory, HotSpot only)");
+			System.err.println("-p\tParallel parse of a memory-mapped log (HotSpot only)");
+			System.err.println("-r\tReuse the model snapshot next to the log, writing one after parsing (HotSpot only)");
+			System.err.println("-a\tShow parse phase timings and counts");
+			System.err.println("-w <start>,<end>\tOnly parse compilations queued between two log stamps in seconds, either can be left out (HotSpot only)");
+			System.err.println("-x\tUse the index file next to the log to skip to the -w window, building it when missing (HotSpot only)");
 			// System.err.println("-o\tShow optimized virtual calls");
 
 			System.exit(-1);
@@ -167,6 +188,33 @@ public class LaunchHeadless implements IJITListener, ILogParseErrorListener
 				showInlineFailedCalls = true;
 				break;
 
+			case "-l":
+				streamingParse = true;
+				break;
+
+			case "-p":
+				parallelParse = true;
+				break;
+
+			case "-r":
+				modelSnapshot = true;
+				break;
+
+			case "-a":
+				showParseStats = true;
+				break;
+
+			case "-w":
+				if (i < args.length - 2)
+				{
+					stampWindow = StampWindow.parse(args[++i]);
+				}
+				break;
+
+			case "-x":
+				logIndex = true;
+				break;
+
 			// case "-o":
 			// showOptimizedVirtualCalls = true;
 			// break;s
@@ -197,12 +245,18 @@ public class LaunchHeadless implements IJITListener, ILogParseErrorListener
 			outputBuilder.append(modelString).append(S_NEWLINE);
 		}
 
+		ParseStats parseStats = parser.getParseStats();
+
 		if (showSuggestions)
 		{
+			parseStats.startPhase(Phase.REPORTS);
+
 			SuggestionWalker walker = new SuggestionWalker(parser.getModel());
 
 			List<Report> suggestions = walker.getReports(new ScoreComparator());
 
+			parseStats.endPhase(Phase.REPORTS);
+
 			outputBuilder.append(getSuggestions(suggestions));
 		}
 
@@ -233,6 +287,11 @@ public class LaunchHeadless implements IJITListener, ILogParseErrorListener
 			inlineVisitor.printFailedList(System.out);
 		}
 
+		if (showParseStats)
+		{
+			System.out.println(parseStats.toString());
+		}
+
 		// if (showOptimizedVirtualCalls)
 		// {
 		// OptimizedVirtualCallVisitable optimizedVCallVisitable = new
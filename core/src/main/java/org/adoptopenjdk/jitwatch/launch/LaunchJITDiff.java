@@ -0,0 +1,111 @@
+package org.adoptopenjdk.jitwatch.launch;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
+import org.adoptopenjdk.jitwatch.core.JITWatchConfig;
+import org.adoptopenjdk.jitwatch.diff.JITDiff;
+import org.adoptopenjdk.jitwatch.diff.JITDiffResult;
+import org.adoptopenjdk.jitwatch.diff.JITDiffWriter;
+import org.adoptopenjdk.jitwatch.logger.ILogListener;
+import org.adoptopenjdk.jitwatch.logger.LoggerFactory;
+import org.adoptopenjdk.jitwatch.parser.ParserType;
+
+/**
+ * Compares the compilations of a baseline and a candidate log and prints the
+ * members that changed the most first
+ */
+public class LaunchJITDiff
+{
+	public static void main(String[] args) throws IOException
+	{
+		if (args.length < 2)
+		{
+			System.err.println("Usage: LaunchJITDiff <options> <baseline log> <candidate log>");
+			System.err.println("options:");
+			System.err.println("-j\t\tWrite JSON instead of separated values (takes no value)");
+			System.err.println("-e\t\tShow parse errors (takes no value)");
+			System.err.println("-n <count>\tOnly write the highest scoring members");
+			System.err.println("-o <file>\tWrite to a file instead of the console");
+
+			System.exit(-1);
+		}
+
+		boolean json = false;
+		boolean showErrors = false;
+		int limit = 0;
+		String outputFile = null;
+
+		for (int i = 0; i < args.length - 2; i++)
+		{
+			String arg = args[i];
+
+			switch (arg)
+			{
+			case "-j":
+				json = true;
+				break;
+			case "-e":
+				showErrors = true;
+				break;
+			case "-n":
+				limit = Integer.parseInt(args[++i]);
+				break;
+			case "-o":
+				outputFile = args[++i];
+				break;
+			default:
+				throw new IllegalArgumentException("Unknown option " + arg);
+			}
+		}
+
+		LoggerFactory.setLogFile(Paths.get("jitwatch.out"));
+
+		final boolean printErrors = showErrors;
+
+		ILogListener logListener = new ILogListener()
+		{
+			@Override
+			public void handleLogEntry(String entry)
+			{
+			}
+
+			@Override
+			public void handleErrorEntry(String entry)
+			{
+				if (printErrors)
+				{
+					System.err.println(entry);
+				}
+			}
+		};
+
+		String parserProperty = System.getProperty("jitwatch.parser", ParserType.HOTSPOT.toString());
+
+		JITDiff diff = new JITDiff(ParserType.fromString(parserProperty), new JITWatchConfig(), logListener);
+
+		long start = System.currentTimeMillis();
+
+		JITDiffResult result = diff.diff(new File(args[args.length - 2]), new File(args[args.length - 1]));
+
+		System.err.println("Compared " + result.getBaseline().getMemberCount() + " and " + result.getCandidate().getMemberCount()
+				+ " compiled members in " + (System.currentTimeMillis() - start) + "ms, " + result.getDeltas().size() + " changed, "
+				+ result.getInlineRegressionCount() + " inlining regressions");
+
+		String output = json ? JITDiffWriter.toJSON(result, limit) : JITDiffWriter.toCSV(result, limit);
+
+		if (outputFile != null)
+		{
+			Files.write(Paths.get(outputFile), output.getBytes(StandardCharsets.UTF_8));
+
+			System.err.println("Wrote to " + outputFile);
+		}
+		else
+		{
+			System.out.print(output);
+		}
+	}
+}
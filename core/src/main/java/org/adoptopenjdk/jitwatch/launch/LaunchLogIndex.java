@@ -0,0 +1,166 @@
+package org.adoptopenjdk.jitwatch.launch;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.adoptopenjdk.jitwatch.model.Tag;
+import org.adoptopenjdk.jitwatch.parser.hotspot.LogIndex;
+import org.adoptopenjdk.jitwatch.parser.hotspot.LogIndex.IndexedCompilation;
+
+/**
+ * Prints single compilations of a HotSpot log through its sidecar index,
+ * building the index first when it is missing or out of date.
+ */
+public class LaunchLogIndex
+{
+	private final LogIndex index;
+
+	private boolean showAssembly;
+
+	public LaunchLogIndex(File logFile) throws IOException
+	{
+		long start = System.currentTimeMillis();
+
+		index = LogIndex.openOrBuild(logFile);
+
+		System.err.println("Opened " + LogIndex.getIndexFile(logFile) + " with " + index.getCompilationCount() + " compilations of "
+				+ index.getMethodCount() + " methods in " + (System.currentTimeMillis() - start) + "ms");
+	}
+
+	public void setShowAssembly(boolean showAssembly)
+	{
+		this.showAssembly = showAssembly;
+	}
+
+	public void printCompilation(int compileID) throws IOException
+	{
+		IndexedCompilation compilation = index.getCompilation(compileID);
+
+		if (compilation == null)
+		{
+			System.out.println("No compilation with compile_id " + compileID);
+			return;
+		}
+
+		System.out.println("compile_id " + compileID + " " + compilation.getMethod());
+
+		printTag(index.readTaskQueued(compilation));
+		printTag(index.readNMethod(compilation));
+		printTag(index.readTask(compilation));
+
+		if (showAssembly)
+		{
+			for (String line : index.readPrintNMethod(compilation))
+			{
+				System.out.println(line);
+			}
+		}
+	}
+
+	public void printMethod(String method) throws IOException
+	{
+		List<Integer> compileIDs = index.getCompileIDs(method);
+
+		if (compileIDs.isEmpty())
+		{
+			System.out.println("No compilations of " + method);
+		}
+
+		for (int compileID : compileIDs)
+		{
+			printCompilation(compileID);
+		}
+	}
+
+	public void printClass(String className)
+	{
+		for (String method : index.getMethodsOfClass(className))
+		{
+			System.out.println(method + " " + index.getCompileIDs(method));
+		}
+	}
+
+	private void printTag(Tag tag)
+	{
+		if (tag != null)
+		{
+			System.out.print(tag.toString());
+		}
+	}
+
+	public static void main(String[] args) throws IOException
+	{
+		if (args.length < 1)
+		{
+			System.err.println("Usage: LaunchLogIndex <options> <hotspot log file>");
+			System.err.println("options:");
+			System.err.println("-c <compile_id>\tShow the tags of a compilation");
+			System.err.println("-m <method>\tShow the compilations of a method, as written in the log");
+			System.err.println("-k <class>\tList the compiled methods of a class and their compile_ids");
+			System.err.println("-a\t\tAlso show the assembly (takes no value)");
+			System.err.println("With no options only builds the index");
+
+			System.exit(-1);
+		}
+
+		List<String> compileIDs = new ArrayList<>();
+		List<String> methods = new ArrayList<>();
+		List<String> classNames = new ArrayList<>();
+
+		boolean showAssembly = false;
+
+		for (int i = 0; i < args.length - 1; i++)
+		{
+			String arg = args[i];
+
+			if ("-a".equals(arg))
+			{
+				showAssembly = true;
+				continue;
+			}
+
+			if (i + 1 >= args.length - 1)
+			{
+				throw new IllegalArgumentException("Missing value for " + arg);
+			}
+
+			String value = args[++i];
+
+			switch (arg)
+			{
+			case "-c":
+				compileIDs.add(value);
+				break;
+			case "-m":
+				methods.add(value);
+				break;
+			case "-k":
+				classNames.add(value);
+				break;
+			default:
+				throw new IllegalArgumentException("Unknown option " + arg);
+			}
+		}
+
+		LaunchLogIndex launcher = new LaunchLogIndex(new File(args[args.length - 1]));
+
+		launcher.setShowAssembly(showAssembly);
+
+		for (String compileID : compileIDs)
+		{
+			launcher.printCompilation(Integer.parseInt(compileID));
+		}
+
+		for (String method : methods)
+		{
+			launcher.printMethod(method);
+		}
+
+		for (String className : classNames)
+		{
+			launcher.printClass(className);
+		}
+	}
+}
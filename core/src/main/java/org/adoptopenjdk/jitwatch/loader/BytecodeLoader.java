@@ -6,10 +6,12 @@
 package org.adoptopenjdk.jitwatch.loader;
 
 import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.C_COLON;
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.C_DOT;
 import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.C_HASH;
 import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.C_NEWLINE;
 import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.C_OPEN_ANGLE;
 import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.C_SEMICOLON;
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.C_SLASH;
 import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.DEBUG_LOGGING_BYTECODE;
 import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.S_BYTECODE_CLASSFILE;
 import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.S_BYTECODE_CODE;
@@ -30,6 +32,7 @@ import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.S_COLON;
 import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.S_COMMA;
 import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.S_DEFAULT;
 import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.S_DOT;
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.S_DOT_CLASS;
 import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.S_DOUBLE_QUOTE;
 import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.S_EMPTY;
 import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.S_HASH;
@@ -38,7 +41,11 @@ import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.S_SEMICOLON;
 import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.S_SLASH;
 import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.S_SPACE;
 
+import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -46,6 +53,8 @@ import java.util.List;
 import java.util.Map;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
 
 import org.adoptopenjdk.jitwatch.model.MemberSignatureParts;
 import org.adoptopenjdk.jitwatch.model.MetaClass;
@@ -124,6 +133,27 @@ public final class BytecodeLoader
 
 		ClassBC classBytecode = null;
 
+		try
+		{
+			// a configured javap belongs to another JDK whose classes are not
+			// the ones in this runtime
+			classBytecode = readClassFile(parentClassBC, classLocations, fqClassName, javapPath == null);
+		}
+		catch (IOException e)
+		{
+			logger.warn("Could not read class file for {}, trying javap", fqClassName, e);
+		}
+
+		if (classBytecode != null)
+		{
+			if (cacheBytecode && classBytecode.getSourceFile() != null)
+			{
+				SourceMapper.addSourceClassMapping(classBytecode);
+			}
+
+			return classBytecode;
+		}
+
 		String byteCodeString = null;
 
 		try
@@ -157,6 +187,85 @@ public final class BytecodeLoader
 		return classBytecode;
 	}
 
+	/*
+	 * Reads the class file from the class locations and then, if
+	 * searchRuntime, from the modules of the running JDK.
+	 * Returns null if the class file was not found.
+	 */
+	private static ClassBC readClassFile(ClassBC parentClassBC, List<String> classLocations, String fqClassName,
+			boolean searchRuntime) throws IOException
+	{
+		String classFileName = fqClassName.replace(C_DOT, C_SLASH) + S_DOT_CLASS;
+
+		byte[] classBytes = null;
+
+		String moduleName = null;
+
+		for (String location : classLocations)
+		{
+			File file = new File(location);
+
+			if (file.isDirectory())
+			{
+				File classFile = new File(file, classFileName);
+
+				if (classFile.isFile())
+				{
+					classBytes = Files.readAllBytes(classFile.toPath());
+				}
+			}
+			else if (file.isFile())
+			{
+				try (ZipFile zip = new ZipFile(file))
+				{
+					ZipEntry entry = zip.getEntry(classFileName);
+
+					if (entry != null)
+					{
+						try (InputStream inputStream = zip.getInputStream(entry))
+						{
+							classBytes = inputStream.readAllBytes();
+						}
+					}
+				}
+			}
+
+			if (classBytes != null)
+			{
+				break;
+			}
+		}
+
+		if (classBytes == null && searchRuntime)
+		{
+			URL url = ClassLoader.getPlatformClassLoader().getResource(classFileName);
+
+			if (url != null)
+			{
+				try (InputStream inputStream = url.openStream())
+				{
+					classBytes = inputStream.readAllBytes();
+				}
+
+				moduleName = getModuleName(url.toString());
+			}
+		}
+
+		ClassBC classBytecode = null;
+
+		if (classBytes != null)
+		{
+			classBytecode = ClassFileReader.readClass(parentClassBC, classBytes);
+
+			if (moduleName != null)
+			{
+				classBytecode.setModuleName(moduleName);
+			}
+		}
+
+		return classBytecode;
+	}
+
 	private static String getBytecodeStringViaProcess(List<String> classLocations, String fqClassName, Path javapPath)
 			throws IOException
 	{
@@ -306,42 +415,11 @@ public final class BytecodeLoader
 				}
 				else if (line.startsWith(S_BYTECODE_CLASSFILE))
 				{
-					String modules = "/modules/";
+					String moduleName = getModuleName(line);
 
-					int startIndex = line.indexOf(modules);
-
-					if (startIndex != -1)
+					if (moduleName != null)
 					{
-						startIndex += modules.length();
-
-						int endIndex = line.indexOf('/', startIndex);
-
-						if (endIndex != -1)
-						{
-							String moduleName = line.substring(startIndex, endIndex);
-
-							classBytecode.setModuleName(moduleName);
-						}
-					}
-					else
-					{
-						String jrt = "jrt:/";
-
-						 startIndex = line.indexOf(jrt);
-
-						if (startIndex != -1)
-						{
-							startIndex += jrt.length();
-
-							int endIndex = line.indexOf('/', startIndex);
-
-							if (endIndex != -1)
-							{
-								String moduleName = line.substring(startIndex, endIndex);
-
-								classBytecode.setModuleName(moduleName);
-							}
-						}
+						classBytecode.setModuleName(moduleName);
 					}
 				}
 				else if (line.startsWith(S_BYTECODE_SOURCE_FILE))
@@ -700,6 +778,44 @@ public final class BytecodeLoader
 		return nextSection;
 	}
 
+	// the module of a class file location such as jrt:/java.base/java/lang/String.class
+	private static String getModuleName(final String location)
+	{
+		String moduleName = null;
+
+		String modules = "/modules/";
+
+		int startIndex = location.indexOf(modules);
+
+		if (startIndex != -1)
+		{
+			startIndex += modules.length();
+		}
+		else
+		{
+			String jrt = "jrt:/";
+
+			startIndex = location.indexOf(jrt);
+
+			if (startIndex != -1)
+			{
+				startIndex += jrt.length();
+			}
+		}
+
+		if (startIndex != -1)
+		{
+			int endIndex = location.indexOf('/', startIndex);
+
+			if (endIndex != -1)
+			{
+				moduleName = location.substring(startIndex, endIndex);
+			}
+		}
+
+		return moduleName;
+	}
+
 	private static int getVersionPart(final String line)
 	{
 		int version = -1;
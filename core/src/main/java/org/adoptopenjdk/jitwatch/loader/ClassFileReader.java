@@ -0,0 +1,1244 @@
+package org.adoptopenjdk.jitwatch.loader;
+
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.C_DOT;
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.C_SLASH;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.adoptopenjdk.jitwatch.model.MemberSignatureParts;
+import org.adoptopenjdk.jitwatch.model.bytecode.BCParamConstant;
+import org.adoptopenjdk.jitwatch.model.bytecode.BCParamNumeric;
+import org.adoptopenjdk.jitwatch.model.bytecode.BCParamString;
+import org.adoptopenjdk.jitwatch.model.bytecode.BCParamSwitch;
+import org.adoptopenjdk.jitwatch.model.bytecode.BytecodeInstruction;
+import org.adoptopenjdk.jitwatch.model.bytecode.ClassBC;
+import org.adoptopenjdk.jitwatch.model.bytecode.ConstantPool;
+import org.adoptopenjdk.jitwatch.model.bytecode.ExceptionTableEntry;
+import org.adoptopenjdk.jitwatch.model.bytecode.LineTableEntry;
+import org.adoptopenjdk.jitwatch.model.bytecode.MemberBytecode;
+import org.adoptopenjdk.jitwatch.model.bytecode.Opcode;
+
+/**
+ * Builds a ClassBC straight from the bytes of a class file without running
+ * javap. Member declarations and instruction comments are rendered the way
+ * javap -c -p -v prints them so the result is the same as the one built by
+ * BytecodeLoader.parse from the javap text.
+ */
+public final class ClassFileReader
+{
+	private static final int MAGIC = 0xCAFEBABE;
+
+	private static final int CONSTANT_UTF8 = 1;
+	private static final int CONSTANT_INTEGER = 3;
+	private static final int CONSTANT_FLOAT = 4;
+	private static final int CONSTANT_LONG = 5;
+	private static final int CONSTANT_DOUBLE = 6;
+	private static final int CONSTANT_CLASS = 7;
+	private static final int CONSTANT_STRING = 8;
+	private static final int CONSTANT_FIELDREF = 9;
+	private static final int CONSTANT_METHODREF = 10;
+	private static final int CONSTANT_INTERFACE_METHODREF = 11;
+	private static final int CONSTANT_NAME_AND_TYPE = 12;
+	private static final int CONSTANT_METHOD_HANDLE = 15;
+	private static final int CONSTANT_METHOD_TYPE = 16;
+	private static final int CONSTANT_DYNAMIC = 17;
+	private static final int CONSTANT_INVOKE_DYNAMIC = 18;
+	private static final int CONSTANT_MODULE = 19;
+	private static final int CONSTANT_PACKAGE = 20;
+
+	private static final int ACC_PUBLIC = 0x0001;
+	private static final int ACC_PRIVATE = 0x0002;
+	private static final int ACC_PROTECTED = 0x0004;
+	private static final int ACC_STATIC = 0x0008;
+	private static final int ACC_FINAL = 0x0010;
+	private static final int ACC_SYNCHRONIZED = 0x0020;
+	private static final int ACC_VARARGS = 0x0080;
+	private static final int ACC_NATIVE = 0x0100;
+	private static final int ACC_INTERFACE = 0x0200;
+	private static final int ACC_ABSTRACT = 0x0400;
+	private static final int ACC_STRICT = 0x0800;
+
+	// javap shows interface methods with a body as default from class file version 52
+	private static final int DEFAULT_METHOD_MAJOR_VERSION = 52;
+
+	private static final String ATTR_CODE = "Code";
+	private static final String ATTR_EXCEPTIONS = "Exceptions";
+	private static final String ATTR_SIGNATURE = "Signature";
+	private static final String ATTR_SOURCE_FILE = "SourceFile";
+	private static final String ATTR_INNER_CLASSES = "InnerClasses";
+	private static final String ATTR_LINE_NUMBER_TABLE = "LineNumberTable";
+
+	private static final String METHOD_CONSTRUCTOR = "<init>";
+	private static final String METHOD_STATIC_INIT = "<clinit>";
+
+	private static final String[] CONSTANT_TAG_NAMES = new String[21];
+
+	private static final String[] REFERENCE_KIND_NAMES = { null, "REF_getField", "REF_getStatic", "REF_putField",
+			"REF_putStatic", "REF_invokeVirtual", "REF_invokeStatic", "REF_invokeSpecial", "REF_newInvokeSpecial",
+			"REF_invokeInterface" };
+
+	private static final String[] ARRAY_TYPE_NAMES = { null, null, null, null, "boolean", "char", "float", "double", "byte",
+			"short", "int", "long" };
+
+	private static final Opcode[] OPCODES = new Opcode[256];
+
+	static
+	{
+		CONSTANT_TAG_NAMES[CONSTANT_UTF8] = "Utf8";
+		CONSTANT_TAG_NAMES[CONSTANT_INTEGER] = "int";
+		CONSTANT_TAG_NAMES[CONSTANT_FLOAT] = "float";
+		CONSTANT_TAG_NAMES[CONSTANT_LONG] = "long";
+		CONSTANT_TAG_NAMES[CONSTANT_DOUBLE] = "double";
+		CONSTANT_TAG_NAMES[CONSTANT_CLASS] = "class";
+		CONSTANT_TAG_NAMES[CONSTANT_STRING] = "String";
+		CONSTANT_TAG_NAMES[CONSTANT_FIELDREF] = "Field";
+		CONSTANT_TAG_NAMES[CONSTANT_METHODREF] = "Method";
+		CONSTANT_TAG_NAMES[CONSTANT_INTERFACE_METHODREF] = "InterfaceMethod";
+		CONSTANT_TAG_NAMES[CONSTANT_NAME_AND_TYPE] = "NameAndType";
+		CONSTANT_TAG_NAMES[CONSTANT_METHOD_HANDLE] = "MethodHandle";
+		CONSTANT_TAG_NAMES[CONSTANT_METHOD_TYPE] = "MethodType";
+		CONSTANT_TAG_NAMES[CONSTANT_DYNAMIC] = "Dynamic";
+		CONSTANT_TAG_NAMES[CONSTANT_INVOKE_DYNAMIC] = "InvokeDynamic";
+		CONSTANT_TAG_NAMES[CONSTANT_MODULE] = "Module";
+		CONSTANT_TAG_NAMES[CONSTANT_PACKAGE] = "Package";
+
+		for (Opcode opcode : Opcode.values())
+		{
+			OPCODES[opcode.getCode()] = opcode;
+		}
+	}
+
+	private final byte[] bytes;
+	private final boolean includeConstantPool;
+	private int pos;
+
+	private int[] cpTags;
+	private int[] cpFirst;
+	private int[] cpSecond;
+	private Object[] cpValues;
+
+	private int majorVersion;
+	private int minorVersion;
+	private int classAccess;
+	private int thisClass;
+	private String fqClassName;
+
+	private ClassFileReader(byte[] bytes, boolean includeConstantPool)
+	{
+		this.bytes = bytes;
+		this.includeConstantPool = includeConstantPool;
+	}
+
+	/**
+	 * @throws IOException if the bytes are not a well formed class file
+	 */
+	public static ClassBC readClass(ClassBC parentClassBC, byte[] classBytes) throws IOException
+	{
+		return readClass(parentClassBC, classBytes, true);
+	}
+
+	/**
+	 * @param includeConstantPool
+	 *            false to skip building the ConstantPool of the ClassBC when
+	 *            only the members are needed
+	 * @throws IOException
+	 *             if the bytes are not a well formed class file
+	 */
+	public static ClassBC readClass(ClassBC parentClassBC, byte[] classBytes, boolean includeConstantPool) throws IOException
+	{
+		try
+		{
+			return new ClassFileReader(classBytes, includeConstantPool).read(parentClassBC);
+		}
+		catch (IndexOutOfBoundsException | ClassCastException | IllegalArgumentException e)
+		{
+			throw new IOException("Malformed class file", e);
+		}
+	}
+
+	private ClassBC read(ClassBC parentClassBC) throws IOException
+	{
+		if (u4() != MAGIC)
+		{
+			throw new IOException("Not a class file");
+		}
+
+		minorVersion = u2();
+		majorVersion = u2();
+
+		readConstantPool();
+
+		classAccess = u2();
+		thisClass = u2();
+
+		fqClassName = className(thisClass).replace(C_SLASH, C_DOT);
+
+		pos += 2; // super_class
+
+		int interfaceCount = u2();
+
+		pos += interfaceCount * 2;
+
+		ClassBC classBytecode = new ClassBC(parentClassBC, fqClassName);
+
+		classBytecode.setMajorVersion(majorVersion);
+		classBytecode.setMinorVersion(minorVersion);
+
+		if (includeConstantPool)
+		{
+			classBytecode.setConstantPool(buildConstantPool());
+		}
+
+		int fieldCount = u2();
+
+		for (int i = 0; i < fieldCount; i++)
+		{
+			pos += 6; // access_flags, name_index, descriptor_index
+
+			skipAttributes();
+		}
+
+		// the class attributes follow the methods but the class generics are
+		// needed to build the member signatures
+		int methodsStart = pos;
+
+		int methodCount = u2();
+
+		for (int i = 0; i < methodCount; i++)
+		{
+			pos += 6;
+
+			skipAttributes();
+		}
+
+		readClassAttributes(classBytecode);
+
+		pos = methodsStart + 2;
+
+		for (int i = 0; i < methodCount; i++)
+		{
+			readMethod(classBytecode);
+		}
+
+		return classBytecode;
+	}
+
+	private void readConstantPool() throws IOException
+	{
+		int count = u2();
+
+		cpTags = new int[count];
+		cpFirst = new int[count];
+		cpSecond = new int[count];
+		cpValues = new Object[count];
+
+		for (int i = 1; i < count; i++)
+		{
+			int tag = u1();
+
+			cpTags[i] = tag;
+
+			switch (tag)
+			{
+			case CONSTANT_UTF8:
+				cpValues[i] = utf8(u2());
+				break;
+			case CONSTANT_INTEGER:
+				cpValues[i] = s4();
+				break;
+			case CONSTANT_FLOAT:
+				cpValues[i] = Float.intBitsToFloat(s4());
+				break;
+			case CONSTANT_LONG:
+				cpValues[i] = s8();
+				i++;
+				break;
+			case CONSTANT_DOUBLE:
+				cpValues[i] = Double.longBitsToDouble(s8());
+				i++;
+				break;
+			case CONSTANT_CLASS:
+			case CONSTANT_STRING:
+			case CONSTANT_METHOD_TYPE:
+			case CONSTANT_MODULE:
+			case CONSTANT_PACKAGE:
+				cpFirst[i] = u2();
+				break;
+			case CONSTANT_METHOD_HANDLE:
+				cpFirst[i] = u1();
+				cpSecond[i] = u2();
+				break;
+			case CONSTANT_FIELDREF:
+			case CONSTANT_METHODREF:
+			case CONSTANT_INTERFACE_METHODREF:
+			case CONSTANT_NAME_AND_TYPE:
+			case CONSTANT_DYNAMIC:
+			case CONSTANT_INVOKE_DYNAMIC:
+				cpFirst[i] = u2();
+				cpSecond[i] = u2();
+				break;
+			default:
+				throw new IOException("Unknown constant pool tag " + tag + " at index " + i);
+			}
+		}
+	}
+
+	private ConstantPool buildConstantPool()
+	{
+		ConstantPool constantPool = new ConstantPool(cpTags.length);
+
+		for (int i = 1; i < cpTags.length; i++)
+		{
+			int tag = cpTags[i];
+
+			if (tag != 0)
+			{
+				constantPool.set(i, CONSTANT_TAG_NAMES[tag], constantValue(i));
+			}
+		}
+
+		return constantPool;
+	}
+
+	private void readClassAttributes(ClassBC classBytecode)
+	{
+		int attributeCount = u2();
+
+		for (int i = 0; i < attributeCount; i++)
+		{
+			String name = utf8At(u2());
+			int length = s4();
+			int end = pos + length;
+
+			if (ATTR_SIGNATURE.equals(name))
+			{
+				BytecodeLoader.buildClassGenerics(utf8At(u2()), classBytecode);
+			}
+			else if (ATTR_SOURCE_FILE.equals(name))
+			{
+				classBytecode.setSourceFile(utf8At(u2()));
+			}
+			else if (ATTR_INNER_CLASSES.equals(name))
+			{
+				int classCount = u2();
+
+				for (int j = 0; j < classCount; j++)
+				{
+					int innerClass = u2();
+					int outerClass = u2();
+
+					pos += 4; // inner_name_index, inner_class_access_flags
+
+					if (outerClass == thisClass)
+					{
+						classBytecode.addInnerClassName(className(innerClass).replace(C_SLASH, C_DOT));
+					}
+				}
+			}
+
+			pos = end;
+		}
+	}
+
+	private void readMethod(ClassBC classBytecode) throws IOException
+	{
+		int access = u2();
+		String name = utf8At(u2());
+		String descriptor = utf8At(u2());
+
+		String signature = null;
+		List<String> exceptions = null;
+
+		int codeLength = -1;
+		int codeStart = 0;
+
+		List<ExceptionTableEntry> exceptionTable = null;
+		List<LineTableEntry> lineTable = null;
+
+		int attributeCount = u2();
+
+		for (int i = 0; i < attributeCount; i++)
+		{
+			String attributeName = utf8At(u2());
+			int length = s4();
+			int end = pos + length;
+
+			if (ATTR_CODE.equals(attributeName))
+			{
+				pos += 4; // max_stack, max_locals
+				codeLength = s4();
+				codeStart = pos;
+
+				pos += codeLength;
+
+				exceptionTable = readExceptionTable();
+				lineTable = readLineTable();
+			}
+			else if (ATTR_SIGNATURE.equals(attributeName))
+			{
+				signature = utf8At(u2());
+			}
+			else if (ATTR_EXCEPTIONS.equals(attributeName))
+			{
+				int exceptionCount = u2();
+
+				exceptions = new ArrayList<>(exceptionCount);
+
+				for (int j = 0; j < exceptionCount; j++)
+				{
+					exceptions.add(className(u2()).replace(C_SLASH, C_DOT));
+				}
+			}
+
+			pos = end;
+		}
+
+		if (codeLength != -1)
+		{
+			int methodEnd = pos;
+
+			String declaration = buildDeclaration(access, name, descriptor, signature, exceptions);
+
+			MemberSignatureParts msp = MemberSignatureParts.fromBytecodeSignature(fqClassName, declaration, classBytecode);
+
+			MemberBytecode memberBytecode = new MemberBytecode(classBytecode, msp);
+
+			memberBytecode.setInstructions(readInstructions(codeStart, codeLength));
+
+			for (ExceptionTableEntry entry : exceptionTable)
+			{
+				memberBytecode.addExceptionTableEntry(entry);
+			}
+
+			for (LineTableEntry entry : lineTable)
+			{
+				memberBytecode.addLineTableEntry(entry);
+			}
+
+			classBytecode.addMemberBytecode(memberBytecode);
+
+			pos = methodEnd;
+		}
+	}
+
+	// catch all handlers (finally blocks) have no type and are not listed,
+	// as with the javap text parsed by BytecodeLoader
+	private List<ExceptionTableEntry> readExceptionTable()
+	{
+		int entryCount = u2();
+
+		List<ExceptionTableEntry> entries = new ArrayList<>(entryCount);
+
+		for (int i = 0; i < entryCount; i++)
+		{
+			int from = u2();
+			int to = u2();
+			int target = u2();
+			int catchType = u2();
+
+			if (catchType != 0)
+			{
+				entries.add(new ExceptionTableEntry(from, to, target, className(catchType)));
+			}
+		}
+
+		return entries;
+	}
+
+	// reads the attributes of a Code attribute keeping the line numbers
+	private List<LineTableEntry> readLineTable()
+	{
+		List<LineTableEntry> entries = new ArrayList<>();
+
+		int attributeCount = u2();
+
+		for (int i = 0; i < attributeCount; i++)
+		{
+			String attributeName = utf8At(u2());
+			int length = s4();
+			int end = pos + length;
+
+			if (ATTR_LINE_NUMBER_TABLE.equals(attributeName))
+			{
+				int entryCount = u2();
+
+				for (int j = 0; j < entryCount; j++)
+				{
+					int startPC = u2();
+					int lineNumber = u2();
+
+					entries.add(new LineTableEntry(lineNumber, startPC));
+				}
+			}
+
+			pos = end;
+		}
+
+		return entries;
+	}
+
+	private void skipAttributes()
+	{
+		int attributeCount = u2();
+
+		for (int i = 0; i < attributeCount; i++)
+		{
+			pos += 2;
+
+			int length = s4();
+
+			pos += length;
+		}
+	}
+
+	// the method line javap prints before the Code section
+	private String buildDeclaration(int access, String name, String descriptor, String signature, List<String> exceptions)
+	{
+		StringBuilder builder = new StringBuilder();
+
+		appendModifier(builder, access, ACC_PUBLIC, "public");
+		appendModifier(builder, access, ACC_PRIVATE, "private");
+		appendModifier(builder, access, ACC_PROTECTED, "protected");
+		appendModifier(builder, access, ACC_STATIC, "static");
+		appendModifier(builder, access, ACC_FINAL, "final");
+		appendModifier(builder, access, ACC_SYNCHRONIZED, "synchronized");
+		appendModifier(builder, access, ACC_NATIVE, "native");
+		appendModifier(builder, access, ACC_ABSTRACT, "abstract");
+		appendModifier(builder, access, ACC_STRICT, "strictfp");
+
+		if ((classAccess & ACC_INTERFACE) != 0 && (access & ACC_ABSTRACT) == 0 && !METHOD_STATIC_INIT.equals(name)
+				&& majorVersion >= DEFAULT_METHOD_MAJOR_VERSION && (access & (ACC_STATIC | ACC_PRIVATE)) == 0)
+		{
+			builder.append("default ");
+		}
+
+		SignatureRenderer renderer = new SignatureRenderer(signature != null ? signature : descriptor);
+
+		renderer.appendTypeParameters(builder);
+
+		List<String> paramTypes = renderer.readParameterTypes();
+
+		if (METHOD_STATIC_INIT.equals(name))
+		{
+			builder.append("{}");
+		}
+		else
+		{
+			if (METHOD_CONSTRUCTOR.equals(name))
+			{
+				builder.append(fqClassName);
+			}
+			else
+			{
+				builder.append(renderer.readType()).append(' ').append(name);
+			}
+
+			builder.append('(');
+
+			for (int i = 0; i < paramTypes.size(); i++)
+			{
+				String paramType = paramTypes.get(i);
+
+				if (i > 0)
+				{
+					builder.append(", ");
+				}
+
+				if (i == paramTypes.size() - 1 && (access & ACC_VARARGS) != 0 && paramType.endsWith("[]"))
+				{
+					paramType = paramType.substring(0, paramType.length() - 2) + "...";
+				}
+
+				builder.append(paramType);
+			}
+
+			builder.append(')');
+		}
+
+		if (exceptions != null)
+		{
+			builder.append(" throws ");
+
+			List<String> genericExceptions = null;
+
+			if (signature != null && !METHOD_STATIC_INIT.equals(name))
+			{
+				if (METHOD_CONSTRUCTOR.equals(name))
+				{
+					renderer.readType();
+				}
+
+				genericExceptions = renderer.readExceptionTypes();
+			}
+
+			List<String> thrown = (genericExceptions != null && !genericExceptions.isEmpty()) ? genericExceptions : exceptions;
+
+			for (int i = 0; i < thrown.size(); i++)
+			{
+				if (i > 0)
+				{
+					builder.append(", ");
+				}
+
+				builder.append(thrown.get(i));
+			}
+		}
+
+		builder.append(';');
+
+		return builder.toString();
+	}
+
+	private void appendModifier(StringBuilder builder, int access, int flag, String modifier)
+	{
+		if ((access & flag) != 0)
+		{
+			builder.append(modifier).append(' ');
+		}
+	}
+
+	private List<BytecodeInstruction> readInstructions(int codeStart, int codeLength) throws IOException
+	{
+		List<BytecodeInstruction> instructions = new ArrayList<>();
+
+		pos = codeStart;
+
+		int codeEnd = codeStart + codeLength;
+
+		while (pos < codeEnd)
+		{
+			int bci = pos - codeStart;
+
+			int code = u1();
+
+			Opcode opcode = OPCODES[code];
+
+			if (opcode == null)
+			{
+				throw new IOException("Unknown opcode " + code + " at bci " + bci + " in " + fqClassName);
+			}
+
+			BytecodeInstruction instruction = new BytecodeInstruction();
+
+			instruction.setOffset(bci);
+
+			switch (opcode)
+			{
+			case BIPUSH:
+				instruction.addParameter(new BCParamNumeric(s1()));
+				break;
+			case SIPUSH:
+				instruction.addParameter(new BCParamNumeric(s2()));
+				break;
+			case LDC:
+				addConstant(instruction, u1());
+				break;
+			case LDC_W:
+			case LDC2_W:
+			case GETSTATIC:
+			case PUTSTATIC:
+			case GETFIELD:
+			case PUTFIELD:
+			case INVOKEVIRTUAL:
+			case INVOKESPECIAL:
+			case INVOKESTATIC:
+			case NEW:
+			case ANEWARRAY:
+			case CHECKCAST:
+			case INSTANCEOF:
+				addConstant(instruction, u2());
+				break;
+			case INVOKEINTERFACE:
+			case INVOKEDYNAMIC:
+			{
+				int index = u2();
+				int count = u1();
+				pos++;
+				instruction.addParameter(new BCParamConstant(index));
+				instruction.addParameter(new BCParamNumeric(count));
+				setConstantComment(instruction, index);
+			}
+				break;
+			case MULTIANEWARRAY:
+			{
+				int index = u2();
+				int dimensions = u1();
+				instruction.addParameter(new BCParamConstant(index));
+				instruction.addParameter(new BCParamNumeric(dimensions));
+				setConstantComment(instruction, index);
+			}
+				break;
+			case ILOAD:
+			case LLOAD:
+			case FLOAD:
+			case DLOAD:
+			case ALOAD:
+			case ISTORE:
+			case LSTORE:
+			case FSTORE:
+			case DSTORE:
+			case ASTORE:
+			case RET:
+				instruction.addParameter(new BCParamNumeric(u1()));
+				break;
+			case IINC:
+				instruction.addParameter(new BCParamNumeric(u1()));
+				instruction.addParameter(new BCParamNumeric(s1()));
+				break;
+			case IFEQ:
+			case IFNE:
+			case IFLT:
+			case IFGE:
+			case IFGT:
+			case IFLE:
+			case IF_ICMPEQ:
+			case IF_ICMPNE:
+			case IF_ICMPLT:
+			case IF_ICMPGE:
+			case IF_ICMPGT:
+			case IF_ICMPLE:
+			case IF_ACMPEQ:
+			case IF_ACMPNE:
+			case GOTO:
+			case JSR:
+			case IFNULL:
+			case IFNONNULL:
+				instruction.addParameter(new BCParamNumeric(bci + s2()));
+				break;
+			case GOTO_W:
+			case JSR_W:
+				instruction.addParameter(new BCParamNumeric(bci + s4()));
+				break;
+			case NEWARRAY:
+				instruction.addParameter(new BCParamString(ARRAY_TYPE_NAMES[u1()]));
+				break;
+			case TABLESWITCH:
+				readTableSwitch(instruction, codeStart, bci);
+				break;
+			case LOOKUPSWITCH:
+				readLookupSwitch(instruction, codeStart, bci);
+				break;
+			case WIDE:
+			{
+				// javap shows the widened instruction with a _w suffix that
+				// BytecodeLoader strips
+				opcode = OPCODES[u1()];
+
+				if (opcode == null)
+				{
+					throw new IOException("Unknown widened opcode at bci " + bci + " in " + fqClassName);
+				}
+
+				instruction.addParameter(new BCParamNumeric(u2()));
+
+				if (opcode == Opcode.IINC)
+				{
+					instruction.addParameter(new BCParamNumeric(s2()));
+				}
+			}
+				break;
+			default:
+				break;
+			}
+
+			instruction.setOpcode(opcode);
+
+			instructions.add(instruction);
+		}
+
+		return instructions;
+	}
+
+	private void readTableSwitch(BytecodeInstruction instruction, int codeStart, int bci)
+	{
+		skipSwitchPadding(codeStart);
+
+		int defaultOffset = s4();
+		int low = s4();
+		int high = s4();
+
+		BCParamSwitch table = new BCParamSwitch();
+
+		for (int key = low; key <= high; key++)
+		{
+			table.put(Integer.toString(key), Integer.toString(bci + s4()));
+		}
+
+		table.put("default", Integer.toString(bci + defaultOffset));
+
+		instruction.addParameter(table);
+		instruction.setComment("// " + low + " to " + high);
+	}
+
+	private void readLookupSwitch(BytecodeInstruction instruction, int codeStart, int bci)
+	{
+		skipSwitchPadding(codeStart);
+
+		int defaultOffset = s4();
+		int pairCount = s4();
+
+		BCParamSwitch table = new BCParamSwitch();
+
+		for (int i = 0; i < pairCount; i++)
+		{
+			int match = s4();
+			int offset = s4();
+
+			table.put(Integer.toString(match), Integer.toString(bci + offset));
+		}
+
+		table.put("default", Integer.toString(bci + defaultOffset));
+
+		instruction.addParameter(table);
+		instruction.setComment("// " + pairCount);
+	}
+
+	private void skipSwitchPadding(int codeStart)
+	{
+		while ((pos - codeStart) % 4 != 0)
+		{
+			pos++;
+		}
+	}
+
+	private void addConstant(BytecodeInstruction instruction, int index)
+	{
+		instruction.addParameter(new BCParamConstant(index));
+
+		setConstantComment(instruction, index);
+	}
+
+	private void setConstantComment(BytecodeInstruction instruction, int index)
+	{
+		String comment = ("// " + describeConstant(index)).trim();
+
+		instruction.setComment(comment);
+	}
+
+	// javap simplifies references to members of this class to name:type
+	private String describeConstant(int index)
+	{
+		int tag = cpTags[index];
+
+		String value;
+
+		if ((tag == CONSTANT_FIELDREF || tag == CONSTANT_METHODREF || tag == CONSTANT_INTERFACE_METHODREF)
+				&& cpFirst[index] == thisClass)
+		{
+			value = constantValue(cpSecond[index]);
+		}
+		else
+		{
+			value = constantValue(index);
+		}
+
+		return CONSTANT_TAG_NAMES[tag] + " " + value;
+	}
+
+	private String constantValue(int index)
+	{
+		switch (cpTags[index])
+		{
+		case CONSTANT_UTF8:
+			return escape((String) cpValues[index]);
+		case CONSTANT_INTEGER:
+			return cpValues[index].toString();
+		case CONSTANT_FLOAT:
+			return cpValues[index] + "f";
+		case CONSTANT_LONG:
+			return cpValues[index] + "l";
+		case CONSTANT_DOUBLE:
+			return cpValues[index] + "d";
+		case CONSTANT_CLASS:
+		case CONSTANT_MODULE:
+		case CONSTANT_PACKAGE:
+			return checkName(utf8At(cpFirst[index]));
+		case CONSTANT_STRING:
+			return escape(utf8At(cpFirst[index]));
+		case CONSTANT_METHOD_TYPE:
+			return utf8At(cpFirst[index]);
+		case CONSTANT_FIELDREF:
+		case CONSTANT_METHODREF:
+		case CONSTANT_INTERFACE_METHODREF:
+			return checkName(className(cpFirst[index])) + "." + constantValue(cpSecond[index]);
+		case CONSTANT_NAME_AND_TYPE:
+			return checkName(utf8At(cpFirst[index])) + ":" + utf8At(cpSecond[index]);
+		case CONSTANT_METHOD_HANDLE:
+			return REFERENCE_KIND_NAMES[cpFirst[index]] + " " + constantValue(cpSecond[index]);
+		case CONSTANT_DYNAMIC:
+		case CONSTANT_INVOKE_DYNAMIC:
+			return "#" + cpFirst[index] + ":" + constantValue(cpSecond[index]);
+		default:
+			return "#" + index;
+		}
+	}
+
+	// javap quotes names that are not a sequence of Java identifiers
+	private static String checkName(String name)
+	{
+		if (name.isEmpty())
+		{
+			return "\"\"";
+		}
+
+		int previous = C_SLASH;
+
+		for (int i = 0; i < name.length();)
+		{
+			int cp = name.codePointAt(i);
+
+			if ((previous == C_SLASH && !Character.isJavaIdentifierStart(cp)) || (cp != C_SLASH && !Character.isJavaIdentifierPart(cp)))
+			{
+				return "\"" + escape(name) + "\"";
+			}
+
+			previous = cp;
+
+			i += Character.charCount(cp);
+		}
+
+		return name;
+	}
+
+	private static String escape(String value)
+	{
+		StringBuilder builder = null;
+
+		for (int i = 0; i < value.length(); i++)
+		{
+			char c = value.charAt(i);
+
+			String replacement;
+
+			switch (c)
+			{
+			case '\t':
+				replacement = "\\t";
+				break;
+			case '\n':
+				replacement = "\\n";
+				break;
+			case '\r':
+				replacement = "\\r";
+				break;
+			case '\b':
+				replacement = "\\b";
+				break;
+			case '\f':
+				replacement = "\\f";
+				break;
+			case '"':
+				replacement = "\\\"";
+				break;
+			case '\'':
+				replacement = "\\'";
+				break;
+			case '\\':
+				replacement = "\\\\";
+				break;
+			default:
+				replacement = Character.isISOControl(c) ? String.format("\\u%04x", (int) c) : null;
+				break;
+			}
+
+			if (replacement != null && builder == null)
+			{
+				builder = new StringBuilder(value.length() + 16);
+				builder.append(value, 0, i);
+			}
+
+			if (builder != null)
+			{
+				if (replacement != null)
+				{
+					builder.append(replacement);
+				}
+				else
+				{
+					builder.append(c);
+				}
+			}
+		}
+
+		return builder != null ? builder.toString() : value;
+	}
+
+	private String className(int classIndex)
+	{
+		return utf8At(cpFirst[classIndex]);
+	}
+
+	private String utf8At(int index)
+	{
+		return (String) cpValues[index];
+	}
+
+	private int u1()
+	{
+		return bytes[pos++] & 0xff;
+	}
+
+	private int s1()
+	{
+		return bytes[pos++];
+	}
+
+	private int u2()
+	{
+		return ((bytes[pos++] & 0xff) << 8) | (bytes[pos++] & 0xff);
+	}
+
+	private int s2()
+	{
+		return (short) u2();
+	}
+
+	private int s4()
+	{
+		return (u2() << 16) | u2();
+	}
+
+	private int u4()
+	{
+		return s4();
+	}
+
+	private long s8()
+	{
+		return ((long) s4() << 32) | (s4() & 0xffffffffL);
+	}
+
+	// class files store strings as modified UTF-8
+	private String utf8(int length)
+	{
+		char[] chars = new char[length];
+
+		int count = 0;
+
+		int end = pos + length;
+
+		while (pos < end)
+		{
+			int b = bytes[pos++] & 0xff;
+
+			if (b < 0x80)
+			{
+				chars[count++] = (char) b;
+			}
+			else if ((b & 0xe0) == 0xc0)
+			{
+				chars[count++] = (char) (((b & 0x1f) << 6) | (bytes[pos++] & 0x3f));
+			}
+			else
+			{
+				chars[count++] = (char) (((b & 0x0f) << 12) | ((bytes[pos++] & 0x3f) << 6) | (bytes[pos++] & 0x3f));
+			}
+		}
+
+		return new String(chars, 0, count);
+	}
+
+	/**
+	 * Renders the types of a method descriptor or generic signature in the
+	 * form javap uses, e.g. java.util.List&lt;? extends T&gt;
+	 */
+	private static class SignatureRenderer
+	{
+		private final String signature;
+		private int index;
+
+		SignatureRenderer(String signature)
+		{
+			this.signature = signature;
+		}
+
+		// javap -v shows every bound including java.lang.Object
+		void appendTypeParameters(StringBuilder builder)
+		{
+			if (signature.charAt(index) != '<')
+			{
+				return;
+			}
+
+			index++;
+
+			builder.append('<');
+
+			boolean first = true;
+
+			while (signature.charAt(index) != '>')
+			{
+				if (!first)
+				{
+					builder.append(", ");
+				}
+
+				first = false;
+
+				int colon = signature.indexOf(':', index);
+
+				builder.append(signature, index, colon);
+
+				index = colon;
+
+				String separator = " extends ";
+
+				while (signature.charAt(index) == ':')
+				{
+					index++;
+
+					// an empty class bound is followed by the first interface bound
+					if (signature.charAt(index) != ':')
+					{
+						builder.append(separator).append(readType());
+
+						separator = " & ";
+					}
+				}
+			}
+
+			index++;
+
+			builder.append("> ");
+		}
+
+		List<String> readParameterTypes()
+		{
+			List<String> result = new ArrayList<>();
+
+			index++; // (
+
+			while (signature.charAt(index) != ')')
+			{
+				result.add(readType());
+			}
+
+			index++;
+
+			return result;
+		}
+
+		List<String> readExceptionTypes()
+		{
+			List<String> result = new ArrayList<>();
+
+			while (index < signature.length() && signature.charAt(index) == '^')
+			{
+				index++;
+
+				result.add(readType());
+			}
+
+			return result;
+		}
+
+		String readType()
+		{
+			char c = signature.charAt(index++);
+
+			switch (c)
+			{
+			case 'B':
+				return "byte";
+			case 'C':
+				return "char";
+			case 'D':
+				return "double";
+			case 'F':
+				return "float";
+			case 'I':
+				return "int";
+			case 'J':
+				return "long";
+			case 'S':
+				return "short";
+			case 'Z':
+				return "boolean";
+			case 'V':
+				return "void";
+			case '[':
+				return readType() + "[]";
+			case 'T':
+			{
+				int end = signature.indexOf(';', index);
+				String name = signature.substring(index, end);
+				index = end + 1;
+				return name;
+			}
+			case 'L':
+				return readClassType();
+			default:
+				throw new IllegalArgumentException("Unexpected '" + c + "' in signature " + signature);
+			}
+		}
+
+		private String readClassType()
+		{
+			StringBuilder builder = new StringBuilder();
+
+			while (true)
+			{
+				char c = signature.charAt(index++);
+
+				if (c == ';')
+				{
+					break;
+				}
+				else if (c == '<')
+				{
+					builder.append('<');
+
+					boolean first = true;
+
+					while (signature.charAt(index) != '>')
+					{
+						if (!first)
+						{
+							builder.append(", ");
+						}
+
+						first = false;
+
+						builder.append(readTypeArgument());
+					}
+
+					index++;
+
+					builder.append('>');
+				}
+				else if (c == C_SLASH)
+				{
+					builder.append(C_DOT);
+				}
+				else
+				{
+					builder.append(c);
+				}
+			}
+
+			return builder.toString();
+		}
+
+		private String readTypeArgument()
+		{
+			char c = signature.charAt(index);
+
+			switch (c)
+			{
+			case '*':
+				index++;
+				return "?";
+			case '+':
+				index++;
+				return "? extends " + readType();
+			case '-':
+				index++;
+				return "? super " + readType();
+			default:
+				return readType();
+			}
+		}
+	}
+}
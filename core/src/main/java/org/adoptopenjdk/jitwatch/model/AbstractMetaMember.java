@@ -205,6 +205,20 @@ public abstract class AbstractMetaMember implements IMetaMember, Comparable<IMet
 		return result;
 	}
 
+	/**
+	 * @return the key under which MetaClass indexes this member or null if
+	 *         the member can only be found by matchesSignature
+	 */
+	String getSignatureIndexKey()
+	{
+		if (isVarArgs || isPolymorphicSignature || returnTypeName == null || paramTypesNames == null)
+		{
+			return null;
+		}
+
+		return MemberSignatureParts.buildDescriptor(memberName, paramTypesNames, returnTypeName);
+	}
+
 	private List<String> getClassesNamesForParamTypes(MemberSignatureParts msp) throws ClassNotFoundException
 	{
 		List<String> result = new ArrayList<>();
@@ -323,11 +337,13 @@ public abstract class AbstractMetaMember implements IMetaMember, Comparable<IMet
 	@Override
 	public Compilation getCompilationByAddress(AssemblyMethod asmMethod)
 	{
-		Compilation result = null;
-
-		String entryAddress = asmMethod.getEntryAddress();
+		return getCompilationByAddress(asmMethod.getEntryAddress(), asmMethod.getNativeAddress());
+	}
 
-		String nativeAddress = asmMethod.getNativeAddress();
+	@Override
+	public Compilation getCompilationByAddress(String entryAddress, String nativeAddress)
+	{
+		Compilation result = null;
 
 		for (Compilation compilation : compilations)
 		{
@@ -14,12 +14,15 @@ import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.ATTR_ENTRY;
 import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.ATTR_LEVEL;
 import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.ATTR_NMSIZE;
 import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.ATTR_OSR_BCI;
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.ATTR_REASON;
 import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.C2;
 import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.C2N;
 import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.OSR;
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.S_REASON_STALE_TASK;
 import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.TAG_FAILURE;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import org.adoptopenjdk.jitwatch.model.assembly.AssemblyMethod;
@@ -61,8 +64,24 @@ public class Compilation
 
 	private boolean failedTask = false;
 
+	private boolean staleTask = false;
+
 	private CompilerThread compilerThread = null;
 
+	private int bytecodeSize;
+
+	// byte ranges of the <task> element and the assembly in the log, -1 when
+	// not known
+	private long taskStartOffset = -1;
+	private long taskEndOffset = -1;
+	private long assemblyStartOffset = -1;
+	private long assemblyEndOffset = -1;
+
+	// reads the task and assembly from the log when they are not in memory,
+	// what is read this way is not kept here so only the recently used trees
+	// and methods stay on the heap
+	private ICompilationDetailLoader detailLoader = null;
+
 	public Compilation(IMetaMember member, int index)
 	{
 		this.member = member;
@@ -91,12 +110,58 @@ public class Compilation
 
 	public AssemblyMethod getAssembly()
 	{
-		return assembly;
+		AssemblyMethod result = assembly;
+
+		if (result == null && detailLoader != null && assemblyStartOffset != -1)
+		{
+			result = detailLoader.loadAssembly(this);
+		}
+
+		return result;
 	}
 
 	public void setAssembly(AssemblyMethod assembly)
 	{
 		this.assembly = assembly;
+
+		setAssemblyOffsets(assembly.getLogStartOffset(), assembly.getLogEndOffset());
+	}
+
+	public void setDetailLoader(ICompilationDetailLoader detailLoader)
+	{
+		this.detailLoader = detailLoader;
+	}
+
+	public void setTaskOffsets(long startOffset, long endOffset)
+	{
+		this.taskStartOffset = startOffset;
+		this.taskEndOffset = endOffset;
+	}
+
+	public long getTaskStartOffset()
+	{
+		return taskStartOffset;
+	}
+
+	public long getTaskEndOffset()
+	{
+		return taskEndOffset;
+	}
+
+	public void setAssemblyOffsets(long startOffset, long endOffset)
+	{
+		this.assemblyStartOffset = startOffset;
+		this.assemblyEndOffset = endOffset;
+	}
+
+	public long getAssemblyStartOffset()
+	{
+		return assemblyStartOffset;
+	}
+
+	public long getAssemblyEndOffset()
+	{
+		return assemblyEndOffset;
 	}
 
 	public Map<String, String> getQueuedAttributes()
@@ -188,7 +253,7 @@ public class Compilation
 		if (C2N.equalsIgnoreCase(compileKind))
 		{
 			isC2N = true;
-			this.compileID = tagNMethod.getAttributes().get(ATTR_COMPILE_ID);
+			this.compileID = tagNMethod.getAttribute(ATTR_COMPILE_ID);
 		}
 	}
 
@@ -196,14 +261,42 @@ public class Compilation
 	{
 		this.tagTask = tagTask;
 
+		setTaskSummary(tagTask);
+	}
+
+	/**
+	 * Keeps the scalar facts of the task but not its tree, which is read back
+	 * from the log through the detail loader when it is asked for
+	 */
+	public void setTaskSummary(Task tagTask)
+	{
 		Map<String, String> attrs = tagTask.getAttributes();
 
-		stampTaskCompilationStart = ParseUtil.getStamp(attrs);
+		boolean stale = false;
 
-		if (tagTask.getFirstNamedChild(TAG_FAILURE) != null)
+		List<Tag> failures = tagTask.getNamedChildren(TAG_FAILURE);
+
+		for (Tag failure : failures)
 		{
-			failedTask = true;
+			if (S_REASON_STALE_TASK.equals(failure.getAttributes().get(ATTR_REASON)))
+			{
+				stale = true;
+				break;
+			}
 		}
+
+		setTaskFacts(ParseUtil.getStamp(attrs), tagTask.getIntAttribute(ATTR_BYTES, 0), !failures.isEmpty(), stale);
+	}
+
+	/**
+	 * Sets what is known of the task when its tree is left in the log
+	 */
+	public void setTaskFacts(long stampTaskCompilationStart, int bytecodeSize, boolean failedTask, boolean staleTask)
+	{
+		this.stampTaskCompilationStart = stampTaskCompilationStart;
+		this.bytecodeSize = bytecodeSize;
+		this.failedTask = failedTask;
+		this.staleTask = staleTask;
 	}
 
 	public Tag getTagTaskQueued()
@@ -218,7 +311,20 @@ public class Compilation
 
 	public Task getTagTask()
 	{
-		return tagTask;
+		Task result = tagTask;
+
+		if (result == null && detailLoader != null && taskStartOffset != -1)
+		{
+			result = detailLoader.loadTask(this);
+		}
+
+		return result;
+	}
+
+	// false when the task is read back from the log each time it is needed
+	public boolean isTaskRetained()
+	{
+		return tagTask != null;
 	}
 
 	public Tag getTagTaskDone()
@@ -242,7 +348,7 @@ public class Compilation
 
 		if (tagTaskDone != null)
 		{
-			result = Integer.parseInt(tagTaskDone.getAttributes().get(ATTR_NMSIZE));
+			result = tagTaskDone.getIntAttribute(ATTR_NMSIZE, 0);
 		}
 
 		return result;
@@ -250,14 +356,7 @@ public class Compilation
 
 	public int getBytecodeSize()
 	{
-		int result = 0;
-
-		if (tagTask != null)
-		{
-			result = Integer.parseInt(tagTask.getAttributes().get(ATTR_BYTES));
-		}
-
-		return result;
+		return bytecodeSize;
 	}
 
 	public boolean isC2N()
@@ -448,6 +547,11 @@ public class Compilation
 		return failedTask;
 	}
 
+	public boolean isStaleTask()
+	{
+		return staleTask;
+	}
+
 	public boolean isOSR()
 	{
 		return isOSR;
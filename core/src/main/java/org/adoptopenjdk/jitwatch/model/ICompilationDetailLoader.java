@@ -0,0 +1,20 @@
+package org.adoptopenjdk.jitwatch.model;
+
+import org.adoptopenjdk.jitwatch.model.assembly.AssemblyMethod;
+
+/**
+ * Reads the parts of a compilation that are not held in memory back from the
+ * byte ranges of the log recorded in the Compilation.
+ */
+public interface ICompilationDetailLoader
+{
+	/**
+	 * @return the task tree or null if it could not be read
+	 */
+	Task loadTask(Compilation compilation);
+
+	/**
+	 * @return the parsed assembly or null if it could not be read
+	 */
+	AssemblyMethod loadAssembly(Compilation compilation);
+}
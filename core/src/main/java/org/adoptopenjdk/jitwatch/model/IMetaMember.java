@@ -45,6 +45,7 @@ public interface IMetaMember
 
 	Compilation getCompilationByCompileID(String compileID);
 	Compilation getCompilationByAddress(AssemblyMethod asmMethod);
+	Compilation getCompilationByAddress(String entryAddress, String nativeAddress);
 	
 	void setCompiled(boolean compiled);
 	boolean isCompiled();
@@ -9,6 +9,8 @@ import java.lang.reflect.Constructor;
 import java.lang.reflect.Method;
 import java.util.List;
 
+import org.adoptopenjdk.jitwatch.model.assembly.Architecture;
+
 public interface IReadOnlyJITDataModel
 {
     PackageManager getPackageManager();
@@ -28,6 +30,8 @@ public interface IReadOnlyJITDataModel
     Tag getEndOfLogTag();
     
     int getJDKMajorVersion();
+
+    Architecture getArchitecture();
     
 	IMetaMember findMetaMember(MemberSignatureParts msp);
     
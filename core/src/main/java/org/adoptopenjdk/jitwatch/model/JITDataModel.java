@@ -17,6 +17,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
+import org.adoptopenjdk.jitwatch.model.assembly.Architecture;
 import org.adoptopenjdk.jitwatch.model.bytecode.SourceMapper;
 import org.adoptopenjdk.jitwatch.util.ParseUtil;
 import org.adoptopenjdk.jitwatch.logger.Logger;
@@ -43,6 +44,8 @@ public class JITDataModel implements IReadOnlyJITDataModel
 
 	private int jdkMajorVersion;
 
+	private Architecture architecture;
+
 	private long baseTimestamp = 0;
 
 	public JITDataModel()
@@ -61,6 +64,16 @@ public class JITDataModel implements IReadOnlyJITDataModel
 		return jdkMajorVersion;
 	}
 
+	public void setArchitecture(Architecture architecture)
+	{
+		this.architecture = architecture;
+	}
+
+	@Override public Architecture getArchitecture()
+	{
+		return architecture;
+	}
+
 	public void reset()
 	{
 		if (DEBUG_LOGGING)
@@ -84,6 +97,8 @@ public class JITDataModel implements IReadOnlyJITDataModel
 		compilerThreads.clear();
 
 		codeCacheTagList.clear();
+
+		architecture = null;
 	}
 
 	@Override public List<CompilerThread> getCompilerThreads()
@@ -182,6 +197,33 @@ public class JITDataModel implements IReadOnlyJITDataModel
 			}
 		}
 
+		String compileID = attrs.get(ATTR_COMPILE_ID);
+
+		Compilation compilation = member.getCompilationByCompileID(compileID);
+
+		long compilationDuration = -1;
+
+		if (compilation != null)
+		{
+			compilationDuration = compilation.getCompilationDuration();
+		}
+		else
+		{
+			logger.warn("Didn't find compilation with ID {} on member {}", compileID, member.getFullyQualifiedMemberName());
+		}
+
+		updateCompilationStats(attrs, compilationDuration);
+	}
+
+	/**
+	 * Counts a compilation from its task attributes alone, used for the
+	 * compilations of members that are not kept in the model
+	 *
+	 * @param compilationDuration
+	 *            -1 when not known
+	 */
+	public void updateCompilationStats(Map<String, String> attrs, long compilationDuration)
+	{
 		String level = attrs.get(ATTR_LEVEL);
 
 		if (level != null)
@@ -239,20 +281,9 @@ public class JITDataModel implements IReadOnlyJITDataModel
 			}
 		}
 
-		String compileID = attrs.get(ATTR_COMPILE_ID);
-
-		Compilation compilation = member.getCompilationByCompileID(compileID);
-
-		if (compilation != null)
-		{
-			if (!isC2N)
-			{
-				stats.recordDelay(compilation.getCompilationDuration());
-			}
-		}
-		else
+		if (compilationDuration != -1 && !isC2N)
 		{
-			logger.warn("Didn't find compilation with ID {} on member {}", compileID, member.getFullyQualifiedMemberName());
+			stats.recordDelay(compilationDuration);
 		}
 	}
 
@@ -274,21 +305,7 @@ public class JITDataModel implements IReadOnlyJITDataModel
 
 		if (metaClass != null)
 		{
-			List<IMetaMember> metaList = metaClass.getMetaMembers();
-
-			if (DEBUG_LOGGING)
-			{
-				logger.debug("Comparing msp against {} members of metaClass {}", metaList.size(), metaClass.toString());
-			}
-
-			for (IMetaMember member : metaList)
-			{
-				if (member.matchesSignature(msp, true))
-				{
-					result = member;
-					break;
-				}
-			}
+			result = metaClass.getMemberForSignature(msp);
 
 			if (result == null)
 			{
@@ -66,6 +66,49 @@ public class JITStats
 		countLevel4 = 0;
 	}
 
+	/**
+	 * @return every counter in a fixed order understood by setCounters
+	 */
+	public long[] getCounters()
+	{
+		return new long[] { countPrivate, countProtected, countPublic, countStatic, countFinal, countSynchronized, countStrictfp,
+				countNative, countAbstract, countOSR, countC1, countC2, countC2N, totalCompileTime, nativeBytes,
+				countCompilerThreads, countClass, countMethod, countConstructor, countLevel1, countLevel2, countLevel3,
+				countLevel4 };
+	}
+
+	public void setCounters(long[] counters)
+	{
+		int i = 0;
+
+		countPrivate = counters[i++];
+		countProtected = counters[i++];
+		countPublic = counters[i++];
+		countStatic = counters[i++];
+		countFinal = counters[i++];
+		countSynchronized = counters[i++];
+		countStrictfp = counters[i++];
+		countNative = counters[i++];
+		countAbstract = counters[i++];
+
+		countOSR = counters[i++];
+		countC1 = counters[i++];
+		countC2 = counters[i++];
+		countC2N = counters[i++];
+		totalCompileTime = counters[i++];
+		nativeBytes = counters[i++];
+		countCompilerThreads = counters[i++];
+
+		countClass = counters[i++];
+		countMethod = counters[i++];
+		countConstructor = counters[i++];
+
+		countLevel1 = counters[i++];
+		countLevel2 = counters[i++];
+		countLevel3 = counters[i++];
+		countLevel4 = counters[i++];
+	}
+
 	public void recordDelay(long delay)
 	{
 		totalCompileTime += delay;
@@ -27,6 +27,13 @@ public class MemberSignatureParts
 	private String memberName;
 	private List<String> paramTypeList;
 
+	// lazily resolved name and parameter classes used for MetaClass member lookup
+	private String normalisedDescriptor;
+
+	// set once resolving was tried so a type missing from the classpath is
+	// not looked up again on every match
+	private boolean normalisedDescriptorResolved = false;
+
 	private static final Pattern PATTERN_ASSEMBLY_SIGNATURE = Pattern.compile("^(.*)\\s'(.*)'\\s'(\\(.*\\))(.*)'\\sin\\s'(.*)'");
 
 	private static final Logger logger = LoggerFactory.getLogger(MemberSignatureParts.class);
@@ -47,6 +54,34 @@ public class MemberSignatureParts
 		addModifierMapping(Modifier.STRICT);
 	}
 
+	private static final Pattern PATTERN_BYTECODE_SIGNATURE = buildBytecodeSignaturePattern();
+
+	private static Pattern buildBytecodeSignaturePattern()
+	{
+		StringBuilder builder = new StringBuilder();
+
+		builder.append("^[ ]*");
+
+		for (String mod : modifierMap.keySet())
+		{
+			builder.append(S_OPEN_PARENTHESES).append(mod).append(S_SPACE).append(S_CLOSE_PARENTHESES).append(C_QUESTION);
+		}
+
+		String regexGenerics = "(\\{.*\\} )?";
+		String regexReturnType = "(.* )?"; // optional could be constructor
+		String regexMethodName = ParseUtil.METHOD_NAME_REGEX_GROUP;
+		String regexParams = "(\\(.*\\))";
+		String regexRest = "(.*)";
+
+		builder.append(regexGenerics);
+		builder.append(regexReturnType);
+		builder.append(regexMethodName);
+		builder.append(regexParams);
+		builder.append(regexRest);
+
+		return Pattern.compile(builder.toString());
+	}
+
 	private static void addModifierMapping(int modifier)
 	{
 		modifierMap.put(Modifier.toString(modifier), modifier);
@@ -223,32 +258,7 @@ public class MemberSignatureParts
 			return msp;
 		}
 
-		StringBuilder builder = new StringBuilder();
-
-		builder.append("^[ ]*");
-
-		for (String mod : modifierMap.keySet())
-		{
-			builder.append(S_OPEN_PARENTHESES).append(mod).append(S_SPACE).append(S_CLOSE_PARENTHESES).append(C_QUESTION);
-		}
-
-		String regexGenerics = "(\\{.*\\} )?";
-		String regexReturnType = "(.* )?"; // optional could be constructor
-		String regexMethodName = ParseUtil.METHOD_NAME_REGEX_GROUP;
-		String regexParams = "(\\(.*\\))";
-		String regexRest = "(.*)";
-
-		builder.append(regexGenerics);
-		builder.append(regexReturnType);
-		builder.append(regexMethodName);
-		builder.append(regexParams);
-		builder.append(regexRest);
-
-		// logger.info("\n{}\n{}", toParse, builder);
-
-		final Pattern patternBytecodeSignature = Pattern.compile(builder.toString());
-
-		Matcher matcher = patternBytecodeSignature.matcher(toParse);
+		Matcher matcher = PATTERN_BYTECODE_SIGNATURE.matcher(toParse);
 
 		int modifierCount = modifierMap.size();
 
@@ -552,6 +562,62 @@ public class MemberSignatureParts
 		return paramTypeList;
 	}
 
+	/**
+	 * @return the member name, parameter class names and return class name
+	 *         resolved as for AbstractMetaMember.matchesSignature, or null if a
+	 *         type could not be resolved
+	 */
+	public String getNormalisedDescriptor()
+	{
+		if (!normalisedDescriptorResolved && memberName != null)
+		{
+			normalisedDescriptorResolved = true;
+
+			try
+			{
+				List<String> paramClassNames = new ArrayList<>(paramTypeList.size());
+
+				for (String paramType : paramTypeList)
+				{
+					paramClassNames.add(ParseUtil.findClassNameForLogCompilationParameter(paramType));
+				}
+
+				// no return type means a constructor
+				String returnClassName = (returnType == null) ? Void.TYPE.getName()
+						: ParseUtil.findClassNameForLogCompilationParameter(returnType);
+
+				normalisedDescriptor = buildDescriptor(memberName, paramClassNames, returnClassName);
+			}
+			catch (ClassNotFoundException cnfe)
+			{
+				logger.debug("Could not normalise signature {}", toStringSingleLine());
+			}
+		}
+
+		return normalisedDescriptor;
+	}
+
+	static String buildDescriptor(String memberName, List<String> paramClassNames, String returnClassName)
+	{
+		StringBuilder builder = new StringBuilder();
+
+		builder.append(memberName).append(C_OPEN_PARENTHESES);
+
+		for (int i = 0; i < paramClassNames.size(); i++)
+		{
+			if (i > 0)
+			{
+				builder.append(C_COMMA);
+			}
+
+			builder.append(paramClassNames.get(i));
+		}
+
+		builder.append(C_CLOSE_PARENTHESES).append(returnClassName);
+
+		return builder.toString();
+	}
+
 	public String getFullyQualifiedClassName()
 	{
 		return fullyQualifiedClassName;
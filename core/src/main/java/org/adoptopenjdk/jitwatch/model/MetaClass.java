@@ -16,6 +16,8 @@ import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
 
 //import org.adoptopenjdk.jitwatch.logger.Logger;
@@ -38,6 +40,11 @@ public class MetaClass implements Comparable<MetaClass>
 	private List<IMetaMember> classMethods = new CopyOnWriteArrayList<>();
 	private List<IMetaMember> classConstructors = new CopyOnWriteArrayList<>();
 
+	// lookup for getMemberForSignature keyed by name and normalised descriptor
+	private Map<String, IMetaMember> membersByDescriptor = new ConcurrentHashMap<>();
+	private Map<MemberSignatureParts, IMetaMember> membersBySignature = new ConcurrentHashMap<>();
+	private List<IMetaMember> unindexedMembers = new CopyOnWriteArrayList<>();
+
 	private int compiledMethodCount = 0;
 
 	private ClassBC classBytecode = null;
@@ -71,6 +78,16 @@ public class MetaClass implements Comparable<MetaClass>
 		compiledMethodCount++;
 	}
 
+	public int getCompiledMethodCount()
+	{
+		return compiledMethodCount;
+	}
+
+	public void setCompiledMethodCount(int compiledMethodCount)
+	{
+		this.compiledMethodCount = compiledMethodCount;
+	}
+
 	public boolean hasCompiledMethods()
 	{
 		return compiledMethodCount > 0;
@@ -221,6 +238,40 @@ public class MetaClass implements Comparable<MetaClass>
 		{
 			classMethods.add(member);
 		}
+
+		indexMember(member);
+	}
+
+	private void indexMember(IMetaMember member)
+	{
+		if (member instanceof MetaMethod && ((MetaMethod) member).getMemberSignatureParts() != null)
+		{
+			membersBySignature.merge(((MetaMethod) member).getMemberSignatureParts(), member, MetaClass::firstInMemberOrder);
+		}
+		else
+		{
+			String key = (member instanceof AbstractMetaMember) ? ((AbstractMetaMember) member).getSignatureIndexKey() : null;
+
+			if (key != null)
+			{
+				membersByDescriptor.merge(key, member, MetaClass::firstInMemberOrder);
+			}
+			else
+			{
+				unindexedMembers.add(member);
+			}
+		}
+	}
+
+	// same order as getMetaMembers(), ties keep the member added first
+	private static IMetaMember firstInMemberOrder(IMetaMember existing, IMetaMember added)
+	{
+		if (existing.isConstructor() != added.isConstructor())
+		{
+			return existing.isConstructor() ? existing : added;
+		}
+
+		return (added.getMemberName().compareTo(existing.getMemberName()) < 0) ? added : existing;
 	}
 
 	public List<IMetaMember> getMetaMembers()
@@ -240,6 +291,43 @@ public class MetaClass implements Comparable<MetaClass>
 	}
 
 	public IMetaMember getMemberForSignature(MemberSignatureParts msp)
+	{
+		String descriptor = msp.getNormalisedDescriptor();
+
+		if (descriptor == null)
+		{
+			return findMemberForSignature(msp);
+		}
+
+		IMetaMember bySignature = membersBySignature.get(msp);
+
+		IMetaMember byDescriptor = membersByDescriptor.get(descriptor);
+
+		// a signature without a return type only matches constructors
+		if (byDescriptor != null && msp.getReturnType() == null && !byDescriptor.isConstructor())
+		{
+			byDescriptor = null;
+		}
+
+		if (bySignature != null && byDescriptor != null)
+		{
+			return findMemberForSignature(msp);
+		}
+
+		for (IMetaMember member : unindexedMembers)
+		{
+			if (member.matchesSignature(msp, true))
+			{
+				// varargs or polymorphic member may compete with the indexed
+				// match so resolve in member order
+				return findMemberForSignature(msp);
+			}
+		}
+
+		return (bySignature != null) ? bySignature : byDescriptor;
+	}
+
+	private IMetaMember findMemberForSignature(MemberSignatureParts msp)
 	{
 		IMetaMember result = null;
 
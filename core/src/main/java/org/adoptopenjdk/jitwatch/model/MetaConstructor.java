@@ -18,6 +18,7 @@ import org.adoptopenjdk.jitwatch.util.StringUtil;
 public class MetaConstructor extends AbstractMetaMember
 {
 	private String constructorToString;
+	private MemberSignatureParts msp;
 
 	public MetaConstructor(Constructor<?> constructor, MetaClass methodClass)
 	{
@@ -49,6 +50,7 @@ public class MetaConstructor extends AbstractMetaMember
 	{
 		super(StringUtil.getUnqualifiedMemberName(msp.getMemberName()));
 
+		this.msp = msp;
 		this.constructorToString = msp.toStringSingleLine();
 		this.metaClass = metaClass;
 
@@ -67,6 +69,11 @@ public class MetaConstructor extends AbstractMetaMember
 		}
 	}
 
+	public MemberSignatureParts getMemberSignatureParts()
+	{
+		return msp;
+	}
+
 	@Override
 	public String toString()
 	{
@@ -93,6 +93,18 @@ public class MetaMethod extends AbstractMetaMember
         return methodSigWithoutThrows;
     }
 
+    public MemberSignatureParts getMemberSignatureParts()
+    {
+        return msp;
+    }
+
+    @Override
+    String getSignatureIndexKey()
+    {
+        // members built from a signature match on the whole signature
+        return (msp == null) ? super.getSignatureIndexKey() : null;
+    }
+
     @Override
     public boolean matchesSignature(MemberSignatureParts msp, boolean matchTypesExactly)
     {
@@ -10,6 +10,11 @@ public class NumberedLine
 	private long lineNumber;
 	private String line;
 
+	// byte range of the line in the log file including its line terminator,
+	// -1 when the log was not read from a file
+	private long offset = -1;
+	private long endOffset = -1;
+
 	public long getLineNumber()
 	{
 		return lineNumber;
@@ -30,9 +35,26 @@ public class NumberedLine
 		this.line = line;
 	}
 
+	public long getOffset()
+	{
+		return offset;
+	}
+
+	public long getEndOffset()
+	{
+		return endOffset;
+	}
+
 	public NumberedLine(long lineNumber, String line)
 	{
 		this.lineNumber = lineNumber;
 		this.line = line;
 	}
+
+	public NumberedLine(long lineNumber, String line, long offset, long endOffset)
+	{
+		this(lineNumber, line);
+		this.offset = offset;
+		this.endOffset = endOffset;
+	}
 }
\ No newline at end of file
@@ -18,13 +18,11 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 
-import org.adoptopenjdk.jitwatch.util.StringUtil;
-
 public class Tag
 {
 	private final String name;
 	// private final String closingTag;
-	private String attributeString;
+	private final TagAttributes attributes;
 	private List<Tag> children = new ArrayList<>();
 	private Tag parent = null;
 	private boolean selfClosing = false;
@@ -35,10 +33,15 @@ public class Tag
     private boolean isLast;
 
     public Tag(String name, String attributeString, boolean selfClosing)
+	{
+		this(name, TagAttributes.parse(attributeString), selfClosing);
+	}
+
+	public Tag(String name, TagAttributes attributes, boolean selfClosing)
 	{
 		this.name = name;
 		//this.closingTag = "" + C_OPEN_ANGLE + C_SLASH + name + C_CLOSE_ANGLE;
-		this.attributeString = attributeString;
+		this.attributes = attributes;
 		this.selfClosing = selfClosing;
 	}
 
@@ -130,9 +133,7 @@ public class Tag
 		{
 			if (child.getName().equals(tagName))
 			{
-				Map<String, String> attributes = child.getAttributes();
-				
-				if (attrValue != null && attrValue.equals(attributes.get(attrName)))
+				if (attrValue != null && attrValue.equals(child.getAttribute(attrName)))
 				{
 					result.add(child);
 				}
@@ -159,7 +160,22 @@ public class Tag
 
 	public Map<String, String> getAttributes()
 	{
-		return StringUtil.attributeStringToMap(attributeString);
+		return attributes;
+	}
+
+	public String getAttribute(String key)
+	{
+		return attributes.get(key);
+	}
+
+	public int getIntAttribute(String key, int defaultValue)
+	{
+		return attributes.getInt(key, defaultValue);
+	}
+
+	public long getLongAttribute(String key, long defaultValue)
+	{
+		return attributes.getLong(key, defaultValue);
 	}
 
 	private int getDepth(Tag tag)
@@ -193,11 +209,9 @@ public class Tag
 
 		builder.append(C_OPEN_ANGLE).append(name);
 		
-		Map<String,String> attrs = getAttributes();
-
-		if (attrs.size() > 0)
+		if (attributes.size() > 0)
 		{
-			for (Map.Entry<String, String> entry : attrs.entrySet())
+			for (Map.Entry<String, String> entry : attributes.entrySet())
 			{
 				builder.append(C_SPACE).append(entry.getKey()).append(C_EQUALS).append(C_DOUBLE_QUOTE);
 				builder.append(entry.getValue()).append(C_DOUBLE_QUOTE);
@@ -263,7 +277,7 @@ public class Tag
 		{
 			return false;
 		}
-        if (attributeString != null ? !attributeString.equals(tag.attributeString) : tag.attributeString != null)
+        if (!attributes.equals(tag.attributes))
 		{
 			return false;
 		}
@@ -290,7 +304,7 @@ public class Tag
     @Override
     public int hashCode() {
         int result = name != null ? name.hashCode() : 0;
-        result = 31 * result + (attributeString != null ? attributeString.hashCode() : 0);
+        result = 31 * result + attributes.hashCode();
         result = 31 * result + (parent != null ? parent.hashCode() : 0);
         result = 31 * result + (selfClosing ? 1 : 0);
         result = 31 * result + (textContent != null ? textContent.hashCode() : 0);
@@ -0,0 +1,310 @@
+package org.adoptopenjdk.jitwatch.model;
+
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.C_EQUALS;
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.C_QUOTE;
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.C_SPACE;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.adoptopenjdk.jitwatch.core.JITWatchConstants;
+
+/**
+ * Immutable attributes of a Tag, parsed once from the attribute string into a
+ * flat array of alternating keys and values in source order. Keys are shared
+ * instances (the ATTR_ constants where known) so lookups can usually be
+ * satisfied by an identity check. Parsing follows the rules of
+ * StringUtil.attributeStringToMap.
+ */
+public final class TagAttributes extends AbstractMap<String, String>
+{
+	public static final TagAttributes EMPTY = new TagAttributes(new String[0], 0);
+
+	private static final Map<String, String> KEYS = new ConcurrentHashMap<>();
+
+	static
+	{
+		for (Field field : JITWatchConstants.class.getFields())
+		{
+			if (field.getName().startsWith("ATTR_") && Modifier.isStatic(field.getModifiers()) && field.getType() == String.class)
+			{
+				try
+				{
+					String key = (String) field.get(null);
+					KEYS.put(key, key);
+				}
+				catch (IllegalAccessException e)
+				{
+					// public constant
+				}
+			}
+		}
+	}
+
+	private final String[] keyValues;
+	private final int size;
+
+	private TagAttributes(String[] keyValues, int size)
+	{
+		this.keyValues = keyValues;
+		this.size = size;
+	}
+
+	public static TagAttributes parse(String attributeString)
+	{
+		if (attributeString == null || attributeString.isEmpty())
+		{
+			return EMPTY;
+		}
+
+		String[] keyValues = new String[16];
+		int count = 0;
+
+		int len = attributeString.length();
+
+		int keyStart = 0;
+		int valueStart = -1;
+
+		for (int i = 0; i < len; i++)
+		{
+			char c = attributeString.charAt(i);
+
+			if (valueStart == -1)
+			{
+				if (c == C_SPACE)
+				{
+					keyStart = i + 1;
+				}
+				else if (c == C_QUOTE)
+				{
+					valueStart = i + 1;
+				}
+			}
+			else if (c == C_QUOTE)
+			{
+				String key = internKey(attributeString, keyStart, valueStart - 1);
+				String value = attributeString.substring(valueStart, i);
+
+				int existing = indexOfKey(keyValues, count, key);
+
+				if (existing != -1)
+				{
+					keyValues[existing + 1] = value;
+				}
+				else
+				{
+					if (count == keyValues.length)
+					{
+						String[] bigger = new String[count * 2];
+						System.arraycopy(keyValues, 0, bigger, 0, count);
+						keyValues = bigger;
+					}
+
+					keyValues[count++] = key;
+					keyValues[count++] = value;
+				}
+
+				keyStart = i + 1;
+				valueStart = -1;
+			}
+		}
+
+		if (count == 0)
+		{
+			return EMPTY;
+		}
+
+		String[] compact = new String[count];
+		System.arraycopy(keyValues, 0, compact, 0, count);
+
+		return new TagAttributes(compact, count / 2);
+	}
+
+	public static TagAttributes fromMap(Map<String, String> map)
+	{
+		String[] keyValues = new String[map.size() * 2];
+
+		int pos = 0;
+
+		for (Map.Entry<String, String> entry : map.entrySet())
+		{
+			String key = entry.getKey();
+
+			keyValues[pos++] = KEYS.computeIfAbsent(key, k -> k);
+			keyValues[pos++] = entry.getValue();
+		}
+
+		return new TagAttributes(keyValues, map.size());
+	}
+
+	// the key runs from keyStart to the opening quote with any '=' dropped
+	private static String internKey(String attributeString, int start, int end)
+	{
+		String key;
+
+		if (end > start && attributeString.charAt(end - 1) == C_EQUALS && attributeString.lastIndexOf(C_EQUALS, end - 2) < start)
+		{
+			key = attributeString.substring(start, end - 1);
+		}
+		else
+		{
+			StringBuilder builder = new StringBuilder(end - start);
+
+			for (int i = start; i < end; i++)
+			{
+				char c = attributeString.charAt(i);
+
+				if (c != C_EQUALS)
+				{
+					builder.append(c);
+				}
+			}
+
+			key = builder.toString();
+		}
+
+		String interned = KEYS.get(key);
+
+		if (interned == null)
+		{
+			interned = KEYS.computeIfAbsent(key, k -> k);
+		}
+
+		return interned;
+	}
+
+	private static int indexOfKey(String[] keyValues, int count, String key)
+	{
+		for (int i = 0; i < count; i += 2)
+		{
+			if (keyValues[i] == key)
+			{
+				return i;
+			}
+		}
+
+		for (int i = 0; i < count; i += 2)
+		{
+			if (keyValues[i].equals(key))
+			{
+				return i;
+			}
+		}
+
+		return -1;
+	}
+
+	@Override
+	public String get(Object key)
+	{
+		if (key instanceof String)
+		{
+			int index = indexOfKey(keyValues, size * 2, (String) key);
+
+			if (index != -1)
+			{
+				return keyValues[index + 1];
+			}
+		}
+
+		return null;
+	}
+
+	@Override
+	public boolean containsKey(Object key)
+	{
+		return key instanceof String && indexOfKey(keyValues, size * 2, (String) key) != -1;
+	}
+
+	@Override
+	public int size()
+	{
+		return size;
+	}
+
+	public int getInt(String key, int defaultValue)
+	{
+		String value = get(key);
+
+		if (value != null)
+		{
+			try
+			{
+				return Integer.parseInt(value);
+			}
+			catch (NumberFormatException nfe)
+			{
+			}
+		}
+
+		return defaultValue;
+	}
+
+	public long getLong(String key, long defaultValue)
+	{
+		String value = get(key);
+
+		if (value != null)
+		{
+			try
+			{
+				return Long.parseLong(value);
+			}
+			catch (NumberFormatException nfe)
+			{
+			}
+		}
+
+		return defaultValue;
+	}
+
+	@Override
+	public Set<Map.Entry<String, String>> entrySet()
+	{
+		return new AbstractSet<Map.Entry<String, String>>()
+		{
+			@Override
+			public Iterator<Map.Entry<String, String>> iterator()
+			{
+				return new Iterator<Map.Entry<String, String>>()
+				{
+					private int pos = 0;
+
+					@Override
+					public boolean hasNext()
+					{
+						return pos < size * 2;
+					}
+
+					@Override
+					public Map.Entry<String, String> next()
+					{
+						if (!hasNext())
+						{
+							throw new NoSuchElementException();
+						}
+
+						Map.Entry<String, String> entry = new SimpleImmutableEntry<>(keyValues[pos], keyValues[pos + 1]);
+
+						pos += 2;
+
+						return entry;
+					}
+				};
+			}
+
+			@Override
+			public int size()
+			{
+				return size;
+			}
+		};
+	}
+}
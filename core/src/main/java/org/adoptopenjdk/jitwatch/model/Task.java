@@ -31,9 +31,14 @@ public class Task extends Tag
 	
 	public Task(String attributeString, boolean selfClosing)
 	{
-		super(TAG_TASK, attributeString, selfClosing);
+		this(TagAttributes.parse(attributeString), selfClosing);
+	}
+
+	public Task(TagAttributes attributes, boolean selfClosing)
+	{
+		super(TAG_TASK, attributes, selfClosing);
 
-		parseDictionary = new ParseDictionary(getAttributes().get(ATTR_METHOD));
+		parseDictionary = new ParseDictionary(getAttribute(ATTR_METHOD));
 	}
 
 	public IParseDictionary getParseDictionary()
@@ -7,6 +7,7 @@ package org.adoptopenjdk.jitwatch.model.assembly;
 
 import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.DEBUG_LOGGING_ASSEMBLY;
 import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.NATIVE_CODE_ENTRY_POINT;
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.S_EMPTY;
 import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.S_ENTITY_APOS;
 import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.S_HASH;
 import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.S_HEX_POSTFIX;
@@ -20,29 +21,19 @@ import org.adoptopenjdk.jitwatch.logger.Logger;
 import org.adoptopenjdk.jitwatch.logger.LoggerFactory;
 
 import java.util.List;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 public abstract class AbstractAssemblyParser implements IAssemblyParser
 {
 	protected static final Logger logger = LoggerFactory.getLogger(AbstractAssemblyParser.class);
 
-	private static final String PART_ADDRESS = "(" + S_HEX_PREFIX + "[a-f0-9]+):";
-	private static final String PART_INSTRUCTION = "([0-9a-fA-F]+(?:[\\s\\|]+[0-9a-fA-F]+)*)";
-	private static final String PART_COMMENT1 = "([;#].*)?";
-	private static final String PART_COMMENT2 = "([;#].*)";
-
-	private static final Pattern PATTERN_HEXA_CODE_INSTRUCTION = Pattern
-			.compile("^" + PART_ADDRESS + "\\s+" + PART_INSTRUCTION + PART_COMMENT1);
-
-	private static final Pattern PATTERN_COMMENT_INSTRUCTION = Pattern
-			.compile("^" + PART_ADDRESS + "\\s+" + PART_COMMENT2);
-
 	protected Architecture architecture;
 
-	public AbstractAssemblyParser(Architecture architecture)
+	protected final AssemblyLineScanner scanner;
+
+	public AbstractAssemblyParser(Architecture architecture, AssemblyLineScanner scanner)
 	{
 		this.architecture = architecture;
+		this.scanner = scanner;
 	}
 
 	public Architecture getArchitecture()
@@ -85,7 +76,7 @@ public abstract class AbstractAssemblyParser implements IAssemblyParser
 
 			String line = lines[i].replace(S_ENTITY_APOS, S_QUOTE);
 
-			line = line.replaceFirst("^ +", "");
+			line = AssemblyLineScanner.stripLeadingSpaces(line);
 
 			if (line.startsWith(S_HASH))
 			{
@@ -276,44 +267,89 @@ public abstract class AbstractAssemblyParser implements IAssemblyParser
 		return (operand.startsWith(S_HEX_PREFIX) || operand.endsWith(S_HEX_POSTFIX)) && isJump(mnemonic);
 	}
 
+	@Override
+	public AssemblyInstruction createInstruction(final AssemblyLabels labels, final String inLine)
+	{
+		if (DEBUG_LOGGING_ASSEMBLY)
+		{
+			logger.debug("Trying to parse instruction : {}", inLine);
+		}
+
+		AssemblyInstruction instr = null;
+
+		String annotation = S_EMPTY;
+
+		int instructionStart = 0;
+
+		if (!inLine.startsWith(S_HEX_PREFIX))
+		{
+			int addressIndex = inLine.indexOf(' ' + S_HEX_PREFIX);
+
+			if (addressIndex != -1)
+			{
+				annotation = inLine.substring(0, addressIndex) + ' ';
+				instructionStart = addressIndex + 1;
+			}
+		}
+
+		if (scanner.scanInstruction(inLine, instructionStart))
+		{
+			if (DEBUG_LOGGING_ASSEMBLY)
+			{
+				logger.debug("Annotation : '{}'", annotation);
+				logger.debug("Address    : '{}'", scanner.getAddressString());
+				logger.debug("Instruction: '{}'", scanner.getPart());
+				logger.debug("Comment    : '{}'", scanner.getComment());
+			}
+
+			if (scanner.hasInstruction())
+			{
+				instr = scanner.createInstruction(annotation, labels);
+				labels.newInstruction(instr);
+			}
+		}
+
+		return instr;
+	}
+
+	@Override
+	public AssemblyInstruction parseInstruction(String input, long address, String comment, String annotation,
+			AssemblyLabels labels)
+	{
+		return scanner.parseInstruction(input, 0, input.length(), address, comment, annotation, labels);
+	}
+
 	protected AssemblyInstruction createInstructionFromHexaCode(AssemblyLabels labels, String inLine)
 	{
 		AssemblyInstruction result = null;
 
-		Matcher matcher = PATTERN_COMMENT_INSTRUCTION.matcher(inLine);
-		if (matcher.find())
+		if (scanner.scanComment(inLine))
 		{
-			String address = matcher.group(1);
-			String comment = matcher.group(2);
+			String comment = scanner.getComment();
 
 			if (DEBUG_LOGGING_ASSEMBLY)
 			{
-				logger.debug("Address    : '{}'", address);
+				logger.debug("Address    : '{}'", scanner.getAddressString());
 				logger.debug("Comment    : '{}'", comment);
 			}
-			long addressValue = AssemblyUtil.getValueFromAddress(address);
-			result = new AssemblyInstruction("", addressValue, List.of(), "", "", List.of(), comment, labels);
+
+			result = new AssemblyInstruction("", scanner.getAddress(), List.of(), "", "", List.of(), comment, labels);
 		}
-		else
+		else if (scanner.scanHexaCode(inLine))
 		{
-			matcher = PATTERN_HEXA_CODE_INSTRUCTION.matcher(inLine);
-			if (matcher.find())
-			{
-				String address = matcher.group(1);
-				String hexaCode = matcher.group(2);
-				String comment = matcher.group(3);
-
-				if (DEBUG_LOGGING_ASSEMBLY)
-				{
-					logger.debug("Address    : '{}'", address);
-					logger.debug("Instruction: '{}'", hexaCode);
-					logger.debug("Comment    : '{}'", comment);
-				}
+			String hexaCode = scanner.getPart();
+			String comment = scanner.getComment();
 
-				long addressValue = AssemblyUtil.getValueFromAddress(address);
-				result = new AssemblyInstruction("", addressValue, List.of(), "", hexaCode, List.of(), comment, labels);
+			if (DEBUG_LOGGING_ASSEMBLY)
+			{
+				logger.debug("Address    : '{}'", scanner.getAddressString());
+				logger.debug("Instruction: '{}'", hexaCode);
+				logger.debug("Comment    : '{}'", comment);
 			}
+
+			result = new AssemblyInstruction("", scanner.getAddress(), List.of(), "", hexaCode, List.of(), comment, labels);
 		}
+
 		return result;
 	}
 
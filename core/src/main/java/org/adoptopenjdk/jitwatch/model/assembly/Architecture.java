@@ -42,4 +42,43 @@ public enum Architecture
 
 		return null;
 	}
+
+	// from the vm_version info, e.g. "OpenJDK 64-Bit Server VM (17.0.9+9) for linux-amd64 JRE (17.0.9+9)"
+	public static Architecture parseFromVmInfo(String info)
+	{
+		String platform = (info != null) ? StringUtil.getSubstringBetween(info, " for ", " JRE") : null;
+
+		if (platform != null)
+		{
+			// os-arch where arch may carry a suffix as in linux-arm-vfp-hflt
+			int firstDash = platform.indexOf('-');
+
+			if (firstDash != -1)
+			{
+				return parseFromArchName(platform.substring(firstDash + 1));
+			}
+		}
+
+		return null;
+	}
+
+	// os.arch style names such as amd64, x86_64, i386, aarch64, arm
+	public static Architecture parseFromArchName(String arch)
+	{
+		if (arch != null)
+		{
+			arch = arch.toLowerCase();
+
+			if (arch.contains("arm") || arch.contains("aarch"))
+			{
+				return arch.contains("64") ? ARM_64 : ARM_32;
+			}
+			else if (arch.contains("86") || arch.contains("amd64"))
+			{
+				return arch.contains("64") ? X86_64 : X86_32;
+			}
+		}
+
+		return null;
+	}
 }
\ No newline at end of file
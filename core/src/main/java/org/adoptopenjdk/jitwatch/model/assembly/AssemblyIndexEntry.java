@@ -0,0 +1,59 @@
+package org.adoptopenjdk.jitwatch.model.assembly;
+
+/**
+ * Where the assembly of one nmethod is in the log. Enough to find the
+ * compilation it belongs to without parsing the instructions.
+ */
+public class AssemblyIndexEntry
+{
+	private final String nativeAddress;
+
+	private final String entryAddress;
+
+	private final String assemblyMethodSignature;
+
+	private final long logStartOffset;
+
+	private final long logEndOffset;
+
+	public AssemblyIndexEntry(String nativeAddress, String entryAddress, String assemblyMethodSignature, long logStartOffset,
+			long logEndOffset)
+	{
+		this.nativeAddress = nativeAddress;
+		this.entryAddress = entryAddress;
+		this.assemblyMethodSignature = assemblyMethodSignature;
+		this.logStartOffset = logStartOffset;
+		this.logEndOffset = logEndOffset;
+	}
+
+	public String getNativeAddress()
+	{
+		return nativeAddress;
+	}
+
+	public String getEntryAddress()
+	{
+		return entryAddress;
+	}
+
+	public String getAssemblyMethodSignature()
+	{
+		return assemblyMethodSignature;
+	}
+
+	public long getLogStartOffset()
+	{
+		return logStartOffset;
+	}
+
+	public long getLogEndOffset()
+	{
+		return logEndOffset;
+	}
+
+	@Override
+	public String toString()
+	{
+		return assemblyMethodSignature + " " + nativeAddress + " [" + logStartOffset + ", " + logEndOffset + ")";
+	}
+}
@@ -0,0 +1,537 @@
+package org.adoptopenjdk.jitwatch.model.assembly;
+
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.C_CLOSE_PARENTHESES;
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.C_CLOSE_SQUARE_BRACKET;
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.C_COLON;
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.C_COMMA;
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.C_OPEN_PARENTHESES;
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.C_OPEN_SQUARE_BRACKET;
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.C_SPACE;
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.S_HEX_PREFIX;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Splits PrintAssembly lines of the form
+ *
+ * <pre>
+ * 0x00007f2d1d1a5a68: sub    $0x30,%rsp   ;*aload_0
+ * 0x00007ff1ad4001c0: 8984 2400 | c0fe ff55 ;   {metadata}
+ * </pre>
+ *
+ * into address, instruction or hex code and comment in one pass over the
+ * characters. The split is the same as the patterns the parsers used before.
+ * The parts of the last line scanned are kept in this object so each parser
+ * has its own.
+ */
+public final class AssemblyLineScanner
+{
+	// addresses with more significant digits are left to
+	// AssemblyUtil.getValueFromAddress
+	private static final int MAX_SCANNED_ADDRESS_DIGITS = 15;
+
+	private static final String INSTRUCTION_CHARS = "0123456789abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ:_()[]+*$,-%";
+
+	private final boolean[] instructionChars = new boolean[128];
+
+	private final boolean[] commentStartChars = new boolean[128];
+
+	private final StringBuilder partBuilder = new StringBuilder();
+
+	private String line;
+
+	private int addressStart;
+	private int addressEnd;
+
+	private int partStart;
+	private int partEnd;
+
+	private int commentStart;
+
+	/**
+	 * @param extraInstructionChars
+	 *            characters an instruction may hold besides letters, digits,
+	 *            whitespace and :_()[]+*$,-%
+	 * @param commentStart
+	 *            the characters that start a comment after an instruction
+	 */
+	public AssemblyLineScanner(String extraInstructionChars, String commentStart)
+	{
+		mark(instructionChars, INSTRUCTION_CHARS);
+		mark(instructionChars, extraInstructionChars);
+		mark(instructionChars, " \t\n\u000B\f\r");
+
+		mark(commentStartChars, commentStart);
+	}
+
+	private static void mark(boolean[] table, String chars)
+	{
+		for (int i = 0; i < chars.length(); i++)
+		{
+			table[chars.charAt(i)] = true;
+		}
+	}
+
+	/**
+	 * Matches "address: instruction comment" starting at the given index.
+	 *
+	 * @return false if the line does not start with an address and an
+	 *         instruction
+	 */
+	public boolean scanInstruction(String line, int from)
+	{
+		int whitespaceStart = scanAddress(line, from);
+
+		if (whitespaceStart == -1)
+		{
+			return false;
+		}
+
+		int length = line.length();
+
+		int pos = skipWhitespace(line, whitespaceStart);
+
+		if (pos < length && isInstructionChar(line.charAt(pos)))
+		{
+			partStart = pos;
+		}
+		else if (pos - whitespaceStart >= 2)
+		{
+			// only the last whitespace character is left for the instruction
+			partStart = pos - 1;
+		}
+		else
+		{
+			return false;
+		}
+
+		partEnd = partStart + 1;
+
+		while (partEnd < length && isInstructionChar(line.charAt(partEnd)))
+		{
+			partEnd++;
+		}
+
+		commentStart = (partEnd < length && isCommentStart(line.charAt(partEnd))) ? partEnd : -1;
+
+		return true;
+	}
+
+	/**
+	 * Matches "address: hex code comment" where the hex code is groups of hex
+	 * digits separated by whitespace or '|' and the comment starts with ';' or
+	 * '#'.
+	 */
+	public boolean scanHexaCode(String line)
+	{
+		int whitespaceStart = scanAddress(line, 0);
+
+		if (whitespaceStart == -1)
+		{
+			return false;
+		}
+
+		int length = line.length();
+
+		int pos = skipWhitespace(line, whitespaceStart);
+
+		if (pos == whitespaceStart || pos == length || !isHexDigit(line.charAt(pos)))
+		{
+			return false;
+		}
+
+		partStart = pos;
+		partEnd = skipHexDigits(line, pos);
+
+		while (true)
+		{
+			int groupStart = partEnd;
+
+			while (groupStart < length && (isWhitespace(line.charAt(groupStart)) || line.charAt(groupStart) == '|'))
+			{
+				groupStart++;
+			}
+
+			if (groupStart > partEnd && groupStart < length && isHexDigit(line.charAt(groupStart)))
+			{
+				partEnd = skipHexDigits(line, groupStart);
+			}
+			else
+			{
+				break;
+			}
+		}
+
+		commentStart = (partEnd < length && isHexaCommentStart(line.charAt(partEnd))) ? partEnd : -1;
+
+		return true;
+	}
+
+	/**
+	 * Matches "address: comment" where the comment starts with ';' or '#'.
+	 */
+	public boolean scanComment(String line)
+	{
+		int whitespaceStart = scanAddress(line, 0);
+
+		if (whitespaceStart == -1)
+		{
+			return false;
+		}
+
+		int pos = skipWhitespace(line, whitespaceStart);
+
+		if (pos == whitespaceStart || pos == line.length() || !isHexaCommentStart(line.charAt(pos)))
+		{
+			return false;
+		}
+
+		partStart = pos;
+		partEnd = pos;
+		commentStart = pos;
+
+		return true;
+	}
+
+	// returns the index after "0x<hex>:" if whitespace follows it, else -1
+	private int scanAddress(String line, int from)
+	{
+		this.line = line;
+
+		if (!line.startsWith(S_HEX_PREFIX, from))
+		{
+			return -1;
+		}
+
+		int length = line.length();
+
+		int pos = from + S_HEX_PREFIX.length();
+
+		int digitsStart = pos;
+
+		while (pos < length && isLowerHexDigit(line.charAt(pos)))
+		{
+			pos++;
+		}
+
+		if (pos == digitsStart || pos + 1 >= length || line.charAt(pos) != C_COLON || !isWhitespace(line.charAt(pos + 1)))
+		{
+			return -1;
+		}
+
+		addressStart = from;
+		addressEnd = pos;
+
+		return pos + 1;
+	}
+
+	public long getAddress()
+	{
+		int digitsStart = addressStart + S_HEX_PREFIX.length();
+
+		while (digitsStart < addressEnd - 1 && line.charAt(digitsStart) == '0')
+		{
+			digitsStart++;
+		}
+
+		if (addressEnd - digitsStart > MAX_SCANNED_ADDRESS_DIGITS)
+		{
+			return AssemblyUtil.getValueFromAddress(getAddressString());
+		}
+
+		long result = 0;
+
+		for (int i = digitsStart; i < addressEnd; i++)
+		{
+			result = (result << 4) | Character.digit(line.charAt(i), 16);
+		}
+
+		return result;
+	}
+
+	public String getAddressString()
+	{
+		return line.substring(addressStart, addressEnd);
+	}
+
+	/**
+	 * @return the instruction or hex code, which may hold whitespace
+	 */
+	public String getPart()
+	{
+		return line.substring(partStart, partEnd);
+	}
+
+	/**
+	 * @return true if the instruction is more than whitespace
+	 */
+	public boolean hasInstruction()
+	{
+		for (int i = partStart; i < partEnd; i++)
+		{
+			if (line.charAt(i) > C_SPACE)
+			{
+				return true;
+			}
+		}
+
+		return false;
+	}
+
+	/**
+	 * @return the comment including its ';' or '#' or null if there is none
+	 */
+	public String getComment()
+	{
+		return (commentStart != -1) ? line.substring(commentStart) : null;
+	}
+
+	/**
+	 * Builds the instruction from the part of the last line scanned.
+	 */
+	public AssemblyInstruction createInstruction(String annotation, AssemblyLabels labels)
+	{
+		return parseInstruction(line, partStart, partEnd, getAddress(), getComment(), annotation, labels);
+	}
+
+	/**
+	 * Splits an instruction into prefixes, mnemonic and operands. Whitespace
+	 * runs count as one space and the ends are trimmed. The mnemonic ends at
+	 * the first space and the operands are split at commas outside brackets.
+	 */
+	public AssemblyInstruction parseInstruction(String input, int start, int end, long address, String comment,
+			String annotation, AssemblyLabels labels)
+	{
+		while (start < end && input.charAt(start) <= C_SPACE)
+		{
+			start++;
+		}
+
+		while (end > start && input.charAt(end - 1) <= C_SPACE)
+		{
+			end--;
+		}
+
+		boolean inBrackets = false;
+
+		String mnemonic = null;
+
+		List<String> prefixes = null;
+		List<String> operands = new ArrayList<>(3);
+
+		partBuilder.setLength(0);
+
+		for (int pos = start; pos < end; pos++)
+		{
+			char c = input.charAt(pos);
+
+			if (isWhitespace(c))
+			{
+				while (pos + 1 < end && isWhitespace(input.charAt(pos + 1)))
+				{
+					pos++;
+				}
+
+				c = C_SPACE;
+			}
+
+			if (c == C_OPEN_PARENTHESES || c == C_OPEN_SQUARE_BRACKET)
+			{
+				inBrackets = true;
+			}
+			else if (c == C_CLOSE_PARENTHESES || c == C_CLOSE_SQUARE_BRACKET)
+			{
+				inBrackets = false;
+			}
+
+			if (c == C_SPACE && mnemonic == null)
+			{
+				String part = partBuilder.toString();
+
+				partBuilder.setLength(0);
+
+				if (isPrefix(part))
+				{
+					if (prefixes == null)
+					{
+						prefixes = new ArrayList<>(1);
+					}
+
+					prefixes.add(part);
+				}
+				else
+				{
+					mnemonic = part;
+				}
+			}
+			else if (c == C_COMMA && !inBrackets)
+			{
+				operands.add(partBuilder.toString());
+
+				partBuilder.setLength(0);
+			}
+			else
+			{
+				partBuilder.append(c);
+			}
+		}
+
+		if (partBuilder.length() > 0)
+		{
+			String part = partBuilder.toString();
+
+			if (mnemonic == null)
+			{
+				mnemonic = part;
+			}
+			else
+			{
+				operands.add(part);
+			}
+		}
+
+		return new AssemblyInstruction(annotation, address, (prefixes != null) ? prefixes : List.of(), mnemonic, "", operands,
+				comment, labels);
+	}
+
+	private static boolean isPrefix(String part)
+	{
+		switch (part)
+		{
+		case "data64":
+		case "data32":
+		case "data16":
+		case "data8":
+		case "lock":
+			return true;
+		default:
+			return false;
+		}
+	}
+
+	/**
+	 * @return true for an x86 constant such as $0x30, 0x7f2d, 1f or 30h
+	 */
+	public static boolean isHexConstant(String operand)
+	{
+		int start = (operand.length() > 0 && operand.charAt(0) == '$') ? 1 : 0;
+
+		return (operand.startsWith(S_HEX_PREFIX, start) && isHexNumber(operand, start + S_HEX_PREFIX.length()))
+				|| isHexNumber(operand, start);
+	}
+
+	// lower case hex digits to the end with an optional 'h' suffix
+	private static boolean isHexNumber(String operand, int start)
+	{
+		int end = operand.length();
+
+		if (end > start && operand.charAt(end - 1) == 'h')
+		{
+			end--;
+		}
+
+		if (end == start)
+		{
+			return false;
+		}
+
+		for (int i = start; i < end; i++)
+		{
+			if (!isLowerHexDigit(operand.charAt(i)))
+			{
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	/**
+	 * @return true for an ARM immediate such as #12
+	 */
+	public static boolean isDecimalImmediate(String operand)
+	{
+		int length = operand.length();
+
+		if (length < 2 || operand.charAt(0) != '#')
+		{
+			return false;
+		}
+
+		for (int i = 1; i < length; i++)
+		{
+			char c = operand.charAt(i);
+
+			if (c < '0' || c > '9')
+			{
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	public static String stripLeadingSpaces(String line)
+	{
+		int start = 0;
+
+		while (start < line.length() && line.charAt(start) == C_SPACE)
+		{
+			start++;
+		}
+
+		return (start == 0) ? line : line.substring(start);
+	}
+
+	private boolean isInstructionChar(char c)
+	{
+		return c < 128 && instructionChars[c];
+	}
+
+	private boolean isCommentStart(char c)
+	{
+		return c < 128 && commentStartChars[c];
+	}
+
+	private static boolean isHexaCommentStart(char c)
+	{
+		return c == ';' || c == '#';
+	}
+
+	private static int skipWhitespace(String line, int pos)
+	{
+		while (pos < line.length() && isWhitespace(line.charAt(pos)))
+		{
+			pos++;
+		}
+
+		return pos;
+	}
+
+	private static int skipHexDigits(String line, int pos)
+	{
+		while (pos < line.length() && isHexDigit(line.charAt(pos)))
+		{
+			pos++;
+		}
+
+		return pos;
+	}
+
+	// the characters of \s in a regular expression
+	private static boolean isWhitespace(char c)
+	{
+		return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+	}
+
+	private static boolean isLowerHexDigit(char c)
+	{
+		return (c >= '0' && c <= '9') || (c >= 'a' && c <= 'f');
+	}
+
+	private static boolean isHexDigit(char c)
+	{
+		return isLowerHexDigit(c) || (c >= 'A' && c <= 'F');
+	}
+}
@@ -28,6 +28,10 @@ public class AssemblyMethod
 
 	private Architecture architecture;
 
+	// byte range of the method in the log, -1 when not known
+	private long logStartOffset = -1;
+	private long logEndOffset = -1;
+
 	private static final Logger logger = LoggerFactory.getLogger(AssemblyMethod.class);
 
 	public AssemblyMethod(Architecture architecture)
@@ -55,6 +59,22 @@ public class AssemblyMethod
 		return assemblyMethodSignature;
 	}
 
+	public void setLogOffsets(long logStartOffset, long logEndOffset)
+	{
+		this.logStartOffset = logStartOffset;
+		this.logEndOffset = logEndOffset;
+	}
+
+	public long getLogStartOffset()
+	{
+		return logStartOffset;
+	}
+
+	public long getLogEndOffset()
+	{
+		return logEndOffset;
+	}
+
 	public void setHeader(String header)
 	{
 		this.header = header;
@@ -5,6 +5,7 @@
  */
 package org.adoptopenjdk.jitwatch.model.assembly;
 
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.C_QUOTE;
 import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.DEBUG_LOGGING;
 import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.DEBUG_LOGGING_ASSEMBLY;
 import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.NATIVE_CODE_METHOD_MARK;
@@ -12,18 +13,25 @@ import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.NATIVE_CODE_START
 import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.DISASSEMBLY_ENTRY_POINT;
 import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.S_APOSTROPHE;
 import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.S_COLON;
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.S_EMPTY;
 import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.S_HASH;
 import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.S_NEWLINE;
 import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.S_SPACE;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
+import org.adoptopenjdk.jitwatch.model.Compilation;
+import org.adoptopenjdk.jitwatch.model.ICompilationDetailLoader;
 import org.adoptopenjdk.jitwatch.model.IMetaMember;
 import org.adoptopenjdk.jitwatch.model.LogParseException;
 import org.adoptopenjdk.jitwatch.model.MemberSignatureParts;
 import org.adoptopenjdk.jitwatch.model.MetaClass;
 import org.adoptopenjdk.jitwatch.model.PackageManager;
+import org.adoptopenjdk.jitwatch.parser.PackageFilter;
 import org.adoptopenjdk.jitwatch.util.StringUtil;
 import org.adoptopenjdk.jitwatch.logger.Logger;
 import org.adoptopenjdk.jitwatch.logger.LoggerFactory;
@@ -48,20 +56,92 @@ public class AssemblyProcessor
 
 	private Architecture architecture = null;
 
+	// from the log header, used when there is no hsdis "Disassembling for" line
+	private Architecture defaultArchitecture = null;
+
 	private boolean isDisassembly = false;
 
+	// byte range in the log of the method being read, -1 when not known
+	private long methodStartOffset = -1;
+	private long lastLineEndOffset = -1;
+
+	// when set, methods read from a file are indexed rather than parsed and
+	// their compilations read the assembly back through this loader
+	private ICompilationDetailLoader detailLoader = null;
+
+	private List<AssemblyIndexEntry> indexEntries = new ArrayList<>();
+
+	private boolean signatureComplete = false;
+
+	private PackageFilter packageFilter = PackageFilter.NONE;
+
+	// set once the signature shows the method is filtered out, its lines are dropped
+	private boolean methodFiltered = false;
+
+	private ExecutorService parserPool = null;
+
+	private List<Future<AssemblyMethod>> pendingMethods = new ArrayList<>();
+
 	public AssemblyProcessor()
 	{
 	}
 
+	/**
+	 * Index each method by address, signature and byte range instead of
+	 * parsing its instructions. The line offsets must be passed to handleLine.
+	 */
+	public void setDetailLoader(ICompilationDetailLoader detailLoader)
+	{
+		this.detailLoader = detailLoader;
+	}
+
+	public List<AssemblyIndexEntry> getIndexEntries()
+	{
+		return indexEntries;
+	}
+
+	/**
+	 * @return the architecture from the hsdis header or null if none was seen
+	 */
+	public Architecture getArchitecture()
+	{
+		return architecture;
+	}
+
+	public void setDefaultArchitecture(Architecture defaultArchitecture)
+	{
+		this.defaultArchitecture = defaultArchitecture;
+	}
+
 	public List<AssemblyMethod> getAssemblyMethods()
 	{
+		collectPendingMethods();
+
 		return assemblyMethods;
 	}
 
+	/**
+	 * Methods of classes the filter rejects are neither parsed nor indexed
+	 */
+	public void setPackageFilter(PackageFilter packageFilter)
+	{
+		this.packageFilter = packageFilter;
+	}
+
+	/**
+	 * Parse completed methods on the pool while the following lines are read.
+	 * The results are collected in log order when they are attached.
+	 */
+	public void setParserPool(ExecutorService parserPool)
+	{
+		this.parserPool = parserPool;
+	}
+
 	public void clear()
 	{
 		assemblyMethods.clear();
+		indexEntries.clear();
+		pendingMethods.clear();
 		builder.delete(0, builder.length());
 		nativeAddress = null;
 		entryAddress = null;
@@ -69,11 +149,26 @@ public class AssemblyProcessor
 		assemblyStarted = false;
 		methodStarted = false;
 		methodInterrupted = false;
+		methodFiltered = false;
+		signatureComplete = false;
+		methodStartOffset = -1;
+		lastLineEndOffset = -1;
 	}
 
 	public void handleLine(final String inLine)
 	{
-		String line = inLine.replaceFirst("^ +", ""); // JMH ???
+		handleLine(inLine, -1, -1);
+	}
+
+	/**
+	 * @param offset
+	 *            the byte offset of the line in the log or -1
+	 * @param endOffset
+	 *            the byte offset after the line terminator or -1
+	 */
+	public void handleLine(final String inLine, long offset, long endOffset)
+	{
+		String line = AssemblyLineScanner.stripLeadingSpaces(inLine); // JMH ???
 
 		line = StringUtil.replaceXMLEntities(line);
 
@@ -133,6 +228,8 @@ public class AssemblyProcessor
 
 		if (trimmedLine.endsWith("</print_nmethod>"))
 		{
+			lastLineEndOffset = endOffset;
+
 			complete();
 		}
 
@@ -146,11 +243,17 @@ public class AssemblyProcessor
 
 			assemblyStarted = true;
 
-			if (builder.length() > 0)
+			if (builder.length() > 0 || methodFiltered)
 			{
 				complete();
 			}
 
+			// a method header can have several start lines
+			if (methodStartOffset == -1)
+			{
+				methodStartOffset = offset;
+			}
+
 			String possibleNativeAddress = StringUtil.getSubstringBetween(line, NATIVE_CODE_START, S_COLON);
 
 			if (possibleNativeAddress != null)
@@ -166,6 +269,8 @@ public class AssemblyProcessor
 			}
 			boolean couldBeNativeMethodMark = false;
 
+			boolean signatureEnded = false;
+
 			couldBeNativeMethodMark = line.startsWith(NATIVE_CODE_METHOD_MARK);
 
 			if (couldBeNativeMethodMark)
@@ -186,24 +291,64 @@ public class AssemblyProcessor
 
 					methodInterrupted = true;
 				}
+				else
+				{
+					signatureEnded = true;
+				}
 			}
 			else if (methodInterrupted && line.endsWith(S_APOSTROPHE))
 			{
 				methodInterrupted = false;
+
+				signatureEnded = true;
 			}
 
-			if (methodStarted && line.length() > 0)
+			// an index only needs the signature
+			if (methodStarted && !methodFiltered && line.length() > 0 && !signatureComplete)
 			{
 				builder.append(line);
 
 				if (!methodInterrupted)
 				{
 					builder.append(S_NEWLINE);
+
+					signatureComplete = detailLoader != null;
+				}
+
+				if (signatureEnded && !packageFilter.acceptsClass(getSignatureClassName(builder.toString())))
+				{
+					methodFiltered = true;
+
+					builder.delete(0, builder.length());
 				}
 			}
 		}
 
 		previousLine = line;
+
+		lastLineEndOffset = endOffset;
+	}
+
+	// the class of a {method} line such as # {method} {0x...} 'hashCode' '([B)I' in 'java/lang/StringLatin1'
+	private static String getSignatureClassName(String signature)
+	{
+		String result = S_EMPTY;
+
+		int inIndex = signature.lastIndexOf(" in '");
+
+		if (inIndex != -1)
+		{
+			int classStart = inIndex + 5;
+
+			int classEnd = signature.indexOf(C_QUOTE, classStart);
+
+			if (classEnd != -1)
+			{
+				result = signature.substring(classStart, classEnd);
+			}
+		}
+
+		return result;
 	}
 
 	private String getStartAddress(String line)
@@ -231,9 +376,20 @@ public class AssemblyProcessor
 			logger.debug("complete({})", asmString.length());
 		}
 
-		if (asmString.length() > 0)
+		if (asmString.length() > 0 && detailLoader != null)
+		{
+			if (methodStartOffset != -1 && lastLineEndOffset != -1)
+			{
+				indexEntries.add(new AssemblyIndexEntry(nativeAddress, entryAddress, asmString, methodStartOffset, lastLineEndOffset));
+			}
+			else
+			{
+				logger.warn("No log offsets for assembly of {}", asmString);
+			}
+		}
+		else if (asmString.length() > 0)
 		{
-			IAssemblyParser parser = AssemblyUtil.getParserForArchitecture(architecture);
+			IAssemblyParser parser = AssemblyUtil.getParserForArchitecture((architecture != null) ? architecture : defaultArchitecture);
 
 			if (parser != null)
 			{
@@ -242,12 +398,22 @@ public class AssemblyProcessor
 					logger.debug("Using assembly parser {}", parser.getClass().getName());
 				}
 
-				AssemblyMethod assemblyMethod = parser.parseAssembly(asmString, isDisassembly);
-
-				assemblyMethod.setNativeAddress(nativeAddress);
-				assemblyMethod.setEntryAddress(entryAddress);
-
-				assemblyMethods.add(assemblyMethod);
+				if (parserPool != null)
+				{
+					final boolean methodIsDisassembly = isDisassembly;
+					final String methodNativeAddress = nativeAddress;
+					final String methodEntryAddress = entryAddress;
+					final long startOffset = methodStartOffset;
+					final long endOffset = lastLineEndOffset;
+
+					pendingMethods.add(parserPool.submit(() -> parseMethod(parser, asmString, methodIsDisassembly,
+							methodNativeAddress, methodEntryAddress, startOffset, endOffset)));
+				}
+				else
+				{
+					assemblyMethods.add(parseMethod(parser, asmString, isDisassembly, nativeAddress, entryAddress,
+							methodStartOffset, lastLineEndOffset));
+				}
 			}
 			else
 			{
@@ -262,73 +428,158 @@ public class AssemblyProcessor
 
 		methodStarted = false;
 		methodInterrupted = false;
+		signatureComplete = false;
+		methodFiltered = false;
 		isDisassembly = false;
+		methodStartOffset = -1;
+	}
+
+	private static AssemblyMethod parseMethod(IAssemblyParser parser, String asmString, boolean isDisassembly,
+			String nativeAddress, String entryAddress, long startOffset, long endOffset)
+	{
+		AssemblyMethod assemblyMethod = parser.parseAssembly(asmString, isDisassembly);
+
+		assemblyMethod.setNativeAddress(nativeAddress);
+		assemblyMethod.setEntryAddress(entryAddress);
+
+		if (startOffset != -1 && endOffset != -1)
+		{
+			assemblyMethod.setLogOffsets(startOffset, endOffset);
+		}
+
+		return assemblyMethod;
+	}
+
+	// waits for the methods handed to the pool, keeping the log order
+	private void collectPendingMethods()
+	{
+		for (Future<AssemblyMethod> future : pendingMethods)
+		{
+			try
+			{
+				assemblyMethods.add(future.get());
+			}
+			catch (ExecutionException ee)
+			{
+				logger.error("Could not parse assembly method", ee.getCause());
+			}
+			catch (InterruptedException ie)
+			{
+				Thread.currentThread().interrupt();
+				break;
+			}
+		}
+
+		pendingMethods.clear();
+	}
+
+	/**
+	 * Attaches the methods completed so far and then forgets them. A method
+	 * still being read is kept and attached by a later call.
+	 */
+	public void attachCompletedAssemblyToMembers(PackageManager packageManager)
+	{
+		attachAssemblyToMembers(packageManager);
+
+		assemblyMethods.clear();
+		indexEntries.clear();
 	}
 
 	public void attachAssemblyToMembers(PackageManager packageManager)
 	{
+		collectPendingMethods();
+
 		if (DEBUG_LOGGING_ASSEMBLY)
 		{
-			logger.debug("Attaching {} assembly methods", assemblyMethods.size());
+			logger.debug("Attaching {} assembly methods and {} index entries", assemblyMethods.size(), indexEntries.size());
 		}
 
 		for (AssemblyMethod assemblyMethod : assemblyMethods)
 		{
-			String asmSignature = assemblyMethod.getAssemblyMethodSignature();
-
-			MemberSignatureParts msp = null;
-
-			IMetaMember currentMember = null;
+			IMetaMember currentMember = findMember(assemblyMethod.getAssemblyMethodSignature(), packageManager);
 
-			try
+			if (currentMember != null)
 			{
-				msp = MemberSignatureParts.fromAssembly(asmSignature);
+				currentMember.addAssembly(assemblyMethod);
 
 				if (DEBUG_LOGGING_ASSEMBLY)
 				{
-					logger.debug("Parsed assembly sig\n{}\nfrom {}", msp, asmSignature);
+					logger.debug("Set assembly on member {} {}", currentMember, assemblyMethod.toString());
 				}
+			}
+		}
 
-				MetaClass metaClass = packageManager.getMetaClass(msp.getFullyQualifiedClassName());
+		for (AssemblyIndexEntry entry : indexEntries)
+		{
+			IMetaMember currentMember = findMember(entry.getAssemblyMethodSignature(), packageManager);
 
-				if (metaClass != null)
+			if (currentMember != null)
+			{
+				Compilation compilation = currentMember.getCompilationByAddress(entry.getEntryAddress(), entry.getNativeAddress());
+
+				if (compilation != null)
 				{
-					currentMember = metaClass.getMemberForSignature(msp);
+					compilation.setAssemblyOffsets(entry.getLogStartOffset(), entry.getLogEndOffset());
+					compilation.setDetailLoader(detailLoader);
 				}
 				else
 				{
-					if (DEBUG_LOGGING)
-					{
-						logger.debug("No MetaClass found for {}", msp.getFullyQualifiedClassName());
-					}
+					logger.warn("{} Didn't find compilation to attach assembly for nativeAddress:{} or entryAddress:{}",
+							currentMember.getFullyQualifiedMemberName(), entry.getNativeAddress(), entry.getEntryAddress());
 				}
 			}
-			catch (LogParseException e)
-			{
-				logger.error("Could not parse MSP from line: {}", asmSignature, e);
-			}
+		}
+	}
 
-			if (currentMember != null)
+	private IMetaMember findMember(String asmSignature, PackageManager packageManager)
+	{
+		MemberSignatureParts msp = null;
+
+		IMetaMember currentMember = null;
+
+		try
+		{
+			msp = MemberSignatureParts.fromAssembly(asmSignature);
+
+			if (DEBUG_LOGGING_ASSEMBLY)
 			{
-				if (DEBUG_LOGGING_ASSEMBLY)
-				{
-					logger.debug("Found member {}", currentMember);
-				}
+				logger.debug("Parsed assembly sig\n{}\nfrom {}", msp, asmSignature);
+			}
 
-				currentMember.addAssembly(assemblyMethod);
+			MetaClass metaClass = packageManager.getMetaClass(msp.getFullyQualifiedClassName());
 
-				if (DEBUG_LOGGING_ASSEMBLY)
-				{
-					logger.debug("Set assembly on member {} {}", currentMember, assemblyMethod.toString());
-				}
+			if (metaClass != null)
+			{
+				currentMember = metaClass.getMemberForSignature(msp);
 			}
 			else
 			{
-				if (DEBUG_LOGGING_ASSEMBLY)
+				if (DEBUG_LOGGING)
 				{
-					logger.debug("Didn't find member for\n{}", msp);
+					logger.debug("No MetaClass found for {}", msp.getFullyQualifiedClassName());
 				}
 			}
 		}
+		catch (LogParseException e)
+		{
+			logger.error("Could not parse MSP from line: {}", asmSignature, e);
+		}
+
+		if (currentMember != null)
+		{
+			if (DEBUG_LOGGING_ASSEMBLY)
+			{
+				logger.debug("Found member {}", currentMember);
+			}
+		}
+		else
+		{
+			if (DEBUG_LOGGING_ASSEMBLY)
+			{
+				logger.debug("Didn't find member for\n{}", msp);
+			}
+		}
+
+		return currentMember;
 	}
 }
@@ -18,6 +18,11 @@ public class BCParamConstant implements IBytecodeParam
 		
 		value = Integer.parseInt(constant);
 	}
+
+	public BCParamConstant(int value)
+	{
+		this.value = value;
+	}
 	
 	@Override
 	public String toString()
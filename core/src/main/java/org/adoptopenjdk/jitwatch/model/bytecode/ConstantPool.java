@@ -5,7 +5,58 @@
  */
 package org.adoptopenjdk.jitwatch.model.bytecode;
 
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.S_NEWLINE;
+
+/**
+ * Constant pool entries by index with the type and value shown the way javap
+ * comments them, e.g. Method java/lang/Object."<init>":()V
+ * Index 0 and the slot after a long or double are unused and hold null.
+ */
 public class ConstantPool
 {
+	private final String[] types;
+	private final String[] values;
+
+	public ConstantPool(int count)
+	{
+		types = new String[count];
+		values = new String[count];
+	}
+
+	public void set(int index, String type, String value)
+	{
+		types[index] = type;
+		values[index] = value;
+	}
+
+	public int getCount()
+	{
+		return types.length;
+	}
+
+	public String getType(int index)
+	{
+		return (index > 0 && index < types.length) ? types[index] : null;
+	}
+
+	public String getValue(int index)
+	{
+		return (index > 0 && index < values.length) ? values[index] : null;
+	}
+
+	@Override
+	public String toString()
+	{
+		StringBuilder builder = new StringBuilder();
+
+		for (int i = 1; i < types.length; i++)
+		{
+			if (types[i] != null)
+			{
+				builder.append('#').append(i).append(" = ").append(types[i]).append(' ').append(values[i]).append(S_NEWLINE);
+			}
+		}
 
-}
\ No newline at end of file
+		return builder.toString();
+	}
+}
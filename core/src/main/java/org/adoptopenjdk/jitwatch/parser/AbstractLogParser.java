@@ -21,8 +21,12 @@ import java.net.MalformedURLException;
 import java.net.URI;
 import java.net.URL;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.*;
 
@@ -36,7 +40,10 @@ public abstract class AbstractLogParser implements ILogParser
 
 	protected String vmCommand = null;
 
-	protected boolean reading = false;
+	// cleared by stopParsing from another thread
+	protected volatile boolean reading = false;
+
+	private volatile boolean stopped = false;
 
 	protected boolean hasParseError = false;
 	protected String errorDialogTitle;
@@ -58,6 +65,53 @@ public abstract class AbstractLogParser implements ILogParser
 
 	protected SplitLog splitLog = new SplitLog();
 
+	// byte range in the log of the top-level tag being handled, -1 when the
+	// log was not read from a file
+	protected long tagStartOffset = -1;
+	protected long tagEndOffset = -1;
+
+	// set when the log is a file that task trees can be read back from, the
+	// compilations then keep only the byte range of their task
+	protected ICompilationDetailLoader detailLoader = null;
+
+	private static final int SIGNATURE_CACHE_SIZE = 16384;
+
+	// the same method attribute appears on the task_queued, nmethod and task
+	// of every compilation so remember the member each one resolved to
+	private Map<String, IMetaMember> signatureCache = new LinkedHashMap<String, IMetaMember>(1024, 0.75f, true)
+	{
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<String, IMetaMember> eldest)
+		{
+			return size() > SIGNATURE_CACHE_SIZE;
+		}
+	};
+
+	private long signatureCacheHits;
+	private long signatureCacheMisses;
+	private long unresolvedSignatures;
+
+	protected ParseStats parseStats = new ParseStats();
+
+	protected PackageFilter packageFilter = PackageFilter.NONE;
+
+	protected StampWindow stampWindow = StampWindow.ALL;
+
+	// kept across resets, checked against each file before it is used
+	protected IStampIndex stampIndex;
+
+	// compilations queued inside the stamp window whose task is still to come
+	private Set<String> windowCompileIDs = new HashSet<>();
+
+	// nmethod stamps of filtered out compilations by compile_id, for the
+	// compile time of their tasks
+	private Map<String, Long> filteredNMethodStamps = new HashMap<>();
+
+	private ParseStats.Phase progressPhase;
+	private int progressPercent;
+
 	public AbstractLogParser(IJITListener jitListener)
 	{
 		model = new JITDataModel();
@@ -198,22 +252,121 @@ public abstract class AbstractLogParser implements ILogParser
 		parseLineNumber = 0;
 		processLineNumber = 0;
 
+		tagStartOffset = -1;
+		tagEndOffset = -1;
+
+		detailLoader = null;
+
+		packageFilter = config.getPackageFilter();
+
 		tagProcessor = new TagProcessor();
+		tagProcessor.setPackageFilter(packageFilter);
+
+		stampWindow = config.getStampWindow();
+
+		tagProcessor.setStampWindow(stampWindow);
+
+		filteredNMethodStamps.clear();
+
+		windowCompileIDs.clear();
+
+		signatureCache.clear();
+		signatureCacheHits = 0;
+		signatureCacheMisses = 0;
+		unresolvedSignatures = 0;
+
+		parseStats = new ParseStats();
+
+		stopped = false;
+
+		progressPhase = null;
+		progressPercent = -1;
+	}
+
+	@Override
+	public void setStampIndex(IStampIndex stampIndex)
+	{
+		this.stampIndex = stampIndex;
 	}
 
 	@Override
 	public void stopParsing()
 	{
+		if (reading)
+		{
+			stopped = true;
+		}
+
 		reading = false;
 	}
 
+	@Override
+	public boolean isStopped()
+	{
+		return stopped;
+	}
+
+	protected void updateProgress(ParseStats.Phase phase, long done, long total)
+	{
+		if (total > 0)
+		{
+			int percent = (int) (Math.min(done, total) * 100 / total);
+
+			if (phase != progressPhase || percent != progressPercent)
+			{
+				progressPhase = phase;
+				progressPercent = percent;
+
+				jitListener.handleReadProgress(phase, percent / 100d);
+			}
+		}
+	}
+
+	/**
+	 * Progress through the lines of a phase by their byte range in the log,
+	 * or by line count when the log was not read from a file
+	 */
+	protected void updateProgress(ParseStats.Phase phase, List<NumberedLine> lines, int index)
+	{
+		long firstOffset = lines.get(0).getOffset();
+		long lastEndOffset = lines.get(lines.size() - 1).getEndOffset();
+
+		long endOffset = lines.get(index).getEndOffset();
+
+		if (firstOffset != -1 && endOffset != -1 && lastEndOffset > firstOffset)
+		{
+			updateProgress(phase, endOffset - firstOffset, lastEndOffset - firstOffset);
+		}
+		else
+		{
+			updateProgress(phase, index + 1, lines.size());
+		}
+	}
+
 	public IMetaMember findMemberWithSignature(String logSignature)
 	{
-		IMetaMember result = null;
+		IMetaMember result = signatureCache.get(logSignature);
+
+		if (result != null)
+		{
+			signatureCacheHits++;
+			return result;
+		}
+
+		signatureCacheMisses++;
 
 		try
 		{
 			result = ParseUtil.findMemberWithSignature(model, logSignature);
+
+			if (result != null)
+			{
+				signatureCache.put(logSignature, result);
+			}
+			else
+			{
+				unresolvedSignatures++;
+			}
 		}
 		catch (LogParseException ex)
 		{
@@ -224,11 +377,29 @@ public abstract class AbstractLogParser implements ILogParser
 			}
 
 			logError("Could not parse line " + processLineNumber + " : " + logSignature + " : " + ex.getMessage());
+
+			unresolvedSignatures++;
 		}
 
 		return result;
 	}
 
+	public long getSignatureCacheHits()
+	{
+		return signatureCacheHits;
+	}
+
+	public long getSignatureCacheMisses()
+	{
+		return signatureCacheMisses;
+	}
+
+	@Override
+	public ParseStats getParseStats()
+	{
+		return parseStats;
+	}
+
 	@Override
 	public boolean hasParseError()
 	{
@@ -275,6 +446,19 @@ public abstract class AbstractLogParser implements ILogParser
 
 	@Override
 	public void processLogFile(Reader logFileReader, ILogParseErrorListener errorListener)
+	{
+		startParse(errorListener);
+
+		parseStats.startPhase(ParseStats.Phase.SPLIT);
+
+		splitLogFile(logFileReader);
+
+		parseStats.endPhase(ParseStats.Phase.SPLIT);
+
+		completeParse();
+	}
+
+	protected void startParse(ILogParseErrorListener errorListener)
 	{
 		reset();
 
@@ -285,8 +469,11 @@ public abstract class AbstractLogParser implements ILogParser
 
 		this.errorListener = errorListener;
 
-		splitLogFile(logFileReader);
+		parseStats.startParse();
+	}
 
+	protected void completeParse()
+	{
 		if (DEBUG_LOGGING)
 		{
 			logSplitStats();
@@ -294,9 +481,86 @@ public abstract class AbstractLogParser implements ILogParser
 
 		parseLogFile();
 
+		if (DEBUG_LOGGING)
+		{
+			logger.debug("Signature cache hits: {} misses: {}", signatureCacheHits, signatureCacheMisses);
+		}
+
+		publishParseStats();
+
 		jitListener.handleReadComplete();
 	}
 
+	protected void publishParseStats()
+	{
+		parseStats.completeParse();
+
+		parseStats.addTagsCreated(tagProcessor.getTagsCreated());
+
+		parseStats.setSignatureLookups(signatureCacheHits, signatureCacheMisses, unresolvedSignatures);
+
+		parseStats.countRetained(model, splitLog);
+
+		jitListener.handleParseStats(parseStats);
+	}
+
+	/**
+	 * A compilation is kept when its task_queued is stamped inside the
+	 * window. Its nmethod follows that decision and its task is kept only if
+	 * it also started inside the window, as the TagProcessor has already
+	 * dropped the children of tasks outside it.
+	 */
+	protected boolean isInStampWindow(Tag tag)
+	{
+		if (stampWindow.isUnbounded())
+		{
+			return true;
+		}
+
+		Map<String, String> attrs = tag.getAttributes();
+
+		boolean result;
+
+		switch (tag.getName())
+		{
+		case TAG_TASK_QUEUED:
+			result = stampWindow.containsStamp(attrs.get(ATTR_STAMP));
+
+			if (result)
+			{
+				windowCompileIDs.add(attrs.get(ATTR_COMPILE_ID));
+			}
+			break;
+
+		case TAG_NMETHOD:
+			// native wrappers are not queued
+			if (C2N.equalsIgnoreCase(attrs.get(ATTR_COMPILE_KIND)))
+			{
+				result = stampWindow.containsStamp(attrs.get(ATTR_STAMP));
+			}
+			else
+			{
+				result = windowCompileIDs.contains(attrs.get(ATTR_COMPILE_ID));
+			}
+			break;
+
+		case TAG_TASK:
+			result = windowCompileIDs.remove(attrs.get(ATTR_COMPILE_ID)) && stampWindow.containsStamp(attrs.get(ATTR_STAMP));
+			break;
+
+		case TAG_SWEEPER:
+		case TAG_CODE_CACHE_FULL:
+			result = stampWindow.containsStamp(attrs.get(ATTR_STAMP));
+			break;
+
+		default:
+			result = true;
+			break;
+		}
+
+		return result;
+	}
+
 	protected void handleTagQueued(Tag tag)
 	{
 		handleMethodLine(tag, EventType.QUEUE);
@@ -308,8 +572,6 @@ public abstract class AbstractLogParser implements ILogParser
 
 		String attrCompiler = tagAttributes.get(ATTR_COMPILER);
 
-		renameCompilationCompletedTimestamp(tag);
-
 		if (attrCompiler != null && attrCompiler.length() > 0)
 		{
 			if (C1.equalsIgnoreCase(attrCompiler))
@@ -406,9 +668,46 @@ public abstract class AbstractLogParser implements ILogParser
 
 		if (attrMethod != null)
 		{
-			attrMethod = attrMethod.replace(S_SLASH, S_DOT);
+			if (packageFilter.acceptsMethod(attrMethod))
+			{
+				attrMethod = attrMethod.replace(S_SLASH, S_DOT);
 
-			handleMember(attrMethod, attrs, eventType, tag);
+				handleMember(attrMethod, attrs, eventType, tag);
+			}
+			else
+			{
+				handleFilteredMember(attrs, eventType);
+			}
+		}
+	}
+
+	// the member is left out of the model but its compilation still counts
+	private void handleFilteredMember(Map<String, String> attrs, EventType type)
+	{
+		switch (type)
+		{
+		case QUEUE:
+			break;
+		case NMETHOD_C2N:
+			// native wrappers have no task to take the stamp, keeping it would
+			// grow the map for as long as a tailed log is followed
+			break;
+		case TASK:
+		{
+			Long stampNMethod = filteredNMethodStamps.remove(attrs.get(ATTR_COMPILE_ID));
+
+			long compilationDuration = (stampNMethod != null) ? stampNMethod - ParseUtil.getStamp(attrs) : 0;
+
+			model.updateCompilationStats(attrs, compilationDuration);
+
+			parseStats.addFilteredCompilation();
+
+			currentMember = null;
+		}
+			break;
+		default:
+			filteredNMethodStamps.put(attrs.get(ATTR_COMPILE_ID), ParseUtil.getStamp(attrs));
+			break;
 		}
 	}
 
@@ -434,7 +733,7 @@ public abstract class AbstractLogParser implements ILogParser
 	{
 		member.setCompiled(true);
 
-		String compileID = tagNMethod.getAttributes().get(ATTR_COMPILE_ID);
+		String compileID = tagNMethod.getAttribute(ATTR_COMPILE_ID);
 
 		Compilation compilation = member.getCompilationByCompileID(compileID);
 
@@ -445,7 +744,7 @@ public abstract class AbstractLogParser implements ILogParser
 		else
 		{
 			// check if C2N stub
-			String compileKind = tagNMethod.getAttributes().get(ATTR_COMPILE_KIND);
+			String compileKind = tagNMethod.getAttribute(ATTR_COMPILE_KIND);
 
 			if (C2N.equalsIgnoreCase(compileKind))
 			{
@@ -466,13 +765,23 @@ public abstract class AbstractLogParser implements ILogParser
 
 	protected void setTagTask(Task tagTask, IMetaMember member)
 	{
-		String compileID = tagTask.getAttributes().get(ATTR_COMPILE_ID);
+		String compileID = tagTask.getAttribute(ATTR_COMPILE_ID);
 
 		Compilation compilation = member.getCompilationByCompileID(compileID);
 
 		if (compilation != null)
 		{
-			compilation.setTagTask(tagTask);
+			compilation.setTaskOffsets(tagStartOffset, tagEndOffset);
+
+			if (detailLoader != null && tagStartOffset != -1 && tagEndOffset != -1)
+			{
+				compilation.setTaskSummary(tagTask);
+				compilation.setDetailLoader(detailLoader);
+			}
+			else
+			{
+				compilation.setTagTask(tagTask);
+			}
 
 			if (currentCompilerThread != null)
 			{
@@ -582,7 +891,7 @@ public abstract class AbstractLogParser implements ILogParser
 
 			if (TAG_TASK.equals(parent.getName()))
 			{
-				compileID = parent.getAttributes().get(ATTR_COMPILE_ID);
+				compileID = parent.getAttribute(ATTR_COMPILE_ID);
 
 				if (compileID != null)
 				{
@@ -604,17 +913,6 @@ public abstract class AbstractLogParser implements ILogParser
 		}
 	}
 
-	private void renameCompilationCompletedTimestamp(Tag tag)
-	{
-		String compilationCompletedStamp = tag.getAttributes().get(ATTR_STAMP);
-
-		if (compilationCompletedStamp != null)
-		{
-			tag.getAttributes().remove(ATTR_STAMP);
-			tag.getAttributes().put(ATTR_STAMP_COMPLETED, compilationCompletedStamp);
-		}
-	}
-
 	protected abstract void parseLogFile();
 
 	protected abstract void splitLogFile(Reader logFileReader);
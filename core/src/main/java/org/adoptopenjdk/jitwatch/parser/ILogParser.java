@@ -29,6 +29,12 @@ public interface ILogParser
 
 	void stopParsing();
 
+	/**
+	 * @return true if stopParsing was called during the last parse, the model
+	 *         then holds only what had been parsed by that point
+	 */
+	boolean isStopped();
+
 	ParsedClasspath getParsedClasspath();
 
 	JITDataModel getModel();
@@ -42,4 +48,17 @@ public interface ILogParser
 	String getVMCommand();
 
 	void discardParsedLogs();
+
+	/**
+	 * Timings and counts of the last parse, complete once the listener has
+	 * been sent handleReadComplete
+	 */
+	ParseStats getParseStats();
+
+	/**
+	 * Lets a parse limited to the configured stamp window seek past the parts
+	 * of the log the index knows to be outside it. An index built from a
+	 * different file is ignored.
+	 */
+	void setStampIndex(IStampIndex stampIndex);
 }
\ No newline at end of file
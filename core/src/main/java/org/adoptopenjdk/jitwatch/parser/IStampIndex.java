@@ -0,0 +1,30 @@
+package org.adoptopenjdk.jitwatch.parser;
+
+import java.io.File;
+
+/**
+ * Knows which parts of a log hold only tags stamped outside a stamp window,
+ * so a parse limited to the window can seek past them. The skippable ranges
+ * start and end on line boundaries and hold no header or class loading
+ * lines.
+ */
+public interface IStampIndex
+{
+	/**
+	 * @return true if the index was built from the current contents of the
+	 *         file
+	 */
+	boolean isIndexOf(File logFile);
+
+	/**
+	 * @return the start of the first skippable range at or after the offset,
+	 *         -1 when there are no more
+	 */
+	long findSkipStart(long offset, StampWindow window);
+
+	/**
+	 * @return the end of the skippable range found by findSkipStart, where
+	 *         reading resumes
+	 */
+	long findSkipEnd(long skipStart, StampWindow window);
+}
@@ -0,0 +1,160 @@
+package org.adoptopenjdk.jitwatch.parser;
+
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.C_DOT;
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.C_SLASH;
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.C_SPACE;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Decides from the class name of a compiled method whether the parser keeps
+ * its compilation. A pattern is a package or class name such as io.netty or
+ * com.fasterxml.jackson.*, it matches that name and everything below it.
+ * With no include patterns every class is included, an exclude pattern wins
+ * over an include pattern.
+ */
+public class PackageFilter
+{
+	public static final PackageFilter NONE = new PackageFilter(Collections.<String> emptyList(),
+			Collections.<String> emptyList());
+
+	private final String[] includes;
+	private final String[] excludes;
+
+	public PackageFilter(List<String> includes, List<String> excludes)
+	{
+		this.includes = normalise(includes);
+		this.excludes = normalise(excludes);
+	}
+
+	private static String[] normalise(List<String> patterns)
+	{
+		List<String> result = new ArrayList<>();
+
+		for (String pattern : patterns)
+		{
+			String normalised = pattern.trim().replace(C_SLASH, C_DOT);
+
+			if (normalised.endsWith("*"))
+			{
+				normalised = normalised.substring(0, normalised.length() - 1);
+			}
+
+			if (normalised.endsWith("."))
+			{
+				normalised = normalised.substring(0, normalised.length() - 1);
+			}
+
+			if (!normalised.isEmpty())
+			{
+				result.add(normalised);
+			}
+		}
+
+		return result.toArray(new String[result.size()]);
+	}
+
+	public boolean isEmpty()
+	{
+		return includes.length == 0 && excludes.length == 0;
+	}
+
+	/**
+	 * @param className
+	 *            a class name with . or / separators
+	 */
+	public boolean acceptsClass(String className)
+	{
+		return accepts(className, className.length());
+	}
+
+	/**
+	 * @param logMethod
+	 *            the method attribute of a task_queued, nmethod or task tag,
+	 *            for example java/lang/String indexOf (II)I
+	 */
+	public boolean acceptsMethod(String logMethod)
+	{
+		if (logMethod == null || isEmpty())
+		{
+			return true;
+		}
+
+		int classEnd = logMethod.indexOf(C_SPACE);
+
+		return accepts(logMethod, (classEnd == -1) ? logMethod.length() : classEnd);
+	}
+
+	private boolean accepts(String name, int nameLength)
+	{
+		if (isEmpty())
+		{
+			return true;
+		}
+
+		boolean result = includes.length == 0 || matchesAny(includes, name, nameLength);
+
+		if (result)
+		{
+			result = !matchesAny(excludes, name, nameLength);
+		}
+
+		return result;
+	}
+
+	private static boolean matchesAny(String[] patterns, String name, int nameLength)
+	{
+		for (String pattern : patterns)
+		{
+			if (matches(pattern, name, nameLength))
+			{
+				return true;
+			}
+		}
+
+		return false;
+	}
+
+	// compares without building the dotted name, / and . are equal
+	private static boolean matches(String pattern, String name, int nameLength)
+	{
+		int patternLength = pattern.length();
+
+		if (nameLength < patternLength)
+		{
+			return false;
+		}
+
+		for (int i = 0; i < patternLength; i++)
+		{
+			char c = name.charAt(i);
+
+			if (c == C_SLASH)
+			{
+				c = C_DOT;
+			}
+
+			if (c != pattern.charAt(i))
+			{
+				return false;
+			}
+		}
+
+		if (nameLength == patternLength)
+		{
+			return true;
+		}
+
+		char next = name.charAt(patternLength);
+
+		return next == C_DOT || next == C_SLASH;
+	}
+
+	@Override
+	public String toString()
+	{
+		return "include " + String.join(",", includes) + " exclude " + String.join(",", excludes);
+	}
+}
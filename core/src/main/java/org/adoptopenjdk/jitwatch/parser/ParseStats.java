@@ -0,0 +1,450 @@
+package org.adoptopenjdk.jitwatch.parser;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.adoptopenjdk.jitwatch.model.Compilation;
+import org.adoptopenjdk.jitwatch.model.IMetaMember;
+import org.adoptopenjdk.jitwatch.model.IReadOnlyJITDataModel;
+import org.adoptopenjdk.jitwatch.model.MetaClass;
+import org.adoptopenjdk.jitwatch.model.MetaPackage;
+import org.adoptopenjdk.jitwatch.model.SplitLog;
+import org.adoptopenjdk.jitwatch.util.StringUtil;
+
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.S_NEWLINE;
+
+/**
+ * Where the time of a log load went and what it left in memory. CPU times
+ * are those of the thread that drives the parse, work handed to the parser
+ * and assembly pools only shows in the wall times.
+ */
+public class ParseStats
+{
+	public enum Phase
+	{
+		// in streaming mode the tags are handled as the lines are split
+		SPLIT("Split log"),
+		SNAPSHOT("Load snapshot"),
+		HEADER("Header"),
+		CLASSPATH("Classpath"),
+		CLASS_MODEL("Class model"),
+		COMPILATIONS("Compilations"),
+		ASSEMBLY("Assembly"),
+		// built by the listener once the model is complete
+		REPORTS("Reports");
+
+		private final String displayName;
+
+		Phase(String displayName)
+		{
+			this.displayName = displayName;
+		}
+
+		public String getDisplayName()
+		{
+			return displayName;
+		}
+	}
+
+	private static final ThreadMXBean THREAD_BEAN = ManagementFactory.getThreadMXBean();
+
+	private static final int PHASE_COUNT = Phase.values().length;
+
+	private final long[] wallNanos = new long[PHASE_COUNT];
+	private final long[] cpuNanos = new long[PHASE_COUNT];
+
+	private final long[] wallStart = new long[PHASE_COUNT];
+	private final long[] cpuStart = new long[PHASE_COUNT];
+
+	private long parseWallStart;
+	private long parseCpuStart;
+
+	private long totalWallNanos;
+	private long totalCpuNanos;
+
+	private long lines;
+	private long bytes;
+
+	private long tagsCreated;
+
+	private long filteredCompilations;
+
+	// by tag name, the tags are dropped so only their number is kept
+	private final Map<String, Long> outsideWindow = new TreeMap<>();
+
+	private long skippedBytes;
+
+	private long signatureCacheHits;
+	private long signatureCacheMisses;
+	private long unresolvedSignatures;
+
+	private long retainedLines;
+	private long classes;
+	private long members;
+	private long compilations;
+	private long retainedTasks;
+	private long events;
+	private long codeCacheEvents;
+
+	public void startParse()
+	{
+		parseWallStart = System.nanoTime();
+		parseCpuStart = getThreadCpuNanos();
+	}
+
+	public void completeParse()
+	{
+		totalWallNanos = System.nanoTime() - parseWallStart;
+
+		long cpuEnd = getThreadCpuNanos();
+
+		totalCpuNanos = (cpuEnd == -1 || parseCpuStart == -1) ? -1 : cpuEnd - parseCpuStart;
+	}
+
+	public void startPhase(Phase phase)
+	{
+		int index = phase.ordinal();
+
+		wallStart[index] = System.nanoTime();
+		cpuStart[index] = getThreadCpuNanos();
+	}
+
+	/**
+	 * Adds the time since the matching startPhase, a phase entered more than
+	 * once is reported as the sum
+	 */
+	public void endPhase(Phase phase)
+	{
+		int index = phase.ordinal();
+
+		wallNanos[index] += System.nanoTime() - wallStart[index];
+
+		long cpuEnd = getThreadCpuNanos();
+
+		if (cpuEnd == -1 || cpuStart[index] == -1)
+		{
+			cpuNanos[index] = -1;
+		}
+		else if (cpuNanos[index] != -1)
+		{
+			cpuNanos[index] += cpuEnd - cpuStart[index];
+		}
+	}
+
+	private static long getThreadCpuNanos()
+	{
+		long result = -1;
+
+		if (THREAD_BEAN.isCurrentThreadCpuTimeSupported() && THREAD_BEAN.isThreadCpuTimeEnabled())
+		{
+			result = THREAD_BEAN.getCurrentThreadCpuTime();
+		}
+
+		return result;
+	}
+
+	/**
+	 * @param length
+	 *            characters in the line without its terminator, the same as
+	 *            bytes for the ASCII logs the VMs write
+	 */
+	public void addLine(int length)
+	{
+		lines++;
+		bytes += length + 1;
+	}
+
+	public void addTagsCreated(long count)
+	{
+		tagsCreated += count;
+	}
+
+	public void addFilteredCompilation()
+	{
+		filteredCompilations++;
+	}
+
+	public void addOutsideWindow(String tagName)
+	{
+		outsideWindow.merge(tagName, 1L, Long::sum);
+	}
+
+	public void addSkippedBytes(long count)
+	{
+		skippedBytes += count;
+	}
+
+	public void setSignatureLookups(long hits, long misses, long unresolved)
+	{
+		signatureCacheHits = hits;
+		signatureCacheMisses = misses;
+		unresolvedSignatures = unresolved;
+	}
+
+	public void countRetained(IReadOnlyJITDataModel model, SplitLog splitLog)
+	{
+		retainedLines = splitLog.getHeaderLines().size() + splitLog.getClassLoaderLines().size()
+				+ splitLog.getCompilationLines().size() + splitLog.getAssemblyLines().size();
+
+		classes = 0;
+		members = 0;
+		compilations = 0;
+		retainedTasks = 0;
+
+		for (MetaPackage metaPackage : model.getPackageManager().getRootPackages())
+		{
+			countPackage(metaPackage);
+		}
+
+		events = model.getEventListCopy().size();
+		codeCacheEvents = model.getCodeCacheEvents().size();
+	}
+
+	private void countPackage(MetaPackage metaPackage)
+	{
+		for (MetaPackage childPackage : metaPackage.getChildPackages())
+		{
+			countPackage(childPackage);
+		}
+
+		for (MetaClass metaClass : metaPackage.getPackageClasses())
+		{
+			classes++;
+
+			for (IMetaMember member : metaClass.getMetaMembers())
+			{
+				members++;
+
+				List<Compilation> memberCompilations = member.getCompilations();
+
+				compilations += memberCompilations.size();
+
+				for (Compilation compilation : memberCompilations)
+				{
+					if (compilation.isTaskRetained())
+					{
+						retainedTasks++;
+					}
+				}
+			}
+		}
+	}
+
+	public long getWallNanos(Phase phase)
+	{
+		return wallNanos[phase.ordinal()];
+	}
+
+	/**
+	 * @return -1 when the JVM does not measure thread CPU time
+	 */
+	public long getCpuNanos(Phase phase)
+	{
+		return cpuNanos[phase.ordinal()];
+	}
+
+	public long getTotalWallNanos()
+	{
+		return totalWallNanos;
+	}
+
+	public long getTotalCpuNanos()
+	{
+		return totalCpuNanos;
+	}
+
+	public long getLines()
+	{
+		return lines;
+	}
+
+	public long getBytes()
+	{
+		return bytes;
+	}
+
+	public long getLinesPerSecond()
+	{
+		return perSecond(lines);
+	}
+
+	public long getBytesPerSecond()
+	{
+		return perSecond(bytes);
+	}
+
+	private long perSecond(long count)
+	{
+		return (totalWallNanos == 0) ? 0 : (long) (count * 1_000_000_000d / totalWallNanos);
+	}
+
+	public long getTagsCreated()
+	{
+		return tagsCreated;
+	}
+
+	public long getFilteredCompilations()
+	{
+		return filteredCompilations;
+	}
+
+	/**
+	 * @return the number of tags stamped outside the stamp window by tag name
+	 */
+	public Map<String, Long> getOutsideWindow()
+	{
+		return Collections.unmodifiableMap(outsideWindow);
+	}
+
+	public long getOutsideWindowTotal()
+	{
+		long total = 0;
+
+		for (long count : outsideWindow.values())
+		{
+			total += count;
+		}
+
+		return total;
+	}
+
+	/**
+	 * @return bytes of the log a stamp index let the parse seek past
+	 */
+	public long getSkippedBytes()
+	{
+		return skippedBytes;
+	}
+
+	public long getSignatureCacheHits()
+	{
+		return signatureCacheHits;
+	}
+
+	public long getSignatureCacheMisses()
+	{
+		return signatureCacheMisses;
+	}
+
+	public long getUnresolvedSignatures()
+	{
+		return unresolvedSignatures;
+	}
+
+	public long getRetainedLines()
+	{
+		return retainedLines;
+	}
+
+	public long getClasses()
+	{
+		return classes;
+	}
+
+	public long getMembers()
+	{
+		return members;
+	}
+
+	public long getCompilations()
+	{
+		return compilations;
+	}
+
+	public long getRetainedTasks()
+	{
+		return retainedTasks;
+	}
+
+	public long getEvents()
+	{
+		return events;
+	}
+
+	public long getCodeCacheEvents()
+	{
+		return codeCacheEvents;
+	}
+
+	private static String formatMillis(long nanos)
+	{
+		return (nanos == -1) ? "n/a" : StringUtil.formatThousands(Long.toString(nanos / 1_000_000)) + "ms";
+	}
+
+	private static String formatCount(long count)
+	{
+		return StringUtil.formatThousands(Long.toString(count));
+	}
+
+	private static void appendRow(StringBuilder builder, String name, String value)
+	{
+		builder.append(StringUtil.alignLeft(name, 24)).append(value).append(S_NEWLINE);
+	}
+
+	@Override
+	public String toString()
+	{
+		StringBuilder builder = new StringBuilder();
+
+		builder.append(StringUtil.alignLeft("Phase", 24));
+		builder.append(StringUtil.alignRight("Wall", 12));
+		builder.append(StringUtil.alignRight("CPU", 12));
+		builder.append(S_NEWLINE);
+
+		for (Phase phase : Phase.values())
+		{
+			if (wallNanos[phase.ordinal()] > 0)
+			{
+				builder.append(StringUtil.alignLeft(phase.getDisplayName(), 24));
+				builder.append(StringUtil.alignRight(formatMillis(getWallNanos(phase)), 12));
+				builder.append(StringUtil.alignRight(formatMillis(getCpuNanos(phase)), 12));
+				builder.append(S_NEWLINE);
+			}
+		}
+
+		builder.append(StringUtil.alignLeft("Total parse", 24));
+		builder.append(StringUtil.alignRight(formatMillis(totalWallNanos), 12));
+		builder.append(StringUtil.alignRight(formatMillis(totalCpuNanos), 12));
+		builder.append(S_NEWLINE).append(S_NEWLINE);
+
+		appendRow(builder, "Lines", formatCount(lines) + " (" + formatCount(getLinesPerSecond()) + "/s)");
+		appendRow(builder, "Bytes", formatCount(bytes) + " (" + formatCount(getBytesPerSecond() / 1024) + "KB/s)");
+		appendRow(builder, "Tags created", formatCount(tagsCreated));
+
+		if (skippedBytes > 0)
+		{
+			appendRow(builder, "Bytes skipped by index", formatCount(skippedBytes));
+		}
+
+		appendRow(builder, "Signature cache hits", formatCount(signatureCacheHits));
+		appendRow(builder, "Signature cache misses", formatCount(signatureCacheMisses));
+		appendRow(builder, "Unresolved signatures", formatCount(unresolvedSignatures));
+		builder.append(S_NEWLINE);
+
+		appendRow(builder, "Retained lines", formatCount(retainedLines));
+		appendRow(builder, "Classes", formatCount(classes));
+		appendRow(builder, "Members", formatCount(members));
+		appendRow(builder, "Compilations", formatCount(compilations));
+		appendRow(builder, "Filtered compilations", formatCount(filteredCompilations));
+
+		if (!outsideWindow.isEmpty())
+		{
+			appendRow(builder, "Outside stamp window", formatCount(getOutsideWindowTotal()));
+
+			for (Map.Entry<String, Long> entry : outsideWindow.entrySet())
+			{
+				appendRow(builder, "  " + entry.getKey(), formatCount(entry.getValue()));
+			}
+		}
+
+		appendRow(builder, "Task trees in memory", formatCount(retainedTasks));
+		appendRow(builder, "Events", formatCount(events));
+		appendRow(builder, "Code cache events", formatCount(codeCacheEvents));
+
+		return builder.toString();
+	}
+}
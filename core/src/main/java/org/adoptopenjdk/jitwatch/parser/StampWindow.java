@@ -0,0 +1,160 @@
+package org.adoptopenjdk.jitwatch.parser;
+
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.C_COMMA;
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.S_COMMA;
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.S_EMPTY;
+
+import org.adoptopenjdk.jitwatch.util.ParseUtil;
+
+/**
+ * The range of log stamps a parse is limited to, in milliseconds from the
+ * start of the VM. Either end can be left open. Tags without a stamp are
+ * always inside the window.
+ */
+public class StampWindow
+{
+	public static final long OPEN = -1;
+
+	public static final StampWindow ALL = new StampWindow(OPEN, OPEN);
+
+	private final long startStamp;
+	private final long endStamp;
+
+	/**
+	 * @param startStamp
+	 *            first millisecond inside the window or OPEN
+	 * @param endStamp
+	 *            last millisecond inside the window or OPEN
+	 */
+	public StampWindow(long startStamp, long endStamp)
+	{
+		if (startStamp != OPEN && endStamp != OPEN && endStamp < startStamp)
+		{
+			throw new IllegalArgumentException("Window ends before it starts: " + startStamp + "ms > " + endStamp + "ms");
+		}
+
+		this.startStamp = startStamp;
+		this.endStamp = endStamp;
+	}
+
+	/**
+	 * @param text
+	 *            start and end in log stamp seconds separated by a comma, for
+	 *            example 2820,2880 or 2820, for no end
+	 */
+	public static StampWindow parse(String text)
+	{
+		StampWindow result = ALL;
+
+		if (text != null && !text.trim().isEmpty())
+		{
+			int commaIndex = text.indexOf(C_COMMA);
+
+			String start = (commaIndex == -1) ? text : text.substring(0, commaIndex);
+			String end = (commaIndex == -1) ? S_EMPTY : text.substring(commaIndex + 1);
+
+			result = new StampWindow(parseSeconds(start), parseSeconds(end));
+		}
+
+		return result;
+	}
+
+	private static long parseSeconds(String seconds)
+	{
+		String trimmed = seconds.trim();
+
+		return trimmed.isEmpty() ? OPEN : ParseUtil.parseStamp(trimmed);
+	}
+
+	public boolean isUnbounded()
+	{
+		return startStamp == OPEN && endStamp == OPEN;
+	}
+
+	public long getStartStamp()
+	{
+		return startStamp;
+	}
+
+	public long getEndStamp()
+	{
+		return endStamp;
+	}
+
+	public boolean contains(long stamp)
+	{
+		return (startStamp == OPEN || stamp >= startStamp) && (endStamp == OPEN || stamp <= endStamp);
+	}
+
+	/**
+	 * @param stamp
+	 *            the stamp attribute of a tag, in seconds
+	 */
+	public boolean containsStamp(String stamp)
+	{
+		return stamp == null || isUnbounded() || contains(toMillis(stamp));
+	}
+
+	// stamps are written as seconds with three decimals, the locale aware
+	// ParseUtil.parseStamp is only needed for anything else
+	private static long toMillis(String stamp)
+	{
+		long seconds = 0;
+		long millis = 0;
+		int decimals = -1;
+
+		int length = stamp.length();
+
+		for (int i = 0; i < length; i++)
+		{
+			char c = stamp.charAt(i);
+
+			if (c >= '0' && c <= '9')
+			{
+				if (decimals == -1)
+				{
+					seconds = seconds * 10 + (c - '0');
+				}
+				else if (decimals < 3)
+				{
+					millis = millis * 10 + (c - '0');
+					decimals++;
+				}
+			}
+			else if (c == '.' && decimals == -1)
+			{
+				decimals = 0;
+			}
+			else
+			{
+				return ParseUtil.parseStamp(stamp);
+			}
+		}
+
+		for (int i = Math.max(decimals, 0); i < 3; i++)
+		{
+			millis *= 10;
+		}
+
+		return seconds * 1000 + millis;
+	}
+
+	/**
+	 * @return the form read by parse()
+	 */
+	public String toText()
+	{
+		return isUnbounded() ? S_EMPTY : toSeconds(startStamp) + S_COMMA + toSeconds(endStamp);
+	}
+
+	private static String toSeconds(long stamp)
+	{
+		return (stamp == OPEN) ? S_EMPTY : Long.toString(stamp / 1000) + "." + String.format("%03d", stamp % 1000);
+	}
+
+	@Override
+	public String toString()
+	{
+		return isUnbounded() ? "all stamps" : "stamps " + toText();
+	}
+}
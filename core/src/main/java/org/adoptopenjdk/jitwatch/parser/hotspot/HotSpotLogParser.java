@@ -42,6 +42,7 @@ import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.TAG_HOTSPOT_LOG;
 import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.ATTR_TIME_MS;
 
 import java.io.BufferedReader;
+import java.io.File;
 import java.io.IOException;
 import java.io.Reader;
 import java.io.UnsupportedEncodingException;
@@ -49,25 +50,276 @@ import java.net.URLDecoder;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
 
 import org.adoptopenjdk.jitwatch.core.IJITListener;
 import org.adoptopenjdk.jitwatch.model.CodeCacheEvent.CodeCacheEventType;
+import org.adoptopenjdk.jitwatch.model.JITEvent;
 import org.adoptopenjdk.jitwatch.model.NumberedLine;
 import org.adoptopenjdk.jitwatch.model.Tag;
 import org.adoptopenjdk.jitwatch.model.Task;
 import org.adoptopenjdk.jitwatch.model.assembly.AssemblyProcessor;
 import org.adoptopenjdk.jitwatch.parser.AbstractLogParser;
+import org.adoptopenjdk.jitwatch.parser.ILogParseErrorListener;
+import org.adoptopenjdk.jitwatch.parser.IStampIndex;
+import org.adoptopenjdk.jitwatch.parser.ParseStats.Phase;
 import org.adoptopenjdk.jitwatch.util.ParseUtil;
 import org.adoptopenjdk.jitwatch.util.StringUtil;
 import org.adoptopenjdk.jitwatch.util.VmVersionDetector;
 
 public class HotSpotLogParser extends AbstractLogParser
 {
+    // how often a followed log is checked for new lines when none were read
+    private static final long TAIL_POLL_MILLIS = 200;
+
+    // the listener is told of new lines at most this often while following a log
+    private static final long TAIL_REFRESH_MILLIS = 1000;
+
+    // when streaming, lines are handed to the tag and assembly processors as they
+    // are read instead of being buffered in the SplitLog
+    private boolean streaming = false;
+
+    private AssemblyProcessor asmProcessor;
+
+    // when parsing in parallel, the top-level compilation tags are built on this pool
+    private ForkJoinPool parserPool;
+
+    // parses assembly that is not indexed, null when it is parsed inline
+    private ForkJoinPool assemblyPool;
+
+    // a streaming parse maps a small window so few lines are held at once
+    private static final int STREAMING_WINDOW_SIZE = 1024 * 1024;
+
+    // byte range of the line being split, -1 when not read from a file
+    private long lineOffset = -1;
+    private long lineEndOffset = -1;
+
     public HotSpotLogParser(IJITListener jitListener)
     {
         super(jitListener);
     }
 
+    @Override
+    public void processLogFile(File logFile, ILogParseErrorListener errorListener) throws IOException
+    {
+        // a snapshot holds the whole model so it is not used with a package filter or stamp window
+        ModelSnapshot snapshot = (config.isModelSnapshot() && config.getPackageFilter().isEmpty() && config.getStampWindow().isUnbounded())
+                ? new ModelSnapshot(logFile) : null;
+
+        if (snapshot != null && snapshot.isCurrent() && loadSnapshot(snapshot, logFile, errorListener))
+        {
+            return;
+        }
+
+        if (config.isLogIndex() && !config.getStampWindow().isUnbounded())
+        {
+            openLogIndex(logFile);
+        }
+
+        if (config.isParallelParse() && !config.isStreamingParse())
+        {
+            parserPool = new ForkJoinPool(config.getEffectiveParserThreads());
+        }
+
+        try
+        {
+            startParse(errorListener);
+
+            detailLoader = new LogRangeLoader(logFile, model);
+
+            parseStats.startPhase(Phase.SPLIT);
+
+            splitMappedLogFile(logFile);
+
+            parseStats.endPhase(Phase.SPLIT);
+
+            completeParse();
+        }
+        finally
+        {
+            if (parserPool != null)
+            {
+                parserPool.shutdown();
+                parserPool = null;
+            }
+        }
+
+        // a parse stopped part way through is not worth keeping
+        if (snapshot != null && reading)
+        {
+            writeSnapshot(snapshot);
+        }
+    }
+
+    // a parse without the index reads the whole log so a failure is only logged
+    private void openLogIndex(File logFile)
+    {
+        try
+        {
+            setStampIndex(LogIndex.openOrBuild(logFile));
+        }
+        catch (IOException ioe)
+        {
+            logger.error("Could not index {}", logFile, ioe);
+        }
+    }
+
+    private boolean loadSnapshot(ModelSnapshot snapshot, File logFile, ILogParseErrorListener errorListener)
+    {
+        startParse(errorListener);
+
+        parseStats.startPhase(Phase.SNAPSHOT);
+
+        try
+        {
+            snapshot.read(model, new LogRangeLoader(logFile, model));
+        }
+        catch (IOException ioe)
+        {
+            logger.warn("Could not load snapshot {}, parsing the log instead", snapshot.getSnapshotFile(), ioe);
+
+            return false;
+        }
+
+        parseStats.endPhase(Phase.SNAPSHOT);
+
+        vmCommand = snapshot.getVMCommand();
+
+        for (String location : snapshot.getClassLocations())
+        {
+            getParsedClasspath().addClassLocation(location);
+        }
+
+        for (JITEvent event : model.getEventListCopy())
+        {
+            logEvent(event);
+        }
+
+        jitListener.handleLogEntry("Loaded model snapshot " + snapshot.getSnapshotFile());
+
+        publishParseStats();
+
+        jitListener.handleReadComplete();
+
+        return true;
+    }
+
+    private void writeSnapshot(ModelSnapshot snapshot)
+    {
+        snapshot.setVMCommand(vmCommand);
+        snapshot.setClassLocations(getParsedClasspath().getClassLocations());
+
+        try
+        {
+            snapshot.write(model);
+        }
+        catch (IOException ioe)
+        {
+            logger.warn("Could not write snapshot {}", snapshot.getSnapshotFile(), ioe);
+        }
+    }
+
+    /**
+     * Follows a log that the JVM is still writing. Lines are handled as in
+     * streaming mode as soon as they are complete, each byte of the file is
+     * read once. Returns when hotspot_log_done has been read or stopParsing
+     * is called.
+     */
+    public void tailLogFile(File logFile, ILogParseErrorListener errorListener) throws IOException
+    {
+        startParse(errorListener);
+
+        reading = true;
+
+        streaming = true;
+
+        createAssemblyProcessor();
+
+        lineOffset = -1;
+        lineEndOffset = -1;
+
+        // the JVM may not have created the log yet
+        while (reading && !logFile.exists())
+        {
+            pause();
+        }
+
+        parseStats.startPhase(Phase.SPLIT);
+
+        if (reading)
+        {
+            try (TailLogReader reader = new TailLogReader(logFile))
+            {
+                long lastUpdate = System.currentTimeMillis();
+
+                boolean updated = false;
+
+                while (reading && model.getEndOfLogTag() == null)
+                {
+                    List<String> lines = reader.readNewLines();
+
+                    for (String currentLine : lines)
+                    {
+                        if (!reading)
+                        {
+                            break;
+                        }
+
+                        splitLine(currentLine);
+                    }
+
+                    if (lines.isEmpty())
+                    {
+                        if (reader.isTruncated())
+                        {
+                            logger.warn("Log file {} was truncated at offset {}, stopped following", logFile,
+                                    reader.getConsumedOffset());
+                            break;
+                        }
+                    }
+                    else
+                    {
+                        updated = true;
+                    }
+
+                    long now = System.currentTimeMillis();
+
+                    if (updated && now - lastUpdate >= TAIL_REFRESH_MILLIS)
+                    {
+                        asmProcessor.attachCompletedAssemblyToMembers(model.getPackageManager());
+
+                        jitListener.handleReadUpdate();
+
+                        lastUpdate = now;
+                        updated = false;
+                    }
+
+                    if (lines.isEmpty())
+                    {
+                        pause();
+                    }
+                }
+            }
+        }
+
+        parseStats.endPhase(Phase.SPLIT);
+
+        completeParse();
+    }
+
+    private void pause()
+    {
+        try
+        {
+            Thread.sleep(TAIL_POLL_MILLIS);
+        }
+        catch (InterruptedException ie)
+        {
+            Thread.currentThread().interrupt();
+            reading = false;
+        }
+    }
+
     private void checkIfErrorDialogNeeded()
     {
         if (hasParseError)
@@ -83,28 +335,39 @@ public class HotSpotLogParser extends AbstractLogParser
             logger.debug("parseHeaderLines()");
         }
 
-        for (NumberedLine numberedLine : splitLog.getHeaderLines())
+        List<NumberedLine> headerLines = splitLog.getHeaderLines();
+
+        int lineCount = headerLines.size();
+
+        for (int i = 0; reading && i < lineCount; i++)
         {
-            String lineContent = numberedLine.getLine();
+            processHeaderLine(headerLines.get(i));
 
-            if (!skipLine(lineContent, SKIP_HEADER_TAGS))
-            {
-                Tag tag = tagProcessor.processLine(lineContent);
+            updateProgress(Phase.HEADER, headerLines, i);
+        }
+    }
 
-                processLineNumber = numberedLine.getLineNumber();
+    private void processHeaderLine(NumberedLine numberedLine)
+    {
+        String lineContent = numberedLine.getLine();
 
-                if (tag != null)
-                {
-                    handleTag(tag);
-                }
-            }
-            else if (lineContent.startsWith(TAG_HOTSPOT_LOG))
-            {
-                long baseTimestamp = getBaseTimestamp(lineContent);
+        if (!skipLine(lineContent, SKIP_HEADER_TAGS))
+        {
+            Tag tag = tagProcessor.processLine(lineContent);
 
-                model.setBaseTimestamp(baseTimestamp);
+            processLineNumber = numberedLine.getLineNumber();
+
+            if (tag != null)
+            {
+                handleTag(tag);
             }
         }
+        else if (lineContent.startsWith(TAG_HOTSPOT_LOG))
+        {
+            long baseTimestamp = getBaseTimestamp(lineContent);
+
+            model.setBaseTimestamp(baseTimestamp);
+        }
     }
 
     private long getBaseTimestamp(String line)
@@ -121,15 +384,47 @@ public class HotSpotLogParser extends AbstractLogParser
     @Override
     protected void parseLogFile()
     {
-        parseHeaderLines();
+        if (streaming)
+        {
+            // header, class loader and compilation lines were consumed as they were read
+            parseStats.startPhase(Phase.ASSEMBLY);
+
+            completeAssembly();
+
+            parseStats.endPhase(Phase.ASSEMBLY);
+        }
+        else
+        {
+            parseStats.startPhase(Phase.HEADER);
+
+            parseHeaderLines();
+
+            parseStats.endPhase(Phase.HEADER);
+
+            parseStats.startPhase(Phase.CLASSPATH);
 
-        buildParsedClasspath();
+            buildParsedClasspath();
 
-        buildClassModel();
+            parseStats.endPhase(Phase.CLASSPATH);
 
-        parseLogCompilationLines();
+            parseStats.startPhase(Phase.CLASS_MODEL);
 
-        parseAssemblyLines();
+            buildClassModel();
+
+            parseStats.endPhase(Phase.CLASS_MODEL);
+
+            parseStats.startPhase(Phase.COMPILATIONS);
+
+            parseLogCompilationLines();
+
+            parseStats.endPhase(Phase.COMPILATIONS);
+
+            parseStats.startPhase(Phase.ASSEMBLY);
+
+            parseAssemblyLines();
+
+            parseStats.endPhase(Phase.ASSEMBLY);
+        }
 
         checkIfErrorDialogNeeded();
     }
@@ -141,18 +436,66 @@ public class HotSpotLogParser extends AbstractLogParser
             logger.debug("parseLogCompilationLines()");
         }
 
-        for (NumberedLine numberedLine : splitLog.getCompilationLines())
+        if (parserPool != null)
+        {
+            ParallelTagParser parallelTagParser = new ParallelTagParser(parserPool);
+
+            parallelTagParser.setPackageFilter(packageFilter);
+            parallelTagParser.setStampWindow(stampWindow);
+
+            List<NumberedLine> compilationLines = splitLog.getCompilationLines();
+
+            long firstOffset = compilationLines.isEmpty() ? 0 : compilationLines.get(0).getOffset();
+            long lastEndOffset = compilationLines.isEmpty() ? 0 : compilationLines.get(compilationLines.size() - 1).getEndOffset();
+
+            parallelTagParser.parse(compilationLines, line -> skipLine(line, SKIP_BODY_TAGS),
+                    (tag, lineNumber, startOffset, endOffset) ->
+                    {
+                        processLineNumber = lineNumber;
+
+                        tagStartOffset = startOffset;
+                        tagEndOffset = endOffset;
+
+                        handleTag(tag);
+
+                        updateProgress(Phase.COMPILATIONS, endOffset - firstOffset, lastEndOffset - firstOffset);
+                    }, () -> !reading);
+
+            parseStats.addTagsCreated(parallelTagParser.getTagsCreated());
+        }
+        else
+        {
+            List<NumberedLine> compilationLines = splitLog.getCompilationLines();
+
+            int lineCount = compilationLines.size();
+
+            for (int i = 0; reading && i < lineCount; i++)
+            {
+                processCompilationLine(compilationLines.get(i));
+
+                updateProgress(Phase.COMPILATIONS, compilationLines, i);
+            }
+        }
+    }
+
+    private void processCompilationLine(NumberedLine numberedLine)
+    {
+        if (!skipLine(numberedLine.getLine(), SKIP_BODY_TAGS))
         {
-            if (!skipLine(numberedLine.getLine(), SKIP_BODY_TAGS))
+            if (tagProcessor.getTopTagName() == null)
             {
-                Tag tag = tagProcessor.processLine(numberedLine.getLine());
+                tagStartOffset = numberedLine.getOffset();
+            }
 
-                processLineNumber = numberedLine.getLineNumber();
+            Tag tag = tagProcessor.processLine(numberedLine.getLine());
 
-                if (tag != null)
-                {
-                    handleTag(tag);
-                }
+            processLineNumber = numberedLine.getLineNumber();
+
+            if (tag != null)
+            {
+                tagEndOffset = (tagStartOffset != -1) ? numberedLine.getEndOffset() : -1;
+
+                handleTag(tag);
             }
         }
     }
@@ -164,20 +507,86 @@ public class HotSpotLogParser extends AbstractLogParser
             logger.debug("parseAssemblyLines()");
         }
 
-        AssemblyProcessor asmProcessor = new AssemblyProcessor();
+        createAssemblyProcessor();
 
-        for (NumberedLine numberedLine : splitLog.getAssemblyLines())
+        asmProcessor.setDefaultArchitecture(model.getArchitecture());
+
+        List<NumberedLine> assemblyLines = splitLog.getAssemblyLines();
+
+        int lineCount = assemblyLines.size();
+
+        // the assembly read before a stop is still attached to the members
+        for (int i = 0; reading && i < lineCount; i++)
         {
-            processLineNumber = numberedLine.getLineNumber();
+            processAssemblyLine(assemblyLines.get(i));
 
-            asmProcessor.handleLine(numberedLine.getLine());
+            updateProgress(Phase.ASSEMBLY, assemblyLines, i);
         }
 
+        completeAssembly();
+    }
+
+    private void processAssemblyLine(NumberedLine numberedLine)
+    {
+        processLineNumber = numberedLine.getLineNumber();
+
+        asmProcessor.handleLine(numberedLine.getLine(), numberedLine.getOffset(), numberedLine.getEndOffset());
+    }
+
+    private void createAssemblyProcessor()
+    {
+        // left over from a parse that was stopped
+        if (assemblyPool != null)
+        {
+            assemblyPool.shutdownNow();
+            assemblyPool = null;
+        }
+
+        asmProcessor = new AssemblyProcessor();
+
+        asmProcessor.setPackageFilter(packageFilter);
+
+        // indexed methods are parsed one at a time when they are viewed
+        asmProcessor.setDetailLoader(detailLoader);
+
+        if (detailLoader == null && config.getEffectiveAssemblyThreads() > 1)
+        {
+            assemblyPool = new ForkJoinPool(config.getEffectiveAssemblyThreads());
+
+            asmProcessor.setParserPool(assemblyPool);
+        }
+    }
+
+    private void completeAssembly()
+    {
         asmProcessor.complete();
 
         asmProcessor.attachAssemblyToMembers(model.getPackageManager());
 
+        // indexed assembly is parsed later with the model architecture
+        if (model.getArchitecture() == null && asmProcessor.getArchitecture() != null)
+        {
+            model.setArchitecture(asmProcessor.getArchitecture());
+        }
+
         asmProcessor.clear();
+
+        if (assemblyPool != null)
+        {
+            assemblyPool.shutdown();
+            assemblyPool = null;
+        }
+    }
+
+    private void processClassLoaderLine(NumberedLine numberedLine)
+    {
+        // in streaming mode the class model is built as the loader lines are read.
+        // A compilation that refers to a class whose loader line has not been seen
+        // yet is resolved by the late load in JITDataModel.findMetaMember and the
+        // later loader line is then a no-op, so no earlier lines need to be retained.
+        buildParsedClasspath(numberedLine.getLine());
+
+        buildClassModel(numberedLine.getLine());
     }
 
     @Override
@@ -185,34 +594,93 @@ public class HotSpotLogParser extends AbstractLogParser
     {
         reading = true;
 
+        streaming = config.isStreamingParse();
+
+        if (streaming)
+        {
+            createAssemblyProcessor();
+        }
+
+        lineOffset = -1;
+        lineEndOffset = -1;
+
         try (BufferedReader reader = new BufferedReader(hotspotLogReader, 65536))
         {
             String currentLine = reader.readLine();
 
             while (reading && currentLine != null)
             {
-                try
+                splitLine(currentLine);
+
+                currentLine = reader.readLine();
+            }
+        }
+        catch (IOException ioe)
+        {
+            logger.error("Exception while splitting log file", ioe);
+        }
+    }
+
+    private void splitMappedLogFile(File logFile)
+    {
+        reading = true;
+
+        streaming = config.isStreamingParse();
+
+        if (streaming)
+        {
+            createAssemblyProcessor();
+        }
+
+        int windowSize = streaming ? STREAMING_WINDOW_SIZE : MappedLogReader.DEFAULT_WINDOW_SIZE;
+
+        long fileLength = logFile.length();
+
+        IStampIndex seekIndex = (stampIndex != null && !stampWindow.isUnbounded() && stampIndex.isIndexOf(logFile)) ? stampIndex : null;
+
+        long skipStart = (seekIndex != null) ? seekIndex.findSkipStart(0, stampWindow) : -1;
+
+        try (MappedLogReader reader = new MappedLogReader(logFile, parserPool, windowSize))
+        {
+            List<String> lines = reader.readNextLines();
+
+            while (reading && lines != null)
+            {
+                int lineCount = lines.size();
+
+                for (int i = 0; i < lineCount; i++)
                 {
-                    String trimmedLine = currentLine.trim();
+                    if (!reading)
+                    {
+                        break;
+                    }
 
-                    if (trimmedLine.length() > 0)
+                    lineOffset = reader.getLineOffset(i);
+                    lineEndOffset = reader.getLineEndOffset(i);
+
+                    if (skipStart != -1 && lineOffset >= skipStart)
                     {
-                        char firstChar = trimmedLine.charAt(0);
+                        long skipEnd = seekIndex.findSkipEnd(skipStart, stampWindow);
+
+                        skipStart = seekIndex.findSkipStart(Math.max(skipEnd, lineEndOffset), stampWindow);
 
-                        if (firstChar == C_OPEN_ANGLE || firstChar == C_OPEN_SQUARE_BRACKET || firstChar == C_AT)
+                        // line numbers after a seek no longer match the file
+                        if (skipEnd > lineOffset)
                         {
-                            currentLine = trimmedLine;
-                        }
+                            parseStats.addSkippedBytes(skipEnd - lineOffset);
+
+                            reader.seek(skipEnd);
 
-                        handleLogLine(currentLine);
+                            break;
+                        }
                     }
-                }
-                catch (Exception ex)
-                {
-                    logger.error("Exception handling: '{}'", currentLine, ex);
+
+                    splitLine(lines.get(i));
+
+                    updateProgress(Phase.SPLIT, lineEndOffset, fileLength);
                 }
 
-                currentLine = reader.readLine();
+                lines = reader.readNextLines();
             }
         }
         catch (IOException ioe)
@@ -221,6 +689,32 @@ public class HotSpotLogParser extends AbstractLogParser
         }
     }
 
+    private void splitLine(String currentLine)
+    {
+        parseStats.addLine(currentLine.length());
+
+        try
+        {
+            String trimmedLine = currentLine.trim();
+
+            if (trimmedLine.length() > 0)
+            {
+                char firstChar = trimmedLine.charAt(0);
+
+                if (firstChar == C_OPEN_ANGLE || firstChar == C_OPEN_SQUARE_BRACKET || firstChar == C_AT)
+                {
+                    currentLine = trimmedLine;
+                }
+
+                handleLogLine(currentLine);
+            }
+        }
+        catch (Exception ex)
+        {
+            logger.error("Exception handling: '{}'", currentLine, ex);
+        }
+    }
+
     private boolean skipLine(final String line, final Set<String> skipSet)
     {
         boolean isSkip = false;
@@ -241,7 +735,7 @@ public class HotSpotLogParser extends AbstractLogParser
     {
         String currentLine = inCurrentLine;
 
-        NumberedLine numberedLine = new NumberedLine(parseLineNumber++, currentLine);
+        NumberedLine numberedLine = new NumberedLine(parseLineNumber++, currentLine, lineOffset, lineEndOffset);
 
         if (TAG_TTY.equals(currentLine))
         {
@@ -256,7 +750,7 @@ public class HotSpotLogParser extends AbstractLogParser
         if (inHeader)
         {
             // HotSpot log header XML can have text nodes so consume all lines
-            splitLog.addHeaderLine(numberedLine);
+            consumeHeaderLine(numberedLine);
         }
         else
         {
@@ -268,11 +762,11 @@ public class HotSpotLogParser extends AbstractLogParser
             else if (currentLine.startsWith(S_OPEN_ANGLE))
             {
                 // After the header, XML nodes do not have text nodes
-                splitLog.addCompilationLine(numberedLine);
+                consumeCompilationLine(numberedLine);
             }
             else if (currentLine.startsWith(LOADED))
             {
-                splitLog.addClassLoaderLine(numberedLine);
+                consumeClassLoaderLine(numberedLine);
             }
             else if (currentLine.startsWith(S_AT))
             {
@@ -299,7 +793,7 @@ public class HotSpotLogParser extends AbstractLogParser
 
                 numberedLine.setLine(assembly);
 
-                splitLog.addAssemblyLine(numberedLine);
+                consumeAssemblyLine(numberedLine);
 
                 handleLogLine(remainder);
 
@@ -324,23 +818,77 @@ public class HotSpotLogParser extends AbstractLogParser
 
                 numberedLine.setLine(assembly);
 
-                splitLog.addAssemblyLine(numberedLine);
+                consumeAssemblyLine(numberedLine);
 
                 handleLogLine(remainder);
 
             }
             else
             {
-                splitLog.addAssemblyLine(numberedLine);
+                consumeAssemblyLine(numberedLine);
             }
         }
     }
 
+    private void consumeHeaderLine(NumberedLine numberedLine)
+    {
+        if (streaming)
+        {
+            processHeaderLine(numberedLine);
+        }
+        else
+        {
+            splitLog.addHeaderLine(numberedLine);
+        }
+    }
+
+    private void consumeClassLoaderLine(NumberedLine numberedLine)
+    {
+        if (streaming)
+        {
+            processClassLoaderLine(numberedLine);
+        }
+        else
+        {
+            splitLog.addClassLoaderLine(numberedLine);
+        }
+    }
+
+    private void consumeCompilationLine(NumberedLine numberedLine)
+    {
+        if (streaming)
+        {
+            processCompilationLine(numberedLine);
+        }
+        else
+        {
+            splitLog.addCompilationLine(numberedLine);
+        }
+    }
+
+    private void consumeAssemblyLine(NumberedLine numberedLine)
+    {
+        if (streaming)
+        {
+            processAssemblyLine(numberedLine);
+        }
+        else
+        {
+            splitLog.addAssemblyLine(numberedLine);
+        }
+    }
+
     @Override
     protected void handleTag(Tag tag)
     {
         String tagName = tag.getName();
 
+        if (!isInStampWindow(tag))
+        {
+            parseStats.addOutsideWindow(tagName);
+            return;
+        }
+
         switch (tagName)
         {
 
@@ -392,6 +940,13 @@ public class HotSpotLogParser extends AbstractLogParser
     private void handleVmVersion(Tag tag)
     {
         model.setJDKMajorVersion(VmVersionDetector.getMajorVersionFromHotSpotTag(tag));
+
+        model.setArchitecture(VmVersionDetector.getArchitectureFromHotSpotTag(tag));
+
+        if (asmProcessor != null)
+        {
+            asmProcessor.setDefaultArchitecture(model.getArchitecture());
+        }
     }
 
     private void handleTagVmArguments(Tag tag)
@@ -440,9 +995,15 @@ public class HotSpotLogParser extends AbstractLogParser
             logger.debug("buildParsedClasspath()");
         }
 
-        for (NumberedLine numberedLine : splitLog.getClassLoaderLines())
+        List<NumberedLine> classLoaderLines = splitLog.getClassLoaderLines();
+
+        int lineCount = classLoaderLines.size();
+
+        for (int i = 0; reading && i < lineCount; i++)
         {
-            buildParsedClasspath(numberedLine.getLine());
+            buildParsedClasspath(classLoaderLines.get(i).getLine());
+
+            updateProgress(Phase.CLASSPATH, classLoaderLines, i);
         }
     }
 
@@ -453,9 +1014,15 @@ public class HotSpotLogParser extends AbstractLogParser
             logger.debug("buildClassModel()");
         }
 
-        for (NumberedLine numberedLine : splitLog.getClassLoaderLines())
+        List<NumberedLine> classLoaderLines = splitLog.getClassLoaderLines();
+
+        int lineCount = classLoaderLines.size();
+
+        for (int i = 0; reading && i < lineCount; i++)
         {
-            buildClassModel(numberedLine.getLine());
+            buildClassModel(classLoaderLines.get(i).getLine());
+
+            updateProgress(Phase.CLASS_MODEL, classLoaderLines, i);
         }
     }
 
@@ -0,0 +1,1020 @@
+package org.adoptopenjdk.jitwatch.parser.hotspot;
+
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.ATTR_COMPILE_ID;
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.ATTR_METHOD;
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.ATTR_STAMP;
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.C_DOT;
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.C_QUOTE;
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.C_SLASH;
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.C_SPACE;
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.S_OPEN_ANGLE;
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.S_SLASH;
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.TAG_NMETHOD;
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.TAG_PRINT_NMETHOD;
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.TAG_TASK;
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.TAG_TASK_QUEUED;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.adoptopenjdk.jitwatch.core.TagProcessor;
+import org.adoptopenjdk.jitwatch.logger.Logger;
+import org.adoptopenjdk.jitwatch.logger.LoggerFactory;
+import org.adoptopenjdk.jitwatch.model.Tag;
+import org.adoptopenjdk.jitwatch.model.Task;
+import org.adoptopenjdk.jitwatch.parser.IStampIndex;
+import org.adoptopenjdk.jitwatch.parser.StampWindow;
+import org.adoptopenjdk.jitwatch.util.ParseUtil;
+import org.adoptopenjdk.jitwatch.util.StringUtil;
+
+/**
+ * A sidecar index of a HotSpot log, built in one sequential pass and kept
+ * next to the log. It holds the byte offsets of the task_queued, nmethod,
+ * task and print_nmethod of each compile_id, the compile_ids of each method
+ * and checkpoints of the stamps of the tasks in each compiler thread log.
+ * The index file is memory-mapped and searched in place so a single
+ * compilation can be read from a large log without parsing it.
+ *
+ * Like the model snapshot the index is only used while the size and
+ * modification time of the log match the ones recorded when it was built.
+ */
+public class LogIndex implements IStampIndex
+{
+	private static final Logger logger = LoggerFactory.getLogger(LogIndex.class);
+
+	public static final String INDEX_EXTENSION = ".index";
+
+	private static final int MAGIC = 0x4A57494E;
+
+	private static final int VERSION = 1;
+
+	// magic, version, log length, log modified, four section counts and a
+	// reserved int
+	private static final int HEADER_SIZE = 4 + 4 + 8 + 8 + 5 * 4;
+
+	// compile_id, method index, queued stamp and six offsets
+	private static final int COMPILATION_SIZE = 4 + 4 + 8 + 6 * 8;
+
+	// string offset, string length, first compile_id and compile_id count
+	private static final int METHOD_SIZE = 4 * 4;
+
+	// start and end offsets, lowest and highest task stamp
+	private static final int CHECKPOINT_SIZE = 4 * 8;
+
+	// tasks covered by a checkpoint, the tasks at either end of a window are
+	// read in full so smaller is more precise but makes a bigger index
+	private static final int CHECKPOINT_TASKS = 64;
+
+	private static final String OPEN_TASK_QUEUED = S_OPEN_ANGLE + TAG_TASK_QUEUED + C_SPACE;
+	private static final String OPEN_TASK = S_OPEN_ANGLE + TAG_TASK + C_SPACE;
+	private static final String CLOSE_TASK = S_OPEN_ANGLE + S_SLASH + TAG_TASK + ">";
+	private static final String OPEN_NMETHOD = S_OPEN_ANGLE + TAG_NMETHOD + C_SPACE;
+	private static final String OPEN_PRINT_NMETHOD = S_OPEN_ANGLE + TAG_PRINT_NMETHOD + C_SPACE;
+	private static final String CLOSE_PRINT_NMETHOD = S_OPEN_ANGLE + S_SLASH + TAG_PRINT_NMETHOD + ">";
+
+	private final File logFile;
+	private final long logLength;
+	private final long logModified;
+
+	private final MappedByteBuffer buffer;
+
+	private final int compilationCount;
+	private final int methodCount;
+	private final int checkpointCount;
+
+	private final int compilationsStart;
+	private final int methodsStart;
+	private final int compileIDsStart;
+	private final int checkpointsStart;
+	private final int stringsStart;
+
+	/**
+	 * Where the tags of one compilation are in the log, -1 for a tag the log
+	 * does not have
+	 */
+	public static class IndexedCompilation
+	{
+		private final int compileID;
+		private final String method;
+		private final long stampQueued;
+		private final long taskQueuedOffset;
+		private final long nmethodOffset;
+		private final long taskStartOffset;
+		private final long taskEndOffset;
+		private final long printNMethodStartOffset;
+		private final long printNMethodEndOffset;
+
+		IndexedCompilation(int compileID, String method, long stampQueued, long taskQueuedOffset, long nmethodOffset,
+				long taskStartOffset, long taskEndOffset, long printNMethodStartOffset, long printNMethodEndOffset)
+		{
+			this.compileID = compileID;
+			this.method = method;
+			this.stampQueued = stampQueued;
+			this.taskQueuedOffset = taskQueuedOffset;
+			this.nmethodOffset = nmethodOffset;
+			this.taskStartOffset = taskStartOffset;
+			this.taskEndOffset = taskEndOffset;
+			this.printNMethodStartOffset = printNMethodStartOffset;
+			this.printNMethodEndOffset = printNMethodEndOffset;
+		}
+
+		public int getCompileID()
+		{
+			return compileID;
+		}
+
+		/**
+		 * @return the method attribute the way the parser reads it, for
+		 *         example java.lang.String indexOf (II)I
+		 */
+		public String getMethod()
+		{
+			return method;
+		}
+
+		public long getStampQueued()
+		{
+			return stampQueued;
+		}
+
+		public long getTaskQueuedOffset()
+		{
+			return taskQueuedOffset;
+		}
+
+		public long getNMethodOffset()
+		{
+			return nmethodOffset;
+		}
+
+		public long getTaskStartOffset()
+		{
+			return taskStartOffset;
+		}
+
+		public long getTaskEndOffset()
+		{
+			return taskEndOffset;
+		}
+
+		public long getPrintNMethodStartOffset()
+		{
+			return printNMethodStartOffset;
+		}
+
+		public long getPrintNMethodEndOffset()
+		{
+			return printNMethodEndOffset;
+		}
+	}
+
+	private LogIndex(File logFile, long logLength, long logModified, MappedByteBuffer buffer)
+	{
+		this.logFile = logFile;
+		this.logLength = logLength;
+		this.logModified = logModified;
+		this.buffer = buffer;
+
+		int position = 4 + 4 + 8 + 8;
+
+		compilationCount = buffer.getInt(position);
+		methodCount = buffer.getInt(position + 4);
+		int compileIDCount = buffer.getInt(position + 8);
+		checkpointCount = buffer.getInt(position + 12);
+
+		compilationsStart = HEADER_SIZE;
+		methodsStart = compilationsStart + compilationCount * COMPILATION_SIZE;
+		compileIDsStart = methodsStart + methodCount * METHOD_SIZE;
+		checkpointsStart = compileIDsStart + compileIDCount * 4;
+		stringsStart = checkpointsStart + checkpointCount * CHECKPOINT_SIZE;
+	}
+
+	public static File getIndexFile(File logFile)
+	{
+		return new File(logFile.getPath() + INDEX_EXTENSION);
+	}
+
+	/**
+	 * @return the index of the log or null if there is none for the log as it
+	 *         is now
+	 */
+	public static LogIndex open(File logFile) throws IOException
+	{
+		File indexFile = getIndexFile(logFile);
+
+		LogIndex result = null;
+
+		if (indexFile.isFile())
+		{
+			long logLength = logFile.length();
+			long logModified = logFile.lastModified();
+
+			try (FileChannel channel = FileChannel.open(indexFile.toPath(), StandardOpenOption.READ))
+			{
+				long size = channel.size();
+
+				if (size >= HEADER_SIZE && size <= Integer.MAX_VALUE)
+				{
+					MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+
+					if (buffer.getInt(0) == MAGIC && buffer.getInt(4) == VERSION && buffer.getLong(8) == logLength
+							&& buffer.getLong(16) == logModified)
+					{
+						result = new LogIndex(logFile, logLength, logModified, buffer);
+					}
+				}
+			}
+		}
+
+		return result;
+	}
+
+	/**
+	 * @return the index of the log, built and written next to it first if
+	 *         there is none for the log as it is now
+	 */
+	public static LogIndex openOrBuild(File logFile) throws IOException
+	{
+		LogIndex result = open(logFile);
+
+		if (result == null)
+		{
+			build(logFile);
+
+			result = open(logFile);
+
+			if (result == null)
+			{
+				throw new IOException("Log changed while it was indexed: " + logFile);
+			}
+		}
+
+		return result;
+	}
+
+	/**
+	 * Reads the whole log once and writes its index next to it
+	 */
+	public static void build(File logFile) throws IOException
+	{
+		// taken before the log is read so a log still being written is not
+		// mistaken for the content that was indexed
+		long logLength = logFile.length();
+		long logModified = logFile.lastModified();
+
+		IndexBuilder builder = new IndexBuilder();
+
+		try (MappedLogReader reader = new MappedLogReader(logFile, null))
+		{
+			List<String> lines = reader.readNextLines();
+
+			while (lines != null)
+			{
+				int lineCount = lines.size();
+
+				for (int i = 0; i < lineCount; i++)
+				{
+					long offset = reader.getLineOffset(i);
+
+					// an index of a log being written stops where the log was
+					if (offset >= logLength)
+					{
+						break;
+					}
+
+					builder.addLine(lines.get(i).trim(), offset, reader.getLineEndOffset(i));
+				}
+
+				lines = reader.readNextLines();
+			}
+		}
+
+		File indexFile = getIndexFile(logFile);
+
+		// a unique name so two parses indexing the same log do not write into
+		// each other's file
+		File tempFile = Files.createTempFile(indexFile.getAbsoluteFile().getParentFile().toPath(), indexFile.getName(), ".tmp").toFile();
+
+		boolean moved = false;
+
+		try
+		{
+			try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tempFile), 65536)))
+			{
+				builder.write(output, logLength, logModified);
+			}
+
+			Files.move(tempFile.toPath(), indexFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+
+			moved = true;
+		}
+		finally
+		{
+			if (!moved)
+			{
+				Files.deleteIfExists(tempFile.toPath());
+			}
+		}
+
+		logger.info("Indexed {} compilations of {} in {}", builder.compilations.size(), logFile, indexFile);
+	}
+
+	public File getLogFile()
+	{
+		return logFile;
+	}
+
+	public int getCompilationCount()
+	{
+		return compilationCount;
+	}
+
+	public int getMethodCount()
+	{
+		return methodCount;
+	}
+
+	@Override
+	public boolean isIndexOf(File otherLogFile)
+	{
+		return logFile.getAbsoluteFile().equals(otherLogFile.getAbsoluteFile()) && otherLogFile.length() == logLength
+				&& otherLogFile.lastModified() == logModified;
+	}
+
+	/**
+	 * @return the compilation or null if the compile_id is not in the log
+	 */
+	public IndexedCompilation getCompilation(int compileID)
+	{
+		int low = 0;
+		int high = compilationCount - 1;
+
+		while (low <= high)
+		{
+			int middle = (low + high) >>> 1;
+
+			int middleID = buffer.getInt(compilationsStart + middle * COMPILATION_SIZE);
+
+			if (middleID < compileID)
+			{
+				low = middle + 1;
+			}
+			else if (middleID > compileID)
+			{
+				high = middle - 1;
+			}
+			else
+			{
+				return readCompilation(middle);
+			}
+		}
+
+		return null;
+	}
+
+	private IndexedCompilation readCompilation(int index)
+	{
+		int position = compilationsStart + index * COMPILATION_SIZE;
+
+		int methodIndex = buffer.getInt(position + 4);
+
+		String method = (methodIndex == -1) ? null : readMethodName(methodIndex);
+
+		return new IndexedCompilation(buffer.getInt(position), method, buffer.getLong(position + 8), buffer.getLong(position + 16),
+				buffer.getLong(position + 24), buffer.getLong(position + 32), buffer.getLong(position + 40),
+				buffer.getLong(position + 48), buffer.getLong(position + 56));
+	}
+
+	/**
+	 * @param method
+	 *            a method attribute from the log with . or / separators, for
+	 *            example java/lang/String indexOf (II)I
+	 * @return the compile_ids of the method in log order
+	 */
+	public List<Integer> getCompileIDs(String method)
+	{
+		List<Integer> result = new ArrayList<>();
+
+		int methodIndex = findMethod(normaliseMethod(method).getBytes(StandardCharsets.UTF_8));
+
+		if (methodIndex != -1)
+		{
+			int position = methodsStart + methodIndex * METHOD_SIZE;
+
+			int first = buffer.getInt(position + 8);
+			int count = buffer.getInt(position + 12);
+
+			for (int i = 0; i < count; i++)
+			{
+				result.add(buffer.getInt(compileIDsStart + (first + i) * 4));
+			}
+		}
+
+		return result;
+	}
+
+	/**
+	 * @return the indexed methods of a class, the class name may use . or /
+	 *         separators
+	 */
+	public List<String> getMethodsOfClass(String className)
+	{
+		List<String> result = new ArrayList<>();
+
+		byte[] prefix = (normaliseMethod(className) + C_SPACE).getBytes(StandardCharsets.UTF_8);
+
+		// the first method not before the prefix
+		int low = 0;
+		int high = methodCount;
+
+		while (low < high)
+		{
+			int middle = (low + high) >>> 1;
+
+			if (compareMethod(middle, prefix, true) < 0)
+			{
+				low = middle + 1;
+			}
+			else
+			{
+				high = middle;
+			}
+		}
+
+		for (int i = low; i < methodCount && compareMethod(i, prefix, true) == 0; i++)
+		{
+			result.add(readMethodName(i));
+		}
+
+		return result;
+	}
+
+	// older VMs write / separators and entities, as in AbstractLogParser
+	private static String normaliseMethod(String method)
+	{
+		return StringUtil.replaceXMLEntities(method).replace(C_SLASH, C_DOT);
+	}
+
+	private int findMethod(byte[] name)
+	{
+		int low = 0;
+		int high = methodCount - 1;
+
+		while (low <= high)
+		{
+			int middle = (low + high) >>> 1;
+
+			int comparison = compareMethod(middle, name, false);
+
+			if (comparison < 0)
+			{
+				low = middle + 1;
+			}
+			else if (comparison > 0)
+			{
+				high = middle - 1;
+			}
+			else
+			{
+				return middle;
+			}
+		}
+
+		return -1;
+	}
+
+	// compares the bytes of an indexed method name with a name or a prefix
+	// of one in place, unsigned as the names were sorted
+	private int compareMethod(int methodIndex, byte[] name, boolean prefix)
+	{
+		int position = methodsStart + methodIndex * METHOD_SIZE;
+
+		int stringOffset = stringsStart + buffer.getInt(position);
+		int stringLength = buffer.getInt(position + 4);
+
+		int common = Math.min(stringLength, name.length);
+
+		for (int i = 0; i < common; i++)
+		{
+			int difference = (buffer.get(stringOffset + i) & 0xff) - (name[i] & 0xff);
+
+			if (difference != 0)
+			{
+				return difference;
+			}
+		}
+
+		return (prefix && stringLength >= name.length) ? 0 : stringLength - name.length;
+	}
+
+	private String readMethodName(int methodIndex)
+	{
+		int position = methodsStart + methodIndex * METHOD_SIZE;
+
+		byte[] bytes = new byte[buffer.getInt(position + 4)];
+
+		for (int i = 0; i < bytes.length; i++)
+		{
+			bytes[i] = buffer.get(stringsStart + buffer.getInt(position) + i);
+		}
+
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * @return the task_queued tag of the compilation or null
+	 */
+	public Tag readTaskQueued(IndexedCompilation compilation) throws IOException
+	{
+		return readSingleLineTag(compilation.getTaskQueuedOffset(), TAG_TASK_QUEUED);
+	}
+
+	/**
+	 * @return the nmethod tag of the compilation or null
+	 */
+	public Tag readNMethod(IndexedCompilation compilation) throws IOException
+	{
+		return readSingleLineTag(compilation.getNMethodOffset(), TAG_NMETHOD);
+	}
+
+	/**
+	 * @return the task tree of the compilation or null
+	 */
+	public Task readTask(IndexedCompilation compilation) throws IOException
+	{
+		Task result = null;
+
+		if (compilation.getTaskStartOffset() != -1 && compilation.getTaskEndOffset() != -1)
+		{
+			TagProcessor tagProcessor = new TagProcessor();
+
+			for (String line : LogRangeLoader.readLines(logFile, compilation.getTaskStartOffset(), compilation.getTaskEndOffset()))
+			{
+				if (line.startsWith(S_OPEN_ANGLE) && !LogRangeLoader.isSkippedTag(line))
+				{
+					Tag tag = tagProcessor.processLine(line);
+
+					if (tag instanceof Task)
+					{
+						result = (Task) tag;
+						break;
+					}
+				}
+			}
+		}
+
+		return result;
+	}
+
+	/**
+	 * @return the lines from print_nmethod to its end, empty if the log has
+	 *         no assembly for the compilation
+	 */
+	public List<String> readPrintNMethod(IndexedCompilation compilation) throws IOException
+	{
+		List<String> result = new ArrayList<>();
+
+		if (compilation.getPrintNMethodStartOffset() != -1 && compilation.getPrintNMethodEndOffset() != -1)
+		{
+			result = LogRangeLoader.readLines(logFile, compilation.getPrintNMethodStartOffset(), compilation.getPrintNMethodEndOffset());
+		}
+
+		return result;
+	}
+
+	private Tag readSingleLineTag(long offset, String tagName) throws IOException
+	{
+		Tag result = null;
+
+		if (offset != -1)
+		{
+			List<String> lines = LogRangeLoader.readLines(logFile, offset, Math.min(logLength, offset + 65536));
+
+			if (!lines.isEmpty())
+			{
+				String line = lines.get(0);
+
+				// an nmethod can follow the assembly on the same line
+				int tagStart = line.indexOf(S_OPEN_ANGLE + tagName + C_SPACE);
+
+				if (tagStart != -1)
+				{
+					result = new TagProcessor().processLine(line.substring(tagStart));
+				}
+			}
+		}
+
+		return result;
+	}
+
+	@Override
+	public long findSkipStart(long offset, StampWindow window)
+	{
+		for (int i = findCheckpoint(offset); i < checkpointCount; i++)
+		{
+			if (isSkippable(i, window))
+			{
+				return getCheckpointStart(i);
+			}
+		}
+
+		return -1;
+	}
+
+	@Override
+	public long findSkipEnd(long skipStart, StampWindow window)
+	{
+		int index = findCheckpoint(skipStart);
+
+		long result = skipStart;
+
+		// runs of adjacent checkpoints outside the window are skipped at once
+		while (index < checkpointCount && getCheckpointStart(index) == result && isSkippable(index, window))
+		{
+			result = getCheckpointEnd(index);
+
+			index++;
+		}
+
+		return result;
+	}
+
+	// the first checkpoint starting at or after the offset
+	private int findCheckpoint(long offset)
+	{
+		int low = 0;
+		int high = checkpointCount;
+
+		while (low < high)
+		{
+			int middle = (low + high) >>> 1;
+
+			if (getCheckpointStart(middle) < offset)
+			{
+				low = middle + 1;
+			}
+			else
+			{
+				high = middle;
+			}
+		}
+
+		return low;
+	}
+
+	private boolean isSkippable(int index, StampWindow window)
+	{
+		int position = checkpointsStart + index * CHECKPOINT_SIZE;
+
+		long lowestStamp = buffer.getLong(position + 16);
+		long highestStamp = buffer.getLong(position + 24);
+
+		return (window.getEndStamp() != StampWindow.OPEN && lowestStamp > window.getEndStamp())
+				|| (window.getStartStamp() != StampWindow.OPEN && highestStamp < window.getStartStamp());
+	}
+
+	private long getCheckpointStart(int index)
+	{
+		return buffer.getLong(checkpointsStart + index * CHECKPOINT_SIZE);
+	}
+
+	private long getCheckpointEnd(int index)
+	{
+		return buffer.getLong(checkpointsStart + index * CHECKPOINT_SIZE + 8);
+	}
+
+	// attribute values are read straight from the line, the tags are not built
+	private static String getAttribute(String line, String name)
+	{
+		String key = C_SPACE + name + "=" + C_QUOTE;
+
+		int start = line.indexOf(key);
+
+		String result = null;
+
+		if (start != -1)
+		{
+			start += key.length();
+
+			int end = line.indexOf(C_QUOTE, start);
+
+			if (end != -1)
+			{
+				result = line.substring(start, end);
+			}
+		}
+
+		return result;
+	}
+
+	private static class CompilationOffsets
+	{
+		private int methodIndex = -1;
+		private long stampQueued = -1;
+		private long taskQueuedOffset = -1;
+		private long nmethodOffset = -1;
+		private long taskStartOffset = -1;
+		private long taskEndOffset = -1;
+		private long printNMethodStartOffset = -1;
+		private long printNMethodEndOffset = -1;
+	}
+
+	private static class IndexBuilder
+	{
+		private final Map<Integer, CompilationOffsets> compilations = new HashMap<>();
+
+		// in order of first appearance, sorted when written
+		private final Map<String, Integer> methodIndexes = new HashMap<>();
+		private final List<String> methods = new ArrayList<>();
+		private final List<List<Integer>> methodCompileIDs = new ArrayList<>();
+
+		private final List<long[]> checkpoints = new ArrayList<>();
+
+		private CompilationOffsets openTask;
+		private long openTaskStamp;
+
+		private CompilationOffsets openPrintNMethod;
+
+		private long[] checkpoint;
+		private int checkpointTasks;
+
+		void addLine(String line, long offset, long endOffset)
+		{
+			if (line.startsWith(OPEN_TASK_QUEUED))
+			{
+				CompilationOffsets compilation = getCompilation(line);
+
+				if (compilation != null)
+				{
+					compilation.taskQueuedOffset = offset;
+
+					String stamp = getAttribute(line, ATTR_STAMP);
+
+					compilation.stampQueued = (stamp != null) ? ParseUtil.parseStamp(stamp) : -1;
+				}
+			}
+			else if (line.startsWith(OPEN_TASK))
+			{
+				// a task cut short by the end of the log is not indexed
+				openTask = getCompilation(line);
+
+				if (openTask != null)
+				{
+					openTask.taskStartOffset = offset;
+
+					String stamp = getAttribute(line, ATTR_STAMP);
+
+					openTaskStamp = (stamp != null) ? ParseUtil.parseStamp(stamp) : 0;
+				}
+			}
+			else if (line.equals(CLOSE_TASK))
+			{
+				if (openTask != null)
+				{
+					openTask.taskEndOffset = endOffset;
+
+					addToCheckpoint(openTask.taskStartOffset, endOffset, openTaskStamp);
+
+					openTask = null;
+				}
+			}
+			else if (line.startsWith(OPEN_PRINT_NMETHOD))
+			{
+				openPrintNMethod = getCompilation(line);
+
+				if (openPrintNMethod != null)
+				{
+					openPrintNMethod.printNMethodStartOffset = offset;
+				}
+			}
+			else
+			{
+				int nmethodStart = line.indexOf(OPEN_NMETHOD);
+
+				if (nmethodStart != -1)
+				{
+					CompilationOffsets compilation = getCompilation(line.substring(nmethodStart));
+
+					if (compilation != null)
+					{
+						compilation.nmethodOffset = offset;
+					}
+				}
+
+				if (openPrintNMethod != null && line.endsWith(CLOSE_PRINT_NMETHOD))
+				{
+					openPrintNMethod.printNMethodEndOffset = endOffset;
+
+					openPrintNMethod = null;
+				}
+			}
+		}
+
+		private CompilationOffsets getCompilation(String line)
+		{
+			String compileIDAttr = getAttribute(line, ATTR_COMPILE_ID);
+
+			CompilationOffsets result = null;
+
+			if (compileIDAttr != null)
+			{
+				try
+				{
+					int compileID = Integer.parseInt(compileIDAttr);
+
+					result = compilations.get(compileID);
+
+					if (result == null)
+					{
+						result = new CompilationOffsets();
+
+						compilations.put(compileID, result);
+					}
+
+					if (result.methodIndex == -1)
+					{
+						String method = getAttribute(line, ATTR_METHOD);
+
+						if (method != null)
+						{
+							result.methodIndex = getMethodIndex(normaliseMethod(method));
+
+							methodCompileIDs.get(result.methodIndex).add(compileID);
+						}
+					}
+				}
+				catch (NumberFormatException nfe)
+				{
+					logger.warn("Not indexing compile_id {}", compileIDAttr);
+				}
+			}
+
+			return result;
+		}
+
+		private int getMethodIndex(String method)
+		{
+			Integer result = methodIndexes.get(method);
+
+			if (result == null)
+			{
+				result = methods.size();
+
+				methodIndexes.put(method, result);
+				methods.add(method);
+				methodCompileIDs.add(new ArrayList<>());
+			}
+
+			return result;
+		}
+
+		// the tasks of a compiler thread are written in stamp order one after
+		// the other, a checkpoint covers a run of them
+		private void addToCheckpoint(long startOffset, long endOffset, long stamp)
+		{
+			if (checkpoint == null || checkpoint[1] != startOffset || checkpointTasks == CHECKPOINT_TASKS)
+			{
+				checkpoint = new long[] { startOffset, endOffset, stamp, stamp };
+				checkpointTasks = 0;
+
+				checkpoints.add(checkpoint);
+			}
+
+			checkpoint[1] = endOffset;
+			checkpoint[2] = Math.min(checkpoint[2], stamp);
+			checkpoint[3] = Math.max(checkpoint[3], stamp);
+
+			checkpointTasks++;
+		}
+
+		void write(DataOutputStream output, long logLength, long logModified) throws IOException
+		{
+			int methodCount = methods.size();
+
+			byte[][] methodBytes = new byte[methodCount][];
+
+			Integer[] sortedMethods = new Integer[methodCount];
+
+			for (int i = 0; i < methodCount; i++)
+			{
+				methodBytes[i] = methods.get(i).getBytes(StandardCharsets.UTF_8);
+				sortedMethods[i] = i;
+			}
+
+			Arrays.sort(sortedMethods, (a, b) -> compareBytes(methodBytes[a], methodBytes[b]));
+
+			int[] sortedPosition = new int[methodCount];
+
+			for (int i = 0; i < methodCount; i++)
+			{
+				sortedPosition[sortedMethods[i]] = i;
+			}
+
+			int compileIDCount = 0;
+
+			for (List<Integer> compileIDs : methodCompileIDs)
+			{
+				compileIDCount += compileIDs.size();
+			}
+
+			output.writeInt(MAGIC);
+			output.writeInt(VERSION);
+			output.writeLong(logLength);
+			output.writeLong(logModified);
+			output.writeInt(compilations.size());
+			output.writeInt(methodCount);
+			output.writeInt(compileIDCount);
+			output.writeInt(checkpoints.size());
+			// reserved
+			output.writeInt(0);
+
+			Map<Integer, CompilationOffsets> sortedCompilations = new TreeMap<>(compilations);
+
+			for (Map.Entry<Integer, CompilationOffsets> entry : sortedCompilations.entrySet())
+			{
+				CompilationOffsets compilation = entry.getValue();
+
+				output.writeInt(entry.getKey());
+				output.writeInt((compilation.methodIndex == -1) ? -1 : sortedPosition[compilation.methodIndex]);
+				output.writeLong(compilation.stampQueued);
+				output.writeLong(compilation.taskQueuedOffset);
+				output.writeLong(compilation.nmethodOffset);
+				output.writeLong(compilation.taskStartOffset);
+				output.writeLong(compilation.taskEndOffset);
+				output.writeLong(compilation.printNMethodStartOffset);
+				output.writeLong(compilation.printNMethodEndOffset);
+			}
+
+			int stringOffset = 0;
+			int compileIDOffset = 0;
+
+			for (int i = 0; i < methodCount; i++)
+			{
+				int method = sortedMethods[i];
+
+				int compileIDs = methodCompileIDs.get(method).size();
+
+				output.writeInt(stringOffset);
+				output.writeInt(methodBytes[method].length);
+				output.writeInt(compileIDOffset);
+				output.writeInt(compileIDs);
+
+				stringOffset += methodBytes[method].length;
+				compileIDOffset += compileIDs;
+			}
+
+			for (int i = 0; i < methodCount; i++)
+			{
+				for (int compileID : methodCompileIDs.get(sortedMethods[i]))
+				{
+					output.writeInt(compileID);
+				}
+			}
+
+			for (long[] range : checkpoints)
+			{
+				for (long value : range)
+				{
+					output.writeLong(value);
+				}
+			}
+
+			for (int i = 0; i < methodCount; i++)
+			{
+				output.write(methodBytes[sortedMethods[i]]);
+			}
+		}
+
+		private static int compareBytes(byte[] a, byte[] b)
+		{
+			int common = Math.min(a.length, b.length);
+
+			for (int i = 0; i < common; i++)
+			{
+				int difference = (a[i] & 0xff) - (b[i] & 0xff);
+
+				if (difference != 0)
+				{
+					return difference;
+				}
+			}
+
+			return a.length - b.length;
+		}
+	}
+}
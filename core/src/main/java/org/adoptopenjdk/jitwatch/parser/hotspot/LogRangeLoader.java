@@ -0,0 +1,345 @@
+package org.adoptopenjdk.jitwatch.parser.hotspot;
+
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.ATTR_COMPILE_ID;
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.C_AT;
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.C_OPEN_ANGLE;
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.C_OPEN_SQUARE_BRACKET;
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.LOADED;
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.SKIP_BODY_TAGS;
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.S_OPEN_ANGLE;
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.S_SLASH;
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.TAG_CLOSE_CDATA;
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.TAG_NMETHOD;
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.TAG_OPEN_CDATA;
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.TAG_OPEN_CLOSE_CDATA;
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.TAG_PRINT_NMETHOD;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.adoptopenjdk.jitwatch.core.TagProcessor;
+import org.adoptopenjdk.jitwatch.logger.Logger;
+import org.adoptopenjdk.jitwatch.logger.LoggerFactory;
+import org.adoptopenjdk.jitwatch.model.Compilation;
+import org.adoptopenjdk.jitwatch.model.ICompilationDetailLoader;
+import org.adoptopenjdk.jitwatch.model.IReadOnlyJITDataModel;
+import org.adoptopenjdk.jitwatch.model.Tag;
+import org.adoptopenjdk.jitwatch.model.Task;
+import org.adoptopenjdk.jitwatch.model.assembly.AssemblyMethod;
+import org.adoptopenjdk.jitwatch.model.assembly.AssemblyProcessor;
+
+/**
+ * Reads the task tree or assembly of a single compilation back from its byte
+ * range in the log. The lines are trimmed and sorted into compilation and
+ * assembly lines the way HotSpotLogParser splits them so the result matches
+ * what a full parse builds. The most recently used task trees are cached.
+ */
+public class LogRangeLoader implements ICompilationDetailLoader
+{
+	private static final Logger logger = LoggerFactory.getLogger(LogRangeLoader.class);
+
+	private static final int TASK_CACHE_SIZE = 256;
+
+	// parsed methods are much larger than task trees
+	private static final int ASSEMBLY_CACHE_SIZE = 64;
+
+	private static final byte BYTE_LF = '\n';
+	private static final byte BYTE_CR = '\r';
+
+	private final File logFile;
+
+	private final IReadOnlyJITDataModel model;
+
+	private final Map<Compilation, Task> taskCache = new LinkedHashMap<Compilation, Task>(64, 0.75f, true)
+	{
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<Compilation, Task> eldest)
+		{
+			return size() > TASK_CACHE_SIZE;
+		}
+	};
+
+	private final Map<Compilation, AssemblyMethod> assemblyCache = new LinkedHashMap<Compilation, AssemblyMethod>(16, 0.75f, true)
+	{
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<Compilation, AssemblyMethod> eldest)
+		{
+			return size() > ASSEMBLY_CACHE_SIZE;
+		}
+	};
+
+	public LogRangeLoader(File logFile, IReadOnlyJITDataModel model)
+	{
+		this.logFile = logFile;
+		this.model = model;
+	}
+
+	@Override
+	public Task loadTask(Compilation compilation)
+	{
+		Task result;
+
+		synchronized (taskCache)
+		{
+			result = taskCache.get(compilation);
+		}
+
+		if (result == null)
+		{
+			result = readTask(compilation);
+
+			if (result != null)
+			{
+				synchronized (taskCache)
+				{
+					taskCache.put(compilation, result);
+				}
+			}
+		}
+
+		return result;
+	}
+
+	private Task readTask(Compilation compilation)
+	{
+		Task result = null;
+
+		try
+		{
+			TagProcessor tagProcessor = new TagProcessor();
+
+			for (String line : readLines(logFile, compilation.getTaskStartOffset(), compilation.getTaskEndOffset()))
+			{
+				if (line.startsWith(S_OPEN_ANGLE) && !isSkippedTag(line))
+				{
+					Tag tag = tagProcessor.processLine(line);
+
+					if (tag instanceof Task)
+					{
+						result = (Task) tag;
+						break;
+					}
+				}
+			}
+		}
+		catch (IOException ioe)
+		{
+			logger.error("Could not read task of compilation {} from {}", compilation.getCompileID(), logFile, ioe);
+		}
+
+		// the log has been changed since it was parsed
+		if (result != null && !compilation.getCompileID().equals(result.getAttribute(ATTR_COMPILE_ID)))
+		{
+			logger.warn("Task of compilation {} is no longer at its offset in {}", compilation.getCompileID(), logFile);
+
+			result = null;
+		}
+
+		return result;
+	}
+
+	@Override
+	public AssemblyMethod loadAssembly(Compilation compilation)
+	{
+		AssemblyMethod result;
+
+		synchronized (assemblyCache)
+		{
+			result = assemblyCache.get(compilation);
+		}
+
+		if (result == null)
+		{
+			result = readAssembly(compilation);
+
+			if (result != null)
+			{
+				synchronized (assemblyCache)
+				{
+					assemblyCache.put(compilation, result);
+				}
+			}
+		}
+
+		return result;
+	}
+
+	private AssemblyMethod readAssembly(Compilation compilation)
+	{
+		AssemblyMethod result = null;
+
+		long startOffset = compilation.getAssemblyStartOffset();
+		long endOffset = compilation.getAssemblyEndOffset();
+
+		try
+		{
+			AssemblyProcessor asmProcessor = new AssemblyProcessor();
+
+			asmProcessor.setDefaultArchitecture(model.getArchitecture());
+
+			for (String line : readLines(logFile, startOffset, endOffset))
+			{
+				String assembly = getAssemblyPart(line);
+
+				if (assembly != null)
+				{
+					asmProcessor.handleLine(assembly);
+				}
+			}
+
+			asmProcessor.complete();
+
+			List<AssemblyMethod> assemblyMethods = asmProcessor.getAssemblyMethods();
+
+			if (!assemblyMethods.isEmpty())
+			{
+				result = assemblyMethods.get(0);
+
+				result.setLogOffsets(startOffset, endOffset);
+
+				// the log has been changed since it was parsed
+				if (!isSameAddress(result.getEntryAddress(), compilation.getEntryAddress())
+						&& !isSameAddress(result.getNativeAddress(), compilation.getNativeAddress()))
+				{
+					logger.warn("Assembly of compilation {} is no longer at its offset in {}", compilation.getCompileID(), logFile);
+
+					result = null;
+				}
+			}
+		}
+		catch (IOException ioe)
+		{
+			logger.error("Could not read assembly of compilation {} from {}", compilation.getCompileID(), logFile, ioe);
+		}
+
+		return result;
+	}
+
+	private static boolean isSameAddress(String address, String compilationAddress)
+	{
+		return address != null && address.equals(compilationAddress);
+	}
+
+	static boolean isSkippedTag(String line)
+	{
+		for (String skip : SKIP_BODY_TAGS)
+		{
+			if (line.startsWith(skip))
+			{
+				return true;
+			}
+		}
+
+		return false;
+	}
+
+	// the assembly text of a body line as HotSpotLogParser.handleLogLine
+	// would pass it to the AssemblyProcessor, null for other lines
+	private static String getAssemblyPart(String line)
+	{
+		if (line.startsWith(TAG_OPEN_CDATA) || line.startsWith(TAG_CLOSE_CDATA) || line.startsWith(TAG_OPEN_CLOSE_CDATA)
+				|| line.startsWith(S_OPEN_ANGLE) || line.startsWith(LOADED) || line.charAt(0) == C_AT)
+		{
+			return null;
+		}
+
+		int index = line.indexOf(S_OPEN_ANGLE + TAG_NMETHOD);
+
+		if (index == -1)
+		{
+			index = line.indexOf(S_OPEN_ANGLE + S_SLASH + TAG_PRINT_NMETHOD);
+		}
+
+		return (index != -1) ? line.substring(0, index) : line;
+	}
+
+	/**
+	 * @return the trimmed, non empty lines of a byte range of the log
+	 */
+	static List<String> readLines(File logFile, long startOffset, long endOffset) throws IOException
+	{
+		long length = endOffset - startOffset;
+
+		if (startOffset < 0 || length < 0 || length > Integer.MAX_VALUE)
+		{
+			throw new IOException("Invalid range " + startOffset + " to " + endOffset);
+		}
+
+		ByteBuffer buffer = ByteBuffer.allocate((int) length);
+
+		try (FileChannel channel = FileChannel.open(logFile.toPath(), StandardOpenOption.READ))
+		{
+			long position = startOffset;
+
+			while (buffer.hasRemaining())
+			{
+				int read = channel.read(buffer, position);
+
+				if (read <= 0)
+				{
+					throw new IOException("Log ended before offset " + endOffset);
+				}
+
+				position += read;
+			}
+		}
+
+		byte[] bytes = buffer.array();
+
+		List<String> lines = new ArrayList<>();
+
+		int lineStart = 0;
+
+		for (int i = 0; i <= bytes.length; i++)
+		{
+			if (i == bytes.length || bytes[i] == BYTE_LF)
+			{
+				int lineEnd = i;
+
+				if (lineEnd > lineStart && bytes[lineEnd - 1] == BYTE_CR)
+				{
+					lineEnd--;
+				}
+
+				if (lineEnd > lineStart)
+				{
+					addLine(lines, new String(bytes, lineStart, lineEnd - lineStart, StandardCharsets.UTF_8));
+				}
+
+				lineStart = i + 1;
+			}
+		}
+
+		return lines;
+	}
+
+	// trimmed as in HotSpotLogParser.splitLine
+	private static void addLine(List<String> lines, String line)
+	{
+		String trimmedLine = line.trim();
+
+		if (trimmedLine.length() > 0)
+		{
+			char firstChar = trimmedLine.charAt(0);
+
+			if (firstChar == C_OPEN_ANGLE || firstChar == C_OPEN_SQUARE_BRACKET || firstChar == C_AT)
+			{
+				line = trimmedLine;
+			}
+
+			lines.add(line);
+		}
+	}
+}
@@ -0,0 +1,315 @@
+package org.adoptopenjdk.jitwatch.parser.hotspot;
+
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.DEBUG_LOGGING;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+import org.adoptopenjdk.jitwatch.logger.Logger;
+import org.adoptopenjdk.jitwatch.logger.LoggerFactory;
+
+/**
+ * Reads a log file through a sequence of memory-mapped windows. Each window
+ * ends on a line boundary and is cut into one chunk per worker so the bytes
+ * can be decoded into lines in parallel. Lines are returned in file order
+ * and the byte offset of each line in the file is kept for the last window.
+ * Without a pool the window is decoded on the calling thread.
+ */
+public class MappedLogReader implements Closeable
+{
+	private static final Logger logger = LoggerFactory.getLogger(MappedLogReader.class);
+
+	public static final int DEFAULT_WINDOW_SIZE = 64 * 1024 * 1024;
+
+	private static final byte BYTE_LF = '\n';
+	private static final byte BYTE_CR = '\r';
+
+	private final FileChannel channel;
+	private final long fileSize;
+	private final ForkJoinPool pool;
+	private final int windowSize;
+
+	private long position = 0;
+
+	// offsets of the lines of the last window relative to windowStart, the
+	// last entry is the end of the window
+	private long windowStart = 0;
+	private int[] lineStarts = new int[0];
+
+	public MappedLogReader(File logFile, ForkJoinPool pool) throws IOException
+	{
+		this(logFile, pool, DEFAULT_WINDOW_SIZE);
+	}
+
+	public MappedLogReader(File logFile, ForkJoinPool pool, int windowSize) throws IOException
+	{
+		this.channel = FileChannel.open(logFile.toPath(), StandardOpenOption.READ);
+		this.fileSize = channel.size();
+		this.pool = pool;
+		this.windowSize = windowSize;
+	}
+
+	public long getPosition()
+	{
+		return position;
+	}
+
+	public long getFileSize()
+	{
+		return fileSize;
+	}
+
+	/**
+	 * Moves the next readNextLines() to an offset, which must be the start of
+	 * a line. Lines of the last window after the offset are not returned.
+	 */
+	public void seek(long offset)
+	{
+		if (offset < 0 || offset > fileSize)
+		{
+			throw new IllegalArgumentException("Offset " + offset + " outside file of " + fileSize + " bytes");
+		}
+
+		position = offset;
+	}
+
+	/**
+	 * @return the file offset of a line returned by the last readNextLines()
+	 */
+	public long getLineOffset(int index)
+	{
+		return windowStart + lineStarts[index];
+	}
+
+	/**
+	 * @return the file offset after the line terminator of a line returned by
+	 *         the last readNextLines()
+	 */
+	public long getLineEndOffset(int index)
+	{
+		return windowStart + lineStarts[index + 1];
+	}
+
+	/**
+	 * @return the lines of the next window or null at end of file
+	 */
+	public List<String> readNextLines() throws IOException
+	{
+		if (position >= fileSize)
+		{
+			return null;
+		}
+
+		long mapSize = Math.min(windowSize, fileSize - position);
+
+		MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, position, mapSize);
+
+		int limit = (int) mapSize;
+
+		if (position + mapSize < fileSize)
+		{
+			int lastNewline = findPreviousNewline(buffer, limit - 1, 0);
+
+			// a single line longer than the window, map as far as its end
+			while (lastNewline == -1 && position + mapSize < fileSize)
+			{
+				long biggerSize = Math.min(Integer.MAX_VALUE, Math.min(mapSize * 2, fileSize - position));
+
+				if (biggerSize == mapSize)
+				{
+					throw new IOException("Line too long at offset " + position);
+				}
+
+				mapSize = biggerSize;
+
+				buffer = channel.map(FileChannel.MapMode.READ_ONLY, position, mapSize);
+
+				lastNewline = (position + mapSize < fileSize) ? findPreviousNewline(buffer, (int) mapSize - 1, 0) : (int) mapSize - 1;
+			}
+
+			limit = lastNewline + 1;
+		}
+
+		windowStart = position;
+
+		List<String> lines = decodeLines(buffer, limit);
+
+		position += limit;
+
+		if (DEBUG_LOGGING)
+		{
+			logger.debug("Read {} lines, position {} / {}", lines.size(), position, fileSize);
+		}
+
+		return lines;
+	}
+
+	private List<String> decodeLines(final MappedByteBuffer buffer, int limit)
+	{
+		int parallelism = (pool != null) ? pool.getParallelism() : 1;
+
+		int chunkCount = Math.max(1, Math.min(parallelism, limit / 65536));
+
+		int[] chunkStarts = new int[chunkCount + 1];
+
+		chunkStarts[chunkCount] = limit;
+
+		for (int i = 1; i < chunkCount; i++)
+		{
+			int target = (int) ((long) limit * i / chunkCount);
+
+			int newline = findPreviousNewline(buffer, target, chunkStarts[i - 1]);
+
+			chunkStarts[i] = (newline == -1) ? chunkStarts[i - 1] : newline + 1;
+		}
+
+		List<DecodedChunk> chunks = new ArrayList<>(chunkCount);
+
+		if (pool == null)
+		{
+			chunks.add(decodeChunk(buffer, 0, limit));
+		}
+		else
+		{
+			List<ForkJoinTask<DecodedChunk>> tasks = new ArrayList<>(chunkCount);
+
+			for (int i = 0; i < chunkCount; i++)
+			{
+				final int start = chunkStarts[i];
+				final int end = chunkStarts[i + 1];
+
+				tasks.add(pool.submit(() -> decodeChunk(buffer, start, end)));
+			}
+
+			for (ForkJoinTask<DecodedChunk> task : tasks)
+			{
+				chunks.add(task.join());
+			}
+		}
+
+		int lineCount = 0;
+
+		for (DecodedChunk chunk : chunks)
+		{
+			lineCount += chunk.lines.size();
+		}
+
+		List<String> result = new ArrayList<>(lineCount);
+
+		lineStarts = new int[lineCount + 1];
+
+		int index = 0;
+
+		for (DecodedChunk chunk : chunks)
+		{
+			result.addAll(chunk.lines);
+
+			System.arraycopy(chunk.starts, 0, lineStarts, index, chunk.lines.size());
+
+			index += chunk.lines.size();
+		}
+
+		lineStarts[lineCount] = limit;
+
+		return result;
+	}
+
+	private static class DecodedChunk
+	{
+		private final List<String> lines;
+		private final int[] starts;
+
+		DecodedChunk(List<String> lines, int[] starts)
+		{
+			this.lines = lines;
+			this.starts = starts;
+		}
+	}
+
+	private static DecodedChunk decodeChunk(MappedByteBuffer buffer, int start, int end)
+	{
+		List<String> lines = new ArrayList<>();
+
+		if (end <= start)
+		{
+			return new DecodedChunk(lines, new int[0]);
+		}
+
+		byte[] bytes = new byte[end - start];
+
+		buffer.get(start, bytes, 0, bytes.length);
+
+		int[] starts = new int[256];
+
+		int lineStart = 0;
+
+		for (int i = 0; i < bytes.length; i++)
+		{
+			if (bytes[i] == BYTE_LF)
+			{
+				starts = addStart(starts, lines.size(), start + lineStart);
+				lines.add(decodeLine(bytes, lineStart, i));
+				lineStart = i + 1;
+			}
+		}
+
+		if (lineStart < bytes.length)
+		{
+			starts = addStart(starts, lines.size(), start + lineStart);
+			lines.add(decodeLine(bytes, lineStart, bytes.length));
+		}
+
+		return new DecodedChunk(lines, starts);
+	}
+
+	private static int[] addStart(int[] starts, int index, int value)
+	{
+		if (index == starts.length)
+		{
+			starts = Arrays.copyOf(starts, starts.length * 2);
+		}
+
+		starts[index] = value;
+
+		return starts;
+	}
+
+	private static String decodeLine(byte[] bytes, int start, int end)
+	{
+		if (end > start && bytes[end - 1] == BYTE_CR)
+		{
+			end--;
+		}
+
+		return new String(bytes, start, end - start, StandardCharsets.UTF_8);
+	}
+
+	private static int findPreviousNewline(MappedByteBuffer buffer, int from, int lowerBound)
+	{
+		for (int i = from; i >= lowerBound; i--)
+		{
+			if (buffer.get(i) == BYTE_LF)
+			{
+				return i;
+			}
+		}
+
+		return -1;
+	}
+
+	@Override
+	public void close() throws IOException
+	{
+		channel.close();
+	}
+}
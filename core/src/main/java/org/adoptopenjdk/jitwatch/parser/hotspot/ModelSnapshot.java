@@ -0,0 +1,796 @@
+package org.adoptopenjdk.jitwatch.parser.hotspot;
+
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.TAG_NMETHOD;
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.TAG_TASK_DONE;
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.TAG_TASK_QUEUED;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.adoptopenjdk.jitwatch.model.AbstractMetaMember;
+import org.adoptopenjdk.jitwatch.model.CodeCacheEvent;
+import org.adoptopenjdk.jitwatch.model.CodeCacheEvent.CodeCacheEventType;
+import org.adoptopenjdk.jitwatch.model.Compilation;
+import org.adoptopenjdk.jitwatch.model.CompilerThread;
+import org.adoptopenjdk.jitwatch.model.EventType;
+import org.adoptopenjdk.jitwatch.model.ICompilationDetailLoader;
+import org.adoptopenjdk.jitwatch.model.IMetaMember;
+import org.adoptopenjdk.jitwatch.model.JITDataModel;
+import org.adoptopenjdk.jitwatch.model.JITEvent;
+import org.adoptopenjdk.jitwatch.model.MemberSignatureParts;
+import org.adoptopenjdk.jitwatch.model.MetaClass;
+import org.adoptopenjdk.jitwatch.model.MetaConstructor;
+import org.adoptopenjdk.jitwatch.model.MetaMethod;
+import org.adoptopenjdk.jitwatch.model.MetaPackage;
+import org.adoptopenjdk.jitwatch.model.PackageManager;
+import org.adoptopenjdk.jitwatch.model.Tag;
+import org.adoptopenjdk.jitwatch.model.TagAttributes;
+import org.adoptopenjdk.jitwatch.model.assembly.Architecture;
+
+/**
+ * A binary copy of the model built from a log, kept next to the log so the
+ * log does not have to be parsed again when it is reopened. It holds the
+ * package, class and member tree, the compilations with the attributes of
+ * their small tags, the JIT and code cache events and the compiler threads.
+ * Task trees and assembly are not copied, each compilation keeps the byte
+ * ranges of its task and assembly in the log and reads them when asked.
+ *
+ * The snapshot is only used while the size and modification time of the log
+ * match the ones recorded when it was written.
+ */
+public class ModelSnapshot
+{
+	public static final String SNAPSHOT_EXTENSION = ".snapshot";
+
+	private static final int MAGIC = 0x4A57534D;
+
+	private static final int VERSION = 2;
+
+	private final File logFile;
+	private final File snapshotFile;
+
+	// taken before the log is parsed so a log still being written is not
+	// mistaken for the content that was parsed
+	private final long logLength;
+	private final long logModified;
+
+	private String vmCommand;
+
+	private List<String> classLocations = new ArrayList<>();
+
+	public ModelSnapshot(File logFile)
+	{
+		this.logFile = logFile;
+		this.snapshotFile = new File(logFile.getPath() + SNAPSHOT_EXTENSION);
+		this.logLength = logFile.length();
+		this.logModified = logFile.lastModified();
+	}
+
+	public File getSnapshotFile()
+	{
+		return snapshotFile;
+	}
+
+	public String getVMCommand()
+	{
+		return vmCommand;
+	}
+
+	public void setVMCommand(String vmCommand)
+	{
+		this.vmCommand = vmCommand;
+	}
+
+	public List<String> getClassLocations()
+	{
+		return classLocations;
+	}
+
+	public void setClassLocations(List<String> classLocations)
+	{
+		this.classLocations = new ArrayList<>(classLocations);
+	}
+
+	/**
+	 * @return true if a snapshot exists and was written for the log as it is now
+	 */
+	public boolean isCurrent()
+	{
+		boolean result = false;
+
+		if (snapshotFile.isFile())
+		{
+			try (DataInputStream input = new DataInputStream(new FileInputStream(snapshotFile)))
+			{
+				result = input.readInt() == MAGIC && input.readInt() == VERSION && input.readLong() == logLength
+						&& input.readLong() == logModified;
+			}
+			catch (IOException ioe)
+			{
+				result = false;
+			}
+		}
+
+		return result;
+	}
+
+	public void write(JITDataModel model) throws IOException
+	{
+		// a unique name so parses of the same log at once do not write into
+		// each other's file
+		File tempFile = Files.createTempFile(snapshotFile.getAbsoluteFile().getParentFile().toPath(), snapshotFile.getName(), ".tmp")
+				.toFile();
+
+		boolean moved = false;
+
+		try
+		{
+			try (SnapshotOutput output = new SnapshotOutput(tempFile))
+			{
+				output.writeHeader(logLength, logModified);
+
+				output.writeString(vmCommand);
+
+				output.writeInt(classLocations.size());
+
+				for (String location : classLocations)
+				{
+					output.writeString(location);
+				}
+
+				writeModel(output, model);
+			}
+
+			Files.move(tempFile.toPath(), snapshotFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+
+			moved = true;
+		}
+		finally
+		{
+			if (!moved)
+			{
+				Files.deleteIfExists(tempFile.toPath());
+			}
+		}
+	}
+
+	/**
+	 * Rebuilds the model from the snapshot, the model must be empty
+	 */
+	public void read(JITDataModel model, ICompilationDetailLoader detailLoader) throws IOException
+	{
+		try (SnapshotInput input = new SnapshotInput(snapshotFile))
+		{
+			if (!input.readHeader(logLength, logModified))
+			{
+				throw new IOException("Snapshot does not match " + logFile);
+			}
+
+			vmCommand = input.readString();
+
+			int locationCount = input.readInt();
+
+			classLocations = new ArrayList<>(locationCount);
+
+			for (int i = 0; i < locationCount; i++)
+			{
+				classLocations.add(input.readString());
+			}
+
+			readModel(input, model, detailLoader);
+		}
+		catch (RuntimeException re)
+		{
+			throw new IOException("Corrupt snapshot " + snapshotFile, re);
+		}
+	}
+
+	private void writeModel(SnapshotOutput output, JITDataModel model) throws IOException
+	{
+		output.writeInt(model.getJDKMajorVersion());
+
+		Architecture architecture = model.getArchitecture();
+
+		output.writeString(architecture != null ? architecture.name() : null);
+
+		output.writeLong(model.getBaseTimestamp());
+
+		Tag endOfLog = model.getEndOfLogTag();
+
+		output.writeString(endOfLog != null ? endOfLog.getName() : null);
+
+		if (endOfLog != null)
+		{
+			output.writeAttributes(endOfLog.getAttributes());
+		}
+
+		List<MetaPackage> packages = new ArrayList<>();
+
+		for (MetaPackage rootPackage : model.getPackageManager().getRootPackages())
+		{
+			collectPackages(rootPackage, packages);
+		}
+
+		Map<IMetaMember, Integer> memberIndexes = new IdentityHashMap<>();
+
+		output.writeInt(packages.size());
+
+		for (MetaPackage metaPackage : packages)
+		{
+			output.writeString(metaPackage.getName());
+			output.writeBoolean(metaPackage.hasCompiledClasses());
+
+			List<MetaClass> metaClasses = metaPackage.getPackageClasses();
+
+			output.writeInt(metaClasses.size());
+
+			for (MetaClass metaClass : metaClasses)
+			{
+				writeClass(output, metaClass, memberIndexes);
+			}
+		}
+
+		List<CompilerThread> compilerThreads = model.getCompilerThreads();
+
+		output.writeInt(compilerThreads.size());
+
+		for (CompilerThread compilerThread : compilerThreads)
+		{
+			output.writeString(compilerThread.getThreadId());
+			output.writeString(compilerThread.getThreadName());
+
+			List<Compilation> compilations = compilerThread.getCompilations();
+
+			output.writeInt(compilations.size());
+
+			for (Compilation compilation : compilations)
+			{
+				output.writeInt(memberIndexes.get(compilation.getMember()));
+				output.writeInt(compilation.getIndex());
+			}
+		}
+
+		List<JITEvent> events = model.getEventListCopy();
+
+		output.writeInt(events.size());
+
+		for (JITEvent event : events)
+		{
+			output.writeLong(event.getStamp());
+			output.writeString(event.getEventType().name());
+			output.writeInt(memberIndexes.get(event.getEventMember()));
+			output.writeInt(event.getLevel());
+		}
+
+		List<CodeCacheEvent> codeCacheEvents = model.getCodeCacheEvents();
+
+		output.writeInt(codeCacheEvents.size());
+
+		for (CodeCacheEvent event : codeCacheEvents)
+		{
+			output.writeString(event.getEventType().name());
+			output.writeLong(event.getStamp());
+			output.writeLong(event.getNativeCodeSize());
+			output.writeLong(event.getFreeCodeCache());
+		}
+
+		long[] counters = model.getJITStats().getCounters();
+
+		output.writeInt(counters.length);
+
+		for (long counter : counters)
+		{
+			output.writeLong(counter);
+		}
+	}
+
+	private void collectPackages(MetaPackage metaPackage, List<MetaPackage> packages)
+	{
+		packages.add(metaPackage);
+
+		for (MetaPackage childPackage : metaPackage.getChildPackages())
+		{
+			collectPackages(childPackage, packages);
+		}
+	}
+
+	private void writeClass(SnapshotOutput output, MetaClass metaClass, Map<IMetaMember, Integer> memberIndexes) throws IOException
+	{
+		output.writeString(metaClass.getName());
+
+		output.writeInt(metaClass.getCompiledMethodCount());
+
+		List<IMetaMember> members = metaClass.getMetaMembers();
+
+		output.writeInt(members.size());
+
+		for (IMetaMember member : members)
+		{
+			memberIndexes.put(member, memberIndexes.size());
+
+			MemberSignatureParts msp = getMemberSignatureParts(member);
+
+			output.writeBoolean(member.isConstructor());
+			output.writeString(msp != null ? msp.getMemberName() : member.getMemberName());
+			output.writeString(msp != null ? msp.getReturnType() : member.getReturnTypeName());
+
+			List<String> paramTypes = (msp != null) ? msp.getParamTypes() : Arrays.asList(member.getParamTypeNames());
+
+			output.writeInt(paramTypes.size());
+
+			for (String paramType : paramTypes)
+			{
+				output.writeString(paramType);
+			}
+
+			output.writeBoolean(member.isCompiled());
+
+			List<Compilation> compilations = member.getCompilations();
+
+			output.writeInt(compilations.size());
+
+			for (Compilation compilation : compilations)
+			{
+				writeCompilation(output, compilation);
+			}
+		}
+	}
+
+	private MemberSignatureParts getMemberSignatureParts(IMetaMember member)
+	{
+		MemberSignatureParts result = null;
+
+		if (member instanceof MetaMethod)
+		{
+			result = ((MetaMethod) member).getMemberSignatureParts();
+		}
+		else if (member instanceof MetaConstructor)
+		{
+			result = ((MetaConstructor) member).getMemberSignatureParts();
+		}
+
+		return result;
+	}
+
+	private void writeCompilation(SnapshotOutput output, Compilation compilation) throws IOException
+	{
+		output.writeTag(compilation.getTagTaskQueued());
+		output.writeTag(compilation.getTagNMethod());
+		output.writeTag(compilation.getTagTaskDone());
+
+		output.writeLong(compilation.getStampTaskCompilationStart());
+		output.writeInt(compilation.getBytecodeSize());
+		output.writeBoolean(compilation.isFailed());
+		output.writeBoolean(compilation.isStaleTask());
+
+		output.writeLong(compilation.getTaskStartOffset());
+		output.writeLong(compilation.getTaskEndOffset());
+		output.writeLong(compilation.getAssemblyStartOffset());
+		output.writeLong(compilation.getAssemblyEndOffset());
+	}
+
+	private void readModel(SnapshotInput input, JITDataModel model, ICompilationDetailLoader detailLoader)
+	{
+		model.setJDKMajorVersion(input.readInt());
+
+		String architecture = input.readString();
+
+		model.setArchitecture(architecture != null ? Architecture.valueOf(architecture) : null);
+
+		model.setBaseTimestamp(input.readLong());
+
+		String endOfLogName = input.readString();
+
+		if (endOfLogName != null)
+		{
+			model.setEndOfLog(new Tag(endOfLogName, input.readAttributes(), true));
+		}
+
+		PackageManager packageManager = model.getPackageManager();
+
+		List<IMetaMember> members = new ArrayList<>();
+
+		int packageCount = input.readInt();
+
+		for (int i = 0; i < packageCount; i++)
+		{
+			String packageName = input.readString();
+
+			MetaPackage metaPackage = packageManager.buildPackage(packageName);
+
+			if (input.readBoolean())
+			{
+				metaPackage.setHasCompiledClasses();
+			}
+
+			int classCount = input.readInt();
+
+			for (int j = 0; j < classCount; j++)
+			{
+				readClass(input, metaPackage, packageManager, members, detailLoader);
+			}
+		}
+
+		int threadCount = input.readInt();
+
+		for (int i = 0; i < threadCount; i++)
+		{
+			CompilerThread compilerThread = model.createCompilerThread(input.readString(), input.readString());
+
+			int compilationCount = input.readInt();
+
+			for (int j = 0; j < compilationCount; j++)
+			{
+				IMetaMember member = members.get(input.readInt());
+
+				compilerThread.addCompilation(member.getCompilations().get(input.readInt()));
+			}
+		}
+
+		int eventCount = input.readInt();
+
+		for (int i = 0; i < eventCount; i++)
+		{
+			long stamp = input.readLong();
+			EventType eventType = EventType.valueOf(input.readString());
+			IMetaMember member = members.get(input.readInt());
+			int level = input.readInt();
+
+			model.addEvent(new JITEvent(stamp, eventType, member, level));
+		}
+
+		int codeCacheEventCount = input.readInt();
+
+		for (int i = 0; i < codeCacheEventCount; i++)
+		{
+			CodeCacheEventType eventType = CodeCacheEventType.valueOf(input.readString());
+			long stamp = input.readLong();
+			long nativeCodeSize = input.readLong();
+			long freeCodeCache = input.readLong();
+
+			model.addCodeCacheEvent(new CodeCacheEvent(eventType, stamp, nativeCodeSize, freeCodeCache));
+		}
+
+		long[] counters = new long[input.readInt()];
+
+		for (int i = 0; i < counters.length; i++)
+		{
+			counters[i] = input.readLong();
+		}
+
+		model.getJITStats().setCounters(counters);
+	}
+
+	private void readClass(SnapshotInput input, MetaPackage metaPackage, PackageManager packageManager, List<IMetaMember> members,
+			ICompilationDetailLoader detailLoader)
+	{
+		MetaClass metaClass = new MetaClass(metaPackage, input.readString());
+
+		packageManager.addMetaClass(metaClass);
+
+		metaPackage.addClass(metaClass);
+
+		metaClass.setCompiledMethodCount(input.readInt());
+
+		String fqClassName = metaClass.getFullyQualifiedName();
+
+		int memberCount = input.readInt();
+
+		for (int i = 0; i < memberCount; i++)
+		{
+			boolean isConstructor = input.readBoolean();
+			String memberName = input.readString();
+			String returnType = input.readString();
+
+			int paramCount = input.readInt();
+
+			List<String> paramTypes = new ArrayList<>(paramCount);
+
+			for (int j = 0; j < paramCount; j++)
+			{
+				paramTypes.add(input.readString());
+			}
+
+			MemberSignatureParts msp = MemberSignatureParts.fromParts(fqClassName, memberName, returnType, paramTypes);
+
+			AbstractMetaMember member = isConstructor ? new MetaConstructor(msp, metaClass) : new MetaMethod(msp, metaClass);
+
+			metaClass.addMember(member);
+
+			members.add(member);
+
+			member.setCompiled(input.readBoolean());
+
+			int compilationCount = input.readInt();
+
+			for (int j = 0; j < compilationCount; j++)
+			{
+				member.storeCompilation(readCompilation(input, member, j, detailLoader));
+			}
+		}
+	}
+
+	private Compilation readCompilation(SnapshotInput input, IMetaMember member, int index, ICompilationDetailLoader detailLoader)
+	{
+		Compilation compilation = new Compilation(member, index);
+
+		Tag tagTaskQueued = input.readTag(TAG_TASK_QUEUED);
+		Tag tagNMethod = input.readTag(TAG_NMETHOD);
+		Tag tagTaskDone = input.readTag(TAG_TASK_DONE);
+
+		if (tagTaskQueued != null)
+		{
+			compilation.setTagTaskQueued(tagTaskQueued);
+		}
+
+		if (tagNMethod != null)
+		{
+			compilation.setTagNMethod(tagNMethod);
+		}
+
+		if (tagTaskDone != null)
+		{
+			compilation.setTagTaskDone(tagTaskDone);
+		}
+
+		long stampTaskCompilationStart = input.readLong();
+		int bytecodeSize = input.readInt();
+		boolean failedTask = input.readBoolean();
+		boolean staleTask = input.readBoolean();
+
+		compilation.setTaskFacts(stampTaskCompilationStart, bytecodeSize, failedTask, staleTask);
+
+		long taskStartOffset = input.readLong();
+		long taskEndOffset = input.readLong();
+
+		compilation.setTaskOffsets(taskStartOffset, taskEndOffset);
+
+		long assemblyStartOffset = input.readLong();
+		long assemblyEndOffset = input.readLong();
+
+		compilation.setAssemblyOffsets(assemblyStartOffset, assemblyEndOffset);
+
+		compilation.setDetailLoader(detailLoader);
+
+		return compilation;
+	}
+
+	/**
+	 * Numbers are written as variable length zig-zag values. Each distinct
+	 * string is written once and then referred to by its position.
+	 */
+	private static class SnapshotOutput implements Closeable
+	{
+		private final DataOutputStream output;
+
+		private final Map<String, Integer> strings = new HashMap<>();
+
+		SnapshotOutput(File file) throws IOException
+		{
+			output = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file), 65536));
+		}
+
+		void writeHeader(long logLength, long logModified) throws IOException
+		{
+			output.writeInt(MAGIC);
+			output.writeInt(VERSION);
+			output.writeLong(logLength);
+			output.writeLong(logModified);
+		}
+
+		void writeBoolean(boolean value) throws IOException
+		{
+			output.writeByte(value ? 1 : 0);
+		}
+
+		void writeInt(int value) throws IOException
+		{
+			writeLong(value);
+		}
+
+		void writeLong(long value) throws IOException
+		{
+			long zigZag = (value << 1) ^ (value >> 63);
+
+			while ((zigZag & ~0x7FL) != 0)
+			{
+				output.writeByte((int) ((zigZag & 0x7F) | 0x80));
+				zigZag >>>= 7;
+			}
+
+			output.writeByte((int) zigZag);
+		}
+
+		// 0 is null, 1 is a new string, n is the string first written at n - 2
+		void writeString(String value) throws IOException
+		{
+			if (value == null)
+			{
+				writeLong(0);
+			}
+			else
+			{
+				Integer index = strings.get(value);
+
+				if (index != null)
+				{
+					writeLong(index + 2);
+				}
+				else
+				{
+					strings.put(value, strings.size());
+
+					byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+
+					writeLong(1);
+					writeLong(bytes.length);
+					output.write(bytes);
+				}
+			}
+		}
+
+		void writeAttributes(Map<String, String> attributes) throws IOException
+		{
+			writeInt(attributes.size());
+
+			for (Map.Entry<String, String> entry : attributes.entrySet())
+			{
+				writeString(entry.getKey());
+				writeString(entry.getValue());
+			}
+		}
+
+		void writeTag(Tag tag) throws IOException
+		{
+			writeBoolean(tag != null);
+
+			if (tag != null)
+			{
+				writeAttributes(tag.getAttributes());
+			}
+		}
+
+		@Override
+		public void close() throws IOException
+		{
+			output.close();
+		}
+	}
+
+	private static class SnapshotInput implements Closeable
+	{
+		private final FileChannel channel;
+
+		private final MappedByteBuffer buffer;
+
+		private final List<String> strings = new ArrayList<>();
+
+		SnapshotInput(File file) throws IOException
+		{
+			channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+
+			long size = channel.size();
+
+			if (size > Integer.MAX_VALUE)
+			{
+				channel.close();
+
+				throw new IOException("Snapshot too large to map " + file);
+			}
+
+			buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+		}
+
+		boolean readHeader(long logLength, long logModified)
+		{
+			return buffer.remaining() >= 24 && buffer.getInt() == MAGIC && buffer.getInt() == VERSION && buffer.getLong() == logLength
+					&& buffer.getLong() == logModified;
+		}
+
+		boolean readBoolean()
+		{
+			return buffer.get() != 0;
+		}
+
+		int readInt()
+		{
+			return (int) readLong();
+		}
+
+		long readLong()
+		{
+			long zigZag = 0;
+
+			int shift = 0;
+
+			byte b;
+
+			do
+			{
+				b = buffer.get();
+
+				zigZag |= (long) (b & 0x7F) << shift;
+
+				shift += 7;
+			}
+			while ((b & 0x80) != 0);
+
+			return (zigZag >>> 1) ^ -(zigZag & 1);
+		}
+
+		String readString()
+		{
+			String result = null;
+
+			int code = readInt();
+
+			if (code == 1)
+			{
+				byte[] bytes = new byte[readInt()];
+
+				buffer.get(bytes);
+
+				result = new String(bytes, StandardCharsets.UTF_8);
+
+				strings.add(result);
+			}
+			else if (code > 1)
+			{
+				result = strings.get(code - 2);
+			}
+
+			return result;
+		}
+
+		TagAttributes readAttributes()
+		{
+			int count = readInt();
+
+			Map<String, String> attributes = new LinkedHashMap<>();
+
+			for (int i = 0; i < count; i++)
+			{
+				attributes.put(readString(), readString());
+			}
+
+			return TagAttributes.fromMap(attributes);
+		}
+
+		Tag readTag(String name)
+		{
+			Tag result = null;
+
+			if (readBoolean())
+			{
+				result = new Tag(name, readAttributes(), true);
+			}
+
+			return result;
+		}
+
+		@Override
+		public void close() throws IOException
+		{
+			channel.close();
+		}
+	}
+}
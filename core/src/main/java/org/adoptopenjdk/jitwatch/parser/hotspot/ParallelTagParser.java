@@ -0,0 +1,273 @@
+package org.adoptopenjdk.jitwatch.parser.hotspot;
+
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.C_CLOSE_ANGLE;
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.C_OPEN_ANGLE;
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.C_SLASH;
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.C_SPACE;
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.DEBUG_LOGGING;
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.S_FRAGMENT;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BooleanSupplier;
+import java.util.function.Predicate;
+
+import org.adoptopenjdk.jitwatch.core.TagProcessor;
+import org.adoptopenjdk.jitwatch.logger.Logger;
+import org.adoptopenjdk.jitwatch.logger.LoggerFactory;
+import org.adoptopenjdk.jitwatch.model.NumberedLine;
+import org.adoptopenjdk.jitwatch.model.Tag;
+import org.adoptopenjdk.jitwatch.parser.PackageFilter;
+import org.adoptopenjdk.jitwatch.parser.StampWindow;
+
+/**
+ * Builds the top-level tags of the LogCompilation body on a fork-join pool.
+ * The lines are cut at the points where a serial TagProcessor would be back
+ * at the top level (e.g. after a closing &lt;/task&gt;) and each batch of
+ * complete tags is given its own TagProcessor. The tags are then handed to
+ * the handler in log order on the calling thread.
+ */
+public class ParallelTagParser
+{
+	private static final Logger logger = LoggerFactory.getLogger(ParallelTagParser.class);
+
+	private static final int BATCH_LINES = 4096;
+
+	public interface ITagHandler
+	{
+		void handleTag(Tag tag, long lineNumber, long startOffset, long endOffset);
+	}
+
+	private static class ParsedTag
+	{
+		private final Tag tag;
+		private final long lineNumber;
+		private final long startOffset;
+		private final long endOffset;
+
+		ParsedTag(Tag tag, long lineNumber, long startOffset, long endOffset)
+		{
+			this.tag = tag;
+			this.lineNumber = lineNumber;
+			this.startOffset = startOffset;
+			this.endOffset = endOffset;
+		}
+	}
+
+	private final ForkJoinPool pool;
+
+	private final LongAdder tagsCreated = new LongAdder();
+
+	private PackageFilter packageFilter = PackageFilter.NONE;
+
+	private StampWindow stampWindow = StampWindow.ALL;
+
+	public ParallelTagParser(ForkJoinPool pool)
+	{
+		this.pool = pool;
+	}
+
+	public void setPackageFilter(PackageFilter packageFilter)
+	{
+		this.packageFilter = packageFilter;
+	}
+
+	public void setStampWindow(StampWindow stampWindow)
+	{
+		this.stampWindow = stampWindow;
+	}
+
+	public long getTagsCreated()
+	{
+		return tagsCreated.sum();
+	}
+
+	/**
+	 * @param stopped
+	 *            checked between tags, no more tags are handled once it is true
+	 */
+	public void parse(List<NumberedLine> lines, Predicate<String> skipLine, ITagHandler handler, BooleanSupplier stopped)
+	{
+		List<Integer> batchEnds = findBatchEnds(lines, skipLine);
+
+		if (DEBUG_LOGGING)
+		{
+			logger.debug("Parsing {} lines in {} batches", lines.size(), batchEnds.size());
+		}
+
+		int window = Math.max(1, pool.getParallelism() * 4);
+
+		int batchStart = 0;
+
+		for (int windowStart = 0; windowStart < batchEnds.size() && !stopped.getAsBoolean(); windowStart += window)
+		{
+			int windowEnd = Math.min(batchEnds.size(), windowStart + window);
+
+			List<ForkJoinTask<List<ParsedTag>>> tasks = new ArrayList<>(windowEnd - windowStart);
+
+			for (int i = windowStart; i < windowEnd; i++)
+			{
+				final int start = batchStart;
+				final int end = batchEnds.get(i);
+
+				tasks.add(pool.submit(() -> parseBatch(lines, start, end, skipLine)));
+
+				batchStart = end;
+			}
+
+			for (ForkJoinTask<List<ParsedTag>> task : tasks)
+			{
+				if (stopped.getAsBoolean())
+				{
+					task.cancel(false);
+					continue;
+				}
+
+				for (ParsedTag parsedTag : task.join())
+				{
+					if (stopped.getAsBoolean())
+					{
+						break;
+					}
+
+					handler.handleTag(parsedTag.tag, parsedTag.lineNumber, parsedTag.startOffset, parsedTag.endOffset);
+				}
+			}
+		}
+	}
+
+	private List<ParsedTag> parseBatch(List<NumberedLine> lines, int start, int end, Predicate<String> skipLine)
+	{
+		List<ParsedTag> result = new ArrayList<>();
+
+		TagProcessor tagProcessor = new TagProcessor();
+		tagProcessor.setPackageFilter(packageFilter);
+		tagProcessor.setStampWindow(stampWindow);
+
+		long tagStartOffset = -1;
+
+		for (int i = start; i < end; i++)
+		{
+			NumberedLine numberedLine = lines.get(i);
+
+			String line = numberedLine.getLine();
+
+			if (!skipLine.test(line))
+			{
+				try
+				{
+					if (tagProcessor.getTopTagName() == null)
+					{
+						tagStartOffset = numberedLine.getOffset();
+					}
+
+					Tag tag = tagProcessor.processLine(line);
+
+					if (tag != null)
+					{
+						long tagEndOffset = (tagStartOffset != -1) ? numberedLine.getEndOffset() : -1;
+
+						result.add(new ParsedTag(tag, numberedLine.getLineNumber(), tagStartOffset, tagEndOffset));
+					}
+				}
+				catch (Exception ex)
+				{
+					logger.error("Exception handling: '{}'", line, ex);
+				}
+			}
+		}
+
+		tagsCreated.add(tagProcessor.getTagsCreated());
+
+		return result;
+	}
+
+	// Mirrors the open/close bookkeeping of TagProcessor to find the lines after
+	// which it has no open tag, then groups those points into batches
+	private List<Integer> findBatchEnds(List<NumberedLine> lines, Predicate<String> skipLine)
+	{
+		List<Integer> batchEnds = new ArrayList<>();
+
+		Deque<String> openTags = new ArrayDeque<>();
+
+		int linesInBatch = 0;
+
+		int size = lines.size();
+
+		for (int i = 0; i < size; i++)
+		{
+			String line = lines.get(i).getLine();
+
+			linesInBatch++;
+
+			if (!skipLine.test(line) && line.length() > 3 && line.charAt(0) == C_OPEN_ANGLE)
+			{
+				trackTag(line, openTags);
+			}
+
+			if (openTags.isEmpty() && linesInBatch >= BATCH_LINES)
+			{
+				batchEnds.add(i + 1);
+				linesInBatch = 0;
+			}
+		}
+
+		if (linesInBatch > 0)
+		{
+			batchEnds.add(size);
+		}
+
+		return batchEnds;
+	}
+
+	private void trackTag(String line, Deque<String> openTags)
+	{
+		if (line.charAt(1) == C_SLASH)
+		{
+			String closeName = line.substring(2, line.length() - 1);
+
+			if (!openTags.isEmpty())
+			{
+				if (closeName.equals(openTags.peek()))
+				{
+					openTags.pop();
+				}
+				else if (S_FRAGMENT.equals(closeName))
+				{
+					// TagProcessor returns the truncated top-level tag
+					openTags.clear();
+				}
+			}
+		}
+		else
+		{
+			boolean selfClosing = (line.charAt(line.length() - 2) == C_SLASH);
+
+			if (!selfClosing)
+			{
+				int indexEndName = line.indexOf(C_SPACE);
+
+				if (indexEndName == -1)
+				{
+					indexEndName = line.indexOf(C_CLOSE_ANGLE);
+				}
+
+				if (indexEndName != -1)
+				{
+					String name = line.substring(1, indexEndName);
+
+					// a top-level <fragment> is dropped by TagProcessor
+					if (!(openTags.isEmpty() && S_FRAGMENT.equals(name)))
+					{
+						openTags.push(name);
+					}
+				}
+			}
+		}
+	}
+}
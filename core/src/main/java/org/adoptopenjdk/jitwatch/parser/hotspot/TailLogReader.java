@@ -0,0 +1,148 @@
+package org.adoptopenjdk.jitwatch.parser.hotspot;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Follows a log file that is still being written. Each call returns the
+ * complete lines appended since the previous call, a trailing partial line is
+ * held back until its newline has been written. Bytes are read from the last
+ * consumed offset so no part of the file is read twice.
+ */
+public class TailLogReader implements Closeable
+{
+	private static final int READ_SIZE = 256 * 1024;
+
+	// bounds the work done per call so a long existing log is taken in steps
+	private static final int MAX_READ_PER_CALL = 16 * READ_SIZE;
+
+	private static final byte BYTE_LF = '\n';
+	private static final byte BYTE_CR = '\r';
+
+	private final FileChannel channel;
+	private final ByteBuffer buffer = ByteBuffer.allocate(READ_SIZE);
+
+	private byte[] pending = new byte[1024];
+	private int pendingLength = 0;
+
+	private long position = 0;
+
+	public TailLogReader(File logFile) throws IOException
+	{
+		this.channel = FileChannel.open(logFile.toPath(), StandardOpenOption.READ);
+	}
+
+	/**
+	 * @return the offset after the last complete line returned
+	 */
+	public long getConsumedOffset()
+	{
+		return position - pendingLength;
+	}
+
+	/**
+	 * @return true if the file is now shorter than the bytes already read, as
+	 *         when it has been replaced by a new run
+	 */
+	public boolean isTruncated() throws IOException
+	{
+		return channel.size() < position;
+	}
+
+	/**
+	 * @return the complete lines appended since the last call, empty when
+	 *         nothing new has been written
+	 */
+	public List<String> readNewLines() throws IOException
+	{
+		List<String> lines = new ArrayList<>();
+
+		int total = 0;
+
+		while (total < MAX_READ_PER_CALL)
+		{
+			buffer.clear();
+
+			int read = channel.read(buffer, position);
+
+			if (read <= 0)
+			{
+				break;
+			}
+
+			position += read;
+			total += read;
+
+			byte[] bytes = buffer.array();
+
+			int lineStart = 0;
+
+			for (int i = 0; i < read; i++)
+			{
+				if (bytes[i] == BYTE_LF)
+				{
+					if (pendingLength > 0)
+					{
+						appendPending(bytes, lineStart, i);
+
+						lines.add(decodeLine(pending, 0, pendingLength));
+
+						pendingLength = 0;
+					}
+					else
+					{
+						lines.add(decodeLine(bytes, lineStart, i));
+					}
+
+					lineStart = i + 1;
+				}
+			}
+
+			appendPending(bytes, lineStart, read);
+		}
+
+		return lines;
+	}
+
+	private void appendPending(byte[] bytes, int start, int end)
+	{
+		int length = end - start;
+
+		if (length > 0)
+		{
+			if (pendingLength + length > pending.length)
+			{
+				byte[] bigger = new byte[Math.max(pending.length * 2, pendingLength + length)];
+				System.arraycopy(pending, 0, bigger, 0, pendingLength);
+				pending = bigger;
+			}
+
+			System.arraycopy(bytes, start, pending, pendingLength, length);
+
+			pendingLength += length;
+		}
+	}
+
+	private static String decodeLine(byte[] bytes, int start, int end)
+	{
+		if (end > start && bytes[end - 1] == BYTE_CR)
+		{
+			end--;
+		}
+
+		return new String(bytes, start, end - start, StandardCharsets.UTF_8);
+	}
+
+	@Override
+	public void close() throws IOException
+	{
+		channel.close();
+	}
+}
@@ -13,12 +13,14 @@ import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.TAG_TASK_QUEUED;
 import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.Reader;
+import java.util.List;
 
 import org.adoptopenjdk.jitwatch.core.IJITListener;
 import org.adoptopenjdk.jitwatch.model.NumberedLine;
 import org.adoptopenjdk.jitwatch.model.Tag;
 import org.adoptopenjdk.jitwatch.model.Task;
 import org.adoptopenjdk.jitwatch.parser.AbstractLogParser;
+import org.adoptopenjdk.jitwatch.parser.ParseStats.Phase;
 
 public class J9LogParser extends AbstractLogParser
 {
@@ -33,8 +35,18 @@ public class J9LogParser extends AbstractLogParser
 	@Override
 	protected void parseLogFile()
 	{
-		for (NumberedLine numberedLine : splitLog.getCompilationLines())
+		parseStats.startPhase(Phase.COMPILATIONS);
+
+		List<NumberedLine> compilationLines = splitLog.getCompilationLines();
+
+		int lineCount = compilationLines.size();
+
+		for (int i = 0; reading && i < lineCount; i++)
 		{
+			NumberedLine numberedLine = compilationLines.get(i);
+
+			updateProgress(Phase.COMPILATIONS, compilationLines, i);
+
 			processLineNumber = numberedLine.getLineNumber();
 
 			J9Line j9Line = J9Util.parseLine(numberedLine.getLine());
@@ -67,6 +79,8 @@ public class J9LogParser extends AbstractLogParser
 				handleTag(tagTask);
 			}
 		}
+
+		parseStats.endPhase(Phase.COMPILATIONS);
 	}
 
 	@Override
@@ -109,6 +123,8 @@ public class J9LogParser extends AbstractLogParser
 
 			while (reading && currentLine != null)
 			{
+				parseStats.addLine(currentLine.length());
+
 				try
 				{
 					String trimmedLine = currentLine.trim();
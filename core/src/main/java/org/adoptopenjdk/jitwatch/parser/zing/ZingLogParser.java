@@ -14,6 +14,7 @@ import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.Reader;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -24,6 +25,7 @@ import org.adoptopenjdk.jitwatch.model.NumberedLine;
 import org.adoptopenjdk.jitwatch.model.Tag;
 import org.adoptopenjdk.jitwatch.model.Task;
 import org.adoptopenjdk.jitwatch.parser.AbstractLogParser;
+import org.adoptopenjdk.jitwatch.parser.ParseStats.Phase;
 import org.adoptopenjdk.jitwatch.util.ParseUtil;
 
 public class ZingLogParser extends AbstractLogParser
@@ -296,8 +298,18 @@ public class ZingLogParser extends AbstractLogParser
 	@Override
 	protected void parseLogFile()
 	{
-		for (NumberedLine numberedLine : splitLog.getCompilationLines())
+		parseStats.startPhase(Phase.COMPILATIONS);
+
+		List<NumberedLine> compilationLines = splitLog.getCompilationLines();
+
+		int lineCount = compilationLines.size();
+
+		for (int i = 0; reading && i < lineCount; i++)
 		{
+			NumberedLine numberedLine = compilationLines.get(i);
+
+			updateProgress(Phase.COMPILATIONS, compilationLines, i);
+
 			processLineNumber = numberedLine.getLineNumber();
 
 			ZingLine zingLine = parseLine(numberedLine.getLine());
@@ -343,6 +355,8 @@ public class ZingLogParser extends AbstractLogParser
 			}
 
 		}
+
+		parseStats.endPhase(Phase.COMPILATIONS);
 	}
 
 	@Override
@@ -356,6 +370,8 @@ public class ZingLogParser extends AbstractLogParser
 
 			while (reading && currentLine != null)
 			{
+				parseStats.addLine(currentLine.length());
+
 				try
 				{
 					String trimmedLine = currentLine.trim();
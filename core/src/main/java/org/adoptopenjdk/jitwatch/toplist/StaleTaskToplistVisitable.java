@@ -8,11 +8,9 @@ package org.adoptopenjdk.jitwatch.toplist;
 import java.util.HashMap;
 import java.util.Map;
 
-import org.adoptopenjdk.jitwatch.compilation.CompilationUtil;
 import org.adoptopenjdk.jitwatch.model.Compilation;
 import org.adoptopenjdk.jitwatch.model.IMetaMember;
 import org.adoptopenjdk.jitwatch.model.IReadOnlyJITDataModel;
-import org.adoptopenjdk.jitwatch.model.Task;
 
 public class StaleTaskToplistVisitable extends AbstractTopListVisitable
 {
@@ -32,9 +30,7 @@ public class StaleTaskToplistVisitable extends AbstractTopListVisitable
 
 			for (Compilation compilation : metaMember.getCompilations())
 			{
-				Task taskTag = compilation.getTagTask();
-
-				if (taskTag != null && CompilationUtil.isStaleTask(taskTag))
+				if (compilation.isStaleTask())
 				{
 					if (staleCompilationCountMap.containsKey(metaMember))
 					{
@@ -47,36 +47,8 @@ public final class OSUtil
 
 	public static Architecture getArchitecture()
 	{
-		String arch = System.getProperty("os.arch");
+		Architecture result = Architecture.parseFromArchName(System.getProperty("os.arch"));
 
-		if (arch != null)
-		{
-			arch = arch.toLowerCase();
-
-			if (arch.contains("arm") || arch.contains("aarch"))
-			{
-				if (arch.contains("64"))
-				{
-					return Architecture.ARM_64;
-				}
-				else
-				{
-					return Architecture.ARM_32;
-				}
-			}
-			else if (arch.contains("86"))
-			{
-				if (arch.contains("64"))
-				{
-					return Architecture.X86_64;
-				}
-				else
-				{
-					return Architecture.X86_32;
-				}
-			}
-		}
-
-		return Architecture.X86_64;
+		return (result != null) ? result : Architecture.X86_64;
 	}
 }
\ No newline at end of file
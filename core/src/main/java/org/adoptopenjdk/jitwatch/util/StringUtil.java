@@ -94,6 +94,54 @@ public final class StringUtil
 		return result;
 	}
 
+	/**
+	 * @return the value as a double quoted JSON string
+	 */
+	public static String quoteJSON(String value)
+	{
+		StringBuilder builder = new StringBuilder();
+
+		builder.append(C_DOUBLE_QUOTE);
+
+		for (int i = 0; i < value.length(); i++)
+		{
+			char c = value.charAt(i);
+
+			switch (c)
+			{
+			case '"':
+				builder.append("\\\"");
+				break;
+			case '\\':
+				builder.append("\\\\");
+				break;
+			case '\n':
+				builder.append("\\n");
+				break;
+			case '\r':
+				builder.append("\\r");
+				break;
+			case '\t':
+				builder.append("\\t");
+				break;
+			default:
+				if (c < 0x20)
+				{
+					builder.append(String.format("\\u%04x", (int) c));
+				}
+				else
+				{
+					builder.append(c);
+				}
+				break;
+			}
+		}
+
+		builder.append(C_DOUBLE_QUOTE);
+
+		return builder.toString();
+	}
+
 	public static String repeat(char c, int count)
 	{
 		StringBuilder builder = new StringBuilder();
@@ -6,6 +6,7 @@
 package org.adoptopenjdk.jitwatch.util;
 
 import org.adoptopenjdk.jitwatch.model.Tag;
+import org.adoptopenjdk.jitwatch.model.assembly.Architecture;
 import org.adoptopenjdk.jitwatch.logger.Logger;
 import org.adoptopenjdk.jitwatch.logger.LoggerFactory;
 
@@ -13,6 +14,23 @@ public class VmVersionDetector
 {
 	private static final Logger logger = LoggerFactory.getLogger(VmVersionDetector.class);
 
+	public static Architecture getArchitectureFromHotSpotTag(Tag tagVmVersion)
+	{
+		Architecture result = null;
+
+		if (tagVmVersion != null)
+		{
+			Tag tagInfo = tagVmVersion.getFirstNamedChild("info");
+
+			if (tagInfo != null && tagInfo.getTextContent() != null)
+			{
+				result = Architecture.parseFromVmInfo(tagInfo.getTextContent().trim());
+			}
+		}
+
+		return result;
+	}
+
 	public static int getMajorVersionFromHotSpotTag(Tag tagVmVersion)
 	{
 		int result = 0;
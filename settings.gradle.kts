@@ -14,3 +14,4 @@ plugins {
 rootProject.name = "jitwatch4i"
 include("core")
 include("nasm")
+include("benchmarks")
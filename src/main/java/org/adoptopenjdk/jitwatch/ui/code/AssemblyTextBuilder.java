@@ -1,19 +1,19 @@
 package org.adoptopenjdk.jitwatch.ui.code;
 
-import capstone.Capstone;
 import capstone.api.Instruction;
 import com.intellij.openapi.diagnostic.Logger;
 import org.adoptopenjdk.jitwatch.model.Compilation;
 import org.adoptopenjdk.jitwatch.model.IMetaMember;
+import org.adoptopenjdk.jitwatch.model.assembly.Architecture;
 import org.adoptopenjdk.jitwatch.model.assembly.AssemblyBlock;
 import org.adoptopenjdk.jitwatch.model.assembly.AssemblyInstruction;
 import org.adoptopenjdk.jitwatch.model.assembly.AssemblyMethod;
 import org.adoptopenjdk.jitwatch.util.StringUtil;
 
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.*;
@@ -34,9 +34,26 @@ public class AssemblyTextBuilder
         }
     }
 
+    private static final int ASSEMBLY_CACHE_SIZE = 16;
+
     private final List<AssemblyLine> lines;
     private IMetaMember currentMember;
 
+    // the most recently viewed rendered assembly by compile_id and log offset,
+    // bounded so it does not pin methods the log loader has evicted
+    private final Map<String, List<AssemblyLine>> assemblyCache = new LinkedHashMap<String, List<AssemblyLine>>(16, 0.75f, true)
+    {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, List<AssemblyLine>> eldest)
+        {
+            return size() > ASSEMBLY_CACHE_SIZE;
+        }
+    };
+
+    private final CapstoneDisassembler disassembler = new CapstoneDisassembler();
+
     public AssemblyTextBuilder()
     {
         lines = new ArrayList<>();
@@ -82,58 +99,17 @@ public class AssemblyTextBuilder
 
             if (asmMethod != null)
             {
-                int annoWidth = asmMethod.getMaxAnnotationWidth();
-                String annoPad = StringUtil.repeat(C_SPACE, annoWidth);
-                String header = asmMethod.getHeader();
-
-                if (header != null)
-                {
-                    String[] headerLines = header.split(S_NEWLINE);
+                String cacheKey = compilation.getCompileID() + C_AT + asmMethod.getLogStartOffset();
 
-                    for (String headerLine : headerLines)
-                    {
-                        lines.add(new AssemblyLine(annoPad + headerLine, null));
-                    }
-                }
+                List<AssemblyLine> cached = assemblyCache.get(cacheKey);
 
-                for (AssemblyBlock block : asmMethod.getBlocks())
+                if (cached == null)
                 {
-                    String title = block.getTitle();
-
-                    if (title != null)
-                    {
-                        lines.add(new AssemblyLine(annoPad + title, null));
-                    }
-
-                    for (final AssemblyInstruction instr : block.getInstructions())
-                    {
-                        List<String> commentLines = instr.getCommentLines();
-
-                        if (commentLines.size() == 0)
-                        {
-                            String line = instr.toString(annoWidth, 0, true);
-                            if (!instr.getHexaCode().isEmpty())
-                            {
-                                line = disassembly(line);
-                            }
-                            AssemblyLine assemblyLine = new AssemblyLine(line, instr);
-                            lines.add(assemblyLine);
-                        }
-                        else
-                        {
-                            for (int i = 0; i < commentLines.size(); i++)
-                            {
-                                String line = instr.toString(annoWidth, i, true);
-                                if (!instr.getHexaCode().isEmpty())
-                                {
-                                    line = disassembly(line);
-                                }
-                                AssemblyLine assemblyLine = new AssemblyLine(line, instr);
-                                lines.add(assemblyLine);
-                            }
-                        }
-                    }
+                    cached = buildAssemblyLines(asmMethod);
+                    assemblyCache.put(cacheKey, cached);
                 }
+
+                lines.addAll(cached);
             }
             else
             {
@@ -145,79 +121,201 @@ public class AssemblyTextBuilder
             lines.add(new AssemblyLine("No compilation selected for this member.", null));
         }
     }
-    private static final String PART_ADDRESS = "(0x[a-f0-9]+):";
-    private static final String PART_INSTRUCTION = "([0-9a-fA-F]+(?:[\\s\\|]+[0-9a-fA-F]+)*)";
-    private static final String PART_COMMENT1 = "([;#].*)?";
-    private static final String PART_COMMENT2 = "([;#].*)";
 
-    private static final Pattern PATTERN_HEXA_CODE_INSTRUCTION = Pattern
-            .compile("^" + PART_ADDRESS + "\\s+" + PART_INSTRUCTION + PART_COMMENT1);
+    /**
+     * Forgets the rendered assembly, compile_ids are only unique within a log
+     */
+    public void clearCache()
+    {
+        assemblyCache.clear();
+    }
+
+    public void dispose()
+    {
+        clearCache();
+        disassembler.close();
+    }
 
-    private String disassembly(String line)
+    private List<AssemblyLine> buildAssemblyLines(AssemblyMethod asmMethod)
     {
-        String result = line;
-        Matcher m = PATTERN_HEXA_CODE_INSTRUCTION.matcher(line);
-        if (m.find())
+        List<AssemblyLine> result = new ArrayList<>();
+
+        // decode for the machine that wrote the log, not the one viewing it
+        Architecture architecture = asmMethod.getArchitecture();
+
+        int annoWidth = asmMethod.getMaxAnnotationWidth();
+        String annoPad = StringUtil.repeat(C_SPACE, annoWidth);
+        String header = asmMethod.getHeader();
+
+        if (header != null)
+        {
+            String[] headerLines = header.split(S_NEWLINE);
+
+            for (String headerLine : headerLines)
+            {
+                result.add(new AssemblyLine(annoPad + headerLine, null));
+            }
+        }
+
+        for (AssemblyBlock block : asmMethod.getBlocks())
         {
-            long address = Long.parseUnsignedLong(m.group(1).substring(2), 16);
-            String codeStr = m.group(2);
-            String comment = m.group(3);
+            String title = block.getTitle();
 
-            if (comment == null)
+            if (title != null)
             {
-                comment = "";
+                result.add(new AssemblyLine(annoPad + title, null));
             }
 
-            String[] byteGroups = codeStr.trim().split("\\s+|\\|");
-            List<Byte> byteList = new ArrayList<>();
+            // consecutive hex dump lines form one code blob as instructions
+            // can straddle the lines of the dump
+            List<AssemblyInstruction> hexaRun = new ArrayList<>();
+            long hexaRunEnd = 0;
 
-            for (String group : byteGroups)
+            for (final AssemblyInstruction instr : block.getInstructions())
             {
-                String hex = group.toLowerCase().trim();
-                for (int i = 0; i < hex.length(); i+=2)
+                if (instr.getHexaCode().isEmpty())
                 {
-                    String byteHex = hex.substring(i, Math.min(i+2, hex.length()));
-                    byteList.add((byte) Integer.parseInt(byteHex, 16));
+                    disassembleRun(architecture, hexaRun, annoWidth, result);
+                    addInstructionLines(instr, annoWidth, 0, result);
+                }
+                else
+                {
+                    if (!hexaRun.isEmpty() && instr.getAddress() != hexaRunEnd)
+                    {
+                        disassembleRun(architecture, hexaRun, annoWidth, result);
+                    }
+
+                    hexaRun.add(instr);
+                    hexaRunEnd = instr.getAddress() + CapstoneDisassembler.hexToBytes(instr.getHexaCode(), null, 0);
                 }
             }
 
-            byte[] codeBytes = new byte[byteList.size()];
-            for (int i = 0; i < byteList.size(); i++)
+            disassembleRun(architecture, hexaRun, annoWidth, result);
+        }
+
+        return result;
+    }
+
+    private void addInstructionLines(AssemblyInstruction instr, int annoWidth, int firstCommentLine, List<AssemblyLine> result)
+    {
+        int lineCount = Math.max(1, instr.getCommentLines().size());
+
+        for (int i = firstCommentLine; i < lineCount; i++)
+        {
+            result.add(new AssemblyLine(instr.toString(annoWidth, i, true), instr));
+        }
+    }
+
+    private void disassembleRun(Architecture architecture, List<AssemblyInstruction> hexaRun, int annoWidth, List<AssemblyLine> result)
+    {
+        if (hexaRun.isEmpty())
+        {
+            return;
+        }
+
+        Instruction[] insns = null;
+
+        try
+        {
+            int size = 0;
+
+            for (AssemblyInstruction instr : hexaRun)
             {
-                codeBytes[i] = byteList.get(i);
+                size = CapstoneDisassembler.hexToBytes(instr.getHexaCode(), null, size);
             }
 
-            String osArch = System.getProperty("os.arch");
+            byte[] code = new byte[size];
 
-            int arch;
-            int mode;
+            int pos = 0;
 
-            if (osArch != null && (osArch.contains("aarch64") || osArch.contains("arm64"))) {
-                arch = Capstone.CS_ARCH_ARM64;
-                mode = Capstone.CS_MODE_ARM;
-            } else {
-                arch = Capstone.CS_ARCH_X86;
-                mode = Capstone.CS_MODE_64;
+            for (AssemblyInstruction instr : hexaRun)
+            {
+                pos = CapstoneDisassembler.hexToBytes(instr.getHexaCode(), code, pos);
             }
 
-            try (Capstone cs = new Capstone(arch, mode))
+            insns = disassembler.disassemble(architecture, code, hexaRun.get(0).getAddress());
+        }
+        catch (Exception e)
+        {
+            logger.error("Dissembly failed.", e);
+        }
+
+        int instrIndex = 0;
+
+        if (insns != null)
+        {
+            boolean instrStarted = false;
+
+            for (Instruction insn : insns)
             {
-                Instruction[] insns = cs.disasm(codeBytes, address);
-                if (insns != null && insns.length > 0)
+                // move to the dump line holding the start of this instruction
+                while (instrIndex + 1 < hexaRun.size() && hexaRun.get(instrIndex + 1).getAddress() <= insn.getAddress())
                 {
-                    for (Instruction insn : insns)
+                    if (!instrStarted)
                     {
-                        result = String.format("0x%x:\t%s\t%s %s\n", insn.getAddress(), insn.getMnemonic(), insn.getOpStr(), comment);
+                        addCommentLines(hexaRun.get(instrIndex), annoWidth, result);
                     }
+
+                    instrIndex++;
+                    instrStarted = false;
+                }
+
+                AssemblyInstruction instr = hexaRun.get(instrIndex);
+
+                String comment = S_EMPTY;
+
+                if (!instrStarted && !instr.getCommentLines().isEmpty())
+                {
+                    comment = instr.getCommentLines().get(0);
                 }
+
+                result.add(new AssemblyLine(String.format("0x%x:\t%s\t%s %s", insn.getAddress(), insn.getMnemonic(), insn.getOpStr(), comment), instr));
+
+                if (!instrStarted)
+                {
+                    addInstructionLines(instr, annoWidth, 1, result);
+                    instrStarted = true;
+                }
+            }
+
+            if (instrStarted)
+            {
+                instrIndex++;
             }
-            catch (Exception e)
+
+            if (insns.length > 0)
             {
-                logger.error("Dissembly failed.", e);
-                result = line;
+                Instruction last = insns[insns.length - 1];
+
+                long decodedEnd = last.getAddress() + last.getSize();
+
+                // dump lines wholly inside the last decoded instruction
+                while (instrIndex < hexaRun.size() && hexaRun.get(instrIndex).getAddress() < decodedEnd)
+                {
+                    addCommentLines(hexaRun.get(instrIndex), annoWidth, result);
+                    instrIndex++;
+                }
             }
         }
-        return result;
+
+        // anything Capstone could not decode is shown as the raw dump
+        for (int i = instrIndex; i < hexaRun.size(); i++)
+        {
+            addInstructionLines(hexaRun.get(i), annoWidth, 0, result);
+        }
+
+        hexaRun.clear();
+    }
+
+    private void addCommentLines(AssemblyInstruction instr, int annoWidth, List<AssemblyLine> result)
+    {
+        List<String> commentLines = instr.getCommentLines();
+
+        if (!commentLines.isEmpty())
+        {
+            result.add(new AssemblyLine(StringUtil.repeat(C_SPACE, annoWidth) + commentLines.get(0), instr));
+            addInstructionLines(instr, annoWidth, 1, result);
+        }
     }
 
     public String getText()
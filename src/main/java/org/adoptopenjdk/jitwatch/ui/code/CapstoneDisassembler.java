@@ -0,0 +1,125 @@
+package org.adoptopenjdk.jitwatch.ui.code;
+
+import capstone.Capstone;
+import capstone.api.Instruction;
+import org.adoptopenjdk.jitwatch.model.assembly.Architecture;
+import org.adoptopenjdk.jitwatch.util.OSUtil;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Decodes raw machine code with Capstone. Opening a Capstone handle is a
+ * native call, so one handle per architecture/mode is kept open until close()
+ * releases them. The owner closes it when its viewer is disposed.
+ */
+public class CapstoneDisassembler
+{
+    private final Map<Long, Capstone> handles = new HashMap<>();
+
+    /**
+     * @param architecture the target of the log, the host architecture is
+     *                     used when it is not known
+     */
+    public synchronized Instruction[] disassemble(Architecture architecture, byte[] code, long address)
+    {
+        if (architecture == null)
+        {
+            architecture = OSUtil.getArchitecture();
+        }
+
+        int arch;
+        int mode;
+
+        switch (architecture)
+        {
+        case X86_32:
+            arch = Capstone.CS_ARCH_X86;
+            mode = Capstone.CS_MODE_32;
+            break;
+        case ARM_32:
+            arch = Capstone.CS_ARCH_ARM;
+            mode = Capstone.CS_MODE_ARM;
+            break;
+        case ARM_64:
+            arch = Capstone.CS_ARCH_ARM64;
+            mode = Capstone.CS_MODE_ARM;
+            break;
+        case X86_64:
+        default:
+            arch = Capstone.CS_ARCH_X86;
+            mode = Capstone.CS_MODE_64;
+            break;
+        }
+
+        long key = ((long) arch << 32) | (mode & 0xffffffffL);
+
+        Capstone capstone = handles.computeIfAbsent(key, k -> new Capstone(arch, mode));
+
+        return capstone.disasm(code, address);
+    }
+
+    /**
+     * Closes the open handles, a later disassemble opens them again
+     */
+    public synchronized void close()
+    {
+        for (Capstone capstone : handles.values())
+        {
+            capstone.close();
+        }
+
+        handles.clear();
+    }
+
+    /**
+     * Writes the bytes of a HotSpot hex dump such as "4889 8424 | 00c0" into
+     * dest. Each group is read as pairs of hex digits, an odd trailing digit is
+     * a byte on its own. With a null dest only the byte count is computed.
+     *
+     * @return the position after the last byte written
+     */
+    public static int hexToBytes(String hexaCode, byte[] dest, int offset)
+    {
+        int pos = offset;
+        int pending = -1;
+
+        for (int i = 0; i < hexaCode.length(); i++)
+        {
+            int digit = Character.digit(hexaCode.charAt(i), 16);
+
+            if (digit == -1)
+            {
+                if (pending != -1)
+                {
+                    put(dest, pos++, pending);
+                    pending = -1;
+                }
+            }
+            else if (pending == -1)
+            {
+                pending = digit;
+            }
+            else
+            {
+                put(dest, pos++, (pending << 4) | digit);
+                pending = -1;
+            }
+        }
+
+        if (pending != -1)
+        {
+            put(dest, pos++, pending);
+        }
+
+        return pos;
+    }
+
+    private static void put(byte[] dest, int pos, int value)
+    {
+        if (dest != null)
+        {
+            dest[pos] = (byte) value;
+        }
+    }
+}
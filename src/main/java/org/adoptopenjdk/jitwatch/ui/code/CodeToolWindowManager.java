@@ -9,6 +9,7 @@ import com.intellij.openapi.editor.event.CaretEvent;
 import com.intellij.openapi.editor.event.CaretListener;
 import com.intellij.openapi.fileEditor.*;
 import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.Disposer;
 import com.intellij.openapi.vfs.VirtualFile;
 import com.intellij.openapi.wm.ToolWindow;
 import com.intellij.pom.Navigatable;
@@ -61,6 +62,9 @@ public class CodeToolWindowManager implements ICompilationChangeListener
 
         ContentManager contentManager = toolWindow.getContentManager();
 
+        Disposer.register(contentManager, byteCodePanel);
+        Disposer.register(contentManager, assemblyPanel);
+
         project.getMessageBus().connect(contentManager).subscribe(FileEditorManagerListener.FILE_EDITOR_MANAGER, new FileEditorManagerListener()
         {
             @Override
@@ -83,7 +87,11 @@ public class CodeToolWindowManager implements ICompilationChangeListener
         }, contentManager);
 
         updateContentFromSelectedEditor();
-        modelService.addUpdateListener(this::updateContentFromSelectedEditor);
+        modelService.addUpdateListener(() ->
+        {
+            assemblyPanel.modelChanged();
+            updateContentFromSelectedEditor();
+        });
     }
 
     @Override
@@ -97,4 +97,16 @@ public class ViewerAssembly extends CodePanelBase
     {
         return assemblyTextBuilder.getIndexForSourceLine(metaMember, sourceLine);
     }
+
+    public void modelChanged()
+    {
+        assemblyTextBuilder.clearCache();
+    }
+
+    @Override
+    public void dispose()
+    {
+        assemblyTextBuilder.dispose();
+        super.dispose();
+    }
 }
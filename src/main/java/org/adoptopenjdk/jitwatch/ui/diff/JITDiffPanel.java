@@ -0,0 +1,216 @@
+package org.adoptopenjdk.jitwatch.ui.diff;
+
+import com.intellij.ui.JBSplitter;
+import com.intellij.ui.components.JBScrollPane;
+import com.intellij.ui.components.JBTextArea;
+import com.intellij.ui.table.JBTable;
+import org.adoptopenjdk.jitwatch.diff.InlineChange;
+import org.adoptopenjdk.jitwatch.diff.JITDiffResult;
+import org.adoptopenjdk.jitwatch.diff.JITDiffWriter;
+import org.adoptopenjdk.jitwatch.diff.MemberDelta;
+import org.adoptopenjdk.jitwatch.diff.MemberProfile;
+import org.adoptopenjdk.jitwatch.diff.RunProfile;
+
+import javax.swing.*;
+import javax.swing.table.DefaultTableModel;
+import java.awt.*;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+
+public class JITDiffPanel extends JPanel
+{
+    private static final String[] COLUMNS = new String[] { "Score", "Status", "Member", "Compilations", "Levels",
+            "Compile ms", "Native bytes", "Inline regressions", "Lost eliminations", "_" };
+
+    private final JITDiffResult result;
+
+    private DefaultTableModel tableModel;
+    private JBTable tableView;
+    private JBTextArea textAreaDetail;
+
+    public JITDiffPanel(JITDiffResult result)
+    {
+        this.result = result;
+
+        setLayout(new BorderLayout());
+
+        JBTextArea textAreaSummary = new JBTextArea();
+        textAreaSummary.setFont(new Font(Font.MONOSPACED, Font.PLAIN, 12));
+        textAreaSummary.setEditable(false);
+        textAreaSummary.setText(getSummary());
+
+        JButton buttonCSV = new JButton("Export CSV...");
+        buttonCSV.addActionListener(e -> export(JITDiffWriter.toCSV(result, 0), "csv"));
+
+        JButton buttonJSON = new JButton("Export JSON...");
+        buttonJSON.addActionListener(e -> export(JITDiffWriter.toJSON(result, 0), "json"));
+
+        JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
+        buttonPanel.add(buttonCSV);
+        buttonPanel.add(buttonJSON);
+
+        JPanel topPanel = new JPanel(new BorderLayout());
+        topPanel.add(textAreaSummary, BorderLayout.CENTER);
+        topPanel.add(buttonPanel, BorderLayout.SOUTH);
+
+        tableModel = new DefaultTableModel()
+        {
+            @Override
+            public Class<?> getColumnClass(int columnIndex)
+            {
+                return (columnIndex == 0) ? Long.class : Object.class;
+            }
+
+            @Override
+            public boolean isCellEditable(int row, int column)
+            {
+                return false;
+            }
+        };
+
+        tableModel.setColumnIdentifiers(COLUMNS);
+
+        tableView = new JBTable(tableModel);
+        tableView.setAutoCreateRowSorter(true);
+        tableView.removeColumn(tableView.getColumnModel().getColumn(COLUMNS.length - 1));
+        tableView.getColumnModel().getColumn(0).setMaxWidth(80);
+        tableView.getColumnModel().getColumn(1).setMaxWidth(80);
+        tableView.getColumnModel().getColumn(2).setPreferredWidth(600);
+
+        for (MemberDelta delta : result.getDeltas())
+        {
+            MemberProfile before = delta.getBaseline();
+            MemberProfile after = delta.getCandidate();
+
+            tableModel.addRow(new Object[] { delta.getScore(), delta.getStatus(), delta.getSignature(),
+                    change(before == null ? null : before.getCompilations(), after == null ? null : after.getCompilations()),
+                    change(before == null ? null : before.getLevelsText(), after == null ? null : after.getLevelsText()),
+                    change(before == null ? null : before.getCompileTime(), after == null ? null : after.getCompileTime()),
+                    change(before == null ? null : before.getNativeSize(), after == null ? null : after.getNativeSize()),
+                    delta.getInlineRegressions().size(), delta.getLostEliminations().size(), delta });
+        }
+
+        textAreaDetail = new JBTextArea();
+        textAreaDetail.setFont(new Font(Font.MONOSPACED, Font.PLAIN, 12));
+        textAreaDetail.setEditable(false);
+
+        tableView.getSelectionModel().addListSelectionListener(event ->
+        {
+            int selectedRow = tableView.getSelectedRow();
+
+            if (selectedRow >= 0)
+            {
+                int modelRow = tableView.convertRowIndexToModel(selectedRow);
+                showDetail((MemberDelta) tableModel.getValueAt(modelRow, COLUMNS.length - 1));
+            }
+        });
+
+        JBSplitter splitter = new JBSplitter(true, 0.7f);
+        splitter.setFirstComponent(new JBScrollPane(tableView));
+        splitter.setSecondComponent(new JBScrollPane(textAreaDetail));
+
+        add(topPanel, BorderLayout.NORTH);
+        add(splitter, BorderLayout.CENTER);
+    }
+
+    public String getTitle()
+    {
+        return "JIT Diff";
+    }
+
+    private String getSummary()
+    {
+        StringBuilder builder = new StringBuilder();
+
+        appendRun(builder, "Baseline ", result.getBaseline());
+        appendRun(builder, "Candidate", result.getCandidate());
+
+        builder.append(result.getDeltas().size()).append(" members changed, ");
+        builder.append(result.getInlineRegressionCount()).append(" inlining regressions, ");
+        builder.append(result.getLostEliminationCount()).append(" lost allocation eliminations");
+
+        return builder.toString();
+    }
+
+    private void appendRun(StringBuilder builder, String title, RunProfile profile)
+    {
+        builder.append(title).append(": ").append(profile.getName());
+        builder.append("  members ").append(profile.getMemberCount());
+        builder.append("  compilations ").append(profile.getCompilationCount());
+        builder.append("  native bytes ").append(profile.getNativeBytes());
+        builder.append("  code cache full ").append(profile.getCodeCacheFullCount());
+        builder.append("  sweeps ").append(profile.getSweeperCount());
+        builder.append("  min free code cache ").append(profile.getMinFreeCodeCache());
+        builder.append("  parse errors ").append(profile.getParseErrorCount());
+        builder.append("\n");
+    }
+
+    private void showDetail(MemberDelta delta)
+    {
+        StringBuilder builder = new StringBuilder();
+
+        builder.append(delta.getSignature()).append("\n\n");
+        builder.append("Before: ").append(delta.getBaseline()).append("\n");
+        builder.append("After:  ").append(delta.getCandidate()).append("\n");
+
+        appendInlineChanges(builder, "Inlined before but not after", delta.getInlineRegressions());
+        appendInlineChanges(builder, "Inlined after but not before", delta.getInlineImprovements());
+
+        if (!delta.getLostEliminations().isEmpty())
+        {
+            builder.append("\nAllocations no longer eliminated: ").append(String.join(", ", delta.getLostEliminations())).append("\n");
+        }
+
+        if (!delta.getNewEliminations().isEmpty())
+        {
+            builder.append("\nAllocations newly eliminated: ").append(String.join(", ", delta.getNewEliminations())).append("\n");
+        }
+
+        textAreaDetail.setText(builder.toString());
+        textAreaDetail.setCaretPosition(0);
+    }
+
+    private void appendInlineChanges(StringBuilder builder, String title, List<InlineChange> changes)
+    {
+        if (!changes.isEmpty())
+        {
+            builder.append("\n").append(title).append(":\n");
+
+            for (InlineChange change : changes)
+            {
+                builder.append("  ").append(change).append("\n");
+            }
+        }
+    }
+
+    private static String change(Object before, Object after)
+    {
+        String beforeText = (before == null) ? "-" : before.toString();
+        String afterText = (after == null) ? "-" : after.toString();
+
+        return beforeText.equals(afterText) ? beforeText : beforeText + " -> " + afterText;
+    }
+
+    private void export(String content, String extension)
+    {
+        JFileChooser fileChooser = new JFileChooser();
+        fileChooser.setDialogTitle("Export JIT diff");
+        fileChooser.setSelectedFile(new File("jitdiff." + extension));
+
+        if (fileChooser.showSaveDialog(this) == JFileChooser.APPROVE_OPTION)
+        {
+            try
+            {
+                Files.write(fileChooser.getSelectedFile().toPath(), content.getBytes(StandardCharsets.UTF_8));
+            }
+            catch (IOException ioe)
+            {
+                JOptionPane.showMessageDialog(this, "Could not write " + fileChooser.getSelectedFile() + ": " + ioe.getMessage(),
+                        "Export JIT diff", JOptionPane.ERROR_MESSAGE);
+            }
+        }
+    }
+}
@@ -0,0 +1,191 @@
+package org.adoptopenjdk.jitwatch.ui.fleet;
+
+import com.intellij.ui.JBSplitter;
+import com.intellij.ui.components.JBScrollPane;
+import com.intellij.ui.table.JBTable;
+import org.adoptopenjdk.jitwatch.diff.InlineOutcome;
+import org.adoptopenjdk.jitwatch.diff.MemberProfile;
+import org.adoptopenjdk.jitwatch.fleet.FleetMemberProfile;
+import org.adoptopenjdk.jitwatch.fleet.FleetModel;
+import org.adoptopenjdk.jitwatch.fleet.FleetWriter;
+
+import javax.swing.*;
+import javax.swing.table.DefaultTableModel;
+import java.awt.*;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Map;
+
+public class FleetPanel extends JPanel
+{
+    private static final String[] MEMBER_COLUMNS = new String[] { "Member", "JVMs", "Compilations", "Native bytes p50",
+            "Native bytes p90", "Compile ms p90", "Inline failures", "Most failed callee", "JVMs not inlining it" };
+
+    private static final String[] JVM_COLUMNS = new String[] { "Log", "Compilations", "Levels", "Compile ms", "Native bytes",
+            "Inline failures" };
+
+    private final FleetModel model;
+
+    private DefaultTableModel memberTableModel;
+    private JBTable memberTable;
+    private DefaultTableModel jvmTableModel;
+
+    public FleetPanel(FleetModel model)
+    {
+        this.model = model;
+
+        setLayout(new BorderLayout());
+
+        JLabel labelSummary = new JLabel(getSummary());
+
+        JButton buttonCSV = new JButton("Export CSV...");
+        buttonCSV.addActionListener(e -> export(FleetWriter.toCSV(model, 0), "csv"));
+
+        JButton buttonJSON = new JButton("Export JSON...");
+        buttonJSON.addActionListener(e -> export(FleetWriter.toJSON(model, 0), "json"));
+
+        JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
+        buttonPanel.add(buttonCSV);
+        buttonPanel.add(buttonJSON);
+
+        JPanel topPanel = new JPanel(new BorderLayout());
+        topPanel.add(labelSummary, BorderLayout.CENTER);
+        topPanel.add(buttonPanel, BorderLayout.SOUTH);
+
+        memberTableModel = new DefaultTableModel()
+        {
+            @Override
+            public Class<?> getColumnClass(int columnIndex)
+            {
+                return (columnIndex == 0 || columnIndex == 7) ? Object.class : Long.class;
+            }
+
+            @Override
+            public boolean isCellEditable(int row, int column)
+            {
+                return false;
+            }
+        };
+
+        memberTableModel.setColumnIdentifiers(MEMBER_COLUMNS);
+
+        memberTable = new JBTable(memberTableModel);
+        memberTable.setAutoCreateRowSorter(true);
+        memberTable.getColumnModel().getColumn(0).setPreferredWidth(600);
+        memberTable.getColumnModel().getColumn(7).setPreferredWidth(300);
+
+        for (FleetMemberProfile member : model.getMembers())
+        {
+            String callee = member.getMostFailedCallee();
+
+            memberTableModel.addRow(new Object[] { member.getSignature(), (long) member.getJVMCount(),
+                    (long) member.getCompilations(), (long) member.getNativeSizePercentile(50),
+                    (long) member.getNativeSizePercentile(90), member.getCompileTimePercentile(90),
+                    (long) member.getInlineFailures(), (callee == null) ? "" : callee,
+                    (callee == null) ? 0L : (long) member.getJVMsNotInlined(callee) });
+        }
+
+        jvmTableModel = new DefaultTableModel()
+        {
+            @Override
+            public boolean isCellEditable(int row, int column)
+            {
+                return false;
+            }
+        };
+
+        jvmTableModel.setColumnIdentifiers(JVM_COLUMNS);
+
+        JBTable jvmTable = new JBTable(jvmTableModel);
+        jvmTable.setAutoCreateRowSorter(true);
+
+        memberTable.getSelectionModel().addListSelectionListener(event ->
+        {
+            int selectedRow = memberTable.getSelectedRow();
+
+            if (!event.getValueIsAdjusting() && selectedRow >= 0)
+            {
+                int modelRow = memberTable.convertRowIndexToModel(selectedRow);
+                showJVMs((String) memberTableModel.getValueAt(modelRow, 0));
+            }
+        });
+
+        JBSplitter splitter = new JBSplitter(true, 0.7f);
+        splitter.setFirstComponent(new JBScrollPane(memberTable));
+        splitter.setSecondComponent(new JBScrollPane(jvmTable));
+
+        add(topPanel, BorderLayout.NORTH);
+        add(splitter, BorderLayout.CENTER);
+    }
+
+    public String getTitle()
+    {
+        return "Fleet";
+    }
+
+    private String getSummary()
+    {
+        StringBuilder builder = new StringBuilder();
+
+        builder.append(model.getRuns().size()).append(" logs");
+
+        if (!model.getFailedLogs().isEmpty())
+        {
+            builder.append(" (").append(model.getFailedLogs().size()).append(" could not be parsed: ");
+            builder.append(String.join(", ", model.getFailedLogs().keySet())).append(")");
+        }
+
+        builder.append(", ").append(model.getMemberCount()).append(" compiled members");
+        builder.append(", native bytes ").append(model.getNativeBytes());
+        builder.append(", code cache full ").append(model.getCodeCacheFullCount());
+
+        if (model.getParseErrorCount() > 0)
+        {
+            builder.append(", parse errors ").append(model.getParseErrorCount());
+        }
+
+        return builder.toString();
+    }
+
+    private void showJVMs(String signature)
+    {
+        jvmTableModel.setRowCount(0);
+
+        for (Map.Entry<String, MemberProfile> entry : model.getRunMembers(signature).entrySet())
+        {
+            MemberProfile profile = entry.getValue();
+
+            int failures = 0;
+
+            for (InlineOutcome outcome : profile.getInlining().values())
+            {
+                failures += outcome.getFailures();
+            }
+
+            jvmTableModel.addRow(new Object[] { entry.getKey(), profile.getCompilations(), profile.getLevelsText(),
+                    profile.getCompileTime(), profile.getNativeSize(), failures });
+        }
+    }
+
+    private void export(String content, String extension)
+    {
+        JFileChooser fileChooser = new JFileChooser();
+        fileChooser.setDialogTitle("Export fleet");
+        fileChooser.setSelectedFile(new File("fleet." + extension));
+
+        if (fileChooser.showSaveDialog(this) == JFileChooser.APPROVE_OPTION)
+        {
+            try
+            {
+                Files.write(fileChooser.getSelectedFile().toPath(), content.getBytes(StandardCharsets.UTF_8));
+            }
+            catch (IOException ioe)
+            {
+                JOptionPane.showMessageDialog(this, "Could not write " + fileChooser.getSelectedFile() + ": " + ioe.getMessage(),
+                        "Export fleet", JOptionPane.ERROR_MESSAGE);
+            }
+        }
+    }
+}
@@ -5,9 +5,7 @@
  */
 package org.adoptopenjdk.jitwatch.ui.main;
 
-import org.adoptopenjdk.jitwatch.compilation.CompilationUtil;
 import org.adoptopenjdk.jitwatch.model.Compilation;
-import org.adoptopenjdk.jitwatch.model.Task;
 import org.adoptopenjdk.jitwatch.util.StringUtil;
 
 public class CompilationTableRow
@@ -81,9 +79,7 @@ public class CompilationTableRow
 		{
 			result = "NA";
 
-			Task task = compilation.getTagTask();
-
-			if (task != null && CompilationUtil.isStaleTask(task))
+			if (compilation.isStaleTask())
 			{
 				result = "Stale task";
 			}
@@ -17,6 +17,7 @@ import com.intellij.openapi.progress.ProgressManager;
 import com.intellij.openapi.progress.Task;
 import com.intellij.openapi.project.Project;
 import com.intellij.openapi.ui.ComboBox;
+import com.intellij.openapi.ui.Messages;
 import com.intellij.ui.JBSplitter;
 import com.intellij.ui.components.JBScrollPane;
 import com.intellij.ui.content.Content;
@@ -28,11 +29,18 @@ import org.adoptopenjdk.jitwatch.core.ErrorLog;
 import org.adoptopenjdk.jitwatch.core.IJITListener;
 import org.adoptopenjdk.jitwatch.core.JITWatchConfig;
 import org.adoptopenjdk.jitwatch.core.JITWatchConstants;
+import org.adoptopenjdk.jitwatch.diff.JITDiff;
+import org.adoptopenjdk.jitwatch.diff.JITDiffResult;
+import org.adoptopenjdk.jitwatch.fleet.FleetAggregator;
+import org.adoptopenjdk.jitwatch.fleet.FleetModel;
 import org.adoptopenjdk.jitwatch.model.*;
 import org.adoptopenjdk.jitwatch.parser.ILogParseErrorListener;
 import org.adoptopenjdk.jitwatch.parser.ILogParser;
+import org.adoptopenjdk.jitwatch.parser.ParseStats;
 import org.adoptopenjdk.jitwatch.parser.ParserFactory;
 import org.adoptopenjdk.jitwatch.parser.ParserType;
+import org.adoptopenjdk.jitwatch.parser.StampWindow;
+import org.adoptopenjdk.jitwatch.parser.hotspot.HotSpotLogParser;
 import org.adoptopenjdk.jitwatch.report.Report;
 import org.adoptopenjdk.jitwatch.report.comparator.ScoreComparator;
 import org.adoptopenjdk.jitwatch.report.escapeanalysis.eliminatedallocation.EliminatedAllocationWalker;
@@ -40,10 +48,13 @@ import org.adoptopenjdk.jitwatch.report.locks.OptimisedLocksWalker;
 import org.adoptopenjdk.jitwatch.report.suggestion.SuggestionWalker;
 import org.adoptopenjdk.jitwatch.ui.code.*;
 import org.adoptopenjdk.jitwatch.ui.compilechain.CompileChainPanel;
+import org.adoptopenjdk.jitwatch.ui.diff.JITDiffPanel;
+import org.adoptopenjdk.jitwatch.ui.fleet.FleetPanel;
 import org.adoptopenjdk.jitwatch.ui.graphing.CodeCachePanel;
 import org.adoptopenjdk.jitwatch.ui.graphing.HistoPanel;
 import org.adoptopenjdk.jitwatch.ui.graphing.TimeLinePanel;
 import org.adoptopenjdk.jitwatch.ui.journal.JournalPanel;
+import org.adoptopenjdk.jitwatch.ui.stats.ParseStatsPanel;
 import org.adoptopenjdk.jitwatch.ui.log.LogPanel;
 import org.adoptopenjdk.jitwatch.ui.nmethod.codecache.CodeCacheLayoutPanel;
 import org.adoptopenjdk.jitwatch.ui.nmethod.compilerthread.CompilerThreadPanel;
@@ -53,6 +64,7 @@ import org.adoptopenjdk.jitwatch.ui.report.ReportPanel;
 import org.adoptopenjdk.jitwatch.ui.report.ReportStageType;
 import org.adoptopenjdk.jitwatch.ui.toplist.TopListPanel;
 import org.adoptopenjdk.jitwatch.util.RollingStringBuilder;
+import org.adoptopenjdk.jitwatch.util.StringUtil;
 import org.jetbrains.annotations.NotNull;
 
 import javax.swing.*;
@@ -71,6 +83,7 @@ import java.util.Enumeration;
 import java.util.List;
 
 import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.DEFAULT_PACKAGE_NAME;
+import static org.adoptopenjdk.jitwatch.core.JITWatchConstants.S_COMMA;
 
 public class JITWatchUI implements IJITListener, ILogParseErrorListener, IStageAccessProxy,
         IMemberSelectedListener, IParserSelectedListener
@@ -127,6 +140,12 @@ public class JITWatchUI implements IJITListener, ILogParseErrorListener, IStageA
     private Content optimizedLockContent;
     private JournalPanel journalPanel;
     private Content journalContent;
+    private ParseStatsPanel parseStatsPanel;
+    private Content parseStatsContent;
+    private JITDiffPanel jitDiffPanel;
+    private Content jitDiffContent;
+    private FleetPanel fleetPanel;
+    private Content fleetContent;
 
     private LogPanel logPanel;
     private Content logContent;
@@ -154,6 +173,11 @@ public class JITWatchUI implements IJITListener, ILogParseErrorListener, IStageA
 
     private long parseStartTime;
 
+    private ParseStats parseStats;
+
+    // set while a log is loaded in the background, cancelling it stops the parser
+    private volatile ProgressIndicator loadIndicator;
+
     private String[] compilationTableColumnNames = {
             "Queued",
             "Compile Start",
@@ -178,14 +202,26 @@ public class JITWatchUI implements IJITListener, ILogParseErrorListener, IStageA
             codeToolWindowManager = JitWatchCodeUtil.registerToolWindows(project, this);
         }
 
-        ProgressManager.getInstance().run(new Task.Backgroundable(project, "Loading compilation log", false)
+        ProgressManager.getInstance().run(new Task.Backgroundable(project, "Loading compilation log", true)
         {
             @Override
             public void run(@NotNull ProgressIndicator indicator)
             {
+                loadIndicator = indicator;
+
                 try
                 {
                     logParser.processLogFile(jitLogFile, JITWatchUI.this);
+
+                    if (isDiscardingStoppedLoad())
+                    {
+                        logParser.reset();
+                        JitWatchModelService.getInstance(project).setParserResult(null);
+                        clear();
+                        log("Discarded the partially built model, enable \"Keep Partial Model On Stop\" to explore it");
+                        return;
+                    }
+
                     JitWatchModelService.getInstance(project).setParserResult(logParser);
                     SwingUtilities.invokeLater(() ->
                     {
@@ -201,6 +237,247 @@ public class JITWatchUI implements IJITListener, ILogParseErrorListener, IStageA
                 {
                     log("Exception during log processing: " + ioe.toString());
                 }
+                finally
+                {
+                    loadIndicator = null;
+                }
+            }
+        });
+    }
+
+    // applied from the next load, patterns are comma separated package names
+    private void editPackageFilter()
+    {
+        String includes = Messages.showInputDialog(project,
+                "Only keep compilations in these packages (empty for all):", "Package Filter", null,
+                StringUtil.listToText(getConfig().getIncludePackages(), S_COMMA), null);
+
+        if (includes == null)
+        {
+            return;
+        }
+
+        String excludes = Messages.showInputDialog(project,
+                "Drop compilations in these packages:", "Package Filter", null,
+                StringUtil.listToText(getConfig().getExcludePackages(), S_COMMA), null);
+
+        if (excludes == null)
+        {
+            return;
+        }
+
+        getConfig().setIncludePackages(StringUtil.textToList(includes, S_COMMA));
+        getConfig().setExcludePackages(StringUtil.textToList(excludes, S_COMMA));
+        getConfig().saveConfig();
+
+        log("Package filter for the next load: " + getConfig().getPackageFilter());
+    }
+
+    private void editStampWindow()
+    {
+        String window = Messages.showInputDialog(project,
+                "Only keep compilations queued between these log stamps in seconds, as start,end (empty for all):",
+                "Stamp Window", null, getConfig().getStampWindow().toText(), null);
+
+        if (window == null)
+        {
+            return;
+        }
+
+        try
+        {
+            getConfig().setStampWindow(StampWindow.parse(window));
+        }
+        catch (IllegalArgumentException iae)
+        {
+            Messages.showErrorDialog(project, iae.getMessage(), "Stamp Window");
+            return;
+        }
+
+        getConfig().saveConfig();
+
+        log("Stamp window for the next load: " + getConfig().getStampWindow());
+    }
+
+    // both logs are parsed again on their own parsers so the loaded model is
+    // left as it is
+    private void compareWithLog()
+    {
+        if (jitLogFile == null)
+        {
+            Messages.showErrorDialog(project, "Open the baseline log first", "Compare With Log");
+            return;
+        }
+
+        JFileChooser fileChooser = new JFileChooser();
+        fileChooser.setDialogTitle("Choose the JIT log to compare with " + jitLogFile.getName());
+        fileChooser.setFileSelectionMode(JFileChooser.FILES_ONLY);
+        fileChooser.setCurrentDirectory(jitLogFile.getParentFile());
+
+        if (fileChooser.showOpenDialog(mainPanel) != JFileChooser.APPROVE_OPTION)
+        {
+            return;
+        }
+
+        final File baselineLog = jitLogFile;
+        final File candidateLog = fileChooser.getSelectedFile();
+        final ParserType parserType = (ParserType) parserChooser.getCombo().getSelectedItem();
+
+        ProgressManager.getInstance().run(new Task.Backgroundable(project, "Comparing compilation logs", false)
+        {
+            @Override
+            public void run(@NotNull ProgressIndicator indicator)
+            {
+                try
+                {
+                    JITDiffResult result = new JITDiff(parserType, getConfig(), JITWatchUI.this).diff(baselineLog, candidateLog);
+
+                    log("Compared " + baselineLog.getName() + " with " + candidateLog.getName() + ": " + result.getDeltas().size()
+                            + " members changed");
+
+                    SwingUtilities.invokeLater(() -> showJITDiff(result));
+                }
+                catch (IOException ioe)
+                {
+                    log("Exception while comparing logs: " + ioe.toString());
+                }
+            }
+        });
+    }
+
+    private void showJITDiff(JITDiffResult result)
+    {
+        if (jitDiffContent != null)
+        {
+            contentManager.removeContent(jitDiffContent, true);
+        }
+
+        jitDiffPanel = new JITDiffPanel(result);
+        jitDiffContent = contentManager.getFactory().createContent(jitDiffPanel, jitDiffPanel.getTitle(), false);
+        contentManager.addContent(jitDiffContent, 1);
+        contentManager.setSelectedContent(jitDiffContent);
+    }
+
+    // the logs are parsed on parsers of their own so the loaded model is left
+    // as it is
+    private void openFleet()
+    {
+        JFileChooser fileChooser = new JFileChooser();
+        fileChooser.setDialogTitle("Choose a directory of JIT logs from the same build");
+        fileChooser.setFileSelectionMode(JFileChooser.DIRECTORIES_ONLY);
+
+        if (jitLogFile != null)
+        {
+            fileChooser.setCurrentDirectory(jitLogFile.getParentFile());
+        }
+
+        if (fileChooser.showOpenDialog(mainPanel) != JFileChooser.APPROVE_OPTION)
+        {
+            return;
+        }
+
+        final File directory = fileChooser.getSelectedFile();
+        final ParserType parserType = (ParserType) parserChooser.getCombo().getSelectedItem();
+
+        ProgressManager.getInstance().run(new Task.Backgroundable(project, "Merging fleet logs", false)
+        {
+            @Override
+            public void run(@NotNull ProgressIndicator indicator)
+            {
+                try
+                {
+                    List<File> logFiles = FleetAggregator.findLogs(directory.getPath());
+
+                    if (logFiles.isEmpty())
+                    {
+                        log("No .log files found in " + directory);
+                        return;
+                    }
+
+                    FleetModel model = new FleetAggregator(parserType, getConfig(), JITWatchUI.this, 0).aggregate(logFiles);
+
+                    log("Merged " + model.getRuns().size() + " of " + logFiles.size() + " logs in " + directory + ": "
+                            + model.getMemberCount() + " compiled members");
+
+                    SwingUtilities.invokeLater(() -> showFleet(model));
+                }
+                catch (IOException ioe)
+                {
+                    log("Exception while merging fleet logs: " + ioe.toString());
+                }
+            }
+        });
+    }
+
+    private void showFleet(FleetModel model)
+    {
+        if (fleetContent != null)
+        {
+            contentManager.removeContent(fleetContent, true);
+        }
+
+        fleetPanel = new FleetPanel(model);
+        fleetContent = contentManager.getFactory().createContent(fleetPanel, fleetPanel.getTitle(), false);
+        contentManager.addContent(fleetContent, 1);
+        contentManager.setSelectedContent(fleetContent);
+    }
+
+    // a followed log is always stopped, its model is kept
+    private boolean isDiscardingStoppedLoad()
+    {
+        return loadIndicator != null && logParser.isStopped() && !getConfig().isKeepPartialModel();
+    }
+
+    // follows a log that a running JVM is still writing, the panels are
+    // refreshed by the timer as the model grows
+    private void tailLogFile()
+    {
+        closeAllTabs();
+
+        if (codeToolWindowManager == null)
+        {
+            codeToolWindowManager = JitWatchCodeUtil.registerToolWindows(project, this);
+        }
+
+        if (!listenerCompilationChanged.contains(codeToolWindowManager))
+        {
+            listenerCompilationChanged.add(codeToolWindowManager);
+        }
+
+        final HotSpotLogParser hotSpotLogParser = (HotSpotLogParser) logParser;
+
+        ProgressManager.getInstance().run(new Task.Backgroundable(project, "Following compilation log", false)
+        {
+            @Override
+            public void run(@NotNull ProgressIndicator indicator)
+            {
+                try
+                {
+                    JitWatchModelService.getInstance(project).setParserResult(logParser);
+
+                    SwingUtilities.invokeLater(() -> openAllTabs());
+
+                    hotSpotLogParser.tailLogFile(jitLogFile, JITWatchUI.this);
+                }
+                catch (IOException ioe)
+                {
+                    log("Exception while following log: " + ioe.toString());
+                }
+            }
+        });
+    }
+
+    @Override
+    public void handleReadUpdate()
+    {
+        repaintTree = true;
+
+        SwingUtilities.invokeLater(new Runnable()
+        {
+            @Override
+            public void run()
+            {
+                notifyCompilationChanged(selectedMember);
             }
         });
     }
@@ -210,6 +487,7 @@ public class JITWatchUI implements IJITListener, ILogParseErrorListener, IStageA
     {
         parseStartTime = System.currentTimeMillis();
         isReadingLogFile = true;
+        parseStats = null;
         clear();
 
         SwingUtilities.invokeLater(new Runnable()
@@ -255,6 +533,32 @@ public class JITWatchUI implements IJITListener, ILogParseErrorListener, IStageA
         });
     }
 
+    @Override
+    public void handleParseStats(ParseStats parseStats)
+    {
+        this.parseStats = parseStats;
+    }
+
+    @Override
+    public void handleReadProgress(ParseStats.Phase phase, double fraction)
+    {
+        ProgressIndicator indicator = loadIndicator;
+
+        if (indicator != null)
+        {
+            if (indicator.isCanceled())
+            {
+                logParser.stopParsing();
+            }
+            else
+            {
+                indicator.setIndeterminate(false);
+                indicator.setText2(phase.getDisplayName());
+                indicator.setFraction(fraction);
+            }
+        }
+    }
+
     @Override
     public void handleReadComplete()
     {
@@ -262,10 +566,29 @@ public class JITWatchUI implements IJITListener, ILogParseErrorListener, IStageA
         log("Finished reading log file within=" + totalParseTime + "ms.");
 
         isReadingLogFile = false;
+
+        if (isDiscardingStoppedLoad())
+        {
+            return;
+        }
+
+        if (parseStats != null)
+        {
+            parseStats.startPhase(ParseStats.Phase.REPORTS);
+        }
+
         buildSuggestions();
         buildEliminatedAllocationReport();
         buildOptimisedLocksReport();
 
+        if (parseStats != null)
+        {
+            parseStats.endPhase(ParseStats.Phase.REPORTS);
+
+            log("Parsed " + parseStats.getLines() + " lines at " + parseStats.getLinesPerSecond()
+                    + " lines/s, reports took " + parseStats.getWallNanos(ParseStats.Phase.REPORTS) / 1_000_000 + "ms.");
+        }
+
         SwingUtilities.invokeLater(new Runnable()
         {
             @Override
@@ -273,6 +596,11 @@ public class JITWatchUI implements IJITListener, ILogParseErrorListener, IStageA
             {
                 updateButtons();
                 notifyCompilationChanged(selectedMember);
+
+                if (parseStatsPanel != null)
+                {
+                    parseStatsPanel.setParseStats(parseStats);
+                }
             }
         });
 
@@ -366,6 +694,36 @@ public class JITWatchUI implements IJITListener, ILogParseErrorListener, IStageA
             }
         };
 
+        AnAction followLogAction = new AnAction("Follow the JIT log of a running JVM", "Follow Live Log", AllIcons.Actions.Resume)
+        {
+            @Override
+            public void actionPerformed(@NotNull AnActionEvent e)
+            {
+                stopParsing();
+                SwingUtilities.invokeLater(() ->
+                {
+                    File lastLogPath = getLastLogPathFromSelectedRunConfiguration(project);
+
+                    if (lastLogPath != null)
+                    {
+                        setJITLogFile(lastLogPath);
+                        tailLogFile();
+                    }
+                    else if (chooseJITLog(project))
+                    {
+                        tailLogFile();
+                    }
+                });
+            }
+
+            @Override
+            public void update(@NotNull AnActionEvent e)
+            {
+                Presentation presentation = e.getPresentation();
+                presentation.setEnabled(!isReadingLogFile && logParser instanceof HotSpotLogParser);
+            }
+        };
+
         AnAction stopAction = new AnAction("Stop loading", "Stop", AllIcons.Actions.Suspend)
         {
             @Override
@@ -395,6 +753,7 @@ public class JITWatchUI implements IJITListener, ILogParseErrorListener, IStageA
         DefaultActionGroup actionGroup = new DefaultActionGroup();
 
         actionGroup.add(openLogAction);
+        actionGroup.add(followLogAction);
         actionGroup.add(stopAction);
         actionGroup.add(resetAction);
 
@@ -454,6 +813,122 @@ public class JITWatchUI implements IJITListener, ILogParseErrorListener, IStageA
             }
         });
 
+        popupGroup.add(new ToggleAction("Streaming Parse (Low Memory)")
+        {
+            @Override
+            public boolean isSelected(@NotNull AnActionEvent e)
+            {
+                return getConfig().isStreamingParse();
+            }
+
+            @Override
+            public void setSelected(@NotNull AnActionEvent e, boolean state)
+            {
+                getConfig().setStreamingParse(state);
+                getConfig().saveConfig();
+            }
+        });
+
+        popupGroup.add(new ToggleAction("Parallel Parse (Memory-Mapped)")
+        {
+            @Override
+            public boolean isSelected(@NotNull AnActionEvent e)
+            {
+                return getConfig().isParallelParse();
+            }
+
+            @Override
+            public void setSelected(@NotNull AnActionEvent e, boolean state)
+            {
+                getConfig().setParallelParse(state);
+                getConfig().saveConfig();
+            }
+        });
+
+        popupGroup.add(new ToggleAction("Keep Partial Model On Stop")
+        {
+            @Override
+            public boolean isSelected(@NotNull AnActionEvent e)
+            {
+                return getConfig().isKeepPartialModel();
+            }
+
+            @Override
+            public void setSelected(@NotNull AnActionEvent e, boolean state)
+            {
+                getConfig().setKeepPartialModel(state);
+                getConfig().saveConfig();
+            }
+        });
+
+        popupGroup.add(new ToggleAction("Reuse Parsed Model Snapshot")
+        {
+            @Override
+            public boolean isSelected(@NotNull AnActionEvent e)
+            {
+                return getConfig().isModelSnapshot();
+            }
+
+            @Override
+            public void setSelected(@NotNull AnActionEvent e, boolean state)
+            {
+                getConfig().setModelSnapshot(state);
+                getConfig().saveConfig();
+            }
+        });
+
+        popupGroup.add(new AnAction("Package Filter...")
+        {
+            @Override
+            public void actionPerformed(@NotNull AnActionEvent e)
+            {
+                editPackageFilter();
+            }
+        });
+
+        popupGroup.add(new AnAction("Stamp Window...")
+        {
+            @Override
+            public void actionPerformed(@NotNull AnActionEvent e)
+            {
+                editStampWindow();
+            }
+        });
+
+        popupGroup.add(new ToggleAction("Use Log Index For Stamp Window")
+        {
+            @Override
+            public boolean isSelected(@NotNull AnActionEvent e)
+            {
+                return getConfig().isLogIndex();
+            }
+
+            @Override
+            public void setSelected(@NotNull AnActionEvent e, boolean state)
+            {
+                getConfig().setLogIndex(state);
+                getConfig().saveConfig();
+            }
+        });
+
+        popupGroup.add(new AnAction("Compare With Log...")
+        {
+            @Override
+            public void actionPerformed(@NotNull AnActionEvent e)
+            {
+                compareWithLog();
+            }
+        });
+
+        popupGroup.add(new AnAction("Open Fleet...")
+        {
+            @Override
+            public void actionPerformed(@NotNull AnActionEvent e)
+            {
+                openFleet();
+            }
+        });
+
         AnAction showPopupAction = new AnAction(null, "Options", AllIcons.Actions.Show)
         {
             @Override
@@ -771,6 +1246,32 @@ public class JITWatchUI implements IJITListener, ILogParseErrorListener, IStageA
         return false;
     }
 
+    // the log written by the last launch of the selected run configuration
+    private File getLastLogPathFromSelectedRunConfiguration(Project project)
+    {
+        RunManager runManager = RunManager.getInstance(project);
+        RunnerAndConfigurationSettings selected = runManager.getSelectedConfiguration();
+        if (selected == null)
+        {
+            return null;
+        }
+
+        RunConfiguration rc = selected.getConfiguration();
+        if (!(rc instanceof RunConfigurationBase))
+        {
+            return null;
+        }
+
+        JitWatchSettings settings = JitWatchSettings.Companion.getOrCreate((RunConfigurationBase<?>) rc);
+
+        if (!settings.isEnabled())
+        {
+            return null;
+        }
+
+        return settings.getLastLogPath();
+    }
+
     private String getConfiguredLogDirFromSelectedRunConfiguration(Project project)
     {
         RunManager runManager = RunManager.getInstance(project);
@@ -1103,6 +1604,12 @@ public class JITWatchUI implements IJITListener, ILogParseErrorListener, IStageA
 //            optimizedLockContent = contentManager.getFactory().createContent(optimisedLockPanel, optimisedLockPanel.getTitle(), false);
 //            contentManager.addContent(optimizedLockContent, 1);
 //        }
+        if (parseStatsPanel == null)
+        {
+            parseStatsPanel = new ParseStatsPanel(parseStats);
+            parseStatsContent = contentManager.getFactory().createContent(parseStatsPanel, parseStatsPanel.getTitle(), false);
+            contentManager.addContent(parseStatsContent, 1);
+        }
         if (journalPanel == null)
         {
             journalPanel = new JournalPanel();
@@ -1183,6 +1690,12 @@ public class JITWatchUI implements IJITListener, ILogParseErrorListener, IStageA
 
     private void closeAllTabs()
     {
+        if (parseStatsContent != null)
+        {
+            contentManager.removeContent(parseStatsContent, true);
+            parseStatsPanel = null;
+            parseStatsContent = null;
+        }
         if (journalContent != null)
         {
             contentManager.removeContent(journalContent, true);
@@ -1249,6 +1762,18 @@ public class JITWatchUI implements IJITListener, ILogParseErrorListener, IStageA
             optimisedLockPanel = null;
             optimizedLockContent = null;
         }
+        if (jitDiffContent != null)
+        {
+            contentManager.removeContent(jitDiffContent, true);
+            jitDiffPanel = null;
+            jitDiffContent = null;
+        }
+        if (fleetContent != null)
+        {
+            contentManager.removeContent(fleetContent, true);
+            fleetPanel = null;
+            fleetContent = null;
+        }
 
         listenerCompilationChanged.clear();
     }
@@ -0,0 +1,45 @@
+package org.adoptopenjdk.jitwatch.ui.stats;
+
+import com.intellij.ui.components.JBScrollPane;
+import com.intellij.ui.components.JBTextArea;
+import org.adoptopenjdk.jitwatch.parser.ParseStats;
+
+import javax.swing.*;
+import java.awt.*;
+
+public class ParseStatsPanel extends JPanel
+{
+    private JBTextArea textAreaStats;
+
+    public ParseStatsPanel(ParseStats parseStats)
+    {
+        setLayout(new BorderLayout());
+
+        textAreaStats = new JBTextArea();
+        textAreaStats.setFont(new Font(Font.MONOSPACED, Font.PLAIN, 12));
+        textAreaStats.setEditable(false);
+        add(new JBScrollPane(textAreaStats), BorderLayout.CENTER);
+
+        setParseStats(parseStats);
+    }
+
+    public String getTitle()
+    {
+        return "Parse Stats";
+    }
+
+    // null while a followed log is still being read
+    public void setParseStats(ParseStats parseStats)
+    {
+        if (parseStats != null)
+        {
+            textAreaStats.setText(parseStats.toString());
+        }
+        else
+        {
+            textAreaStats.setText("Statistics are shown when the log has been read");
+        }
+
+        textAreaStats.setCaretPosition(0);
+    }
+}